@@ -1,13 +1,22 @@
 package co.edu.uniquindio.poo;
 
+import co.edu.uniquindio.poo.model.SistemaGestion;
 import co.edu.uniquindio.poo.utils.DataInitializer;
 import co.edu.uniquindio.poo.viewController.NavigationController;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.nio.file.Path;
+
 public class HelloApplication extends Application {
     @Override
     public void start(Stage stage) {
+        // Persistir los datos en el directorio del usuario salvo que se indique otro
+        if (System.getProperty(SistemaGestion.PROPIEDAD_DIRECTORIO_DATOS) == null) {
+            System.setProperty(SistemaGestion.PROPIEDAD_DIRECTORIO_DATOS,
+                    Path.of(System.getProperty("user.home"), ".citydrop").toString());
+        }
+        
         // Inicializar datos de prueba
         DataInitializer.inicializarDatos();
         
@@ -24,6 +33,12 @@ public class HelloApplication extends Application {
         NavigationController.navigateToLogin();
     }
 
+    @Override
+    public void stop() {
+        // Volcar la bitácora antes de salir
+        SistemaGestion.obtenerInstancia().cerrarPersistencia();
+    }
+
     public static void main(String[] args) {
         launch();
     }
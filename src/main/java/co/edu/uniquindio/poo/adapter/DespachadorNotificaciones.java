@@ -0,0 +1,355 @@
+package co.edu.uniquindio.poo.adapter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Despachador asíncrono de notificaciones sobre los ServicioNotificacion.
+ *
+ * Cada canal (el tipo de su servicio: EMAIL, SMS) tiene una cola acotada y un
+ * grupo fijo de hilos que la vacían por lotes: las notificaciones con el mismo
+ * mensaje se agrupan en una sola llamada al proveedor con hasta tamanoLote
+ * destinatarios. Encolar nunca bloquea al llamador más allá de la espera que él
+ * mismo indique; con la cola llena la notificación se rechaza y se cuenta
+ * (contrapresión). Una llamada fallida se reintenta con espera exponencial y
+ * variación aleatoria, desde un programador aparte para no ocupar los hilos del
+ * canal, hasta agotar los intentos.
+ */
+public class DespachadorNotificaciones {
+    public static final String EMAIL = "EMAIL";
+    public static final String SMS = "SMS";
+    public static final int CAPACIDAD_PREDETERMINADA = 10_000;
+    public static final int HILOS_PREDETERMINADOS = 2;
+    public static final int LOTE_PREDETERMINADO = 50;
+    public static final int INTENTOS_PREDETERMINADOS = 4;
+    public static final Duration RETARDO_BASE_PREDETERMINADO = Duration.ofMillis(200);
+    private static final long RETARDO_MAXIMO_NANOS = Duration.ofSeconds(30).toNanos();
+
+    private final Map<String, Canal> canales = new LinkedHashMap<>();
+    private final int tamanoLote;
+    private final int maxIntentos;
+    private final long retardoBaseNanos;
+    private final ScheduledExecutorService reintentos;
+    private final AtomicLong pendientes = new AtomicLong();
+    private volatile boolean activo = true;
+
+    /**
+     * Contenedor de inicialización diferida del despachador compartido sobre EmailAdapter y SMSAdapter.
+     */
+    private static class Contenedor {
+        private static final DespachadorNotificaciones INSTANCIA =
+                new DespachadorNotificaciones(List.of(new EmailAdapter(), new SMSAdapter()));
+    }
+
+    /**
+     * @return Despachador compartido con los canales EMAIL y SMS
+     */
+    public static DespachadorNotificaciones compartido() {
+        return Contenedor.INSTANCIA;
+    }
+
+    public DespachadorNotificaciones(List<ServicioNotificacion> servicios) {
+        this(servicios, CAPACIDAD_PREDETERMINADA, HILOS_PREDETERMINADOS, LOTE_PREDETERMINADO,
+                INTENTOS_PREDETERMINADOS, RETARDO_BASE_PREDETERMINADO);
+    }
+
+    /**
+     * @param servicios Un servicio por canal; el canal es su tipo
+     * @param capacidadCola Notificaciones que cada canal puede tener en espera
+     * @param hilosPorCanal Hilos que envían las notificaciones de cada canal
+     * @param tamanoLote Destinatarios máximos por llamada al proveedor
+     * @param maxIntentos Intentos de cada notificación, incluido el primero
+     * @param retardoBase Espera antes del primer reintento; se duplica en cada uno
+     */
+    public DespachadorNotificaciones(List<ServicioNotificacion> servicios, int capacidadCola, int hilosPorCanal,
+                                     int tamanoLote, int maxIntentos, Duration retardoBase) {
+        if (capacidadCola < 1 || hilosPorCanal < 1 || tamanoLote < 1 || maxIntentos < 1 || retardoBase.isNegative()) {
+            throw new IllegalArgumentException("La configuración del despachador de notificaciones debe ser positiva");
+        }
+        this.tamanoLote = tamanoLote;
+        this.maxIntentos = maxIntentos;
+        this.retardoBaseNanos = retardoBase.toNanos();
+        this.reintentos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "notificaciones-reintentos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (ServicioNotificacion servicio : servicios) {
+            Canal canal = new Canal(servicio, capacidadCola);
+            if (canales.putIfAbsent(servicio.getTipo(), canal) != null) {
+                throw new IllegalArgumentException("Canal de notificación duplicado: " + servicio.getTipo());
+            }
+            for (int i = 1; i <= hilosPorCanal; i++) {
+                Thread hilo = new Thread(() -> atender(canal),
+                        "notificaciones-" + servicio.getTipo().toLowerCase() + "-" + i);
+                hilo.setDaemon(true);
+                hilo.start();
+            }
+        }
+    }
+
+    /**
+     * Encola una notificación sin bloquear: si la cola del canal está llena, la
+     * notificación se rechaza.
+     *
+     * @param tipo Canal (EMAIL, SMS)
+     * @param destinatario Correo o teléfono del destinatario
+     * @param mensaje Mensaje a enviar
+     * @return true si se encoló; false si la cola está llena o el despachador cerrado
+     */
+    public boolean encolar(String tipo, String destinatario, String mensaje) {
+        Canal canal = canal(tipo);
+        Notificacion notificacion = new Notificacion(mensaje, Collections.singletonList(destinatario), 0,
+                System.nanoTime());
+        return aceptar(canal, notificacion, activo && canal.cola.offer(notificacion));
+    }
+
+    /**
+     * Encola el mismo mensaje para varios destinatarios, en lotes del tamaño de una
+     * llamada al proveedor. Con la cola llena espera como máximo el tiempo indicado
+     * en total; los destinatarios que no alcanzan a encolarse se rechazan.
+     *
+     * @param tipo Canal (EMAIL, SMS)
+     * @param destinatarios Destinatarios del mensaje
+     * @param mensaje Mensaje a enviar
+     * @param espera Tiempo máximo que el llamador acepta esperar por espacio en la cola
+     * @return Destinatarios encolados
+     */
+    public int encolarTodos(String tipo, List<String> destinatarios, String mensaje, Duration espera) {
+        Canal canal = canal(tipo);
+        long limite = System.nanoTime() + espera.toNanos();
+        int encolados = 0;
+        for (int desde = 0; desde < destinatarios.size(); desde += tamanoLote) {
+            List<String> parte = new ArrayList<>(destinatarios.subList(desde, Math.min(desde + tamanoLote,
+                    destinatarios.size())));
+            Notificacion notificacion = new Notificacion(mensaje, parte, 0, System.nanoTime());
+            boolean aceptada = false;
+            try {
+                aceptada = activo && canal.cola.offer(notificacion, Math.max(limite - System.nanoTime(), 0),
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (aceptar(canal, notificacion, aceptada)) {
+                encolados += parte.size();
+            }
+        }
+        return encolados;
+    }
+
+    /**
+     * @param tipo Canal (EMAIL, SMS)
+     * @return Métricas acumuladas del canal y profundidad actual de su cola
+     */
+    public EstadisticasNotificaciones estadisticas(String tipo) {
+        Canal canal = canal(tipo);
+        long entregas = canal.entregas.sum();
+        return new EstadisticasNotificaciones(tipo, canal.encoladas.sum(), canal.enviadas.sum(),
+                canal.fallidas.sum(), canal.reintentos.sum(), canal.rechazadas.sum(), canal.llamadas.sum(),
+                canal.cola.size(), entregas == 0 ? 0 : canal.latenciaTotalNanos.sum() / 1e6 / entregas,
+                canal.latenciaMaximaNanos.get() / 1e6);
+    }
+
+    /**
+     * Espera a que todas las notificaciones encoladas se envíen o se descarten,
+     * incluidas las que esperan un reintento.
+     *
+     * @param espera Tiempo máximo de espera
+     * @return true si no quedan notificaciones pendientes
+     */
+    public boolean esperarEntregas(Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        while (pendientes.get() > 0) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deja de aceptar notificaciones. Los hilos envían lo que queda en las colas
+     * y terminan; las notificaciones que esperaban un reintento se descartan.
+     */
+    public void cerrar() {
+        activo = false;
+        reintentos.shutdown();
+    }
+
+    private Canal canal(String tipo) {
+        Canal canal = canales.get(tipo);
+        if (canal == null) {
+            throw new IllegalArgumentException("Canal de notificación desconocido: " + tipo);
+        }
+        return canal;
+    }
+
+    private boolean aceptar(Canal canal, Notificacion notificacion, boolean aceptada) {
+        if (!aceptada) {
+            canal.rechazadas.add(notificacion.destinatarios.size());
+            return false;
+        }
+        pendientes.incrementAndGet();
+        canal.encoladas.add(notificacion.destinatarios.size());
+        return true;
+    }
+
+    private void atender(Canal canal) {
+        List<Notificacion> lote = new ArrayList<>(tamanoLote);
+        while (true) {
+            Notificacion primera;
+            try {
+                primera = canal.cola.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (primera == null) {
+                if (!activo) {
+                    return;
+                }
+                continue;
+            }
+            lote.add(primera);
+            canal.cola.drainTo(lote, tamanoLote - 1);
+            enviar(canal, lote);
+            lote.clear();
+        }
+    }
+
+    /**
+     * Agrupa el lote por mensaje y envía cada grupo en llamadas de hasta tamanoLote destinatarios.
+     */
+    private void enviar(Canal canal, List<Notificacion> lote) {
+        Map<String, List<Notificacion>> porMensaje = new LinkedHashMap<>();
+        for (Notificacion notificacion : lote) {
+            porMensaje.computeIfAbsent(notificacion.mensaje, mensaje -> new ArrayList<>()).add(notificacion);
+        }
+        porMensaje.forEach((mensaje, grupo) -> {
+            List<Notificacion> llamada = new ArrayList<>();
+            int destinatarios = 0;
+            for (Notificacion notificacion : grupo) {
+                if (!llamada.isEmpty() && destinatarios + notificacion.destinatarios.size() > tamanoLote) {
+                    llamar(canal, mensaje, llamada);
+                    llamada = new ArrayList<>();
+                    destinatarios = 0;
+                }
+                llamada.add(notificacion);
+                destinatarios += notificacion.destinatarios.size();
+            }
+            llamar(canal, mensaje, llamada);
+        });
+    }
+
+    private void llamar(Canal canal, String mensaje, List<Notificacion> llamada) {
+        List<String> destinatarios = new ArrayList<>();
+        for (Notificacion notificacion : llamada) {
+            destinatarios.addAll(notificacion.destinatarios);
+        }
+        canal.llamadas.increment();
+        try {
+            canal.servicio.enviarNotificaciones(destinatarios, mensaje);
+        } catch (RuntimeException e) {
+            llamada.forEach(notificacion -> reintentar(canal, notificacion));
+            return;
+        }
+        long fin = System.nanoTime();
+        canal.enviadas.add(destinatarios.size());
+        for (Notificacion notificacion : llamada) {
+            long latencia = fin - notificacion.encoladaNanos;
+            canal.entregas.increment();
+            canal.latenciaTotalNanos.add(latencia);
+            canal.latenciaMaximaNanos.accumulate(latencia);
+            pendientes.decrementAndGet();
+        }
+    }
+
+    private void reintentar(Canal canal, Notificacion notificacion) {
+        int intento = notificacion.intento + 1;
+        if (intento >= maxIntentos || !activo) {
+            descartar(canal, notificacion);
+            return;
+        }
+        // Espera exponencial con variación aleatoria entre la mitad y el total
+        long retardo = Math.min(RETARDO_MAXIMO_NANOS, retardoBaseNanos << Math.min(intento - 1, 30));
+        long conVariacion = ThreadLocalRandom.current().nextLong(retardo / 2, retardo + 1);
+        Notificacion siguiente = new Notificacion(notificacion.mensaje, notificacion.destinatarios, intento,
+                notificacion.encoladaNanos);
+        canal.reintentos.add(notificacion.destinatarios.size());
+        try {
+            reintentos.schedule(() -> {
+                if (!canal.cola.offer(siguiente)) {
+                    descartar(canal, siguiente);
+                }
+            }, conVariacion, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            descartar(canal, siguiente);
+        }
+    }
+
+    private void descartar(Canal canal, Notificacion notificacion) {
+        canal.fallidas.add(notificacion.destinatarios.size());
+        pendientes.decrementAndGet();
+        System.out.println("✗ Notificación " + canal.servicio.getTipo() + " descartada tras "
+                + (notificacion.intento + 1) + " intentos: " + notificacion.destinatarios.size() + " destinatarios");
+    }
+
+    /**
+     * Cola, servicio y métricas de un canal.
+     */
+    private static final class Canal {
+        private final ServicioNotificacion servicio;
+        private final BlockingQueue<Notificacion> cola;
+        private final LongAdder encoladas = new LongAdder();
+        private final LongAdder enviadas = new LongAdder();
+        private final LongAdder fallidas = new LongAdder();
+        private final LongAdder reintentos = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder entregas = new LongAdder();
+        private final LongAdder latenciaTotalNanos = new LongAdder();
+        private final LongAccumulator latenciaMaximaNanos = new LongAccumulator(Math::max, 0);
+
+        private Canal(ServicioNotificacion servicio, int capacidadCola) {
+            this.servicio = servicio;
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        }
+    }
+
+    /**
+     * Mensaje para uno o varios destinatarios, con el intento en curso y el
+     * instante en que se encoló por primera vez.
+     */
+    private static final class Notificacion {
+        private final String mensaje;
+        private final List<String> destinatarios;
+        private final int intento;
+        private final long encoladaNanos;
+
+        private Notificacion(String mensaje, List<String> destinatarios, int intento, long encoladaNanos) {
+            this.mensaje = mensaje;
+            this.destinatarios = destinatarios;
+            this.intento = intento;
+            this.encoladaNanos = encoladaNanos;
+        }
+    }
+}
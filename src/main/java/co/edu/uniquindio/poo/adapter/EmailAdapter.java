@@ -1,5 +1,6 @@
 package co.edu.uniquindio.poo.adapter;
 
+import java.util.List;
 
 // Adapter para el servicio de Email
 public class EmailAdapter implements ServicioNotificacion {
@@ -18,6 +19,17 @@ public class EmailAdapter implements ServicioNotificacion {
         }
     }
     
+    @Override
+    public void enviarNotificaciones(List<String> destinatarios, String mensaje) {
+        List<String> validos = destinatarios.stream().filter(servicioEmail::verificarEmail).toList();
+        if (validos.size() < destinatarios.size()) {
+            System.out.println("Emails inválidos omitidos: " + (destinatarios.size() - validos.size()));
+        }
+        if (!validos.isEmpty()) {
+            servicioEmail.enviarEmailMasivo(validos, "Notificación de Envío", mensaje);
+        }
+    }
+    
     @Override
     public String getTipo() {
         return "EMAIL";
@@ -0,0 +1,28 @@
+package co.edu.uniquindio.poo.adapter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Fotografía de las estadísticas de ServicioDistanciaCache: aciertos, fallos,
+ * entradas expulsadas por capacidad, entradas vencidas por vigencia y tamaño actual.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EstadisticasCache {
+    private final long aciertos;
+    private final long fallos;
+    private final long expulsiones;
+    private final long expiraciones;
+    private final int tamano;
+
+    /**
+     * @return Fracción de consultas resueltas desde el caché (0 si no hubo consultas)
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+}
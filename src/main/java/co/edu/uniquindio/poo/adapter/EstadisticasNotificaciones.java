@@ -0,0 +1,36 @@
+package co.edu.uniquindio.poo.adapter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Fotografía de las métricas de un canal de DespachadorNotificaciones. Los
+ * contadores se expresan en destinatarios; las llamadas son los envíos al
+ * proveedor, cada uno con un lote de destinatarios.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EstadisticasNotificaciones {
+    private final String canal;
+    private final long encoladas;
+    private final long enviadas;
+    /** Destinatarios descartados tras agotar los reintentos */
+    private final long fallidas;
+    private final long reintentos;
+    /** Destinatarios no aceptados por tener la cola llena */
+    private final long rechazadas;
+    private final long llamadas;
+    private final int profundidadCola;
+    /** Tiempo medio desde que se encoló hasta que el proveedor aceptó el envío */
+    private final double latenciaMediaMs;
+    private final double latenciaMaximaMs;
+
+    /**
+     * @return Destinatarios enviados por llamada al proveedor (0 si no hubo llamadas)
+     */
+    public double getDestinatariosPorLlamada() {
+        return llamadas == 0 ? 0 : (double) enviadas / llamadas;
+    }
+}
@@ -0,0 +1,58 @@
+package co.edu.uniquindio.poo.adapter;
+
+/**
+ * Conjunto de puntos preparado para los cálculos de distancia uno a muchos.
+ *
+ * Guarda las coordenadas en radianes junto con el coseno de cada latitud, que se
+ * calcula una sola vez al construir el lote; así un lote de candidatos (por
+ * ejemplo, las posiciones de los repartidores) se reutiliza contra muchos orígenes
+ * sin repetir funciones trigonométricas por punto.
+ */
+public final class LoteCoordenadas {
+    final double[] latitudes;
+    final double[] longitudes;
+    final double[] latitudesRad;
+    final double[] longitudesRad;
+    final double[] cosenosLatitud;
+
+    private LoteCoordenadas(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Las latitudes y longitudes deben tener el mismo tamaño");
+        }
+        int tamano = latitudes.length;
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        this.latitudesRad = new double[tamano];
+        this.longitudesRad = new double[tamano];
+        this.cosenosLatitud = new double[tamano];
+        for (int i = 0; i < tamano; i++) {
+            latitudesRad[i] = Math.toRadians(latitudes[i]);
+            longitudesRad[i] = Math.toRadians(longitudes[i]);
+            cosenosLatitud[i] = Math.cos(latitudesRad[i]);
+        }
+    }
+
+    /**
+     * Prepara un lote a partir de coordenadas en grados (los arreglos se copian).
+     *
+     * @param latitudes Latitud de cada punto
+     * @param longitudes Longitud de cada punto
+     * @return Lote con radianes y cosenos precalculados
+     * @throws IllegalArgumentException Si los arreglos tienen distinto tamaño
+     */
+    public static LoteCoordenadas de(double[] latitudes, double[] longitudes) {
+        return new LoteCoordenadas(latitudes, longitudes);
+    }
+
+    public int getTamano() {
+        return latitudes.length;
+    }
+
+    public double getLatitud(int indice) {
+        return latitudes[indice];
+    }
+
+    public double getLongitud(int indice) {
+        return longitudes[indice];
+    }
+}
@@ -50,4 +50,13 @@ public class MapasAdapter implements ServicioDistancia {
         double distancia = calcularDistancia(origen, destino);
         return servicioMapas.obtenerTiempoEstimadoMinutos(distancia);
     }
+    
+    /**
+     * Distancias uno a muchos con el cálculo por lote del servicio externo.
+     */
+    @Override
+    public void calcularDistancias(double latitudOrigen, double longitudOrigen, LoteCoordenadas destinos,
+                                   double[] distancias) {
+        servicioMapas.calcularDistanciasKm(latitudOrigen, longitudOrigen, destinos, distancias);
+    }
 }
@@ -0,0 +1,17 @@
+package co.edu.uniquindio.poo.adapter;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Par origen-destino para los cálculos de distancia por lote.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ParDirecciones {
+    private final Direccion origen;
+    private final Direccion destino;
+}
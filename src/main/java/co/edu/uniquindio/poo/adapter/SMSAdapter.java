@@ -1,5 +1,7 @@
 package co.edu.uniquindio.poo.adapter;
 
+import java.util.List;
+
 // Adapter para el servicio de SMS
 public class SMSAdapter implements ServicioNotificacion {
     private ServicioSMSExterno servicioSMS;
@@ -17,6 +19,17 @@ public class SMSAdapter implements ServicioNotificacion {
         }
     }
     
+    @Override
+    public void enviarNotificaciones(List<String> destinatarios, String mensaje) {
+        List<String> validos = destinatarios.stream().filter(servicioSMS::validarNumero).toList();
+        if (validos.size() < destinatarios.size()) {
+            System.out.println("Números de teléfono inválidos omitidos: " + (destinatarios.size() - validos.size()));
+        }
+        if (!validos.isEmpty()) {
+            servicioSMS.mandarMensajeMasivo(validos, mensaje);
+        }
+    }
+    
     @Override
     public String getTipo() {
         return "SMS";
@@ -2,6 +2,9 @@ package co.edu.uniquindio.poo.adapter;
 
 import co.edu.uniquindio.poo.model.Direccion;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interfaz del patrón Adapter para servicios de cálculo de distancia.
  * Define el contrato que espera la aplicación para calcular distancias
@@ -27,4 +30,43 @@ public interface ServicioDistancia {
      * @return Tiempo estimado en minutos
      */
     int calcularTiempoEstimado(Direccion origen, Direccion destino);
+    
+    /**
+     * Calcula la distancia de varios pares origen-destino.
+     * La implementación predeterminada los calcula uno a uno; los servicios
+     * remotos pueden resolver el lote en una sola llamada.
+     * 
+     * @param pares Pares de direcciones
+     * @return Distancia en kilómetros de cada par, en el orden de la lista
+     */
+    default double[] calcularDistancias(List<ParDirecciones> pares) {
+        double[] distancias = new double[pares.size()];
+        for (int i = 0; i < distancias.length; i++) {
+            ParDirecciones par = pares.get(i);
+            distancias[i] = calcularDistancia(par.getOrigen(), par.getDestino());
+        }
+        return distancias;
+    }
+    
+    /**
+     * Calcula la distancia desde un origen hasta cada punto de un lote (uno a muchos),
+     * por ejemplo para buscar el repartidor más cercano.
+     * La implementación predeterminada arma los pares y usa el cálculo por lote.
+     * 
+     * @param latitudOrigen Latitud del origen en grados
+     * @param longitudOrigen Longitud del origen en grados
+     * @param destinos Puntos de destino
+     * @param distancias Arreglo de salida en kilómetros, al menos del tamaño del lote
+     */
+    default void calcularDistancias(double latitudOrigen, double longitudOrigen, LoteCoordenadas destinos,
+                                    double[] distancias) {
+        Direccion origen = new Direccion.Builder(null).conCoordenadas(latitudOrigen, longitudOrigen).build();
+        List<ParDirecciones> pares = new ArrayList<>(destinos.getTamano());
+        for (int i = 0; i < destinos.getTamano(); i++) {
+            pares.add(new ParDirecciones(origen, new Direccion.Builder(null)
+                    .conCoordenadas(destinos.getLatitud(i), destinos.getLongitud(i)).build()));
+        }
+        double[] calculadas = calcularDistancias(pares);
+        System.arraycopy(calculadas, 0, distancias, 0, calculadas.length);
+    }
 }
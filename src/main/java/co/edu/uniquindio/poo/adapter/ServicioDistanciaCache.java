@@ -0,0 +1,262 @@
+package co.edu.uniquindio.poo.adapter;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.utils.Geohash;
+import lombok.EqualsAndHashCode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorador de ServicioDistancia que memoriza distancias y tiempos estimados.
+ *
+ * La clave es el par de celdas geohash del origen y el destino, así que dos
+ * consultas entre puntos de las mismas celdas (con la precisión predeterminada,
+ * unos 38 m × 19 m) comparten el resultado. El caché tiene capacidad acotada con
+ * expulsión LRU, una vigencia por entrada y estadísticas de aciertos y fallos.
+ * Las llamadas al servicio decorado se hacen fuera del candado para que un
+ * proveedor remoto lento no bloquee las consultas que sí están en caché.
+ */
+public class ServicioDistanciaCache implements ServicioDistancia {
+    public static final int CAPACIDAD_PREDETERMINADA = 10_000;
+    public static final Duration VIGENCIA_PREDETERMINADA = Duration.ofHours(1);
+    public static final int PRECISION_PREDETERMINADA = 8;
+
+    private final ServicioDistancia delegado;
+    private final long vigenciaNanos;
+    private final int precision;
+    private final LongSupplier reloj;
+    private final LinkedHashMap<ParCeldas, Entrada> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+    private final LongAdder expiraciones = new LongAdder();
+
+    /**
+     * Contenedor de inicialización diferida del caché compartido sobre MapasAdapter.
+     */
+    private static class Contenedor {
+        private static final ServicioDistanciaCache INSTANCIA = new ServicioDistanciaCache(new MapasAdapter());
+    }
+
+    /**
+     * @return Caché compartido por los controladores, sobre MapasAdapter
+     */
+    public static ServicioDistanciaCache compartido() {
+        return Contenedor.INSTANCIA;
+    }
+
+    public ServicioDistanciaCache(ServicioDistancia delegado) {
+        this(delegado, CAPACIDAD_PREDETERMINADA, VIGENCIA_PREDETERMINADA, PRECISION_PREDETERMINADA);
+    }
+
+    /**
+     * @param delegado Servicio que calcula las distancias no memorizadas
+     * @param capacidad Número máximo de pares memorizados
+     * @param vigencia Tiempo que una entrada sigue siendo válida
+     * @param precision Caracteres del geohash de cada extremo (1 a 12)
+     */
+    public ServicioDistanciaCache(ServicioDistancia delegado, int capacidad, Duration vigencia, int precision) {
+        this(delegado, capacidad, vigencia, precision, System::nanoTime);
+    }
+
+    ServicioDistanciaCache(ServicioDistancia delegado, int capacidad, Duration vigencia, int precision,
+                           LongSupplier reloj) {
+        if (capacidad < 1 || vigencia.isNegative() || vigencia.isZero()) {
+            throw new IllegalArgumentException("La capacidad y la vigencia del caché deben ser positivas");
+        }
+        Geohash.codificar(0, 0, precision); // valida la precisión
+        this.delegado = delegado;
+        this.vigenciaNanos = vigencia.toNanos();
+        this.precision = precision;
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ParCeldas, Entrada> mayor) {
+                if (size() > capacidad) {
+                    expulsiones.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public double calcularDistancia(Direccion origen, Direccion destino) {
+        ParCeldas clave = clave(origen, destino);
+        synchronized (entradas) {
+            Entrada entrada = vigente(clave);
+            if (entrada != null && !Double.isNaN(entrada.distancia)) {
+                aciertos.increment();
+                return entrada.distancia;
+            }
+        }
+        fallos.increment();
+        double distancia = delegado.calcularDistancia(origen, destino);
+        synchronized (entradas) {
+            guardar(clave).distancia = distancia;
+        }
+        return distancia;
+    }
+
+    @Override
+    public int calcularTiempoEstimado(Direccion origen, Direccion destino) {
+        ParCeldas clave = clave(origen, destino);
+        synchronized (entradas) {
+            Entrada entrada = vigente(clave);
+            if (entrada != null && entrada.tiempo >= 0) {
+                aciertos.increment();
+                return entrada.tiempo;
+            }
+        }
+        fallos.increment();
+        int tiempo = delegado.calcularTiempoEstimado(origen, destino);
+        synchronized (entradas) {
+            guardar(clave).tiempo = tiempo;
+        }
+        return tiempo;
+    }
+
+    /**
+     * Calcula las distancias de un lote. Los pares ya memorizados se responden del
+     * caché y los demás se agrupan por par de celdas, de modo que el servicio decorado
+     * recibe una sola llamada por lote con cada par de celdas una única vez.
+     */
+    @Override
+    public double[] calcularDistancias(List<ParDirecciones> pares) {
+        double[] distancias = new double[pares.size()];
+        int[] pendiente = new int[pares.size()];
+        Map<ParCeldas, Integer> posiciones = new HashMap<>();
+        List<ParDirecciones> unicos = new ArrayList<>();
+        List<ParCeldas> claves = new ArrayList<>();
+        synchronized (entradas) {
+            for (int i = 0; i < distancias.length; i++) {
+                ParDirecciones par = pares.get(i);
+                ParCeldas clave = clave(par.getOrigen(), par.getDestino());
+                Entrada entrada = vigente(clave);
+                if (entrada != null && !Double.isNaN(entrada.distancia)) {
+                    aciertos.increment();
+                    distancias[i] = entrada.distancia;
+                    pendiente[i] = -1;
+                } else {
+                    fallos.increment();
+                    Integer posicion = posiciones.get(clave);
+                    if (posicion == null) {
+                        posicion = unicos.size();
+                        posiciones.put(clave, posicion);
+                        unicos.add(par);
+                        claves.add(clave);
+                    }
+                    pendiente[i] = posicion;
+                }
+            }
+        }
+        if (unicos.isEmpty()) {
+            return distancias;
+        }
+        double[] calculadas = delegado.calcularDistancias(unicos);
+        synchronized (entradas) {
+            for (int j = 0; j < calculadas.length; j++) {
+                guardar(claves.get(j)).distancia = calculadas[j];
+            }
+        }
+        for (int i = 0; i < distancias.length; i++) {
+            if (pendiente[i] >= 0) {
+                distancias[i] = calculadas[pendiente[i]];
+            }
+        }
+        return distancias;
+    }
+
+    /**
+     * Las consultas uno a muchos van directo al servicio decorado: no se memorizan
+     * porque el lote de candidatos cambia en cada búsqueda.
+     */
+    @Override
+    public void calcularDistancias(double latitudOrigen, double longitudOrigen, LoteCoordenadas destinos,
+                                   double[] distancias) {
+        delegado.calcularDistancias(latitudOrigen, longitudOrigen, destinos, distancias);
+    }
+
+    /**
+     * @return Estadísticas acumuladas desde la creación del caché
+     */
+    public EstadisticasCache getEstadisticas() {
+        int tamano;
+        synchronized (entradas) {
+            tamano = entradas.size();
+        }
+        return new EstadisticasCache(aciertos.sum(), fallos.sum(), expulsiones.sum(), expiraciones.sum(), tamano);
+    }
+
+    /**
+     * Descarta todas las entradas memorizadas (por ejemplo, al cambiar el proveedor de rutas).
+     */
+    public void limpiar() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+    }
+
+    private ParCeldas clave(Direccion origen, Direccion destino) {
+        return new ParCeldas(Geohash.codificar(origen.getLatitud(), origen.getLongitud(), precision),
+                Geohash.codificar(destino.getLatitud(), destino.getLongitud(), precision));
+    }
+
+    /**
+     * Busca una entrada vigente; las vencidas se descartan. Debe invocarse con el candado.
+     */
+    private Entrada vigente(ParCeldas clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && reloj.getAsLong() - entrada.creadaEn >= vigenciaNanos) {
+            entradas.remove(clave);
+            expiraciones.increment();
+            return null;
+        }
+        return entrada;
+    }
+
+    /**
+     * Obtiene o crea la entrada de una clave. Debe invocarse con el candado.
+     */
+    private Entrada guardar(ParCeldas clave) {
+        Entrada entrada = vigente(clave);
+        if (entrada == null) {
+            entrada = new Entrada(reloj.getAsLong());
+            entradas.put(clave, entrada);
+        }
+        return entrada;
+    }
+
+    @EqualsAndHashCode
+    private static final class ParCeldas {
+        private final long origen;
+        private final long destino;
+
+        ParCeldas(long origen, long destino) {
+            this.origen = origen;
+            this.destino = destino;
+        }
+    }
+
+    /**
+     * Resultados memorizados de un par de celdas; NaN y -1 indican "aún no calculado".
+     */
+    private static final class Entrada {
+        private final long creadaEn;
+        private double distancia = Double.NaN;
+        private int tiempo = -1;
+
+        Entrada(long creadaEn) {
+            this.creadaEn = creadaEn;
+        }
+    }
+}
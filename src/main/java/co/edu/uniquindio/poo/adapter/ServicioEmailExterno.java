@@ -1,5 +1,7 @@
 package co.edu.uniquindio.poo.adapter;
 
+import java.util.List;
+
 // Simula un servicio externo de Email
 public class ServicioEmailExterno {
     
@@ -10,6 +12,13 @@ public class ServicioEmailExterno {
         System.out.println("Email enviado exitosamente!");
     }
     
+    public void enviarEmailMasivo(List<String> emailsDestino, String asunto, String cuerpo) {
+        System.out.println("Enviando email a " + emailsDestino.size() + " destinatarios: " + String.join(", ", emailsDestino));
+        System.out.println("Asunto: " + asunto);
+        System.out.println("Cuerpo: " + cuerpo);
+        System.out.println("Emails enviados exitosamente!");
+    }
+    
     public boolean verificarEmail(String email) {
         return email != null && email.contains("@");
     }
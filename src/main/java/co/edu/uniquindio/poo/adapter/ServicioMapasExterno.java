@@ -34,6 +34,36 @@ public class ServicioMapasExterno {
         return radioTierra * c;
     }
     
+    /**
+     * Calcula la distancia en kilómetros desde un origen hasta cada punto de un lote.
+     * 
+     * Usa la misma fórmula de Haversine en la forma 2·asin(√a), equivalente a
+     * 2·atan2(√a, √(1−a)), con el coseno de las latitudes del lote ya calculado. El
+     * ciclo no tiene ramas ni llamadas virtuales, y por punto solo evalúa dos senos,
+     * una raíz y un arcoseno.
+     * 
+     * @param latitudOrigen Latitud del origen en grados
+     * @param longitudOrigen Longitud del origen en grados
+     * @param destinos Lote de puntos de destino
+     * @param distancias Arreglo de salida, al menos del tamaño del lote
+     */
+    public void calcularDistanciasKm(double latitudOrigen, double longitudOrigen, LoteCoordenadas destinos,
+                                     double[] distancias) {
+        double diametroTierra = 2 * 6371; // km
+        double latitud = Math.toRadians(latitudOrigen);
+        double longitud = Math.toRadians(longitudOrigen);
+        double cosenoOrigen = Math.cos(latitud);
+        double[] latitudes = destinos.latitudesRad;
+        double[] longitudes = destinos.longitudesRad;
+        double[] cosenos = destinos.cosenosLatitud;
+        for (int i = 0; i < latitudes.length; i++) {
+            double senoLat = Math.sin((latitudes[i] - latitud) * 0.5);
+            double senoLon = Math.sin((longitudes[i] - longitud) * 0.5);
+            double a = senoLat * senoLat + cosenoOrigen * cosenos[i] * senoLon * senoLon;
+            distancias[i] = diametroTierra * Math.asin(Math.sqrt(Math.min(a, 1.0)));
+        }
+    }
+    
     /**
      * Obtiene el tiempo estimado de viaje en minutos basado en la distancia.
      * Asume velocidad promedio de 30 km/h en entorno urbano.
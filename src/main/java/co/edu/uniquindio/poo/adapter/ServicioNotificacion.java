@@ -1,7 +1,23 @@
 package co.edu.uniquindio.poo.adapter;
 
+import java.util.List;
+
 // Interfaz que espera nuestra aplicación
 public interface ServicioNotificacion {
     void enviarNotificacion(String destinatario, String mensaje);
     String getTipo();
+    
+    /**
+     * Envía el mismo mensaje a varios destinatarios.
+     * La implementación predeterminada los envía uno a uno; los proveedores que
+     * admiten envíos masivos pueden resolver el lote en una sola llamada.
+     * 
+     * @param destinatarios Destinatarios del mensaje
+     * @param mensaje Mensaje a enviar
+     */
+    default void enviarNotificaciones(List<String> destinatarios, String mensaje) {
+        for (String destinatario : destinatarios) {
+            enviarNotificacion(destinatario, mensaje);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package co.edu.uniquindio.poo.adapter;
 
+import java.util.List;
+
 // Simula un servicio externo de SMS
 public class ServicioSMSExterno {
     
@@ -9,6 +11,12 @@ public class ServicioSMSExterno {
         System.out.println("SMS enviado exitosamente!");
     }
     
+    public void mandarMensajeMasivo(List<String> numerosTelefono, String contenido) {
+        System.out.println("Enviando SMS a " + numerosTelefono.size() + " números: " + String.join(", ", numerosTelefono));
+        System.out.println("Mensaje: " + contenido);
+        System.out.println("SMS enviados exitosamente!");
+    }
+    
     public boolean validarNumero(String numero) {
         return numero != null && numero.length() >= 10;
     }
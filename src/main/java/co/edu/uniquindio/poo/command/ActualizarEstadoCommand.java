@@ -1,64 +1,68 @@
 package co.edu.uniquindio.poo.command;
 
 import co.edu.uniquindio.poo.model.Envio;
-import co.edu.uniquindio.poo.state.*;
-import lombok.AllArgsConstructor;
+import co.edu.uniquindio.poo.model.SistemaGestion;
+import co.edu.uniquindio.poo.state.TablaTransiciones;
+import co.edu.uniquindio.poo.state.Transicion;
 
 /**
  * Comando para actualizar el estado de un envío.
  * Implementa el patrón Command para permitir deshacer cambios de estado.
- * Actualiza tanto el enum de estado como el objeto de estado (State pattern).
+ * Valida el cambio en la TablaTransiciones del patrón State; el objeto de
+ * estado del envío se deriva del enum, así que basta con cambiar este.
+ * 
+ * Tanto ejecutar como deshacer modifican el envío con
+ * SistemaGestion#modificarEnvio, así el cambio y la actualización de índices y
+ * bitácora ocurren con el candado del envío aunque se deshaga desde el historial.
  */
-@AllArgsConstructor
 public class ActualizarEstadoCommand implements Command {
-    private Envio envio;
-    private Envio.EstadoEnvio nuevoEstado;
+    private final SistemaGestion sistema;
+    private final String idEnvio;
+    private final Envio.EstadoEnvio nuevoEstado;
     private Envio.EstadoEnvio estadoAnterior;
-    private EstadoEnvio estadoAnteriorObject;
     
     /**
-     * Constructor que captura automáticamente el estado actual del envío.
-     * 
-     * @param envio Envío cuyo estado se va a cambiar
+     * @param sistema Sistema donde está registrado el envío
+     * @param idEnvio Identificador del envío cuyo estado se va a cambiar
      * @param nuevoEstado Nuevo estado destino del envío
      */
-    public ActualizarEstadoCommand(Envio envio, Envio.EstadoEnvio nuevoEstado) {
-        this.envio = envio;
+    public ActualizarEstadoCommand(SistemaGestion sistema, String idEnvio, Envio.EstadoEnvio nuevoEstado) {
+        this.sistema = sistema;
+        this.idEnvio = idEnvio;
         this.nuevoEstado = nuevoEstado;
-        this.estadoAnterior = envio.getEstado();
-        this.estadoAnteriorObject = envio.getEstadoActual();
     }
     
     /**
-     * Ejecuta la actualización del estado del envío.
-     * Cambia tanto el enum de estado como el objeto de estado.
-     * Notifica a todos los observadores del cambio.
+     * Ejecuta la actualización del estado del envío, capturando el estado que
+     * tenía en ese momento; el cambio de estado se publica en el BusEventos.
+     * 
+     * @throws IllegalArgumentException Si el envío no existe
+     * @throws IllegalStateException Si la tabla de transiciones no permite el cambio
      */
     @Override
     public void ejecutar() {
-        // Cambiar el enum de estado
-        envio.setEstado(nuevoEstado);
-        
-        // Cambiar el objeto de estado (State pattern)
-        EstadoEnvio nuevoEstadoObject = crearEstadoObject(nuevoEstado);
-        envio.setEstadoActual(nuevoEstadoObject);
-        
-        System.out.println("[COMMAND] Estado del envío " + envio.getIdEnvio() + " actualizado a " + nuevoEstado);
+        boolean existe = sistema.modificarEnvio(idEnvio, envio -> {
+            Transicion transicion = TablaTransiciones.cambio(envio.getEstado(), nuevoEstado);
+            if (!transicion.isPermitida()) {
+                throw new IllegalStateException(transicion.getMensaje());
+            }
+            estadoAnterior = envio.getEstado();
+            envio.setEstado(nuevoEstado);
+        });
+        if (!existe) {
+            throw new IllegalArgumentException("Envío no encontrado: " + idEnvio);
+        }
         
-        // Notificar a todos los observadores (incluyendo AdminDashboardObserver)
-        envio.notificarObservadores("Estado del envío cambió a: " + nuevoEstado, envio);
+        System.out.println("[COMMAND] Estado del envío " + idEnvio + " actualizado a " + nuevoEstado);
     }
     
     /**
      * Revierte el cambio de estado restaurando el estado anterior.
-     * Notifica a los observadores sobre la reversión.
      */
     @Override
     public void deshacer() {
-        envio.setEstado(estadoAnterior);
-        envio.setEstadoActual(estadoAnteriorObject);
+        sistema.modificarEnvio(idEnvio, envio -> envio.setEstado(estadoAnterior));
         System.out.println("[COMMAND] Estado restaurado a " + estadoAnterior);
-        envio.notificarObservadores("Estado del envío restaurado a: " + estadoAnterior, envio);
     }
     
     /**
@@ -68,30 +72,6 @@ public class ActualizarEstadoCommand implements Command {
      */
     @Override
     public String getDescripcion() {
-        return "Actualizar estado del envío " + envio.getIdEnvio() + " a " + nuevoEstado;
-    }
-    
-    /**
-     * Factory method privado para crear la instancia correcta del objeto de estado.
-     * Mapea el enum de estado a su implementación concreta.
-     * 
-     * @param estado Enum del estado deseado
-     * @return Objeto que implementa EstadoEnvio
-     */
-    private EstadoEnvio crearEstadoObject(Envio.EstadoEnvio estado) {
-        switch (estado) {
-            case SOLICITADO:
-                return new EstadoSolicitado();
-            case ASIGNADO:
-                return new EstadoAsignado();
-            case EN_RUTA:
-                return new EstadoEnRuta();
-            case ENTREGADO:
-                return new EstadoEntregado();
-            case INCIDENCIA:
-                return new EstadoIncidencia();
-            default:
-                return new EstadoSolicitado();
-        }
+        return "Actualizar estado del envío " + idEnvio + " a " + nuevoEstado;
     }
 }
@@ -0,0 +1,67 @@
+package co.edu.uniquindio.poo.command;
+
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.ResultadoCambiosEstado;
+import co.edu.uniquindio.poo.model.SistemaGestion;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Comando compuesto que cambia el estado de un lote de envíos en una sola
+ * operación de SistemaGestion. Deshacerlo devuelve a su estado anterior, también
+ * en una sola operación, los envíos cuyo cambio se aplicó y que no han vuelto a
+ * cambiar desde entonces.
+ */
+public class ActualizarEstadosLoteCommand implements Command {
+    private final SistemaGestion sistema;
+    private final Map<String, Envio.EstadoEnvio> cambios;
+    private ResultadoCambiosEstado resultado;
+
+    /**
+     * @param sistema Sistema donde están registrados los envíos
+     * @param cambios Estado pedido para cada envío, por id
+     */
+    public ActualizarEstadosLoteCommand(SistemaGestion sistema, Map<String, Envio.EstadoEnvio> cambios) {
+        this.sistema = sistema;
+        this.cambios = new LinkedHashMap<>(cambios);
+    }
+
+    @Override
+    public void ejecutar() {
+        resultado = sistema.actualizarEstados(cambios);
+        System.out.println("[COMMAND] Lote de estados: " + resultado.getAplicados() + " aplicados, "
+                + resultado.contar(ResultadoCambiosEstado.Desenlace.RECHAZADO) + " rechazados, "
+                + resultado.contar(ResultadoCambiosEstado.Desenlace.NO_ENCONTRADO) + " no encontrados");
+    }
+
+    @Override
+    public void deshacer() {
+        if (resultado == null) {
+            return;
+        }
+        Map<String, Consumer<Envio>> reversiones = new LinkedHashMap<>();
+        for (ResultadoCambiosEstado.CambioEstado cambio : resultado.filtrar(ResultadoCambiosEstado.Desenlace.APLICADO)) {
+            reversiones.put(cambio.getIdEnvio(), envio -> {
+                if (envio.getEstado() == cambio.getSolicitado()) {
+                    envio.setEstado(cambio.getAnterior());
+                }
+            });
+        }
+        sistema.modificarEnvios(reversiones);
+        System.out.println("[COMMAND] Lote de estados revertido: " + reversiones.size() + " envíos");
+    }
+
+    @Override
+    public String getDescripcion() {
+        return "Actualizar estado de " + cambios.size() + " envíos en lote";
+    }
+
+    /**
+     * @return Desenlace de la última ejecución, o null si no se ha ejecutado
+     */
+    public ResultadoCambiosEstado getResultado() {
+        return resultado;
+    }
+}
@@ -1,40 +1,48 @@
 package co.edu.uniquindio.poo.command;
 
 import co.edu.uniquindio.poo.model.Envio;
-import lombok.AllArgsConstructor;
+import co.edu.uniquindio.poo.model.SistemaGestion;
 
 /**
  * Comando para cancelar un envío.
  * Implementa el patrón Command para permitir deshacer la cancelación.
- * Solo permite cancelar envíos en estado SOLICITADO.
+ * Solo permite cancelar envíos en estado SOLICITADO. El envío se modifica con
+ * SistemaGestion#modificarEnvio, también al deshacer.
  */
-@AllArgsConstructor
 public class CancelarEnvioCommand implements Command {
-    private Envio envio;
+    private final SistemaGestion sistema;
+    private final String idEnvio;
     private Envio.EstadoEnvio estadoAnterior;
     
     /**
-     * Constructor que captura el estado anterior del envío automáticamente.
-     * 
-     * @param envio Envío a cancelar
+     * @param sistema Sistema donde está registrado el envío
+     * @param idEnvio Identificador del envío a cancelar
      */
-    public CancelarEnvioCommand(Envio envio) {
-        this.envio = envio;
-        this.estadoAnterior = envio.getEstado();
+    public CancelarEnvioCommand(SistemaGestion sistema, String idEnvio) {
+        this.sistema = sistema;
+        this.idEnvio = idEnvio;
     }
     
     /**
      * Ejecuta la cancelación del envío.
      * Valida que el envío esté en estado SOLICITADO antes de cancelar.
      * 
+     * @throws IllegalArgumentException Si el envío no existe
      * @throws IllegalStateException Si el envío no está en estado SOLICITADO
      */
     @Override
     public void ejecutar() {
-        if (envio.getEstado() != Envio.EstadoEnvio.SOLICITADO) {
-            throw new IllegalStateException("Solo se pueden cancelar envíos en estado SOLICITADO");
+        boolean existe = sistema.modificarEnvio(idEnvio, envio -> {
+            if (envio.getEstado() != Envio.EstadoEnvio.SOLICITADO) {
+                throw new IllegalStateException("Solo se pueden cancelar envíos en estado SOLICITADO");
+            }
+            estadoAnterior = envio.getEstado();
+            envio.cancelarEnvio();
+        });
+        if (!existe) {
+            throw new IllegalArgumentException("Envío no encontrado: " + idEnvio);
         }
-        System.out.println("Envío " + envio.getIdEnvio() + " cancelado");
+        System.out.println("Envío " + idEnvio + " cancelado");
     }
     
     /**
@@ -42,7 +50,7 @@ public class CancelarEnvioCommand implements Command {
      */
     @Override
     public void deshacer() {
-        envio.setEstado(estadoAnterior);
+        sistema.modificarEnvio(idEnvio, envio -> envio.setEstado(estadoAnterior));
         System.out.println("Cancelación deshecha");
     }
     
@@ -53,6 +61,6 @@ public class CancelarEnvioCommand implements Command {
      */
     @Override
     public String getDescripcion() {
-        return "Cancelar envío " + envio.getIdEnvio();
+        return "Cancelar envío " + idEnvio;
     }
 }
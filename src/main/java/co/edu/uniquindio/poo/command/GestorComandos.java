@@ -1,67 +1,182 @@
 package co.edu.uniquindio.poo.command;
 
-import java.util.Stack;
+import co.edu.uniquindio.poo.model.SistemaGestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * Gestor de Comandos - Implementación del patrón Command.
  * Mantiene el historial de comandos ejecutados y permite deshacer/rehacer operaciones.
- * Utiliza dos pilas: una para el historial de ejecuciones y otra para rehacer.
+ *
+ * Cada sesión (el id del usuario o administrador que opera) tiene su propio
+ * {@link HistorialComandos}, acotado a la profundidad configurada y sin
+ * candados, así un operador solo deshace sus propios comandos y la memoria no
+ * crece con el tiempo que lleva el servidor en marcha. Los métodos sin sesión
+ * usan {@link #SESION_PREDETERMINADA}.
+ *
+ * La instancia compartida toma la profundidad de la propiedad de sistema
+ * {@value #PROPIEDAD_PROFUNDIDAD}; si {@value #PROPIEDAD_ARCHIVAR} es true, los
+ * comandos que salen del historial se anotan en la bitácora de SistemaGestion
+ * como registros de auditoría.
  */
 public class GestorComandos {
-    private Stack<Command> historial = new Stack<>();
-    private Stack<Command> rehacer = new Stack<>();
-    
+    public static final String PROPIEDAD_PROFUNDIDAD = "citydrop.historial.profundidad";
+    public static final String PROPIEDAD_ARCHIVAR = "citydrop.historial.archivar";
+    public static final int PROFUNDIDAD_PREDETERMINADA = 100;
+    public static final String SESION_PREDETERMINADA = "sistema";
+
+    private final int profundidad;
+    private final BiConsumer<String, List<Command>> desborde;
+    private final ConcurrentHashMap<String, HistorialComandos> sesiones = new ConcurrentHashMap<>();
+
+    /**
+     * Contenedor de inicialización diferida del gestor compartido.
+     */
+    private static class Contenedor {
+        private static final GestorComandos INSTANCIA = new GestorComandos(
+                Integer.getInteger(PROPIEDAD_PROFUNDIDAD, PROFUNDIDAD_PREDETERMINADA),
+                Boolean.getBoolean(PROPIEDAD_ARCHIVAR) ? GestorComandos::archivar : null);
+    }
+
+    /**
+     * @return Gestor compartido por los controladores
+     */
+    public static GestorComandos compartido() {
+        return Contenedor.INSTANCIA;
+    }
+
+    public GestorComandos() {
+        this(PROFUNDIDAD_PREDETERMINADA, null);
+    }
+
+    /**
+     * @param profundidad Comandos que cada sesión puede deshacer
+     * @param desborde Receptor de los comandos que salen del historial de una
+     *                 sesión, o null para descartarlos
+     */
+    public GestorComandos(int profundidad, BiConsumer<String, List<Command>> desborde) {
+        if (profundidad < 1) {
+            throw new IllegalArgumentException("La profundidad del historial debe ser al menos 1");
+        }
+        this.profundidad = profundidad;
+        this.desborde = desborde;
+    }
+
+    private static void archivar(String sesion, List<Command> comandos) {
+        List<String> descripciones = new ArrayList<>(comandos.size());
+        for (Command comando : comandos) {
+            descripciones.add(comando.getDescripcion());
+        }
+        SistemaGestion.obtenerInstancia().archivarComandos(sesion, descripciones);
+    }
+
+    private HistorialComandos historial(String sesion) {
+        String clave = sesion != null ? sesion : SESION_PREDETERMINADA;
+        HistorialComandos historial = sesiones.get(clave);
+        if (historial == null) {
+            historial = sesiones.computeIfAbsent(clave, id -> new HistorialComandos(profundidad,
+                    desborde != null ? podados -> desborde.accept(id, podados) : null));
+        }
+        return historial;
+    }
+
     /**
      * Ejecuta un comando y lo registra en el historial.
      * Limpia la pila de rehacer al ejecutar un nuevo comando.
-     * 
+     *
      * @param comando Comando a ejecutar
      */
     public void ejecutarComando(Command comando) {
+        ejecutarComando(SESION_PREDETERMINADA, comando);
+    }
+
+    /**
+     * Ejecuta un comando y lo registra en el historial de una sesión.
+     *
+     * @param sesion Id del operador (null equivale a la sesión predeterminada)
+     * @param comando Comando a ejecutar
+     */
+    public void ejecutarComando(String sesion, Command comando) {
         comando.ejecutar();
-        historial.push(comando);
-        rehacer.clear(); // Limpia el historial de rehacer
+        historial(sesion).registrar(comando);
     }
-    
+
     /**
      * Deshace el último comando ejecutado.
      * Restaura el estado anterior y lo mueve a la pila de rehacer.
      */
     public void deshacerUltimoComando() {
-        if (!historial.isEmpty()) {
-            Command comando = historial.pop();
+        deshacerUltimoComando(SESION_PREDETERMINADA);
+    }
+
+    /**
+     * @param sesion Id del operador (null equivale a la sesión predeterminada)
+     */
+    public void deshacerUltimoComando(String sesion) {
+        Command comando = historial(sesion).tomarParaDeshacer();
+        if (comando != null) {
             comando.deshacer();
-            rehacer.push(comando);
         } else {
             System.out.println("No hay comandos para deshacer");
         }
     }
-    
+
     /**
      * Rehace el último comando que fue deshecho.
      * Ejecuta nuevamente el comando y lo restaura en el historial.
      */
     public void rehacerUltimoComando() {
-        if (!rehacer.isEmpty()) {
-            Command comando = rehacer.pop();
+        rehacerUltimoComando(SESION_PREDETERMINADA);
+    }
+
+    /**
+     * @param sesion Id del operador (null equivale a la sesión predeterminada)
+     */
+    public void rehacerUltimoComando(String sesion) {
+        Command comando = historial(sesion).tomarParaRehacer();
+        if (comando != null) {
             comando.ejecutar();
-            historial.push(comando);
         } else {
             System.out.println("No hay comandos para rehacer");
         }
     }
-    
+
+    /**
+     * Descarta el historial de una sesión, por ejemplo al cerrar sesión. Los
+     * comandos descartados no se archivan.
+     *
+     * @param sesion Id del operador
+     */
+    public void cerrarSesion(String sesion) {
+        sesiones.remove(sesion != null ? sesion : SESION_PREDETERMINADA);
+    }
+
     /**
      * Obtiene un resumen formateado de todos los comandos ejecutados.
      * Útil para mostrar el historial al usuario.
-     * 
+     *
      * @return String con listado de comandos
      */
     public String obtenerHistorial() {
+        return obtenerHistorial(SESION_PREDETERMINADA);
+    }
+
+    /**
+     * @param sesion Id del operador (null equivale a la sesión predeterminada)
+     * @return String con los comandos que la sesión puede deshacer
+     */
+    public String obtenerHistorial(String sesion) {
         StringBuilder sb = new StringBuilder("Historial de comandos:\n");
-        for (Command cmd : historial) {
+        for (Command cmd : historial(sesion).listar()) {
             sb.append("- ").append(cmd.getDescripcion()).append("\n");
         }
         return sb.toString();
     }
+
+    public int getProfundidad() {
+        return profundidad;
+    }
 }
@@ -0,0 +1,192 @@
+package co.edu.uniquindio.poo.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Historial de deshacer/rehacer de una sesión, con profundidad acotada.
+ *
+ * Las dos pilas son listas enlazadas inmutables que se publican juntas en una
+ * sola referencia atómica, así registrar, deshacer y rehacer son un
+ * compare-and-set sin candados; como cada cambio crea nodos nuevos, un hilo no
+ * puede confundir un estado reciclado con el que leyó (problema ABA).
+ *
+ * Solo se pueden deshacer los últimos {@code profundidad} comandos. Los más
+ * antiguos quedan ocultos al fondo de la pila y se podan cuando la lista llega
+ * al doble de la profundidad, de modo que la poda cuesta O(1) amortizado por
+ * comando y la memoria retenida no depende de cuántos comandos se ejecuten.
+ * Los comandos podados se entregan al receptor de desborde, del más antiguo al
+ * más reciente.
+ */
+public class HistorialComandos {
+    private final int profundidad;
+    private final Consumer<List<Command>> desborde;
+    private final AtomicReference<Pilas> pilas = new AtomicReference<>(Pilas.VACIAS);
+
+    /**
+     * Nodo inmutable de una pila.
+     */
+    private static final class Nodo {
+        private final Command comando;
+        private final Nodo siguiente;
+
+        private Nodo(Command comando, Nodo siguiente) {
+            this.comando = comando;
+            this.siguiente = siguiente;
+        }
+    }
+
+    /**
+     * Instantánea de ambas pilas. {@code deshacibles} cuenta los nodos visibles
+     * de la cima del historial y {@code longitud} todos los que siguen enlazados.
+     */
+    private static final class Pilas {
+        private static final Pilas VACIAS = new Pilas(null, 0, 0, null, 0);
+
+        private final Nodo historial;
+        private final int deshacibles;
+        private final int longitud;
+        private final Nodo rehacer;
+        private final int rehacibles;
+
+        private Pilas(Nodo historial, int deshacibles, int longitud, Nodo rehacer, int rehacibles) {
+            this.historial = historial;
+            this.deshacibles = deshacibles;
+            this.longitud = longitud;
+            this.rehacer = rehacer;
+            this.rehacibles = rehacibles;
+        }
+    }
+
+    /**
+     * @param profundidad Comandos que se pueden deshacer (al menos 1)
+     * @param desborde Receptor de los comandos podados, o null para descartarlos
+     */
+    public HistorialComandos(int profundidad, Consumer<List<Command>> desborde) {
+        if (profundidad < 1) {
+            throw new IllegalArgumentException("La profundidad del historial debe ser al menos 1");
+        }
+        this.profundidad = profundidad;
+        this.desborde = desborde;
+    }
+
+    /**
+     * Registra un comando ya ejecutado y descarta los que se podían rehacer.
+     *
+     * @param comando Comando ejecutado
+     */
+    public void registrar(Command comando) {
+        Pilas actuales;
+        Pilas nuevas;
+        List<Command> podados;
+        do {
+            actuales = pilas.get();
+            Nodo cima = new Nodo(comando, actuales.historial);
+            int deshacibles = Math.min(actuales.deshacibles + 1, profundidad);
+            int longitud = actuales.longitud + 1;
+            podados = null;
+            if (longitud > 2 * profundidad) {
+                podados = new ArrayList<>(longitud - deshacibles);
+                cima = podar(cima, deshacibles, podados);
+                longitud = deshacibles;
+            }
+            nuevas = new Pilas(cima, deshacibles, longitud, null, 0);
+        } while (!pilas.compareAndSet(actuales, nuevas));
+        if (podados != null && desborde != null) {
+            desborde.accept(podados);
+        }
+    }
+
+    /**
+     * Copia los {@code visibles} nodos de la cima y reúne en {@code podados} los
+     * que quedan debajo, del más antiguo al más reciente.
+     */
+    private static Nodo podar(Nodo cima, int visibles, List<Command> podados) {
+        Command[] conservados = new Command[visibles];
+        Nodo nodo = cima;
+        for (int i = 0; i < visibles; i++) {
+            conservados[i] = nodo.comando;
+            nodo = nodo.siguiente;
+        }
+        for (; nodo != null; nodo = nodo.siguiente) {
+            podados.add(nodo.comando);
+        }
+        Collections.reverse(podados);
+        Nodo copia = null;
+        for (int i = visibles - 1; i >= 0; i--) {
+            copia = new Nodo(conservados[i], copia);
+        }
+        return copia;
+    }
+
+    /**
+     * Saca el último comando del historial y lo deja listo para rehacer. El
+     * llamador es quien lo revierte.
+     *
+     * @return Comando a deshacer, o null si no hay ninguno
+     */
+    public Command tomarParaDeshacer() {
+        Pilas actuales;
+        Pilas nuevas;
+        do {
+            actuales = pilas.get();
+            if (actuales.deshacibles == 0) {
+                return null;
+            }
+            Nodo cima = actuales.historial;
+            nuevas = new Pilas(cima.siguiente, actuales.deshacibles - 1, actuales.longitud - 1,
+                    new Nodo(cima.comando, actuales.rehacer), actuales.rehacibles + 1);
+        } while (!pilas.compareAndSet(actuales, nuevas));
+        return actuales.historial.comando;
+    }
+
+    /**
+     * Saca el último comando deshecho y lo devuelve al historial. El llamador es
+     * quien lo vuelve a ejecutar.
+     *
+     * @return Comando a rehacer, o null si no hay ninguno
+     */
+    public Command tomarParaRehacer() {
+        Pilas actuales;
+        Pilas nuevas;
+        do {
+            actuales = pilas.get();
+            if (actuales.rehacibles == 0) {
+                return null;
+            }
+            Nodo cima = actuales.rehacer;
+            nuevas = new Pilas(new Nodo(cima.comando, actuales.historial), actuales.deshacibles + 1,
+                    actuales.longitud + 1, cima.siguiente, actuales.rehacibles - 1);
+        } while (!pilas.compareAndSet(actuales, nuevas));
+        return actuales.rehacer.comando;
+    }
+
+    /**
+     * @return Comandos que se pueden deshacer, del más antiguo al más reciente
+     */
+    public List<Command> listar() {
+        Pilas actuales = pilas.get();
+        Command[] comandos = new Command[actuales.deshacibles];
+        Nodo nodo = actuales.historial;
+        for (int i = comandos.length - 1; i >= 0; i--) {
+            comandos[i] = nodo.comando;
+            nodo = nodo.siguiente;
+        }
+        return List.of(comandos);
+    }
+
+    public int getDeshacibles() {
+        return pilas.get().deshacibles;
+    }
+
+    public int getRehacibles() {
+        return pilas.get().rehacibles;
+    }
+
+    public int getProfundidad() {
+        return profundidad;
+    }
+}
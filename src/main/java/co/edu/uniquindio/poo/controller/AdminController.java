@@ -5,21 +5,25 @@ import co.edu.uniquindio.poo.factory.EntidadFactory;
 import co.edu.uniquindio.poo.bridge.*;
 import co.edu.uniquindio.poo.adapter.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class AdminController {
+    private static final Duration ESPERA_NOTIFICACION_MASIVA = Duration.ofMillis(200);
+    
     private SistemaGestion sistema;
-    private ServicioNotificacion notificadorEmail;
-    private ServicioNotificacion notificadorSMS;
+    private DespachadorNotificaciones notificaciones;
     
     public AdminController() {
         this.sistema = SistemaGestion.obtenerInstancia();
-        this.notificadorEmail = new EmailAdapter();
-        this.notificadorSMS = new SMSAdapter();
+        this.notificaciones = DespachadorNotificaciones.compartido();
     }
     
     public Administrador registrarAdministrador(String nombre, String correo, String password) {
@@ -41,16 +45,12 @@ public class AdminController {
     }
     
     public Optional<Administrador> autenticar(String correo, String password) {
-        return sistema.getAdministradores().stream()
-                .filter(a -> a.getCorreo().equals(correo) && 
-                           a.getPassword().equals(password))
-                .findFirst();
+        return buscarAdminPorCorreo(correo)
+                .filter(a -> a.getPassword() != null && a.getPassword().equals(password));
     }
     
     public Optional<Administrador> buscarAdminPorCorreo(String correo) {
-        return sistema.getAdministradores().stream()
-                .filter(a -> a.getCorreo().equals(correo))
-                .findFirst();
+        return Optional.ofNullable(sistema.buscarAdministradorPorCorreo(correo));
     }
     
     // Gestión de usuarios
@@ -81,45 +81,60 @@ public class AdminController {
     }
     
     public void resolverIncidencia(String idIncidencia) {
-        sistema.getIncidencias().stream()
-                .filter(i -> i.getIdIncidencia().equals(idIncidencia))
-                .findFirst()
-                .ifPresent(incidencia -> {
-                    incidencia.setEstado(Incidencia.EstadoIncidencia.RESUELTA);
-                });
+        sistema.modificarIncidencia(idIncidencia, 
+                incidencia -> incidencia.setEstado(Incidencia.EstadoIncidencia.RESUELTA));
     }
     
     // Métricas y estadísticas
     public Map<String, Object> obtenerMetricas() {
+        // Lectura O(1) del agregado que SistemaGestion mantiene en cada modificación
+        MetricasSistema agregado = sistema.obtenerMetricas();
         Map<String, Object> metricas = new HashMap<>();
         
-        metricas.put("totalUsuarios", sistema.getUsuarios().size());
-        metricas.put("totalEnvios", sistema.getEnvios().size());
-        
-        long enviosActivos = sistema.getEnvios().stream()
-                .filter(e -> e.getEstado() != Envio.EstadoEnvio.ENTREGADO)
-                .count();
-        metricas.put("enviosActivos", enviosActivos);
+        metricas.put("totalUsuarios", sistema.contarUsuarios());
+        metricas.put("totalEnvios", sistema.contarEnvios());
+        metricas.put("enviosActivos", agregado.getEnviosActivos());
         
-        long enviosEntregados = sistema.getEnvios().stream()
-                .filter(e -> e.getEstado() == Envio.EstadoEnvio.ENTREGADO)
-                .count();
+        long enviosEntregados = agregado.getEnviosEnEstado(Envio.EstadoEnvio.ENTREGADO);
         metricas.put("enviosEntregados", enviosEntregados);
-        
-        long incidenciasPendientes = sistema.getIncidencias().stream()
-                .filter(i -> i.getEstado() == Incidencia.EstadoIncidencia.REPORTADA ||
-                           i.getEstado() == Incidencia.EstadoIncidencia.EN_REVISION)
-                .count();
-        metricas.put("incidenciasPendientes", incidenciasPendientes);
-        
-        double ingresoTotal = sistema.getEnvios().stream()
-                .mapToDouble(Envio::getCosto)
-                .sum();
-        metricas.put("ingresoTotal", ingresoTotal);
+        metricas.put("enviosCompletados", enviosEntregados);
+        metricas.put("incidenciasPendientes", agregado.getIncidenciasPendientes());
+        metricas.put("ingresoTotal", agregado.getIngresoTotal());
         
         return metricas;
     }
     
+    public long contarEnviosPorEstado(Envio.EstadoEnvio estado) {
+        return sistema.obtenerMetricas().getEnviosEnEstado(estado);
+    }
+    
+    /**
+     * Hilo propio para recotizar tras un cambio de tarifas: la recotización consulta
+     * distancias al proveedor remoto, así que no corre en el hilo de JavaFX ni en el
+     * pool común, y los cambios de tarifas seguidos se recotizan en orden.
+     */
+    private static class Recotizador {
+        private static final ExecutorService HILO = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "recotizacion-tarifas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+    
+    // Gestión de tarifas (requiere el permiso GESTIONAR_TARIFAS); las tarifas se publican
+    // de inmediato y los envíos abiertos se recotizan en segundo plano
+    public CompletableFuture<ResultadoRecotizacion> actualizarTarifas(Administrador admin,
+                                                                      Map<Envio.TipoEnvio, Tarifa> tarifas,
+                                                                      Map<ServicioAdicional, Double> recargos) {
+        MotorTarifas.obtenerInstancia().actualizarTarifas(admin, tarifas, recargos);
+        return CompletableFuture.supplyAsync(() -> new EnvioController().recotizarEnviosAbiertos(),
+                Recotizador.HILO);
+    }
+    
+    public TablaTarifas obtenerTarifasVigentes() {
+        return MotorTarifas.obtenerInstancia().getTabla();
+    }
+    
     // Generación de reportes usando el patrón Bridge
     public void generarReporteEnviosCSV(String nombreArchivo) {
         FormatoReporte formato = new FormatoCSV();
@@ -146,18 +161,17 @@ public class AdminController {
     }
     
     // Notificaciones masivas usando Adapter
+    // Los envíos se encolan en el despachador asíncrono: el llamador (el hilo de JavaFX) no espera al proveedor
     public void enviarNotificacionEmail(String destinatario, String mensaje) {
-        notificadorEmail.enviarNotificacion(destinatario, mensaje);
+        notificaciones.encolar(DespachadorNotificaciones.EMAIL, destinatario, mensaje);
     }
     
     public void enviarNotificacionSMS(String destinatario, String mensaje) {
-        notificadorSMS.enviarNotificacion(destinatario, mensaje);
+        notificaciones.encolar(DespachadorNotificaciones.SMS, destinatario, mensaje);
     }
     
     public void notificarATodosLosUsuarios(String mensaje) {
-        for (Usuario usuario : sistema.getUsuarios()) {
-            notificadorEmail.enviarNotificacion(usuario.getCorreoElectronico(), mensaje);
-        }
+        notificarTodosUsuarios(mensaje);
     }
     
     // Nuevos métodos para el dashboard
@@ -170,17 +184,35 @@ public class AdminController {
     }
     
     public List<Envio> obtenerEnviosDeUsuario(String idUsuario) {
-        return sistema.getEnvios().stream()
-                .filter(e -> e.getUsuario().getIdUsuario().equals(idUsuario))
-                .collect(Collectors.toList());
+        return sistema.buscarEnviosPorUsuario(idUsuario);
+    }
+    
+    public List<Envio> obtenerEnviosDeRepartidor(String idRepartidor) {
+        return sistema.buscarEnviosPorRepartidor(idRepartidor);
+    }
+    
+    public List<Envio> obtenerEnviosPorEstado(Envio.EstadoEnvio estado) {
+        return sistema.buscarEnviosPorEstado(estado);
     }
     
+    /**
+     * Encola un email para todos los usuarios. Si la cola está llena espera a lo
+     * sumo ESPERA_NOTIFICACION_MASIVA; los que no alcanzan a encolarse se omiten.
+     * 
+     * @return Usuarios cuya notificación quedó encolada
+     */
     public int notificarTodosUsuarios(String mensaje) {
-        List<Usuario> usuarios = sistema.getUsuarios();
-        for (Usuario usuario : usuarios) {
-            notificadorEmail.enviarNotificacion(usuario.getCorreoElectronico(), mensaje);
+        List<String> correos = sistema.getUsuarios().stream().map(Usuario::getCorreoElectronico).toList();
+        int encolados = notificaciones.encolarTodos(DespachadorNotificaciones.EMAIL, correos, mensaje,
+                ESPERA_NOTIFICACION_MASIVA);
+        if (encolados < correos.size()) {
+            System.out.println("✗ Cola de notificaciones llena: " + (correos.size() - encolados) + " usuarios sin notificar");
         }
-        return usuarios.size();
+        return encolados;
+    }
+    
+    public EstadisticasNotificaciones obtenerEstadisticasNotificaciones(String canal) {
+        return notificaciones.estadisticas(canal);
     }
     
     // Métodos de eliminación
@@ -194,6 +226,10 @@ public class AdminController {
         return sistema.getRepartidores();
     }
     
+    public List<Repartidor> obtenerRepartidoresDisponibles() {
+        return sistema.buscarRepartidoresDisponibles();
+    }
+    
     public Repartidor registrarRepartidor(String nombre, String documento, String telefono, 
                                          String zonaCobertura, Repartidor.EstadoRepartidor estado) {
         RepartidorController repartidorController = new RepartidorController();
@@ -212,26 +248,50 @@ public class AdminController {
     }
     
     public void asignarRepartidorAEnvio(String idEnvio, String idRepartidor) {
-        Envio envio = sistema.buscarEnvioPorId(idEnvio);
         Repartidor repartidor = sistema.buscarRepartidorPorId(idRepartidor);
+        if (repartidor == null) {
+            return;
+        }
+        
+        // Mueve el cupo del repartidor anterior al nuevo sin candados y pasa el envío a ASIGNADO.
+        // La asignación manual no tiene tope: el administrador puede exceder la capacidad del despacho
+        boolean asignado = sistema.reasignarRepartidor(idEnvio, repartidor, Integer.MAX_VALUE);
         
-        if (envio != null && repartidor != null) {
-            // Remover del repartidor anterior si existe
-            if (envio.getRepartidor() != null) {
-                envio.getRepartidor().decrementarEnviosAsignados();
-            }
-            
-            // Asignar nuevo repartidor
-            envio.setRepartidor(repartidor);
-            repartidor.incrementarEnviosAsignados();
-            
-            // Actualizar estado del envío si está en SOLICITADO
-            if (envio.getEstado() == Envio.EstadoEnvio.SOLICITADO) {
-                envio.setEstado(Envio.EstadoEnvio.ASIGNADO);
-            }
-            
-            sistema.actualizarEnvio(envio);
+        if (asignado) {
             System.out.println("✓ Repartidor asignado al envío");
+            new RepartidorController().optimizarRuta(idRepartidor, PlanificadorRutas.PRESUPUESTO_PREDETERMINADO);
+        } else if (sistema.buscarEnvioPorId(idEnvio) != null) {
+            System.out.println("✗ El repartidor fue retirado");
         }
     }
+    
+    /**
+     * Ejecuta una ventana de despacho automático sobre los envíos SOLICITADO pendientes.
+     */
+    public ResultadoDespacho despacharEnviosPendientes() {
+        return motorDespacho().despachar();
+    }
+    
+    /**
+     * Activa el despacho automático periódico de envíos SOLICITADO a repartidores activos.
+     * 
+     * @param ventana Tiempo entre ventanas de despacho
+     */
+    public void iniciarDespachoAutomatico(Duration ventana) {
+        motorDespacho().iniciar(ventana);
+    }
+    
+    public void detenerDespachoAutomatico() {
+        MotorDespacho.obtenerInstancia().detener();
+    }
+    
+    /**
+     * Motor de despacho que replanifica la ruta de cada repartidor que recibe envíos.
+     */
+    private MotorDespacho motorDespacho() {
+        MotorDespacho motor = MotorDespacho.obtenerInstancia();
+        motor.alAsignar(repartidor -> new RepartidorController()
+                .optimizarRuta(repartidor.getIdRepartidor(), PlanificadorRutas.PRESUPUESTO_PREDETERMINADO));
+        return motor;
+    }
 }
@@ -2,22 +2,36 @@ package co.edu.uniquindio.poo.controller;
 
 import co.edu.uniquindio.poo.model.*;
 import co.edu.uniquindio.poo.factory.EnvioFactory;
-import co.edu.uniquindio.poo.adapter.MapasAdapter;
+import co.edu.uniquindio.poo.adapter.ServicioDistanciaCache;
 import co.edu.uniquindio.poo.adapter.ServicioDistancia;
+import co.edu.uniquindio.poo.adapter.ParDirecciones;
 import co.edu.uniquindio.poo.command.*;
-import co.edu.uniquindio.poo.state.EstadoSolicitado;
-import co.edu.uniquindio.poo.observer.NotificadorUsuario;
+import co.edu.uniquindio.poo.persistencia.ImportadorEnviosCSV;
+import co.edu.uniquindio.poo.utils.CodigoValidacion;
+import co.edu.uniquindio.poo.utils.ValidadorDatos;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Controlador de Envíos
  * 
  * Gestiona la lógica de negocio relacionada con envíos. Proporciona funcionalidades para:
- * - Crear envíos (estándar, express, con validación)
- * - Calcular costos basados en peso, volumen y distancia
+ * - Crear envíos (estándar, express, con validación, en lote)
+ * - Importar envíos desde archivos CSV
+ * - Calcular costos basados en peso, volumen y distancia y recotizar envíos abiertos
  * - Cambiar estado de envíos
  * - Reportar incidencias
  * - Administrar operaciones con patrón Command (deshacer/rehacer)
@@ -26,19 +40,35 @@ import java.util.stream.Collectors;
  * una arquitectura flexible y mantenible.
  */
 public class EnvioController {
+    /** Filas que se validan y registran juntas al procesar un flujo de solicitudes */
+    public static final int TAMANO_BLOQUE_LOTE = 8192;
+    
     private SistemaGestion sistema;
     private ServicioDistancia servicioDistancia;
     private GestorComandos gestorComandos;
+    private String sesion;
+    private MotorTarifas motorTarifas;
     
     /**
      * Constructor que inicializa el controlador con las dependencias necesarias.
-     * Obtiene instancia única de SistemaGestion, inicializa adaptador de mapas
-     * y gestor de comandos para operaciones reversibles.
+     * Obtiene instancia única de SistemaGestion y del motor de tarifas, el caché
+     * compartido de distancias y el gestor de comandos para operaciones reversibles.
+     * Los comandos quedan en la sesión predeterminada del gestor.
      */
     public EnvioController() {
+        this(GestorComandos.SESION_PREDETERMINADA);
+    }
+    
+    /**
+     * @param sesion Id del operador; deshacer y rehacer solo afectan a los
+     *               comandos que ejecutó esa sesión
+     */
+    public EnvioController(String sesion) {
         this.sistema = SistemaGestion.obtenerInstancia();
-        this.servicioDistancia = new MapasAdapter();
-        this.gestorComandos = new GestorComandos();
+        this.servicioDistancia = ServicioDistanciaCache.compartido();
+        this.gestorComandos = GestorComandos.compartido();
+        this.sesion = sesion;
+        this.motorTarifas = MotorTarifas.obtenerInstancia();
     }
     
     /**
@@ -56,18 +86,31 @@ public class EnvioController {
      */
     public Envio crearEnvio(String idUsuario, Direccion origen, Direccion destino,
                            Envio.TipoEnvio tipo, double peso, double volumen, String descripcion) {
+        return crearEnvio(idUsuario, origen, destino, tipo, peso, volumen, descripcion, detalles -> { });
+    }
+    
+    /**
+     * Crea un nuevo envío completando antes de registrarlo los datos que no
+     * recibe este método (valor declarado, costo, distancia, destinatario...).
+     * Así el registro en la bitácora ya los incluye y sobreviven a un reinicio.
+     * 
+     * @param detalles Ajustes sobre el builder del envío antes de registrarlo
+     * @return Objeto Envio creado y registrado en el sistema
+     * @throws RuntimeException Si el usuario no existe en el sistema
+     * @see #crearEnvio(String, Direccion, Direccion, Envio.TipoEnvio, double, double, String)
+     */
+    public Envio crearEnvio(String idUsuario, Direccion origen, Direccion destino,
+                           Envio.TipoEnvio tipo, double peso, double volumen, String descripcion,
+                           Consumer<Envio.EnvioBuilder> detalles) {
         // Buscar usuario
-        Usuario usuario = sistema.getUsuarios().stream()
-                .filter(u -> u.getIdUsuario().equals(idUsuario))
-                .findFirst()
-                .orElse(null);
+        Usuario usuario = sistema.buscarUsuarioPorId(idUsuario);
         
         if (usuario == null) {
             throw new RuntimeException("Usuario no encontrado");
         }
         
         // Crear envío usando builder
-        Envio envio = Envio.builder()
+        Envio.EnvioBuilder builder = Envio.builder()
                 .idEnvio(java.util.UUID.randomUUID().toString())
                 .usuario(usuario)
                 .origen(origen)
@@ -76,12 +119,9 @@ public class EnvioController {
                 .peso(peso)
                 .volumen(volumen)
                 .descripcion(descripcion)
-                .fechaEntregaEstimada(java.time.LocalDateTime.now().plusDays(tipo == Envio.TipoEnvio.EXPRESS ? 1 : 3))
-                .build();
-        
-        // Inicializar estado y observadores
-        envio.setEstadoActual(new EstadoSolicitado());
-        envio.agregarObservador(new NotificadorUsuario(usuario.getIdUsuario(), usuario.getNombreCompleto()));
+                .fechaEntregaEstimada(java.time.LocalDateTime.now().plusDays(tipo == Envio.TipoEnvio.EXPRESS ? 1 : 3));
+        detalles.accept(builder);
+        Envio envio = builder.build();
         
         sistema.registrarEnvio(envio);
         return envio;
@@ -107,13 +147,9 @@ public class EnvioController {
         // Calcular costo basado en distancia, peso y volumen
         double distancia = servicioDistancia.calcularDistancia(origen, destino);
         double volumen = envio.getVolumen();
-        double costo = calcularCosto(peso, volumen, distancia, 1.0);
+        double costo = motorTarifas.cotizar(peso, volumen, distancia, Envio.TipoEnvio.ESTANDAR);
         envio.setCosto(costo);
         
-        // Inicializar estado y observadores
-        envio.setEstadoActual(new EstadoSolicitado());
-        envio.agregarObservador(new NotificadorUsuario(usuario.getIdUsuario(), usuario.getNombreCompleto()));
-        
         sistema.registrarEnvio(envio);
         return envio;
     }
@@ -137,18 +173,180 @@ public class EnvioController {
         
         double distancia = servicioDistancia.calcularDistancia(origen, destino);
         double volumen = envio.getVolumen();
-        double costo = calcularCosto(peso, volumen, distancia, 1.5); // 50% más caro
+        double costo = motorTarifas.cotizar(peso, volumen, distancia, Envio.TipoEnvio.EXPRESS); // 50% más caro
         envio.setCosto(costo);
         
-        envio.setEstadoActual(new EstadoSolicitado());
-        envio.agregarObservador(new NotificadorUsuario(usuario.getIdUsuario(), usuario.getNombreCompleto()));
-        
         sistema.registrarEnvio(envio);
         return envio;
     }
     
+    /**
+     * Crea en bloque los envíos de un lote de solicitudes (por ejemplo, el archivo de un aliado).
+     *
+     * Los usuarios del lote se resuelven una sola vez por id; la validación, el cálculo de
+     * distancia y la tarifación de cada fila se ejecutan en paralelo, y los envíos aceptados
+     * se registran en SistemaGestion en una única operación (una sola espera de bitácora).
+     * Las filas inválidas no detienen el lote: se devuelven en el reporte de rechazos con
+     * los mismos mensajes que {@link #validarDatosEnvio}.
+     *
+     * @param solicitudes Solicitudes en el orden de las filas del lote
+     * @return Envíos aceptados y rechazos por fila
+     */
+    public ResultadoLoteEnvios crearEnviosEnLote(List<SolicitudEnvio> solicitudes) {
+        ResultadoLoteEnvios resultado = new ResultadoLoteEnvios();
+        procesarBloque(solicitudes, 0, resultado);
+        return resultado;
+    }
+
+    /**
+     * Crea en bloque los envíos de un flujo de solicitudes sin materializarlo completo.
+     * Las solicitudes se procesan en bloques de {@value #TAMANO_BLOQUE_LOTE} filas; cada
+     * bloque se valida en paralelo y se registra en una única operación.
+     *
+     * @param solicitudes Flujo de solicitudes en el orden de las filas del lote
+     * @return Envíos aceptados y rechazos por fila
+     */
+    public ResultadoLoteEnvios crearEnviosEnLote(Stream<SolicitudEnvio> solicitudes) {
+        ResultadoLoteEnvios resultado = new ResultadoLoteEnvios();
+        List<SolicitudEnvio> bloque = new ArrayList<>(TAMANO_BLOQUE_LOTE);
+        int desplazamiento = 0;
+        Iterator<SolicitudEnvio> iterador = solicitudes.iterator();
+        while (iterador.hasNext()) {
+            bloque.add(iterador.next());
+            if (bloque.size() == TAMANO_BLOQUE_LOTE || !iterador.hasNext()) {
+                procesarBloque(bloque, desplazamiento, resultado);
+                desplazamiento += bloque.size();
+                bloque.clear();
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Importa los envíos de un CSV con el formato de ReporteEnvios (por ejemplo, un
+     * histórico exportado) leyéndolo por bloques, con memoria acotada sin importar
+     * el tamaño del archivo.
+     *
+     * @param archivo Ruta del CSV
+     * @param progreso Receptor del avance por bloque (puede ser null)
+     * @return Filas importadas y rechazadas con el número de línea de cada rechazo
+     * @throws IOException Si el archivo no se puede leer
+     */
+    public ImportadorEnviosCSV.Resultado importarEnviosCSV(Path archivo, ImportadorEnviosCSV.Progreso progreso)
+            throws IOException {
+        return new ImportadorEnviosCSV(sistema).importar(archivo, progreso);
+    }
+
+    /**
+     * Valida, tarifa y registra un bloque de solicitudes.
+     *
+     * @param bloque Solicitudes del bloque
+     * @param desplazamiento Fila del lote que corresponde a la primera solicitud del bloque
+     * @param resultado Resultado donde se acumulan aceptados y rechazos
+     */
+    private void procesarBloque(List<SolicitudEnvio> bloque, int desplazamiento, ResultadoLoteEnvios resultado) {
+        // Resolver los usuarios del bloque en una pasada
+        Map<String, Usuario> usuarios = new HashMap<>();
+        for (SolicitudEnvio solicitud : bloque) {
+            String idUsuario = solicitud.getIdUsuario();
+            if (idUsuario != null && !usuarios.containsKey(idUsuario)) {
+                usuarios.put(idUsuario, sistema.buscarUsuarioPorId(idUsuario));
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Envio[] creados = new Envio[bloque.size()];
+        String[] errores = new String[bloque.size()];
+        IntStream.range(0, bloque.size()).parallel().forEach(i -> {
+            SolicitudEnvio solicitud = bloque.get(i);
+            Usuario usuario = solicitud.getIdUsuario() != null ? usuarios.get(solicitud.getIdUsuario()) : null;
+            try {
+                if (usuario == null) {
+                    throw new IllegalArgumentException("- Usuario no encontrado\n");
+                }
+                creados[i] = prepararEnvio(solicitud, usuario, ahora);
+            } catch (IllegalArgumentException e) {
+                errores[i] = e.getMessage();
+            }
+        });
+
+        List<Envio> aceptados = new ArrayList<>(bloque.size());
+        for (int i = 0; i < creados.length; i++) {
+            if (creados[i] != null) {
+                aceptados.add(creados[i]);
+            } else {
+                resultado.agregarRechazo(desplazamiento + i, errores[i]);
+            }
+        }
+        sistema.registrarEnvios(aceptados);
+        resultado.agregarAceptados(aceptados);
+    }
+
+    /**
+     * Valida una solicitud y construye su envío con distancia y costo calculados.
+     * Se invoca en paralelo, por lo que no modifica estado compartido.
+     *
+     * @throws IllegalArgumentException Si la solicitud no pasa la validación
+     */
+    private Envio prepararEnvio(SolicitudEnvio solicitud, Usuario usuario, LocalDateTime ahora) {
+        long errores = ValidadorDatos.validarEnvio(solicitud.getDescripcion(), solicitud.getPeso(),
+                solicitud.getVolumen(), solicitud.getValorDeclarado(), solicitud.getOrigen(), solicitud.getDestino(),
+                solicitud.getNombreDestinatario(), solicitud.getTelefonoDestinatario(),
+                solicitud.getEmailDestinatario());
+        if (errores != ValidadorDatos.SIN_ERRORES) {
+            throw new IllegalArgumentException(CodigoValidacion.renderizar(errores));
+        }
+
+        Envio.TipoEnvio tipo = solicitud.getTipoEnvio() != null ? solicitud.getTipoEnvio() : Envio.TipoEnvio.ESTANDAR;
+        double distancia = servicioDistancia.calcularDistancia(solicitud.getOrigen(), solicitud.getDestino());
+        return Envio.builder()
+                .idEnvio(generarIdEnvio())
+                .usuario(usuario)
+                .origen(solicitud.getOrigen())
+                .destino(solicitud.getDestino())
+                .tipoEnvio(tipo)
+                .peso(solicitud.getPeso())
+                .volumen(solicitud.getVolumen())
+                .descripcion(solicitud.getDescripcion())
+                .valorDeclarado(solicitud.getValorDeclarado())
+                .distancia(distancia)
+                .nombreDestinatario(solicitud.getNombreDestinatario())
+                .telefonoDestinatario(solicitud.getTelefonoDestinatario())
+                .emailDestinatario(solicitud.getEmailDestinatario())
+                .costo(calcularCostoEnvio(solicitud.getPeso(), solicitud.getVolumen(), distancia, tipo))
+                .fechaCreacion(ahora)
+                .fechaEntregaEstimada(calcularFechaEntrega(tipo, ahora))
+                .build();
+    }
+
+    /**
+     * Fecha estimada de entrega según el tipo, con los mismos plazos que EnvioFactory.
+     */
+    private static LocalDateTime calcularFechaEntrega(Envio.TipoEnvio tipo, LocalDateTime desde) {
+        switch (tipo) {
+            case EXPRESS:
+                return desde.plusHours(24);
+            case FRAGIL:
+                return desde.plusDays(2);
+            default:
+                return desde.plusDays(3);
+        }
+    }
+
+    /**
+     * Genera un UUID versión 4 con ThreadLocalRandom. UUID.randomUUID usa un
+     * SecureRandom compartido que serializa a los hilos del lote.
+     */
+    private static String generarIdEnvio() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        long altos = (aleatorio.nextLong() & ~0xF000L) | 0x4000L;
+        long bajos = (aleatorio.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(altos, bajos).toString();
+    }
+
     /**
      * Calcula el costo total de un envío basado en múltiples factores.
+     * Delega en MotorTarifas; los valores siguientes son los de la tabla predeterminada.
      * 
      * Tarificación:
      * - Tarifa base: $3,500 (mínimo)
@@ -167,55 +365,100 @@ public class EnvioController {
      * @return Costo total calculado en pesos colombianos
      */
     public double calcularCostoEnvio(double peso, double volumen, double distancia, Envio.TipoEnvio tipo) {
-        // Tarifas realistas para un sistema de envíos colombiano
-        double tarifaBase = 3500.0; // Tarifa base mínima
-        double costoPeso = peso * 150.0; // $150 por kg
-        
-        // Convertir volumen de cm³ a dm³ (litros) para cargo por volumen
-        double volumenDM3 = volumen / 1000.0; // 1 dm³ = 1000 cm³
-        double costoVolumen = volumenDM3 * 50.0; // $50 por dm³
-        
-        double costoDistancia = distancia * 50.0; // $50 por km
-        
-        double factorPrioridad = 1.0;
-        switch (tipo) {
-            case EXPRESS:
-                factorPrioridad = 1.5; // 50% más caro
-                break;
-            case FRAGIL:
-                factorPrioridad = 1.3; // 30% más caro
-                break;
-            default:
-                factorPrioridad = 1.0;
-        }
-        
-        double costoTotal = tarifaBase + costoPeso + costoVolumen + costoDistancia;
-        return costoTotal * factorPrioridad;
+        return motorTarifas.cotizar(peso, volumen, distancia, tipo);
     }
-    
+
     /**
-     * Calcula el costo con un factor de prioridad personalizado.
-     * Método interno utilizado por crearEnvioEstandar y crearEnvioExpress.
-     * 
-     * @param peso Peso en kilogramos
+     * Calcula el costo del envío con sus servicios adicionales, cada uno con el
+     * recargo de la tabla de tarifas vigente.
+     *
+     * @param peso Peso del paquete en kilogramos
      * @param volumen Volumen en centímetros cúbicos
      * @param distancia Distancia en kilómetros
-     * @param factorPrioridad Factor multiplicador (1.0 = tarifa base, 1.5 = 50% más)
-     * @return Costo total calculado
+     * @param tipo Tipo de envío que determina el factor de prioridad
+     * @param valorDeclarado Valor declarado en pesos (base del seguro)
+     * @param adicionales Máscara con el {@link ServicioAdicional#bit()} de cada servicio
+     * @return Costo total calculado en pesos colombianos
      */
-    private double calcularCosto(double peso, double volumen, double distancia, double factorPrioridad) {
-        // Tarifas realistas para un sistema de envíos colombiano
-        double tarifaBase = 3500.0; // Tarifa base mínima
-        double costoPeso = peso * 150.0; // $150 por kg
+    public double calcularCostoEnvio(double peso, double volumen, double distancia, Envio.TipoEnvio tipo,
+                                     double valorDeclarado, long adicionales) {
+        return motorTarifas.cotizar(peso, volumen, distancia, tipo.ordinal(), valorDeclarado, adicionales);
+    }
+
+    /**
+     * @return Tasa vigente del servicio adicional sobre su base (0.10 = 10%)
+     */
+    public double obtenerRecargo(ServicioAdicional adicional) {
+        return motorTarifas.getRecargo(adicional);
+    }
+    
+    /**
+     * Recotiza con la tabla de tarifas vigente todos los envíos abiertos (SOLICITADO y ASIGNADO).
+     * 
+     * Se proyectan peso, volumen, distancia, tipo y servicios adicionales de los envíos
+     * a arreglos primitivos, se cotizan en paralelo sobre el pool fork-join común con
+     * una sola lectura de la tabla (todas las cotizaciones usan las mismas tarifas y
+     * recargos) y los costos se escriben
+     * en una única operación de SistemaGestion, con el candado de cada envío. Los envíos
+     * que cambiaron de estado entre la proyección y la escritura no se modifican.
+     * 
+     * Las distancias que faltan se resuelven antes de la pasada paralela, en una sola
+     * consulta por lote al servicio de distancia (con caché), y se guardan en el envío
+     * junto con su costo nuevo; así la cotización paralela solo hace cálculo y no
+     * bloquea hilos del pool común esperando al proveedor remoto.
+     * 
+     * @return Envíos evaluados, envíos cuyo costo cambió y variación de ingresos
+     */
+    public ResultadoRecotizacion recotizarEnviosAbiertos() {
+        List<Envio> abiertos = new ArrayList<>(sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.SOLICITADO));
+        abiertos.addAll(sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.ASIGNADO));
+        int total = abiertos.size();
         
-        // Convertir volumen de cm³ a dm³ (litros) para cargo por volumen
-        double volumenDM3 = volumen / 1000.0; // 1 dm³ = 1000 cm³
-        double costoVolumen = volumenDM3 * 50.0; // $50 por dm³
+        double[] pesos = new double[total];
+        double[] volumenes = new double[total];
+        double[] distancias = new double[total];
+        int[] tipos = new int[total];
+        double[] valoresDeclarados = new double[total];
+        long[] adicionales = new long[total];
         
-        double costoDistancia = distancia * 50.0; // $50 por km
+        List<Integer> sinDistancia = new ArrayList<>();
+        List<ParDirecciones> pares = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            Envio envio = abiertos.get(i);
+            distancias[i] = envio.getDistancia();
+            if (distancias[i] <= 0) {
+                sinDistancia.add(i);
+                pares.add(new ParDirecciones(envio.getOrigen(), envio.getDestino()));
+            }
+        }
+        if (!pares.isEmpty()) {
+            double[] resueltas = servicioDistancia.calcularDistancias(pares);
+            for (int j = 0; j < resueltas.length; j++) {
+                distancias[sinDistancia.get(j)] = resueltas[j];
+            }
+        }
         
-        double costoTotal = tarifaBase + costoPeso + costoVolumen + costoDistancia;
-        return costoTotal * factorPrioridad;
+        IntStream.range(0, total).parallel().forEach(i -> {
+            Envio envio = abiertos.get(i);
+            pesos[i] = envio.getPeso();
+            volumenes[i] = envio.getVolumen();
+            tipos[i] = envio.getTipoEnvio() != null ? envio.getTipoEnvio().ordinal() : 0;
+            valoresDeclarados[i] = envio.getValorDeclarado();
+            adicionales[i] = envio.getAdicionales();
+        });
+        
+        TablaTarifas tabla = motorTarifas.getTabla();
+        double[] costos = new double[total];
+        IntStream.range(0, total).parallel()
+                .forEach(i -> costos[i] = tabla.cotizar(pesos[i], volumenes[i], distancias[i], tipos[i],
+                        valoresDeclarados[i], adicionales[i]));
+        
+        ResultadoRecotizacion resultado = sistema.actualizarCostos(abiertos, distancias, costos,
+                envio -> envio.getEstado() == Envio.EstadoEnvio.SOLICITADO
+                        || envio.getEstado() == Envio.EstadoEnvio.ASIGNADO);
+        System.out.println("✓ Envíos recotizados: " + resultado.getEnviosModificados() + " de "
+                + resultado.getEnviosEvaluados());
+        return resultado;
     }
     
     /**
@@ -226,11 +469,8 @@ public class EnvioController {
      * @param idEnvio Identificador único del envío a cancelar
      */
     public void cancelarEnvio(String idEnvio) {
-        buscarEnvioPorId(idEnvio).ifPresent(envio -> {
-            Command comando = new CancelarEnvioCommand(envio);
-            gestorComandos.ejecutarComando(comando);
-            envio.cancelarEnvio();
-        });
+        Command comando = new CancelarEnvioCommand(sistema, idEnvio);
+        gestorComandos.ejecutarComando(sesion, comando);
     }
     
     /**
@@ -246,10 +486,24 @@ public class EnvioController {
      * @throws IllegalStateException Si la transición no es válida
      */
     public void actualizarEstado(String idEnvio, Envio.EstadoEnvio nuevoEstado) {
-        buscarEnvioPorId(idEnvio).ifPresent(envio -> {
-            Command comando = new ActualizarEstadoCommand(envio, nuevoEstado);
-            gestorComandos.ejecutarComando(comando);
-        });
+        Command comando = new ActualizarEstadoCommand(sistema, idEnvio, nuevoEstado);
+        gestorComandos.ejecutarComando(sesion, comando);
+    }
+    
+    /**
+     * Actualiza en lote el estado de varios envíos, por ejemplo los paquetes que
+     * un repartidor escanea a la vez en un centro de acopio. Todas las
+     * transiciones se validan en la tabla del patrón State y se aplican en una
+     * sola operación; las no permitidas se reportan sin interrumpir el lote. El
+     * lote queda en el historial como un único comando que puede deshacerse.
+     * 
+     * @param cambios Estado pedido para cada envío, por id
+     * @return Desenlace de cada cambio, en el orden del mapa
+     */
+    public ResultadoCambiosEstado actualizarEstadosEnLote(Map<String, Envio.EstadoEnvio> cambios) {
+        ActualizarEstadosLoteCommand comando = new ActualizarEstadosLoteCommand(sistema, cambios);
+        gestorComandos.ejecutarComando(sesion, comando);
+        return comando.getResultado();
     }
     
     /**
@@ -259,7 +513,7 @@ public class EnvioController {
      * @param idEnvio Identificador del envío a iniciar
      */
     public void iniciarEntrega(String idEnvio) {
-        buscarEnvioPorId(idEnvio).ifPresent(Envio::iniciarEntrega);
+        sistema.modificarEnvio(idEnvio, Envio::iniciarEntrega);
     }
     
     /**
@@ -270,7 +524,7 @@ public class EnvioController {
      * @param idEnvio Identificador del envío a marcar como entregado
      */
     public void marcarComoEntregado(String idEnvio) {
-        buscarEnvioPorId(idEnvio).ifPresent(Envio::marcarEntregado);
+        sistema.modificarEnvio(idEnvio, Envio::marcarEntregado);
     }
     
     /**
@@ -282,7 +536,7 @@ public class EnvioController {
      * @param descripcion Descripción detallada del problema
      */
     public void reportarIncidencia(String idEnvio, String descripcion) {
-        buscarEnvioPorId(idEnvio).ifPresent(envio -> {
+        sistema.modificarEnvio(idEnvio, envio -> {
             envio.reportarProblema();
             Incidencia incidencia = new Incidencia.Builder(java.util.UUID.randomUUID().toString())
                     .conDescripcion(descripcion)
@@ -299,9 +553,7 @@ public class EnvioController {
      * @return Optional conteniendo el envío si existe, Optional vacío en caso contrario
      */
     public Optional<Envio> buscarEnvioPorId(String id) {
-        return sistema.getEnvios().stream()
-                .filter(e -> e.getIdEnvio().equals(id))
-                .findFirst();
+        return Optional.ofNullable(sistema.buscarEnvioPorId(id));
     }
     
     /**
@@ -320,9 +572,7 @@ public class EnvioController {
      * @return Lista de envíos que coinciden con el estado especificado
      */
     public List<Envio> filtrarPorEstado(Envio.EstadoEnvio estado) {
-        return sistema.getEnvios().stream()
-                .filter(e -> e.getEstado() == estado)
-                .collect(Collectors.toList());
+        return sistema.buscarEnviosPorEstado(estado);
     }
     
     /**
@@ -332,9 +582,7 @@ public class EnvioController {
      * @return Lista de envíos pendientes de asignación
      */
     public List<Envio> obtenerEnviosPendientesAsignacion() {
-        return sistema.getEnvios().stream()
-                .filter(e -> e.getEstado() == Envio.EstadoEnvio.SOLICITADO)
-                .collect(Collectors.toList());
+        return sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.SOLICITADO);
     }
     
     /**
@@ -343,7 +591,7 @@ public class EnvioController {
      * Solo funciona con operaciones que implementan Command (cancelación, cambio de estado).
      */
     public void deshacerUltimaOperacion() {
-        gestorComandos.deshacerUltimoComando();
+        gestorComandos.deshacerUltimoComando(sesion);
     }
     
     /**
@@ -351,12 +599,13 @@ public class EnvioController {
      * Permite avanzar nuevamente en el historial de operaciones.
      */
     public void rehacerUltimaOperacion() {
-        gestorComandos.rehacerUltimoComando();
+        gestorComandos.rehacerUltimoComando(sesion);
     }
     
     /**
      * Valida los datos de un nuevo envío antes de su creación.
-     * Realiza validaciones exhaustivas en todos los campos obligatorios y opcionales.
+     * Realiza validaciones exhaustivas en todos los campos obligatorios y opcionales
+     * con el motor de ValidadorDatos.
      * 
      * Validaciones incluyen:
      * - Descripción: Obligatoria, máximo 200 caracteres
@@ -380,90 +629,10 @@ public class EnvioController {
     public void validarDatosEnvio(String descripcion, double peso, double volumen, double valorDeclarado,
                                    Direccion origen, Direccion destino, 
                                    String nombreDestinatario, String telefonoDestinatario, String emailDestinatario) {
-        StringBuilder errores = new StringBuilder();
-        
-        // Validar descripción
-        if (descripcion == null || descripcion.trim().isEmpty()) {
-            errores.append("- La descripción del paquete es obligatoria\n");
-        } else if (descripcion.length() > 200) {
-            errores.append("- La descripción no puede exceder 200 caracteres\n");
-        }
-        
-        // Validar peso
-        if (peso <= 0) {
-            errores.append("- El peso debe ser mayor a 0 kg\n");
-        } else if (peso > 1000) {
-            errores.append("- El peso máximo permitido es 1000 kg\n");
-        }
-        
-        // Validar volumen
-        if (volumen <= 0) {
-            errores.append("- El volumen debe ser mayor a 0 cm³\n");
-        } else if (volumen > 1000000) { // 1 metro cúbico
-            errores.append("- El volumen máximo permitido es 1,000,000 cm³ (1 m³)\n");
-        }
-        
-        // Validar valor declarado
-        if (valorDeclarado < 0) {
-            errores.append("- El valor declarado no puede ser negativo\n");
-        } else if (valorDeclarado > 100000000) { // 100 millones
-            errores.append("- El valor declarado máximo es $100,000,000\n");
-        }
-        
-        // Validar direcciones
-        if (origen == null) {
-            errores.append("- La dirección de origen es obligatoria\n");
-        } else {
-            if (origen.getCiudad() == null || origen.getCiudad().trim().isEmpty()) {
-                errores.append("- La ciudad de origen es obligatoria\n");
-            }
-            if (origen.getLatitud() == 0 && origen.getLongitud() == 0) {
-                errores.append("- Las coordenadas de origen son obligatorias\n");
-            }
-        }
-        
-        if (destino == null) {
-            errores.append("- La dirección de destino es obligatoria\n");
-        } else {
-            if (destino.getCiudad() == null || destino.getCiudad().trim().isEmpty()) {
-                errores.append("- La ciudad de destino es obligatoria\n");
-            }
-            if (destino.getLatitud() == 0 && destino.getLongitud() == 0) {
-                errores.append("- Las coordenadas de destino son obligatorias\n");
-            }
-        }
-        
-        // Validar que origen y destino no sean el mismo
-        if (origen != null && destino != null) {
-            if (Math.abs(origen.getLatitud() - destino.getLatitud()) < 0.0001 && 
-                Math.abs(origen.getLongitud() - destino.getLongitud()) < 0.0001) {
-                errores.append("- El origen y destino no pueden ser el mismo lugar\n");
-            }
-        }
-        
-        // Validar destinatario
-        if (nombreDestinatario == null || nombreDestinatario.trim().isEmpty()) {
-            errores.append("- El nombre del destinatario es obligatorio\n");
-        } else if (nombreDestinatario.length() < 3) {
-            errores.append("- El nombre del destinatario debe tener al menos 3 caracteres\n");
-        } else if (!nombreDestinatario.matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑ ]+$")) {
-            errores.append("- El nombre del destinatario solo puede contener letras y espacios\n");
-        }
-        
-        if (telefonoDestinatario == null || telefonoDestinatario.trim().isEmpty()) {
-            errores.append("- El teléfono del destinatario es obligatorio\n");
-        } else if (!telefonoDestinatario.matches("^[0-9]{7,10}$")) {
-            errores.append("- El teléfono debe tener entre 7 y 10 dígitos\n");
-        }
-        
-        if (emailDestinatario != null && !emailDestinatario.trim().isEmpty()) {
-            if (!emailDestinatario.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-                errores.append("- El formato del email no es válido\n");
-            }
-        }
-        
-        if (errores.length() > 0) {
-            throw new IllegalArgumentException(errores.toString());
+        long errores = ValidadorDatos.validarEnvio(descripcion, peso, volumen, valorDeclarado, origen, destino,
+                nombreDestinatario, telefonoDestinatario, emailDestinatario);
+        if (errores != ValidadorDatos.SIN_ERRORES) {
+            throw new IllegalArgumentException(CodigoValidacion.renderizar(errores));
         }
     }
     
@@ -476,13 +645,7 @@ public class EnvioController {
      * @throws IllegalStateException Si el envío no puede ser eliminado por su estado
      */
     public boolean eliminarEnvio(String idEnvio) {
-        Optional<Envio> envioOpt = sistema.getEnvios().stream()
-                .filter(e -> e.getIdEnvio().equals(idEnvio))
-                .findFirst();
-        
-        if (envioOpt.isPresent()) {
-            Envio envio = envioOpt.get();
-            
+        Envio eliminado = sistema.eliminarEnvio(idEnvio, envio -> {
             // Verificar que el envío no esté en un estado que impida su eliminación
             if (envio.getEstado() == Envio.EstadoEnvio.EN_RUTA) {
                 throw new IllegalStateException("No se puede eliminar un envío que está en ruta");
@@ -491,10 +654,7 @@ public class EnvioController {
             if (envio.getEstado() == Envio.EstadoEnvio.ENTREGADO) {
                 throw new IllegalStateException("No se puede eliminar un envío que ya fue entregado");
             }
-            
-            sistema.getEnvios().remove(envio);
-            return true;
-        }
-        return false;
+        });
+        return eliminado != null;
     }
 }
@@ -60,9 +60,7 @@ public class PagoController {
     }
     
     public Optional<Pago> buscarPagoPorId(String id) {
-        return sistema.getPagos().stream()
-                .filter(p -> p.getIdPago().equals(id))
-                .findFirst();
+        return Optional.ofNullable(sistema.buscarPagoPorId(id));
     }
     
     public Optional<Pago> buscarPagoPorEnvio(String idEnvio) {
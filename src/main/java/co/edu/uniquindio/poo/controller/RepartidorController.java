@@ -1,19 +1,30 @@
 package co.edu.uniquindio.poo.controller;
 
+import co.edu.uniquindio.poo.adapter.ServicioDistanciaCache;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.PlanificadorRutas;
 import co.edu.uniquindio.poo.model.Repartidor;
+import co.edu.uniquindio.poo.model.RutaPlanificada;
 import co.edu.uniquindio.poo.model.SistemaGestion;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Controlador para gestión de repartidores
  */
 public class RepartidorController {
     private final SistemaGestion sistema;
+    private final PlanificadorRutas planificadorRutas;
     
     public RepartidorController() {
         this.sistema = SistemaGestion.obtenerInstancia();
+        this.planificadorRutas = new PlanificadorRutas(ServicioDistanciaCache.compartido());
     }
     
     /**
@@ -46,12 +57,24 @@ public class RepartidorController {
     }
     
     /**
-     * Obtiene solo los repartidores disponibles (estado ACTIVO)
+     * Obtiene solo los repartidores disponibles (estado ACTIVO), de menor a mayor carga
      */
     public List<Repartidor> obtenerRepartidoresDisponibles() {
-        return sistema.getRepartidores().stream()
-                .filter(r -> r.getEstado() == Repartidor.EstadoRepartidor.ACTIVO)
-                .toList();
+        return sistema.buscarRepartidoresDisponibles();
+    }
+    
+    /**
+     * Obtiene los repartidores disponibles de una zona (y sus subzonas), de menor a mayor carga
+     */
+    public List<Repartidor> obtenerRepartidoresDisponibles(String zona) {
+        return sistema.buscarRepartidoresDisponibles(zona);
+    }
+    
+    /**
+     * Obtiene el repartidor disponible con menos envíos asignados de una zona
+     */
+    public Repartidor obtenerRepartidorMenosCargado(String zona) {
+        return sistema.buscarRepartidorMenosCargado(zona);
     }
     
     /**
@@ -66,13 +89,14 @@ public class RepartidorController {
      */
     public void actualizarRepartidor(String idRepartidor, String nombre, String documento, 
                                      String telefono, String zonaCobertura, Repartidor.EstadoRepartidor estado) {
-        Repartidor repartidor = sistema.buscarRepartidorPorId(idRepartidor);
-        if (repartidor != null) {
+        boolean actualizado = sistema.modificarRepartidor(idRepartidor, repartidor -> {
             repartidor.setNombre(nombre);
             repartidor.setDocumento(documento);
             repartidor.setTelefono(telefono);
             repartidor.setZonaCobertura(zonaCobertura);
             repartidor.setEstado(estado);
+        });
+        if (actualizado) {
             System.out.println("✓ Repartidor actualizado: " + nombre);
         }
     }
@@ -82,7 +106,8 @@ public class RepartidorController {
      */
     public void eliminarRepartidor(String idRepartidor) {
         Repartidor repartidor = sistema.buscarRepartidorPorId(idRepartidor);
-        if (repartidor != null && repartidor.getEnviosAsignados() == 0) {
+        // Retirarlo cierra sus cupos: ninguna asignación concurrente puede colarse antes de eliminarlo
+        if (repartidor != null && repartidor.retirar()) {
             sistema.eliminarRepartidor(idRepartidor);
             System.out.println("✓ Repartidor eliminado");
         } else if (repartidor != null) {
@@ -94,10 +119,36 @@ public class RepartidorController {
      * Cambia el estado de un repartidor
      */
     public void cambiarEstado(String idRepartidor, Repartidor.EstadoRepartidor estado) {
-        Repartidor repartidor = sistema.buscarRepartidorPorId(idRepartidor);
-        if (repartidor != null) {
-            repartidor.setEstado(estado);
+        if (sistema.modificarRepartidor(idRepartidor, repartidor -> repartidor.setEstado(estado))) {
             System.out.println("✓ Estado actualizado");
         }
     }
+    
+    /**
+     * Planifica la ruta de recogidas y entregas de los envíos abiertos de un
+     * repartidor y actualiza la fecha estimada de entrega de cada uno según la ruta.
+     * 
+     * @param idRepartidor Identificador del repartidor
+     * @param presupuesto Tiempo máximo de optimización
+     * @return Ruta planificada, o null si el repartidor no existe
+     */
+    public RutaPlanificada optimizarRuta(String idRepartidor, Duration presupuesto) {
+        Repartidor repartidor = sistema.buscarRepartidorPorId(idRepartidor);
+        if (repartidor == null) {
+            return null;
+        }
+        List<Envio> envios = sistema.buscarEnviosPorRepartidor(idRepartidor);
+        RutaPlanificada ruta = planificadorRutas.planificar(envios, null, presupuesto, LocalDateTime.now());
+        
+        Map<String, Consumer<Envio>> cambios = new HashMap<>();
+        ruta.getEntregasEstimadas().forEach((idEnvio, fecha) -> cambios.put(idEnvio, envio -> {
+            // El envío pudo reasignarse o avanzar mientras se planificaba
+            if (envio.getRepartidor() == repartidor && (envio.getEstado() == Envio.EstadoEnvio.ASIGNADO
+                    || envio.getEstado() == Envio.EstadoEnvio.EN_RUTA)) {
+                envio.setFechaEntregaEstimada(fecha);
+            }
+        }));
+        sistema.modificarEnvios(cambios);
+        return ruta;
+    }
 }
@@ -26,47 +26,39 @@ public class UsuarioController {
     }
     
     public Optional<Usuario> autenticar(String correo, String password) {
-        return sistema.getUsuarios().stream()
-                .filter(u -> u.getCorreoElectronico().equals(correo) && 
-                           u.getPassword().equals(password))
-                .findFirst();
+        return buscarUsuarioPorCorreo(correo)
+                .filter(u -> u.getPassword() != null && u.getPassword().equals(password));
     }
     
     public Optional<Usuario> buscarUsuarioPorId(String id) {
-        return sistema.getUsuarios().stream()
-                .filter(u -> u.getIdUsuario().equals(id))
-                .findFirst();
+        return Optional.ofNullable(sistema.buscarUsuarioPorId(id));
     }
     
     public Optional<Usuario> buscarUsuarioPorCorreo(String correo) {
-        return sistema.getUsuarios().stream()
-                .filter(u -> u.getCorreoElectronico().equals(correo))
-                .findFirst();
+        return Optional.ofNullable(sistema.buscarUsuarioPorCorreo(correo));
     }
     
     public void actualizarPerfil(String idUsuario, String nombre, String telefono) {
-        buscarUsuarioPorId(idUsuario).ifPresent(usuario -> {
+        sistema.modificarUsuario(idUsuario, usuario -> {
             usuario.setNombreCompleto(nombre);
             usuario.setTelefono(telefono);
         });
     }
     
     public void agregarDireccion(String idUsuario, Direccion direccion) {
-        buscarUsuarioPorId(idUsuario).ifPresent(usuario -> {
+        sistema.modificarUsuario(idUsuario, usuario -> {
             usuario.agregarDireccionFrecuente(direccion);
         });
     }
     
     public void agregarMetodoPago(String idUsuario, MetodoPago metodoPago) {
-        buscarUsuarioPorId(idUsuario).ifPresent(usuario -> {
+        sistema.modificarUsuario(idUsuario, usuario -> {
             usuario.agregarMetodoPago(metodoPago);
         });
     }
     
     public List<Envio> obtenerEnviosUsuario(String idUsuario) {
-        return sistema.getEnvios().stream()
-                .filter(e -> e.getUsuario().getIdUsuario().equals(idUsuario))
-                .collect(Collectors.toList());
+        return sistema.buscarEnviosPorUsuario(idUsuario);
     }
     
     public List<Envio> filtrarEnviosPorEstado(String idUsuario, Envio.EstadoEnvio estado) {
@@ -80,8 +72,7 @@ public class UsuarioController {
     }
     
     public boolean eliminarUsuario(String idUsuario) {
-        Optional<Usuario> usuario = buscarUsuarioPorId(idUsuario);
-        if (usuario.isPresent()) {
+        Usuario eliminado = sistema.eliminarUsuario(idUsuario, usuario -> {
             // Verificar que no tenga envíos activos
             long enviosActivos = obtenerEnviosUsuario(idUsuario).stream()
                     .filter(e -> e.getEstado() != Envio.EstadoEnvio.ENTREGADO)
@@ -90,10 +81,7 @@ public class UsuarioController {
             if (enviosActivos > 0) {
                 throw new IllegalStateException("No se puede eliminar un usuario con envíos activos");
             }
-            
-            sistema.getUsuarios().remove(usuario.get());
-            return true;
-        }
-        return false;
+        });
+        return eliminado != null;
     }
 }
@@ -0,0 +1,9 @@
+package co.edu.uniquindio.poo.decorator;
+
+import co.edu.uniquindio.poo.model.ServicioAdicional;
+
+public class ServicioEntregaExpress extends ServicioEnvioDecorator {
+    public ServicioEntregaExpress(ServicioEnvio servicio) {
+        super(servicio, ServicioAdicional.ENTREGA_EXPRESS);
+    }
+}
@@ -5,4 +5,9 @@ import co.edu.uniquindio.poo.model.Envio;
 public interface ServicioEnvio {
     double calcularCosto(Envio envio);
     String getDescripcion();
-}
\ No newline at end of file
+
+    /**
+     * @return Máscara de ServicioAdicional que suma la cadena de decoradores
+     */
+    long getAdicionales();
+}
@@ -12,4 +12,9 @@ public class ServicioEnvioBase implements ServicioEnvio {
     public String getDescripcion() {
         return "Servicio de envío básico";
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getAdicionales() {
+        return 0L;
+    }
+}
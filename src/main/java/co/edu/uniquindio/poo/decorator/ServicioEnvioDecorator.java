@@ -1,21 +1,36 @@
 package co.edu.uniquindio.poo.decorator;
 
 import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.MotorTarifas;
+import co.edu.uniquindio.poo.model.ServicioAdicional;
 
+/**
+ * Decorador que agrega un ServicioAdicional. El recargo es el de la TablaTarifas
+ * vigente sobre el costo y el valor declarado del envío, el mismo que suma
+ * MotorTarifas.cotizar con el bit del servicio.
+ */
 public abstract class ServicioEnvioDecorator implements ServicioEnvio {
     protected ServicioEnvio servicioDecorado;
+    protected final ServicioAdicional adicional;
     
-    public ServicioEnvioDecorator(ServicioEnvio servicio) {
+    public ServicioEnvioDecorator(ServicioEnvio servicio, ServicioAdicional adicional) {
         this.servicioDecorado = servicio;
+        this.adicional = adicional;
     }
     
     @Override
     public double calcularCosto(Envio envio) {
-        return servicioDecorado.calcularCosto(envio);
+        return servicioDecorado.calcularCosto(envio) + MotorTarifas.obtenerInstancia()
+                .calcularRecargo(adicional, envio.getCosto(), envio.getValorDeclarado());
     }
     
     @Override
     public String getDescripcion() {
-        return servicioDecorado.getDescripcion();
+        return servicioDecorado.getDescripcion() + " + " + adicional.getDescripcion();
     }
-}
\ No newline at end of file
+
+    @Override
+    public long getAdicionales() {
+        return servicioDecorado.getAdicionales() | adicional.bit();
+    }
+}
@@ -1,19 +1,9 @@
 package co.edu.uniquindio.poo.decorator;
 
-import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.ServicioAdicional;
 
 public class ServicioSeguro extends ServicioEnvioDecorator {
     public ServicioSeguro(ServicioEnvio servicio) {
-        super(servicio);
+        super(servicio, ServicioAdicional.SEGURO);
     }
-    
-    @Override
-    public double calcularCosto(Envio envio) {
-        return super.calcularCosto(envio) + 5000; // Costo adicional del seguro
-    }
-    
-    @Override
-    public String getDescripcion() {
-        return super.getDescripcion() + " + Seguro";
-    }
-}
\ No newline at end of file
+}
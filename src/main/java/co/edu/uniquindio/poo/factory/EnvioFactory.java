@@ -76,7 +76,8 @@ public class EnvioFactory {
     /**
      * Crea un envío de tipo frágil.
      * Configuración: Entrega en 2 días, tarifa 1.3x (30% más cara por manejo especial).
-     * Incluye embalaje reforzado y manejo cuidadoso.
+     * Incluye embalaje reforzado y manejo cuidadoso. El recargo lo aplica MotorTarifas
+     * al cotizar el envío.
      * 
      * @param usuario Usuario propietario del envío
      * @param origen Dirección de partida
@@ -85,11 +86,11 @@ public class EnvioFactory {
      * @param largo Largo del paquete en centímetros
      * @param ancho Ancho del paquete en centímetros
      * @param alto Alto del paquete en centímetros
-     * @return Nuevo envío frágil en estado SOLICITADO con costo aumentado
+     * @return Nuevo envío frágil en estado SOLICITADO
      */
     public static Envio crearEnvioFragil(Usuario usuario, Direccion origen, Direccion destino,
                                          double peso, double largo, double ancho, double alto) {
-        Envio envio = Envio.builder()
+        return Envio.builder()
                 .idEnvio(UUID.randomUUID().toString())
                 .origen(origen)
                 .destino(destino)
@@ -102,11 +103,5 @@ public class EnvioFactory {
                 .estado(Envio.EstadoEnvio.SOLICITADO)
                 .fechaEntregaEstimada(LocalDateTime.now().plusDays(2))
                 .build();
-        
-        // Agregar recargo por frágil (20%)
-        double costoBase = envio.getCosto();
-        envio.setCosto(costoBase * 1.2);
-        
-        return envio;
     }
 }
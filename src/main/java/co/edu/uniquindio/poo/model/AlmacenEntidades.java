@@ -0,0 +1,168 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Almacén concurrente de entidades indexado por clave primaria.
+ *
+ * Reemplaza las listas simples de SistemaGestion: las búsquedas, registros y
+ * eliminaciones por identificador son O(1) sobre un ConcurrentHashMap, mientras
+ * que un mapa ordenado por secuencia de inserción conserva el orden original
+ * para los listados.
+ *
+ * Registrar una entidad con un identificador ya existente la reemplaza
+ * manteniendo su posición en el listado. Las escrituras se protegen con un
+ * candado segmentado por clave: escrituras sobre entidades distintas no compiten
+ * y las lecturas nunca se bloquean.
+ *
+ * @param <T> Tipo de entidad almacenada
+ */
+public class AlmacenEntidades<T> {
+    private final Function<T, String> extractorId;
+    private final ConcurrentHashMap<String, Entrada<T>> porId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, T> porOrden = new ConcurrentSkipListMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final BloqueoSegmentado bloqueo = new BloqueoSegmentado();
+
+    /**
+     * Entrada interna que asocia la entidad con su posición de inserción.
+     */
+    private static final class Entrada<T> {
+        private final long secuencia;
+        private final T valor;
+
+        private Entrada(long secuencia, T valor) {
+            this.secuencia = secuencia;
+            this.valor = valor;
+        }
+    }
+
+    /**
+     * Crea un almacén vacío.
+     *
+     * @param extractorId Función que obtiene la clave primaria de cada entidad
+     */
+    public AlmacenEntidades(Function<T, String> extractorId) {
+        this.extractorId = extractorId;
+    }
+
+    /**
+     * Registra o reemplaza una entidad según su clave primaria.
+     *
+     * @param entidad Entidad a guardar
+     * @return Entidad que estaba registrada con la misma clave, o null si no existía
+     */
+    public T guardar(T entidad) {
+        String id = extractorId.apply(entidad);
+        return bloqueo.calcular(id, () -> {
+            Entrada<T> actual = porId.get(id);
+            long posicion = actual != null ? actual.secuencia : secuencia.incrementAndGet();
+            porOrden.put(posicion, entidad);
+            porId.put(id, new Entrada<>(posicion, entidad));
+            return actual != null ? actual.valor : null;
+        });
+    }
+
+    /**
+     * Busca una entidad por su clave primaria en tiempo constante.
+     *
+     * @param id Clave primaria
+     * @return Entidad encontrada o null si no existe
+     */
+    public T buscar(String id) {
+        if (id == null) {
+            return null;
+        }
+        Entrada<T> entrada = porId.get(id);
+        return entrada != null ? entrada.valor : null;
+    }
+
+    /**
+     * Elimina una entidad por su clave primaria.
+     *
+     * @param id Clave primaria
+     * @return Entidad eliminada o null si no existía
+     */
+    public T eliminar(String id) {
+        if (id == null) {
+            return null;
+        }
+        return bloqueo.calcular(id, () -> {
+            Entrada<T> entrada = porId.remove(id);
+            if (entrada == null) {
+                return null;
+            }
+            porOrden.remove(entrada.secuencia, entrada.valor);
+            return entrada.valor;
+        });
+    }
+    
+    /**
+     * Ejecuta una operación compuesta con el candado de la entidad adquirido.
+     * Las operaciones de guardar y eliminar sobre la misma clave pueden
+     * invocarse dentro de la acción, ya que el candado es reentrante.
+     *
+     * @param id Clave primaria de la entidad
+     * @param accion Operación a ejecutar de forma exclusiva
+     * @return Resultado de la operación
+     */
+    public <R> R calcularConBloqueo(String id, Supplier<R> accion) {
+        return bloqueo.calcular(id, accion);
+    }
+    
+    /**
+     * Ejecuta una operación sin resultado con el candado de la entidad adquirido.
+     *
+     * @param id Clave primaria de la entidad
+     * @param accion Operación a ejecutar de forma exclusiva
+     */
+    public void ejecutarConBloqueo(String id, Runnable accion) {
+        bloqueo.ejecutar(id, accion);
+    }
+
+    /**
+     * Verifica si existe una entidad con la clave indicada.
+     *
+     * @param id Clave primaria
+     * @return true si la entidad está registrada
+     */
+    public boolean contiene(String id) {
+        return id != null && porId.containsKey(id);
+    }
+
+    /**
+     * Obtiene la posición de inserción de una entidad registrada.
+     * Permite a los índices secundarios conservar el mismo orden que los listados.
+     *
+     * @param id Clave primaria
+     * @return Secuencia de inserción, o -1 si la entidad no está registrada
+     */
+    public long secuenciaDe(String id) {
+        Entrada<T> entrada = id != null ? porId.get(id) : null;
+        return entrada != null ? entrada.secuencia : -1;
+    }
+
+    /**
+     * Cantidad de entidades registradas.
+     *
+     * @return Número de entidades
+     */
+    public int tamano() {
+        return porId.size();
+    }
+
+    /**
+     * Obtiene una copia de las entidades en orden de inserción.
+     *
+     * @return Lista nueva con las entidades registradas
+     */
+    public List<T> listar() {
+        return new ArrayList<>(porOrden.values());
+    }
+}
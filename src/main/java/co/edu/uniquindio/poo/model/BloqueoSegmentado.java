@@ -0,0 +1,83 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Conjunto fijo de candados repartidos por hash de la clave (lock striping).
+ *
+ * Cada clave se asocia siempre al mismo candado, de modo que las escrituras
+ * sobre una misma entidad se serializan mientras que las escrituras sobre
+ * entidades distintas casi nunca compiten. Los candados son reentrantes para
+ * permitir que una operación protegida invoque otras del mismo almacén.
+ */
+public class BloqueoSegmentado {
+    private final ReentrantLock[] candados;
+    private final int mascara;
+
+    /**
+     * Crea el conjunto de candados.
+     *
+     * @param segmentos Cantidad mínima de segmentos; se redondea a potencia de dos
+     */
+    public BloqueoSegmentado(int segmentos) {
+        int tamano = Integer.highestOneBit(Math.max(1, segmentos - 1)) << 1;
+        this.candados = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            candados[i] = new ReentrantLock();
+        }
+        this.mascara = tamano - 1;
+    }
+
+    /**
+     * Crea un conjunto dimensionado según los procesadores disponibles.
+     */
+    public BloqueoSegmentado() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    /**
+     * Obtiene el índice de segmento correspondiente a una clave.
+     *
+     * @param clave Clave de la entidad
+     * @return Índice del candado asociado
+     */
+    public int segmentoDe(String clave) {
+        int h = clave != null ? clave.hashCode() : 0;
+        h ^= (h >>> 16);
+        return h & mascara;
+    }
+
+    /**
+     * Ejecuta una acción con el candado de la clave adquirido.
+     *
+     * @param clave Clave de la entidad a modificar
+     * @param accion Acción a ejecutar
+     * @return Resultado de la acción
+     */
+    public <R> R calcular(String clave, Supplier<R> accion) {
+        ReentrantLock candado = candados[segmentoDe(clave)];
+        candado.lock();
+        try {
+            return accion.get();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una acción sin resultado con el candado de la clave adquirido.
+     *
+     * @param clave Clave de la entidad a modificar
+     * @param accion Acción a ejecutar
+     */
+    public void ejecutar(String clave, Runnable accion) {
+        ReentrantLock candado = candados[segmentoDe(clave)];
+        candado.lock();
+        try {
+            accion.run();
+        } finally {
+            candado.unlock();
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package co.edu.uniquindio.poo.model;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
 
-import co.edu.uniquindio.poo.observer.Subject;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.NonNull;
 import lombok.ToString;
 
@@ -17,17 +17,22 @@ import lombok.ToString;
  * datos del destinatario y estado actual.
  * 
  * Implementa patrones de diseño:
- * - Observer: Para notificar cambios de estado a observadores suscritos
+ * - Observer: SistemaGestion publica sus cambios de estado en el BusEventos
  * - State: Para validar transiciones de estado permitidas
  * 
  * Ciclo de vida de un envío:
  * SOLICITADO -> ASIGNADO -> EN_RUTA -> ENTREGADO (o INCIDENCIA)
+ * 
+ * Un envío registrado en SistemaGestion solo se modifica dentro de
+ * SistemaGestion#modificarEnvio (o de sus operaciones en lote): ahí el cambio
+ * ocurre con el candado del envío adquirido, junto con la actualización de
+ * índices, métricas y bitácora. Fuera de ellas los setters lanzan
+ * IllegalStateException; los envíos aún no registrados se modifican libremente.
  */
 @Getter
-@Setter
 @ToString
 @Builder(toBuilder = true)
-public class Envio extends Subject {
+public class Envio {
     
     /** Identificador único del envío en el sistema */
     @NonNull
@@ -96,6 +101,10 @@ public class Envio extends Subject {
     /** Repartidor asignado al envío */
     private Repartidor repartidor;
     
+    /** Servicios adicionales contratados, como máscara de {@link ServicioAdicional#bit()} */
+    @Builder.Default
+    private long adicionales = 0L;
+    
     /** Costo total del envío en pesos */
     @Builder.Default
     private double costo = 0.0;
@@ -108,8 +117,16 @@ public class Envio extends Subject {
     @NonNull
     private LocalDateTime fechaEntregaEstimada;
     
-    /** Objeto de estado que maneja las transiciones de estado (patrón State) */
-    private co.edu.uniquindio.poo.state.EstadoEnvio estadoActual;
+    /** Marca de un envío registrado que ningún hilo está modificando */
+    private static final Object REGISTRADO = new Object();
+    
+    /**
+     * Quién puede modificar el envío: null mientras no está registrado,
+     * REGISTRADO cuando está en SistemaGestion, o el hilo que lo modifica.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient AtomicReference<Object> editor = new AtomicReference<>();
     
     /**
      * Tipos de envío disponibles con tarifas diferenciadas
@@ -154,14 +171,230 @@ public class Envio extends Subject {
     }
     
     /**
-     * Cambia el estado actual del envío y notifica a los observadores.
-     * Implementa el patrón State para validar transiciones permitidas.
+     * Marca el envío como registrado en SistemaGestion, o lo libera al quitarlo.
+     * 
+     * @param registrado true al registrarlo, false al eliminarlo o reemplazarlo
+     */
+    void marcarRegistrado(boolean registrado) {
+        editor.set(registrado ? REGISTRADO : null);
+    }
+    
+    /**
+     * Permite al hilo actual modificar el envío. SistemaGestion lo invoca con el
+     * candado del envío adquirido.
+     * 
+     * @return Editor anterior, que se restaura con {@link #terminarEdicion}
+     */
+    Object iniciarEdicion() {
+        return editor.getAndSet(Thread.currentThread());
+    }
+    
+    /**
+     * Restaura el editor que había antes de {@link #iniciarEdicion}, salvo que
+     * el envío se haya quitado del sistema durante la edición.
+     * 
+     * @param anterior Valor devuelto por iniciarEdicion
+     */
+    void terminarEdicion(Object anterior) {
+        editor.compareAndSet(Thread.currentThread(), anterior);
+    }
+    
+    /**
+     * @throws IllegalStateException Si el envío está registrado y el hilo actual
+     *                               no lo está modificando desde SistemaGestion
+     */
+    private void verificarEdicion() {
+        Object actual = editor.get();
+        if (actual != null && actual != Thread.currentThread()) {
+            throw new IllegalStateException("El envío " + idEnvio
+                    + " está registrado: modifíquelo con SistemaGestion.modificarEnvio");
+        }
+    }
+    
+    /**
+     * @param idEnvio Identificador único del envío
+     */
+    public void setIdEnvio(@NonNull String idEnvio) {
+        verificarEdicion();
+        this.idEnvio = idEnvio;
+    }
+    
+    /**
+     * @param origen Dirección de origen
+     */
+    public void setOrigen(@NonNull Direccion origen) {
+        verificarEdicion();
+        this.origen = origen;
+    }
+    
+    /**
+     * @param destino Dirección de destino
+     */
+    public void setDestino(@NonNull Direccion destino) {
+        verificarEdicion();
+        this.destino = destino;
+    }
+    
+    /**
+     * @param peso Peso en kilogramos
+     */
+    public void setPeso(double peso) {
+        verificarEdicion();
+        this.peso = peso;
+    }
+    
+    /**
+     * @param largo Largo en centímetros
+     */
+    public void setLargo(double largo) {
+        verificarEdicion();
+        this.largo = largo;
+    }
+    
+    /**
+     * @param ancho Ancho en centímetros
+     */
+    public void setAncho(double ancho) {
+        verificarEdicion();
+        this.ancho = ancho;
+    }
+    
+    /**
+     * @param alto Alto en centímetros
+     */
+    public void setAlto(double alto) {
+        verificarEdicion();
+        this.alto = alto;
+    }
+    
+    /**
+     * @param volumen Volumen en centímetros cúbicos
+     */
+    public void setVolumen(double volumen) {
+        verificarEdicion();
+        this.volumen = volumen;
+    }
+    
+    /**
+     * @param descripcion Descripción del contenido
+     */
+    public void setDescripcion(String descripcion) {
+        verificarEdicion();
+        this.descripcion = descripcion;
+    }
+    
+    /**
+     * @param valorDeclarado Valor declarado en pesos
+     */
+    public void setValorDeclarado(double valorDeclarado) {
+        verificarEdicion();
+        this.valorDeclarado = valorDeclarado;
+    }
+    
+    /**
+     * @param distancia Distancia en kilómetros
+     */
+    public void setDistancia(double distancia) {
+        verificarEdicion();
+        this.distancia = distancia;
+    }
+    
+    /**
+     * @param nombreDestinatario Nombre del destinatario
+     */
+    public void setNombreDestinatario(String nombreDestinatario) {
+        verificarEdicion();
+        this.nombreDestinatario = nombreDestinatario;
+    }
+    
+    /**
+     * @param telefonoDestinatario Teléfono del destinatario
+     */
+    public void setTelefonoDestinatario(String telefonoDestinatario) {
+        verificarEdicion();
+        this.telefonoDestinatario = telefonoDestinatario;
+    }
+    
+    /**
+     * @param emailDestinatario Correo del destinatario
+     */
+    public void setEmailDestinatario(String emailDestinatario) {
+        verificarEdicion();
+        this.emailDestinatario = emailDestinatario;
+    }
+    
+    /**
+     * @param tipoEnvio Categoría de envío
+     */
+    public void setTipoEnvio(TipoEnvio tipoEnvio) {
+        verificarEdicion();
+        this.tipoEnvio = tipoEnvio;
+    }
+    
+    /**
+     * @param estado Nuevo estado del envío
+     */
+    public void setEstado(EstadoEnvio estado) {
+        verificarEdicion();
+        this.estado = estado;
+    }
+    
+    /**
+     * @param usuario Usuario que realizó el envío
+     */
+    public void setUsuario(@NonNull Usuario usuario) {
+        verificarEdicion();
+        this.usuario = usuario;
+    }
+    
+    /**
+     * @param repartidor Repartidor asignado (null para dejar el envío sin asignar)
+     */
+    public void setRepartidor(Repartidor repartidor) {
+        verificarEdicion();
+        this.repartidor = repartidor;
+    }
+    
+    /**
+     * @param adicionales Máscara de servicios adicionales contratados
+     */
+    public void setAdicionales(long adicionales) {
+        verificarEdicion();
+        this.adicionales = adicionales;
+    }
+    
+    /**
+     * @param costo Nuevo costo en pesos
+     */
+    public void setCosto(double costo) {
+        verificarEdicion();
+        this.costo = costo;
+    }
+    
+    /**
+     * @param fechaCreacion Fecha y hora de creación
+     */
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        verificarEdicion();
+        this.fechaCreacion = fechaCreacion;
+    }
+    
+    /**
+     * @param fechaEntregaEstimada Fecha y hora estimada de entrega
+     */
+    public void setFechaEntregaEstimada(@NonNull LocalDateTime fechaEntregaEstimada) {
+        verificarEdicion();
+        this.fechaEntregaEstimada = fechaEntregaEstimada;
+    }
+    
+    /**
+     * Objeto de estado que maneja las transiciones (patrón State). Se deriva
+     * del enum, que es la única fuente del estado, así que no pueden divergir.
      * 
-     * @param nuevoEstado Nuevo objeto de estado a aplicar
+     * @return Objeto de estado compartido correspondiente al estado actual
      */
-    public void setEstadoActual(co.edu.uniquindio.poo.state.EstadoEnvio nuevoEstado) {
-        this.estadoActual = nuevoEstado;
-        notificarObservadores("Estado del envío cambiado a: " + nuevoEstado.getNombre(), this);
+    public co.edu.uniquindio.poo.state.EstadoEnvio getEstadoActual() {
+        return co.edu.uniquindio.poo.state.EstadoEnvio.desde(estado);
     }
     
     /**
@@ -169,9 +402,7 @@ public class Envio extends Subject {
      * Delega la acción al objeto de estado correspondiente.
      */
     public void procesarEnvio() {
-        if (estadoActual != null) {
-            estadoActual.procesar(this);
-        }
+        getEstadoActual().procesar(this);
     }
     
     /**
@@ -179,9 +410,7 @@ public class Envio extends Subject {
      * Transiciona de SOLICITADO a ASIGNADO.
      */
     public void asignarRepartidor() {
-        if (estadoActual != null) {
-            estadoActual.asignar(this);
-        }
+        getEstadoActual().asignar(this);
     }
     
     /**
@@ -189,9 +418,7 @@ public class Envio extends Subject {
      * Transiciona de ASIGNADO a EN_RUTA.
      */
     public void iniciarEntrega() {
-        if (estadoActual != null) {
-            estadoActual.iniciarRuta(this);
-        }
+        getEstadoActual().iniciarRuta(this);
     }
     
     /**
@@ -199,9 +426,7 @@ public class Envio extends Subject {
      * Transiciona de EN_RUTA a ENTREGADO.
      */
     public void marcarEntregado() {
-        if (estadoActual != null) {
-            estadoActual.entregar(this);
-        }
+        getEstadoActual().entregar(this);
     }
     
     /**
@@ -209,9 +434,7 @@ public class Envio extends Subject {
      * Transiciona a INCIDENCIA para investigación.
      */
     public void reportarProblema() {
-        if (estadoActual != null) {
-            estadoActual.reportarIncidencia(this);
-        }
+        getEstadoActual().reportarIncidencia(this);
     }
     
     /**
@@ -219,8 +442,6 @@ public class Envio extends Subject {
      * Solo permitido en estado SOLICITADO.
      */
     public void cancelarEnvio() {
-        if (estadoActual != null) {
-            estadoActual.cancelar(this);
-        }
+        getEstadoActual().cancelar(this);
     }
 }
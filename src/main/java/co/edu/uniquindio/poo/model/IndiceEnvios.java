@@ -0,0 +1,138 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índices secundarios de envíos por estado, usuario y repartidor.
+ *
+ * Se mantienen de forma incremental desde SistemaGestion cada vez que un envío
+ * se registra, se elimina, cambia de estado, cambia de usuario o se reasigna a
+ * otro repartidor.
+ * Cada grupo guarda los envíos por su secuencia de inserción en el almacén
+ * principal, así las consultas cuestan el tamaño de su resultado y conservan
+ * el mismo orden que el listado completo.
+ */
+class IndiceEnvios {
+    private final Map<Envio.EstadoEnvio, ConcurrentSkipListMap<Long, Envio>> porEstado;
+    private final Map<String, ConcurrentSkipListMap<Long, Envio>> porUsuario = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Long, Envio>> porRepartidor = new ConcurrentHashMap<>();
+
+    IndiceEnvios() {
+        porEstado = new EnumMap<>(Envio.EstadoEnvio.class);
+        for (Envio.EstadoEnvio estado : Envio.EstadoEnvio.values()) {
+            porEstado.put(estado, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Agrega un envío recién registrado a todos los índices.
+     *
+     * @param envio Envío registrado
+     * @param secuencia Posición del envío en el almacén principal
+     */
+    void agregar(Envio envio, long secuencia) {
+        if (envio.getEstado() != null) {
+            porEstado.get(envio.getEstado()).put(secuencia, envio);
+        }
+        agregarEnGrupo(porUsuario, idUsuario(envio.getUsuario()), secuencia, envio);
+        agregarEnGrupo(porRepartidor, idRepartidor(envio.getRepartidor()), secuencia, envio);
+    }
+
+    /**
+     * Retira un envío de todos los índices.
+     *
+     * @param envio Envío eliminado o reemplazado
+     * @param secuencia Posición del envío en el almacén principal
+     */
+    void quitar(Envio envio, long secuencia) {
+        if (envio.getEstado() != null) {
+            porEstado.get(envio.getEstado()).remove(secuencia, envio);
+        }
+        quitarDeGrupo(porUsuario, idUsuario(envio.getUsuario()), secuencia, envio);
+        quitarDeGrupo(porRepartidor, idRepartidor(envio.getRepartidor()), secuencia, envio);
+    }
+
+    /**
+     * Mueve un envío entre los grupos de estado.
+     */
+    void moverEstado(Envio envio, long secuencia, Envio.EstadoEnvio anterior) {
+        if (anterior != null) {
+            porEstado.get(anterior).remove(secuencia, envio);
+        }
+        if (envio.getEstado() != null) {
+            porEstado.get(envio.getEstado()).put(secuencia, envio);
+        }
+    }
+
+    /**
+     * Mueve un envío entre los grupos de usuario.
+     */
+    void moverUsuario(Envio envio, long secuencia, Usuario anterior) {
+        quitarDeGrupo(porUsuario, idUsuario(anterior), secuencia, envio);
+        agregarEnGrupo(porUsuario, idUsuario(envio.getUsuario()), secuencia, envio);
+    }
+
+    /**
+     * Mueve un envío entre los grupos de repartidor.
+     */
+    void moverRepartidor(Envio envio, long secuencia, Repartidor anterior) {
+        quitarDeGrupo(porRepartidor, idRepartidor(anterior), secuencia, envio);
+        agregarEnGrupo(porRepartidor, idRepartidor(envio.getRepartidor()), secuencia, envio);
+    }
+
+    List<Envio> porEstado(Envio.EstadoEnvio estado) {
+        return new ArrayList<>(porEstado.get(estado).values());
+    }
+
+    List<Envio> porUsuario(String idUsuario) {
+        return copiarGrupo(porUsuario, idUsuario);
+    }
+
+    List<Envio> porRepartidor(String idRepartidor) {
+        return copiarGrupo(porRepartidor, idRepartidor);
+    }
+
+    private static List<Envio> copiarGrupo(Map<String, ConcurrentSkipListMap<Long, Envio>> indice, String clave) {
+        if (clave == null) {
+            return new ArrayList<>();
+        }
+        ConcurrentSkipListMap<Long, Envio> grupo = indice.get(clave);
+        return grupo != null ? new ArrayList<>(grupo.values()) : new ArrayList<>();
+    }
+
+    private static void agregarEnGrupo(Map<String, ConcurrentSkipListMap<Long, Envio>> indice,
+                                       String clave, long secuencia, Envio envio) {
+        if (clave == null) {
+            return;
+        }
+        indice.compute(clave, (k, grupo) -> {
+            ConcurrentSkipListMap<Long, Envio> destino = grupo != null ? grupo : new ConcurrentSkipListMap<>();
+            destino.put(secuencia, envio);
+            return destino;
+        });
+    }
+
+    private static void quitarDeGrupo(Map<String, ConcurrentSkipListMap<Long, Envio>> indice,
+                                      String clave, long secuencia, Envio envio) {
+        if (clave == null) {
+            return;
+        }
+        indice.computeIfPresent(clave, (k, grupo) -> {
+            grupo.remove(secuencia, envio);
+            return grupo.isEmpty() ? null : grupo;
+        });
+    }
+
+    private static String idUsuario(Usuario usuario) {
+        return usuario != null ? usuario.getIdUsuario() : null;
+    }
+
+    private static String idRepartidor(Repartidor repartidor) {
+        return repartidor != null ? repartidor.getIdRepartidor() : null;
+    }
+}
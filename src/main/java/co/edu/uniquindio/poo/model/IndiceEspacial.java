@@ -0,0 +1,222 @@
+package co.edu.uniquindio.poo.model;
+
+import co.edu.uniquindio.poo.utils.Geohash;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Índice espacial en rejilla de celdas geohash.
+ *
+ * Cada elemento se ubica por una Direccion y se guarda en la celda geohash de sus
+ * coordenadas; los elementos de un mismo dueño (un envío, un usuario) se reemplazan
+ * juntos. Una búsqueda por radio solo revisa las celdas que cubren el círculo y
+ * filtra por distancia real (Haversine); los k más cercanos se obtienen ampliando
+ * el radio hasta reunir k candidatos. Las direcciones sin coordenadas (0, 0) no se
+ * indexan.
+ *
+ * SistemaGestion lo actualiza con el candado de la entidad dueña adquirido, por lo
+ * que las actualizaciones de un mismo dueño nunca se cruzan; las consultas pueden
+ * ejecutarse en paralelo con ellas.
+ *
+ * @param <T> Tipo de los elementos indexados
+ */
+class IndiceEspacial<T> {
+    /** Precisión de las celdas: unos 1.2 km × 0.6 km */
+    static final int PRECISION = 6;
+    private static final double RADIO_TIERRA_KM = 6371;
+    private static final double KM_POR_GRADO = Math.PI * RADIO_TIERRA_KM / 180;
+    /** Radio a partir del cual los k más cercanos se buscan recorriendo todo el índice */
+    private static final double RADIO_MAXIMO_KM = 500;
+
+    private final Function<T, Direccion> ubicacion;
+    private final Map<Long, Set<Entrada<T>>> celdas = new ConcurrentHashMap<>();
+    private final Map<String, List<Entrada<T>>> porDueno = new ConcurrentHashMap<>();
+
+    /**
+     * @param ubicacion Dirección de cada elemento
+     */
+    IndiceEspacial(Function<T, Direccion> ubicacion) {
+        this.ubicacion = ubicacion;
+    }
+
+    /**
+     * Reemplaza los elementos de un dueño.
+     *
+     * @param dueno Identificador del dueño
+     * @param elementos Elementos actuales del dueño (vacío para quitarlos todos)
+     */
+    void actualizar(String dueno, Collection<T> elementos) {
+        List<Entrada<T>> nuevas = new ArrayList<>(elementos.size());
+        for (T elemento : elementos) {
+            Direccion direccion = elemento != null ? ubicacion.apply(elemento) : null;
+            if (direccion != null && (direccion.getLatitud() != 0 || direccion.getLongitud() != 0)) {
+                nuevas.add(new Entrada<>(elemento, direccion.getLatitud(), direccion.getLongitud()));
+            }
+        }
+        List<Entrada<T>> anteriores = nuevas.isEmpty() ? porDueno.remove(dueno) : porDueno.put(dueno, nuevas);
+        if (anteriores != null) {
+            for (Entrada<T> entrada : anteriores) {
+                celdas.computeIfPresent(entrada.celda, (celda, conjunto) -> {
+                    conjunto.remove(entrada);
+                    return conjunto.isEmpty() ? null : conjunto;
+                });
+            }
+        }
+        for (Entrada<T> entrada : nuevas) {
+            celdas.compute(entrada.celda, (celda, conjunto) -> {
+                Set<Entrada<T>> destino = conjunto != null ? conjunto : ConcurrentHashMap.newKeySet();
+                destino.add(entrada);
+                return destino;
+            });
+        }
+    }
+
+    /**
+     * Quita todos los elementos de un dueño.
+     */
+    void quitar(String dueno) {
+        actualizar(dueno, List.of());
+    }
+
+    /**
+     * Busca los elementos a una distancia máxima de un punto.
+     *
+     * @param latitud Latitud del punto en grados
+     * @param longitud Longitud del punto en grados
+     * @param radioKm Radio en kilómetros
+     * @return Elementos dentro del radio, del más cercano al más lejano
+     */
+    List<T> enRadio(double latitud, double longitud, double radioKm) {
+        return valores(cercanos(latitud, longitud, radioKm));
+    }
+
+    /**
+     * Busca los k elementos más cercanos a un punto.
+     *
+     * @param latitud Latitud del punto en grados
+     * @param longitud Longitud del punto en grados
+     * @param cantidad Número de elementos a devolver
+     * @return Hasta k elementos, del más cercano al más lejano
+     */
+    List<T> masCercanos(double latitud, double longitud, int cantidad) {
+        if (cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        double radio = Geohash.altoCelda(PRECISION) * KM_POR_GRADO;
+        while (radio <= RADIO_MAXIMO_KM) {
+            List<Cercano<T>> encontrados = cercanos(latitud, longitud, radio);
+            // Todo lo que está fuera del radio es más lejano que lo encontrado dentro
+            if (encontrados.size() >= cantidad) {
+                return valores(encontrados.subList(0, cantidad));
+            }
+            radio *= 2;
+        }
+        List<Cercano<T>> todos = new ArrayList<>();
+        for (Set<Entrada<T>> conjunto : celdas.values()) {
+            for (Entrada<T> entrada : conjunto) {
+                todos.add(new Cercano<>(entrada.valor, distanciaKm(latitud, longitud, entrada)));
+            }
+        }
+        todos.sort(Comparator.comparingDouble(cercano -> cercano.distanciaKm));
+        return valores(todos.subList(0, Math.min(cantidad, todos.size())));
+    }
+
+    int tamano() {
+        int tamano = 0;
+        for (List<Entrada<T>> entradas : porDueno.values()) {
+            tamano += entradas.size();
+        }
+        return tamano;
+    }
+
+    private List<Cercano<T>> cercanos(double latitud, double longitud, double radioKm) {
+        List<Cercano<T>> encontrados = new ArrayList<>();
+        double alto = Geohash.altoCelda(PRECISION);
+        double ancho = Geohash.anchoCelda(PRECISION);
+        double margenLatitud = radioKm / KM_POR_GRADO;
+        double coseno = Math.max(Math.cos(Math.toRadians(Math.min(89, Math.abs(latitud) + margenLatitud))), 1e-6);
+        double margenLongitud = Math.min(180, margenLatitud / coseno);
+        double latitudMinima = Math.max(-90, latitud - margenLatitud);
+        double latitudMaxima = Math.min(90, latitud + margenLatitud);
+        // Se recorren los centros de las celdas que cubren el rectángulo del círculo
+        double filaInicial = Math.floor((latitudMinima + 90) / alto);
+        double filaFinal = Math.floor((Math.min(latitudMaxima, 90 - alto / 2) + 90) / alto);
+        double columnaInicial = Math.floor((longitud - margenLongitud + 180) / ancho);
+        double columnaFinal = Math.floor((longitud + margenLongitud + 180) / ancho);
+        long columnasTotales = Math.round(360 / ancho);
+        for (double fila = filaInicial; fila <= filaFinal; fila++) {
+            double centroLatitud = -90 + (fila + 0.5) * alto;
+            for (double columna = columnaInicial; columna <= columnaFinal
+                    && columna - columnaInicial < columnasTotales; columna++) {
+                double centroLongitud = -180 + (Math.floorMod((long) columna, columnasTotales) + 0.5) * ancho;
+                Set<Entrada<T>> conjunto = celdas.get(Geohash.codificar(centroLatitud, centroLongitud, PRECISION));
+                if (conjunto == null) {
+                    continue;
+                }
+                for (Entrada<T> entrada : conjunto) {
+                    double distancia = distanciaKm(latitud, longitud, entrada);
+                    if (distancia <= radioKm) {
+                        encontrados.add(new Cercano<>(entrada.valor, distancia));
+                    }
+                }
+            }
+        }
+        encontrados.sort(Comparator.comparingDouble(cercano -> cercano.distanciaKm));
+        return encontrados;
+    }
+
+    private static <T> List<T> valores(List<Cercano<T>> cercanos) {
+        List<T> valores = new ArrayList<>(cercanos.size());
+        for (Cercano<T> cercano : cercanos) {
+            valores.add(cercano.valor);
+        }
+        return valores;
+    }
+
+    private static double distanciaKm(double latitud, double longitud, Entrada<?> entrada) {
+        return distanciaKm(latitud, longitud, entrada.latitud, entrada.longitud);
+    }
+
+    static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double senoLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double senoLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = senoLat * senoLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * senoLon * senoLon;
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.sqrt(Math.min(a, 1.0)));
+    }
+
+    /**
+     * Elemento indexado con sus coordenadas y su celda; la identidad del objeto
+     * distingue entradas repetidas del mismo elemento.
+     */
+    private static final class Entrada<T> {
+        private final T valor;
+        private final double latitud;
+        private final double longitud;
+        private final long celda;
+
+        Entrada(T valor, double latitud, double longitud) {
+            this.valor = valor;
+            this.latitud = latitud;
+            this.longitud = longitud;
+            this.celda = Geohash.codificar(latitud, longitud, PRECISION);
+        }
+    }
+
+    private static final class Cercano<T> {
+        private final T valor;
+        private final double distanciaKm;
+
+        Cercano(T valor, double distanciaKm) {
+            this.valor = valor;
+            this.distanciaKm = distanciaKm;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agregado de métricas del sistema mantenido de forma incremental.
+ *
+ * SistemaGestion actualiza los contadores en cada registro, eliminación,
+ * cambio de estado o de costo de un envío y en cada cambio de una incidencia,
+ * de modo que el panel de administración lee las métricas en O(1) sin recorrer
+ * las colecciones. Los contadores son LongAdder para que las escrituras
+ * concurrentes no compitan por una misma variable.
+ *
+ * El ingreso se acumula en centavos para que sumas y restas repetidas no
+ * acumulen error de redondeo.
+ */
+public class MetricasSistema {
+    private final LongAdder[] enviosPorEstado;
+    private final LongAdder ingresoCentavos = new LongAdder();
+    private final LongAdder incidenciasPendientes = new LongAdder();
+
+    MetricasSistema() {
+        Envio.EstadoEnvio[] estados = Envio.EstadoEnvio.values();
+        enviosPorEstado = new LongAdder[estados.length];
+        for (int i = 0; i < estados.length; i++) {
+            enviosPorEstado[i] = new LongAdder();
+        }
+    }
+
+    // Actualizaciones (invocadas por SistemaGestion con el candado del envío adquirido)
+
+    void envioAgregado(Envio envio) {
+        sumarEstado(envio.getEstado(), 1);
+        ingresoCentavos.add(aCentavos(envio.getCosto()));
+    }
+
+    void envioQuitado(Envio envio) {
+        sumarEstado(envio.getEstado(), -1);
+        ingresoCentavos.add(-aCentavos(envio.getCosto()));
+    }
+
+    void estadoCambiado(Envio.EstadoEnvio anterior, Envio.EstadoEnvio nuevo) {
+        sumarEstado(anterior, -1);
+        sumarEstado(nuevo, 1);
+    }
+
+    void costoCambiado(double anterior, double nuevo) {
+        ingresoCentavos.add(aCentavos(nuevo) - aCentavos(anterior));
+    }
+
+    void incidenciaAgregada(Incidencia incidencia) {
+        if (estaPendiente(incidencia.getEstado())) {
+            incidenciasPendientes.increment();
+        }
+    }
+
+    void incidenciaQuitada(Incidencia incidencia) {
+        if (estaPendiente(incidencia.getEstado())) {
+            incidenciasPendientes.decrement();
+        }
+    }
+
+    void estadoIncidenciaCambiado(Incidencia.EstadoIncidencia anterior, Incidencia.EstadoIncidencia nuevo) {
+        boolean antes = estaPendiente(anterior);
+        boolean despues = estaPendiente(nuevo);
+        if (antes && !despues) {
+            incidenciasPendientes.decrement();
+        } else if (!antes && despues) {
+            incidenciasPendientes.increment();
+        }
+    }
+
+    // Consultas O(1)
+
+    /**
+     * Cantidad de envíos registrados en un estado.
+     *
+     * @param estado Estado a consultar
+     * @return Número de envíos en ese estado
+     */
+    public long getEnviosEnEstado(Envio.EstadoEnvio estado) {
+        return enviosPorEstado[estado.ordinal()].sum();
+    }
+
+    /**
+     * Cantidad de envíos que aún no han sido entregados.
+     *
+     * @return Número de envíos activos
+     */
+    public long getEnviosActivos() {
+        long total = 0;
+        for (Envio.EstadoEnvio estado : Envio.EstadoEnvio.values()) {
+            if (estado != Envio.EstadoEnvio.ENTREGADO) {
+                total += getEnviosEnEstado(estado);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Suma de los costos de todos los envíos registrados, en centavos.
+     *
+     * @return Ingreso total en centavos
+     */
+    public long getIngresoCentavos() {
+        return ingresoCentavos.sum();
+    }
+
+    /**
+     * Suma de los costos de todos los envíos registrados, en pesos.
+     *
+     * @return Ingreso total
+     */
+    public double getIngresoTotal() {
+        return getIngresoCentavos() / 100.0;
+    }
+
+    /**
+     * Cantidad de incidencias reportadas o en revisión.
+     *
+     * @return Número de incidencias pendientes
+     */
+    public long getIncidenciasPendientes() {
+        return incidenciasPendientes.sum();
+    }
+
+    /**
+     * Indica si una incidencia en el estado dado se considera pendiente.
+     *
+     * @param estado Estado de la incidencia
+     * @return true si está reportada o en revisión
+     */
+    public static boolean estaPendiente(Incidencia.EstadoIncidencia estado) {
+        return estado == Incidencia.EstadoIncidencia.REPORTADA
+                || estado == Incidencia.EstadoIncidencia.EN_REVISION;
+    }
+
+    /**
+     * Convierte un valor en pesos a centavos redondeando al más cercano.
+     *
+     * @param pesos Valor en pesos
+     * @return Valor en centavos
+     */
+    public static long aCentavos(double pesos) {
+        return Math.round(pesos * 100.0);
+    }
+
+    private void sumarEstado(Envio.EstadoEnvio estado, int delta) {
+        if (estado != null) {
+            enviosPorEstado[estado.ordinal()].add(delta);
+        }
+    }
+}
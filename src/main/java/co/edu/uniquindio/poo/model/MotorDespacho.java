@@ -0,0 +1,399 @@
+package co.edu.uniquindio.poo.model;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Motor de despacho automático de envíos (patrón Singleton).
+ *
+ * En cada ventana toma los envíos SOLICITADO sin repartidor y los reparte entre
+ * los repartidores ACTIVO cuya zona de cobertura corresponde a la ciudad de origen
+ * ("Armenia Norte" cubre "Armenia"; se ignoran mayúsculas y tildes). El costo de
+ * asignar un envío a un repartidor es la distancia de recogida desde la entrega de
+ * su último envío abierto, más una penalización por cada envío que ya tiene
+ * asignado, menos una bonificación por el tiempo que el envío lleva esperando para
+ * que los más apartados no se posterguen indefinidamente.
+ *
+ * La asignación es voraz con una cola de prioridad: siempre se toma el par
+ * envío-repartidor más barato de todo el lote. Al asignar, el repartidor aumenta
+ * su carga y pasa a ubicarse en la entrega del envío; los candidatos que apuntaban
+ * a él se recalculan cuando salen de la cola (invalidación perezosa por versión).
+ * El plan se aplica con {@link SistemaGestion#asignarRepartidores} en una sola
+ * operación, que vuelve a validar cada asignación bajo los candados.
+ */
+public final class MotorDespacho {
+    /** Envíos que un repartidor puede tener asignados a la vez */
+    public static final int CAPACIDAD_PREDETERMINADA = 8;
+    /** Valor del plan para un envío que no cupo en ningún repartidor con cobertura */
+    public static final int SIN_REPARTIDOR = -1;
+    /** Valor del plan para un envío sin repartidores activos en su ciudad de origen */
+    public static final int SIN_COBERTURA = -2;
+
+    /** Kilómetros equivalentes a cada envío que el repartidor ya tiene asignado */
+    private static final double PENALIZACION_CARGA_KM = 2.0;
+    /** Distancia de recogida supuesta cuando no se conoce la posición del repartidor */
+    private static final double DISTANCIA_DESCONOCIDA_KM = 5.0;
+    /** Bonificación por minuto de espera del envío, hasta un máximo */
+    private static final double BONIFICACION_KM_POR_MINUTO = 0.05;
+    private static final double ESPERA_MAXIMA_MINUTOS = 120;
+    private static final double RADIO_TIERRA_KM = 6371;
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private final SistemaGestion sistema;
+    private final int capacidadMaxima;
+    private ScheduledExecutorService programador;
+    private volatile Consumer<Repartidor> alAsignar = repartidor -> { };
+
+    /**
+     * @param sistema Sistema del que se leen y en el que se asignan los envíos
+     * @param capacidadMaxima Envíos que un repartidor puede tener asignados a la vez
+     */
+    public MotorDespacho(SistemaGestion sistema, int capacidadMaxima) {
+        if (capacidadMaxima <= 0) {
+            throw new IllegalArgumentException("La capacidad máxima debe ser mayor a 0");
+        }
+        this.sistema = sistema;
+        this.capacidadMaxima = capacidadMaxima;
+    }
+
+    /**
+     * Contenedor de inicialización diferida de la instancia única.
+     */
+    private static class Contenedor {
+        private static final MotorDespacho INSTANCIA =
+                new MotorDespacho(SistemaGestion.obtenerInstancia(), CAPACIDAD_PREDETERMINADA);
+    }
+
+    public static MotorDespacho obtenerInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Ejecuta una ventana de despacho: planifica los envíos SOLICITADO pendientes
+     * contra los repartidores activos y aplica el plan.
+     *
+     * @return Envíos evaluados, asignados y sin cobertura
+     */
+    public synchronized ResultadoDespacho despachar() {
+        List<Envio> pendientes = sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.SOLICITADO).stream()
+                .filter(envio -> envio.getRepartidor() == null)
+                .toList();
+        if (pendientes.isEmpty()) {
+            return new ResultadoDespacho(0, 0, 0);
+        }
+        List<Repartidor> activos = sistema.buscarRepartidoresDisponibles();
+        int[] plan = planificar(pendientes, activos);
+
+        List<Envio> lote = new ArrayList<>();
+        List<Repartidor> elegidos = new ArrayList<>();
+        int sinCobertura = 0;
+        for (int i = 0; i < plan.length; i++) {
+            if (plan[i] >= 0) {
+                lote.add(pendientes.get(i));
+                elegidos.add(activos.get(plan[i]));
+            } else if (plan[i] == SIN_COBERTURA) {
+                sinCobertura++;
+            }
+        }
+        int asignados = sistema.asignarRepartidores(lote, elegidos, capacidadMaxima);
+        Set<Repartidor> conEnviosNuevos = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < lote.size(); i++) {
+            if (lote.get(i).getRepartidor() == elegidos.get(i)) {
+                conEnviosNuevos.add(elegidos.get(i));
+            }
+        }
+        conEnviosNuevos.forEach(alAsignar);
+        if (asignados > 0) {
+            System.out.println("✓ Despacho automático: " + asignados + " de " + pendientes.size()
+                    + " envíos asignados");
+        }
+        return new ResultadoDespacho(pendientes.size(), asignados, sinCobertura);
+    }
+
+    /**
+     * Calcula la asignación de un lote de envíos sin modificar el sistema.
+     *
+     * @param pendientes Envíos a asignar
+     * @param repartidores Repartidores candidatos (los no disponibles se ignoran)
+     * @return Para cada envío, el índice de su repartidor en la lista, o
+     *         {@link #SIN_REPARTIDOR} / {@link #SIN_COBERTURA}
+     */
+    public int[] planificar(List<Envio> pendientes, List<Repartidor> repartidores) {
+        return new Ventana(pendientes, repartidores).resolver();
+    }
+
+    /**
+     * Registra la acción que se ejecuta, después de aplicar cada ventana, por cada
+     * repartidor que recibió envíos (por ejemplo, replanificar su ruta).
+     *
+     * @param accion Acción por repartidor
+     */
+    public void alAsignar(Consumer<Repartidor> accion) {
+        this.alAsignar = accion;
+    }
+
+    /**
+     * Inicia el despacho automático en un hilo de fondo.
+     *
+     * @param ventana Tiempo entre el final de una ventana y el inicio de la siguiente
+     * @throws IllegalStateException Si el despacho automático ya está en marcha
+     */
+    public synchronized void iniciar(Duration ventana) {
+        if (programador != null) {
+            throw new IllegalStateException("El despacho automático ya está en marcha");
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "despacho");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(() -> {
+            try {
+                despachar();
+            } catch (RuntimeException e) {
+                System.err.println("Error en el despacho automático: " + e.getMessage());
+            }
+        }, 0, ventana.toMillis(), TimeUnit.MILLISECONDS);
+        System.out.println("✓ Despacho automático iniciado cada " + ventana.toSeconds() + " s");
+    }
+
+    /**
+     * Detiene el despacho automático; la ventana en curso, si la hay, termina.
+     */
+    public void detener() {
+        ScheduledExecutorService actual;
+        synchronized (this) {
+            actual = programador;
+            programador = null;
+        }
+        if (actual != null) {
+            actual.shutdown();
+            try {
+                actual.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public synchronized boolean isActivo() {
+        return programador != null;
+    }
+
+    /**
+     * Ubicación de un repartidor: la entrega de su último envío abierto, o null.
+     */
+    private Direccion ubicacionDe(Repartidor repartidor) {
+        List<Envio> asignados = sistema.buscarEnviosPorRepartidor(repartidor.getIdRepartidor());
+        for (int i = asignados.size() - 1; i >= 0; i--) {
+            Envio envio = asignados.get(i);
+            if (envio.getEstado() == Envio.EstadoEnvio.ASIGNADO || envio.getEstado() == Envio.EstadoEnvio.EN_RUTA) {
+                return envio.getDestino();
+            }
+        }
+        return null;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Estado de una planificación: coordenadas en radianes y cargas en arreglos
+     * paralelos, indexados por envío y por repartidor.
+     */
+    private final class Ventana {
+        private final int[] plan;
+        private final double[] latitudOrigen;
+        private final double[] longitudOrigen;
+        private final double[] cosenoOrigen;
+        private final double[] latitudDestino;
+        private final double[] longitudDestino;
+        private final double[] bonificacion;
+        private final int[][] cobertura;
+        /** Costo del segundo mejor repartidor de cada envío en su último recorrido completo */
+        private final double[] segundoCosto;
+
+        private final double[] latitudRepartidor;
+        private final double[] longitudRepartidor;
+        private final int[] carga;
+        private final int[] version;
+
+        Ventana(List<Envio> pendientes, List<Repartidor> repartidores) {
+            int m = repartidores.size();
+            latitudRepartidor = new double[m];
+            longitudRepartidor = new double[m];
+            carga = new int[m];
+            version = new int[m];
+            String[] zonas = new String[m];
+            for (int r = 0; r < m; r++) {
+                Repartidor repartidor = repartidores.get(r);
+                zonas[r] = repartidor.isDisponible() ? normalizar(repartidor.getZonaCobertura()) : null;
+                carga[r] = repartidor.getEnviosAsignados();
+                Direccion ubicacion = zonas[r] != null ? ubicacionDe(repartidor) : null;
+                latitudRepartidor[r] = ubicacion != null ? Math.toRadians(ubicacion.getLatitud()) : Double.NaN;
+                longitudRepartidor[r] = ubicacion != null ? Math.toRadians(ubicacion.getLongitud()) : Double.NaN;
+            }
+
+            int n = pendientes.size();
+            plan = new int[n];
+            latitudOrigen = new double[n];
+            longitudOrigen = new double[n];
+            cosenoOrigen = new double[n];
+            latitudDestino = new double[n];
+            longitudDestino = new double[n];
+            bonificacion = new double[n];
+            cobertura = new int[n][];
+            segundoCosto = new double[n];
+            Map<String, int[]> coberturaPorCiudad = new HashMap<>();
+            LocalDateTime ahora = LocalDateTime.now();
+            for (int e = 0; e < n; e++) {
+                Envio envio = pendientes.get(e);
+                latitudOrigen[e] = Math.toRadians(envio.getOrigen().getLatitud());
+                longitudOrigen[e] = Math.toRadians(envio.getOrigen().getLongitud());
+                cosenoOrigen[e] = Math.cos(latitudOrigen[e]);
+                latitudDestino[e] = Math.toRadians(envio.getDestino().getLatitud());
+                longitudDestino[e] = Math.toRadians(envio.getDestino().getLongitud());
+                double espera = envio.getFechaCreacion() != null
+                        ? Duration.between(envio.getFechaCreacion(), ahora).toSeconds() / 60.0 : 0;
+                bonificacion[e] = Math.max(0, Math.min(espera, ESPERA_MAXIMA_MINUTOS)) * BONIFICACION_KM_POR_MINUTO;
+                cobertura[e] = coberturaPorCiudad.computeIfAbsent(normalizar(envio.getOrigen().getCiudad()),
+                        ciudad -> repartidoresDeCiudad(ciudad, zonas));
+            }
+        }
+
+        private int[] repartidoresDeCiudad(String ciudad, String[] zonas) {
+            if (ciudad.isEmpty()) {
+                return new int[0];
+            }
+            int[] indices = new int[zonas.length];
+            int total = 0;
+            for (int r = 0; r < zonas.length; r++) {
+                String zona = zonas[r];
+                if (zona != null && zona.startsWith(ciudad)
+                        && (zona.length() == ciudad.length() || zona.charAt(ciudad.length()) == ' ')) {
+                    indices[total++] = r;
+                }
+            }
+            return Arrays.copyOf(indices, total);
+        }
+
+        int[] resolver() {
+            PriorityQueue<Candidato> cola = new PriorityQueue<>(Math.max(1, plan.length));
+            for (int e = 0; e < plan.length; e++) {
+                plan[e] = cobertura[e].length == 0 ? SIN_COBERTURA : SIN_REPARTIDOR;
+                Candidato mejor = mejorCandidato(e);
+                if (mejor != null) {
+                    cola.add(mejor);
+                }
+            }
+            while (!cola.isEmpty()) {
+                Candidato candidato = cola.poll();
+                int r = candidato.repartidor;
+                int e = candidato.envio;
+                if (candidato.version != version[r]) {
+                    // El repartidor cambió desde que se calculó. Si tiene capacidad y sigue
+                    // siendo más barato que el segundo mejor, basta con actualizar su costo;
+                    // si no, se recorren de nuevo todos los repartidores con cobertura
+                    Candidato siguiente = null;
+                    if (carga[r] < capacidadMaxima) {
+                        double costo = costo(e, r);
+                        if (costo <= segundoCosto[e]) {
+                            siguiente = new Candidato(costo - bonificacion[e], e, r, version[r]);
+                        }
+                    }
+                    if (siguiente == null) {
+                        siguiente = mejorCandidato(e);
+                    }
+                    if (siguiente != null) {
+                        cola.add(siguiente);
+                    }
+                    continue;
+                }
+                plan[e] = r;
+                carga[r]++;
+                version[r]++;
+                latitudRepartidor[r] = latitudDestino[e];
+                longitudRepartidor[r] = longitudDestino[e];
+            }
+            return plan;
+        }
+
+        private Candidato mejorCandidato(int e) {
+            int mejor = -1;
+            double mejorCosto = Double.POSITIVE_INFINITY;
+            double segundo = Double.POSITIVE_INFINITY;
+            for (int r : cobertura[e]) {
+                if (carga[r] >= capacidadMaxima) {
+                    continue;
+                }
+                double costo = costo(e, r);
+                if (costo < mejorCosto) {
+                    segundo = mejorCosto;
+                    mejor = r;
+                    mejorCosto = costo;
+                } else if (costo < segundo) {
+                    segundo = costo;
+                }
+            }
+            segundoCosto[e] = segundo;
+            return mejor < 0 ? null : new Candidato(mejorCosto - bonificacion[e], e, mejor, version[mejor]);
+        }
+
+        private double costo(int e, int r) {
+            return distanciaRecogida(e, r) + carga[r] * PENALIZACION_CARGA_KM;
+        }
+
+        /**
+         * Aproximación equirrectangular, suficiente para comparar distancias dentro de una ciudad.
+         */
+        private double distanciaRecogida(int e, int r) {
+            double latitud = latitudRepartidor[r];
+            if (Double.isNaN(latitud)) {
+                return DISTANCIA_DESCONOCIDA_KM;
+            }
+            double x = (longitudOrigen[e] - longitudRepartidor[r]) * cosenoOrigen[e];
+            double y = latitudOrigen[e] - latitud;
+            return RADIO_TIERRA_KM * Math.sqrt(x * x + y * y);
+        }
+    }
+
+    private static final class Candidato implements Comparable<Candidato> {
+        private final double costo;
+        private final int envio;
+        private final int repartidor;
+        private final int version;
+
+        Candidato(double costo, int envio, int repartidor, int version) {
+            this.costo = costo;
+            this.envio = envio;
+            this.repartidor = repartidor;
+            this.version = version;
+        }
+
+        @Override
+        public int compareTo(Candidato otro) {
+            return Double.compare(costo, otro.costo);
+        }
+    }
+}
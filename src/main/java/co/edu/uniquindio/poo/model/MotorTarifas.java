@@ -0,0 +1,104 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.Map;
+
+/**
+ * Motor único de tarificación de envíos (patrón Singleton).
+ *
+ * Reúne las reglas que antes estaban repartidas entre EnvioController, EnvioFactory
+ * y los decoradores de ServicioEnvio en una TablaTarifas inmutable. Las cotizaciones
+ * leen la tabla vigente una sola vez y trabajan sobre primitivos, sin reservar memoria.
+ * Un administrador con el permiso GESTIONAR_TARIFAS puede reemplazar la tabla: el
+ * cambio es una escritura atómica de la referencia, así que las cotizaciones en curso
+ * terminan con la tabla que leyeron y nunca se bloquean.
+ */
+public final class MotorTarifas {
+    private volatile TablaTarifas tabla = TablaTarifas.predeterminada();
+
+    private MotorTarifas() {
+    }
+
+    /**
+     * Contenedor de inicialización diferida de la instancia única.
+     */
+    private static class Contenedor {
+        private static final MotorTarifas INSTANCIA = new MotorTarifas();
+    }
+
+    public static MotorTarifas obtenerInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    /**
+     * Cotiza un envío sin servicios adicionales.
+     *
+     * @param peso Peso en kilogramos
+     * @param volumen Volumen en centímetros cúbicos
+     * @param distancia Distancia en kilómetros
+     * @param tipo Tipo de envío
+     * @return Costo en pesos colombianos
+     */
+    public double cotizar(double peso, double volumen, double distancia, Envio.TipoEnvio tipo) {
+        return tabla.cotizar(peso, volumen, distancia, tipo.ordinal(), 0.0, 0L);
+    }
+
+    /**
+     * Cotiza un envío con servicios adicionales.
+     *
+     * @param tipo Ordinal de Envio.TipoEnvio
+     * @param valorDeclarado Valor declarado en pesos (base del seguro)
+     * @param adicionales Máscara con el bit de cada ServicioAdicional contratado
+     * @return Costo en pesos colombianos
+     * @throws IllegalArgumentException Si la máscara tiene bits que no son de ningún servicio
+     */
+    public double cotizar(double peso, double volumen, double distancia, int tipo, double valorDeclarado,
+                          long adicionales) {
+        return tabla.cotizar(peso, volumen, distancia, tipo, valorDeclarado, adicionales);
+    }
+
+    /**
+     * @return Recargo vigente de un servicio adicional para un envío
+     */
+    public double calcularRecargo(ServicioAdicional adicional, double costoBase, double valorDeclarado) {
+        return tabla.calcularRecargo(adicional, costoBase, valorDeclarado);
+    }
+
+    /**
+     * @return Tasa vigente de un servicio adicional sobre su base
+     */
+    public double getRecargo(ServicioAdicional adicional) {
+        return tabla.getRecargo(adicional);
+    }
+
+    /**
+     * @return Tabla de tarifas vigente
+     */
+    public TablaTarifas getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Compila y publica una nueva tabla de tarifas.
+     *
+     * @param administrador Administrador que realiza el cambio
+     * @param tarifas Tarifa de cada tipo de envío
+     * @param recargos Tasa de los servicios adicionales (las ausentes usan la predeterminada)
+     * @throws IllegalStateException Si el administrador no tiene el permiso GESTIONAR_TARIFAS
+     * @throws IllegalArgumentException Si las tarifas están incompletas o son inválidas
+     */
+    public void actualizarTarifas(Administrador administrador, Map<Envio.TipoEnvio, Tarifa> tarifas,
+                                  Map<ServicioAdicional, Double> recargos) {
+        if (administrador == null || !administrador.tienePermiso(Administrador.Permiso.GESTIONAR_TARIFAS)) {
+            throw new IllegalStateException("El administrador no tiene permiso para gestionar tarifas");
+        }
+        tabla = new TablaTarifas(tarifas, recargos);
+        System.out.println("✓ Tarifas actualizadas por " + administrador.getNombre());
+    }
+
+    /**
+     * Restablece la tabla predeterminada (para pruebas y reinicios).
+     */
+    void restablecer() {
+        tabla = TablaTarifas.predeterminada();
+    }
+}
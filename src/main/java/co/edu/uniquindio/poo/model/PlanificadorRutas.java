@@ -0,0 +1,387 @@
+package co.edu.uniquindio.poo.model;
+
+import co.edu.uniquindio.poo.adapter.LoteCoordenadas;
+import co.edu.uniquindio.poo.adapter.ServicioDistancia;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planificador de la ruta de recogidas y entregas de un repartidor.
+ *
+ * Los envíos ASIGNADO aportan una recogida (origen) y una entrega (destino); los
+ * EN_RUTA ya fueron recogidos y solo aportan la entrega. La matriz de distancias
+ * entre paradas se calcula una vez por planificación con el cálculo uno a muchos
+ * de ServicioDistancia y se reutiliza en todas las evaluaciones.
+ *
+ * La ruta inicial se construye por inserción del más cercano: se elige el envío
+ * pendiente más próximo a la ruta y su recogida y entrega se insertan en el par
+ * de posiciones más barato. Después se mejora con 2-opt (invertir un tramo) y
+ * Or-opt (mover un tramo de 1 a 3 paradas) mientras haya mejoras y quede
+ * presupuesto de tiempo; los movimientos que dejarían una entrega antes de su
+ * recogida se descartan. La ruta es abierta: termina en la última entrega.
+ */
+public class PlanificadorRutas {
+    /** Presupuesto de tiempo por planificación cuando se replanifica en cada asignación */
+    public static final Duration PRESUPUESTO_PREDETERMINADO = Duration.ofMillis(50);
+    /** Minutos de atención en cada parada */
+    private static final int MINUTOS_POR_PARADA = 5;
+    private static final int TRAMO_MAXIMO_OR_OPT = 3;
+    private static final double EPSILON = 1e-9;
+
+    private final ServicioDistancia servicioDistancia;
+
+    public PlanificadorRutas(ServicioDistancia servicioDistancia) {
+        this.servicioDistancia = servicioDistancia;
+    }
+
+    /**
+     * Planifica la ruta de un conjunto de envíos.
+     *
+     * @param envios Envíos del repartidor (los que no están ASIGNADO ni EN_RUTA se ignoran)
+     * @param inicio Posición actual del repartidor, o null si se desconoce
+     * @param presupuesto Tiempo máximo de mejora tras construir la ruta inicial
+     * @param salida Hora de salida para estimar las entregas
+     * @return Ruta planificada con la hora estimada de cada entrega
+     */
+    public RutaPlanificada planificar(List<Envio> envios, Direccion inicio, Duration presupuesto,
+                                      LocalDateTime salida) {
+        long limite = System.nanoTime() + presupuesto.toNanos();
+        Problema problema = new Problema(envios, inicio);
+        problema.construir();
+        int mejoras = 0;
+        while (System.nanoTime() < limite && (problema.dosOpt(limite) || problema.orOpt(limite))) {
+            mejoras++;
+        }
+
+        List<RutaPlanificada.Parada> paradas = new ArrayList<>(problema.tamano);
+        Map<String, LocalDateTime> entregas = new HashMap<>();
+        LocalDateTime hora = salida;
+        Direccion anterior = inicio;
+        for (int posicion = 1; posicion <= problema.tamano; posicion++) {
+            int parada = problema.ruta[posicion];
+            RutaPlanificada.Parada siguiente = problema.paradas.get(parada - 1);
+            Direccion direccion = siguiente.getDireccion();
+            if (anterior != null) {
+                hora = hora.plusMinutes(servicioDistancia.calcularTiempoEstimado(anterior, direccion));
+            }
+            hora = hora.plusMinutes(MINUTOS_POR_PARADA);
+            if (siguiente.getTipo() == RutaPlanificada.TipoParada.ENTREGA) {
+                entregas.put(siguiente.getEnvio().getIdEnvio(), hora);
+            }
+            paradas.add(siguiente);
+            anterior = direccion;
+        }
+        return new RutaPlanificada(paradas, problema.longitud(), problema.longitudOriginal, entregas, mejoras);
+    }
+
+    /**
+     * Paradas, matriz de distancias y ruta en curso. La parada 0 es la posición del
+     * repartidor: si se desconoce, su distancia a cualquier parada es 0, de modo
+     * que la ruta puede empezar donde convenga.
+     */
+    private final class Problema {
+        private final List<RutaPlanificada.Parada> paradas = new ArrayList<>();
+        private final int tamano;
+        /** Matriz de distancias en km, por filas, de (tamano + 1) × (tamano + 1) */
+        private final double[] distancias;
+        /** Parada compañera (recogida o entrega del mismo envío), o -1 */
+        private final int[] companera;
+        private final boolean[] esRecogida;
+        private final int[] ruta;
+        private final int[] posicion;
+        private int ocupadas;
+        private final double longitudOriginal;
+
+        Problema(List<Envio> envios, Direccion inicio) {
+            for (Envio envio : envios) {
+                if (envio.getEstado() == Envio.EstadoEnvio.ASIGNADO) {
+                    paradas.add(new RutaPlanificada.Parada(envio, RutaPlanificada.TipoParada.RECOGIDA));
+                    paradas.add(new RutaPlanificada.Parada(envio, RutaPlanificada.TipoParada.ENTREGA));
+                } else if (envio.getEstado() == Envio.EstadoEnvio.EN_RUTA) {
+                    paradas.add(new RutaPlanificada.Parada(envio, RutaPlanificada.TipoParada.ENTREGA));
+                }
+            }
+            tamano = paradas.size();
+            int n = tamano + 1;
+            companera = new int[n];
+            esRecogida = new boolean[n];
+            companera[0] = -1;
+            double[] latitudes = new double[n];
+            double[] longitudes = new double[n];
+            for (int k = 1; k < n; k++) {
+                RutaPlanificada.Parada parada = paradas.get(k - 1);
+                esRecogida[k] = parada.getTipo() == RutaPlanificada.TipoParada.RECOGIDA;
+                companera[k] = -1;
+                if (esRecogida[k]) {
+                    companera[k] = k + 1;
+                } else if (k > 1 && esRecogida[k - 1] && paradas.get(k - 2).getEnvio() == parada.getEnvio()) {
+                    companera[k] = k - 1;
+                }
+                latitudes[k] = parada.getDireccion().getLatitud();
+                longitudes[k] = parada.getDireccion().getLongitud();
+            }
+            if (inicio != null) {
+                latitudes[0] = inicio.getLatitud();
+                longitudes[0] = inicio.getLongitud();
+            }
+
+            distancias = new double[n * n];
+            LoteCoordenadas lote = LoteCoordenadas.de(latitudes, longitudes);
+            double[] fila = new double[n];
+            for (int k = inicio != null ? 0 : 1; k < n; k++) {
+                servicioDistancia.calcularDistancias(latitudes[k], longitudes[k], lote, fila);
+                System.arraycopy(fila, 0, distancias, k * n, n);
+            }
+            for (int k = 0; k < n; k++) {
+                // Ninguna parada vuelve a la posición inicial
+                distancias[k * n] = 0;
+            }
+
+            ruta = new int[n];
+            posicion = new int[n];
+            ocupadas = 1;
+            double original = 0;
+            for (int k = 1; k < n; k++) {
+                original += distancia(k - 1, k);
+            }
+            longitudOriginal = original;
+        }
+
+        private double distancia(int desde, int hasta) {
+            return distancias[desde * (tamano + 1) + hasta];
+        }
+
+        /** Costo de agregar la parada entre las posiciones i e i + 1 de la ruta */
+        private double costoInsercion(int parada, int i) {
+            int anterior = ruta[i];
+            if (i + 1 >= ocupadas) {
+                return distancia(anterior, parada);
+            }
+            int siguiente = ruta[i + 1];
+            return distancia(anterior, parada) + distancia(parada, siguiente) - distancia(anterior, siguiente);
+        }
+
+        /**
+         * Construye la ruta inicial por inserción del más cercano.
+         */
+        void construir() {
+            // Unidades: la primera parada de cada envío (recogida o entrega suelta)
+            List<Integer> pendientes = new ArrayList<>();
+            for (int k = 1; k <= tamano; k++) {
+                if (esRecogida[k] || companera[k] < 0) {
+                    pendientes.add(k);
+                }
+            }
+            double[] cercania = new double[tamano + 1];
+            for (int unidad : pendientes) {
+                cercania[unidad] = distancia(0, unidad);
+            }
+            while (!pendientes.isEmpty()) {
+                int elegido = 0;
+                for (int i = 1; i < pendientes.size(); i++) {
+                    if (cercania[pendientes.get(i)] < cercania[pendientes.get(elegido)]) {
+                        elegido = i;
+                    }
+                }
+                int unidad = pendientes.get(elegido);
+                pendientes.set(elegido, pendientes.get(pendientes.size() - 1));
+                pendientes.remove(pendientes.size() - 1);
+
+                if (esRecogida[unidad]) {
+                    insertarPar(unidad, companera[unidad]);
+                } else {
+                    int mejor = 0;
+                    for (int i = 1; i < ocupadas; i++) {
+                        if (costoInsercion(unidad, i) < costoInsercion(unidad, mejor)) {
+                            mejor = i;
+                        }
+                    }
+                    insertar(unidad, mejor);
+                }
+                for (int otra : pendientes) {
+                    cercania[otra] = Math.min(cercania[otra], distancia(unidad, otra));
+                    if (esRecogida[unidad]) {
+                        cercania[otra] = Math.min(cercania[otra], distancia(companera[unidad], otra));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Inserta recogida y entrega en el par de posiciones más barato con la
+         * recogida antes: O(n) con el mínimo acumulado de los costos de recogida.
+         */
+        private void insertarPar(int recogida, int entrega) {
+            double mejorCosto = Double.POSITIVE_INFINITY;
+            int mejorRecogida = 0;
+            int mejorEntrega = 0;
+            double minimoRecogida = Double.POSITIVE_INFINITY;
+            int posicionMinimo = 0;
+            for (int j = 0; j < ocupadas; j++) {
+                // Recogida y entrega juntas entre j y j + 1
+                double juntas = distancia(ruta[j], recogida) + distancia(recogida, entrega);
+                if (j + 1 < ocupadas) {
+                    juntas += distancia(entrega, ruta[j + 1]) - distancia(ruta[j], ruta[j + 1]);
+                }
+                if (juntas < mejorCosto) {
+                    mejorCosto = juntas;
+                    mejorRecogida = j;
+                    mejorEntrega = j;
+                }
+                // Recogida en un hueco anterior y entrega entre j y j + 1
+                double separadas = minimoRecogida + costoInsercion(entrega, j);
+                if (separadas < mejorCosto) {
+                    mejorCosto = separadas;
+                    mejorRecogida = posicionMinimo;
+                    mejorEntrega = j;
+                }
+                double costoRecogida = costoInsercion(recogida, j);
+                if (costoRecogida < minimoRecogida) {
+                    minimoRecogida = costoRecogida;
+                    posicionMinimo = j;
+                }
+            }
+            // Insertar primero la entrega para no desplazar la posición de la recogida
+            insertar(entrega, mejorEntrega);
+            insertar(recogida, mejorRecogida);
+        }
+
+        /** Inserta la parada entre las posiciones i e i + 1 */
+        private void insertar(int parada, int i) {
+            System.arraycopy(ruta, i + 1, ruta, i + 2, ocupadas - i - 1);
+            ruta[i + 1] = parada;
+            ocupadas++;
+            for (int k = i + 1; k < ocupadas; k++) {
+                posicion[ruta[k]] = k;
+            }
+        }
+
+        /**
+         * Aplica el primer movimiento 2-opt que acorta la ruta sin invertir ningún
+         * par recogida-entrega completo.
+         */
+        boolean dosOpt(long limite) {
+            int n = ocupadas;
+            for (int i = 1; i < n - 1; i++) {
+                if ((i & 15) == 0 && System.nanoTime() >= limite) {
+                    return false;
+                }
+                int anterior = ruta[i - 1];
+                int primera = ruta[i];
+                double quitadoAntes = distancia(anterior, primera);
+                for (int j = i + 1; j < n; j++) {
+                    int companeraJ = companera[ruta[j]];
+                    if (companeraJ >= 0 && posicion[companeraJ] >= i && posicion[companeraJ] < j) {
+                        // El tramo ya contiene un par completo; también todos los más largos
+                        break;
+                    }
+                    int ultima = ruta[j];
+                    double delta = distancia(anterior, ultima) - quitadoAntes;
+                    if (j + 1 < n) {
+                        int siguiente = ruta[j + 1];
+                        delta += distancia(primera, siguiente) - distancia(ultima, siguiente);
+                    }
+                    if (delta < -EPSILON) {
+                        for (int a = i, b = j; a < b; a++, b--) {
+                            int temporal = ruta[a];
+                            ruta[a] = ruta[b];
+                            ruta[b] = temporal;
+                        }
+                        for (int k = i; k <= j; k++) {
+                            posicion[ruta[k]] = k;
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Aplica el primer movimiento Or-opt (mover un tramo de 1 a 3 paradas a otro
+         * hueco, sin invertirlo) que acorta la ruta y respeta las precedencias.
+         */
+        boolean orOpt(long limite) {
+            int n = ocupadas;
+            for (int largo = 1; largo <= TRAMO_MAXIMO_OR_OPT; largo++) {
+                for (int i = 1; i + largo <= n; i++) {
+                    if ((i & 15) == 0 && System.nanoTime() >= limite) {
+                        return false;
+                    }
+                    int fin = i + largo - 1;
+                    int primera = ruta[i];
+                    int ultima = ruta[fin];
+                    int anterior = ruta[i - 1];
+                    double ahorro = distancia(anterior, primera);
+                    if (fin + 1 < n) {
+                        ahorro += distancia(ultima, ruta[fin + 1]) - distancia(anterior, ruta[fin + 1]);
+                    }
+                    // Límites de destino que respetan las precedencias del tramo
+                    int minimo = 0;
+                    int maximo = n - 1;
+                    for (int k = i; k <= fin; k++) {
+                        int otra = companera[ruta[k]];
+                        if (otra < 0 || (posicion[otra] >= i && posicion[otra] <= fin)) {
+                            continue;
+                        }
+                        if (esRecogida[ruta[k]]) {
+                            maximo = Math.min(maximo, posicion[otra] - 1);
+                        } else {
+                            minimo = Math.max(minimo, posicion[otra]);
+                        }
+                    }
+                    for (int j = minimo; j <= maximo; j++) {
+                        if (j >= i - 1 && j <= fin) {
+                            continue;
+                        }
+                        double agregado = distancia(ruta[j], primera);
+                        if (j + 1 < n) {
+                            agregado += distancia(ultima, ruta[j + 1]) - distancia(ruta[j], ruta[j + 1]);
+                        }
+                        if (agregado - ahorro < -EPSILON) {
+                            mover(i, fin, j);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /** Mueve el tramo [i, fin] para que quede después de la posición j */
+        private void mover(int i, int fin, int j) {
+            int largo = fin - i + 1;
+            int[] tramo = new int[largo];
+            System.arraycopy(ruta, i, tramo, 0, largo);
+            int desde;
+            int hasta;
+            if (j > fin) {
+                System.arraycopy(ruta, fin + 1, ruta, i, j - fin);
+                System.arraycopy(tramo, 0, ruta, j - largo + 1, largo);
+                desde = i;
+                hasta = j;
+            } else {
+                System.arraycopy(ruta, j + 1, ruta, j + 1 + largo, i - j - 1);
+                System.arraycopy(tramo, 0, ruta, j + 1, largo);
+                desde = j + 1;
+                hasta = fin;
+            }
+            for (int k = desde; k <= hasta; k++) {
+                posicion[ruta[k]] = k;
+            }
+        }
+
+        double longitud() {
+            double total = 0;
+            for (int k = 1; k < ocupadas; k++) {
+                total += distancia(ruta[k - 1], ruta[k]);
+            }
+            return total;
+        }
+    }
+}
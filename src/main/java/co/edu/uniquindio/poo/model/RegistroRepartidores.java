@@ -0,0 +1,176 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Registro de repartidores particionado por zona de cobertura y estado.
+ *
+ * Cada partición (zona normalizada sin tildes, estado) es una skip list ordenada
+ * por carga y luego por id, de modo que el repartidor menos cargado de una zona es
+ * el primero de su partición; además hay una skip list por estado con todas las
+ * zonas. Las entradas son fotografías inmutables de (zona, estado, carga): al
+ * cambiar cualquiera de los tres, la entrada anterior se quita y se agrega una
+ * nueva.
+ *
+ * SistemaGestion lo actualiza tras cada registro, modificación y cambio de carga.
+ * Las actualizaciones de un mismo repartidor se serializan sobre su id, y cada una
+ * lee el contador de carga en ese momento, así que la última en aplicarse siempre
+ * refleja el valor más reciente; las consultas pueden ejecutarse en paralelo.
+ */
+class RegistroRepartidores {
+    private static final Comparator<Entrada> POR_CARGA = Comparator.comparingInt((Entrada entrada) -> entrada.carga)
+            .thenComparing(entrada -> entrada.repartidor.getIdRepartidor());
+
+    private final Map<String, Entrada> porId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>>> porZona =
+            new ConcurrentSkipListMap<>();
+    private final Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>> porEstado = particion();
+
+    /**
+     * Vuelve a ubicar un repartidor según su zona, estado y carga actuales.
+     *
+     * @param repartidor Repartidor registrado
+     */
+    void actualizar(Repartidor repartidor) {
+        porId.compute(repartidor.getIdRepartidor(), (id, anterior) -> {
+            Entrada nueva = new Entrada(repartidor);
+            if (anterior != null) {
+                if (anterior.equivale(nueva)) {
+                    return anterior;
+                }
+                desubicar(anterior);
+            }
+            porEstado.get(nueva.estado).add(nueva);
+            porZona.computeIfAbsent(nueva.zona, zona -> particion()).get(nueva.estado).add(nueva);
+            return nueva;
+        });
+    }
+
+    /**
+     * @param idRepartidor Identificador del repartidor eliminado
+     */
+    void quitar(String idRepartidor) {
+        porId.computeIfPresent(idRepartidor, (id, anterior) -> {
+            desubicar(anterior);
+            return null;
+        });
+    }
+
+    /**
+     * Repartidor con menos envíos asignados en el estado cuya zona es la indicada
+     * o una subzona suya ("Armenia" incluye "Armenia Norte"): el primero de cada
+     * partición, sin recorrerlas.
+     *
+     * @return Repartidor menos cargado, o null si no hay
+     */
+    Repartidor menosCargado(String zona, Repartidor.EstadoRepartidor estado) {
+        Entrada mejor = null;
+        for (NavigableSet<Entrada> conjunto : particiones(zona, estado)) {
+            Entrada primera = primera(conjunto);
+            if (primera != null && (mejor == null || POR_CARGA.compare(primera, mejor) < 0)) {
+                mejor = primera;
+            }
+        }
+        return mejor != null ? mejor.repartidor : null;
+    }
+
+    /**
+     * @return Repartidores en el estado, de menor a mayor carga
+     */
+    List<Repartidor> listar(Repartidor.EstadoRepartidor estado) {
+        return repartidores(porEstado.get(estado));
+    }
+
+    /**
+     * @return Repartidores en el estado de la zona y sus subzonas, de menor a mayor carga
+     */
+    List<Repartidor> listar(String zona, Repartidor.EstadoRepartidor estado) {
+        List<NavigableSet<Entrada>> conjuntos = particiones(zona, estado);
+        if (conjuntos.size() == 1) {
+            return repartidores(conjuntos.get(0));
+        }
+        List<Entrada> entradas = new ArrayList<>();
+        conjuntos.forEach(entradas::addAll);
+        entradas.sort(POR_CARGA);
+        return entradas.stream().map(entrada -> entrada.repartidor).toList();
+    }
+
+    int tamano() {
+        return porId.size();
+    }
+
+    private List<NavigableSet<Entrada>> particiones(String zona, Repartidor.EstadoRepartidor estado) {
+        String normalizada = MotorDespacho.normalizar(zona);
+        List<NavigableSet<Entrada>> conjuntos = new ArrayList<>();
+        Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>> exacta = porZona.get(normalizada);
+        if (exacta != null) {
+            conjuntos.add(exacta.get(estado));
+        }
+        // Las subzonas son las claves "zona ..." ('!' es el carácter siguiente al espacio)
+        for (Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>> subzona
+                : porZona.subMap(normalizada + " ", normalizada + "!").values()) {
+            conjuntos.add(subzona.get(estado));
+        }
+        return conjuntos;
+    }
+
+    private void desubicar(Entrada entrada) {
+        porEstado.get(entrada.estado).remove(entrada);
+        // Las particiones de zona vacías se conservan: las zonas son pocas y se reutilizan
+        Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>> particiones = porZona.get(entrada.zona);
+        if (particiones != null) {
+            particiones.get(entrada.estado).remove(entrada);
+        }
+    }
+
+    private static Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>> particion() {
+        Map<Repartidor.EstadoRepartidor, NavigableSet<Entrada>> particiones = new EnumMap<>(Repartidor.EstadoRepartidor.class);
+        for (Repartidor.EstadoRepartidor estado : Repartidor.EstadoRepartidor.values()) {
+            particiones.put(estado, new ConcurrentSkipListSet<>(POR_CARGA));
+        }
+        return particiones;
+    }
+
+    private static Entrada primera(NavigableSet<Entrada> conjunto) {
+        // first() lanza si otro hilo vacía el conjunto entre la comprobación y la lectura
+        for (Entrada entrada : conjunto) {
+            return entrada;
+        }
+        return null;
+    }
+
+    private static List<Repartidor> repartidores(NavigableSet<Entrada> conjunto) {
+        List<Repartidor> lista = new ArrayList<>();
+        for (Entrada entrada : conjunto) {
+            lista.add(entrada.repartidor);
+        }
+        return lista;
+    }
+
+    private static final class Entrada {
+        private final Repartidor repartidor;
+        private final String zona;
+        private final Repartidor.EstadoRepartidor estado;
+        private final int carga;
+
+        private Entrada(Repartidor repartidor) {
+            this.repartidor = repartidor;
+            this.zona = MotorDespacho.normalizar(repartidor.getZonaCobertura());
+            this.estado = repartidor.getEstado();
+            this.carga = repartidor.getEnviosAsignados();
+        }
+
+        private boolean equivale(Entrada otra) {
+            return repartidor == otra.repartidor && zona.equals(otra.zona) && estado == otra.estado
+                    && carga == otra.carga;
+        }
+    }
+}
@@ -5,15 +5,26 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.NonNull;
 
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Modelo de Repartidor
  * 
  * Representa un repartidor en el sistema que puede ser asignado a envíos.
+ * 
+ * La carga (envíos asignados) es un contador atómico que se modifica sin candados
+ * con compare-and-set: la reserva respeta un tope de capacidad aunque varios
+ * despachadores asignen a la vez, y un repartidor retirado (ver {@link #retirar()})
+ * ya no acepta reservas, de modo que puede eliminarse sin que reciba envíos nuevos.
+ * SistemaGestion libera el cupo cuando el envío deja de estar asignado o en ruta.
  */
 @Getter
 @Setter
-@Builder
 public class Repartidor {
+    /** Valor del contador de un repartidor retirado */
+    private static final int RETIRADO = -1;
+    
     @NonNull
     private final String idRepartidor;
     
@@ -27,13 +38,12 @@ public class Repartidor {
     private String telefono;
     
     @NonNull
-    @Builder.Default
-    private EstadoRepartidor estado = EstadoRepartidor.ACTIVO;
+    private EstadoRepartidor estado;
     
     @NonNull
     private String zonaCobertura;
     
-    private int enviosAsignados;
+    private final AtomicInteger enviosAsignados;
     
     /**
      * Estados posibles de un repartidor
@@ -45,33 +55,126 @@ public class Repartidor {
     }
     
     /**
-     * Constructor completo usando el patrón Builder de Lombok
+     * Constructor completo usando el patrón Builder de Lombok (estado ACTIVO por defecto)
+     * 
+     * @throws NullPointerException Si falta el id, nombre, documento, teléfono o zona
+     * @throws IllegalArgumentException Si los envíos asignados son negativos
      */
+    @Builder
     private Repartidor(String idRepartidor, String nombre, String documento, String telefono, 
                        EstadoRepartidor estado, String zonaCobertura, int enviosAsignados) {
-        this.idRepartidor = idRepartidor;
-        this.nombre = nombre;
-        this.documento = documento;
-        this.telefono = telefono;
-        this.estado = estado;
-        this.zonaCobertura = zonaCobertura;
-        this.enviosAsignados = enviosAsignados;
+        if (enviosAsignados < 0) {
+            throw new IllegalArgumentException("Los envíos asignados no pueden ser negativos");
+        }
+        this.idRepartidor = Objects.requireNonNull(idRepartidor, "idRepartidor es obligatorio");
+        this.nombre = Objects.requireNonNull(nombre, "nombre es obligatorio");
+        this.documento = Objects.requireNonNull(documento, "documento es obligatorio");
+        this.telefono = Objects.requireNonNull(telefono, "telefono es obligatorio");
+        this.estado = estado != null ? estado : EstadoRepartidor.ACTIVO;
+        this.zonaCobertura = Objects.requireNonNull(zonaCobertura, "zonaCobertura es obligatoria");
+        this.enviosAsignados = new AtomicInteger(enviosAsignados);
+    }
+    
+    public int getEnviosAsignados() {
+        return Math.max(enviosAsignados.get(), 0);
     }
     
     /**
-     * Incrementa el contador de envíos asignados
+     * Fija la carga del repartidor, por ejemplo al restaurarla desde la bitácora.
+     * 
+     * @param enviosAsignados Envíos asignados (no negativo)
+     * @throws IllegalArgumentException Si el valor es negativo
+     * @throws IllegalStateException Si el repartidor está retirado
+     */
+    public void setEnviosAsignados(int enviosAsignados) {
+        if (enviosAsignados < 0) {
+            throw new IllegalArgumentException("Los envíos asignados no pueden ser negativos");
+        }
+        int actual;
+        do {
+            actual = this.enviosAsignados.get();
+            if (actual == RETIRADO) {
+                throw new IllegalStateException("El repartidor " + idRepartidor + " está retirado");
+            }
+        } while (!this.enviosAsignados.compareAndSet(actual, enviosAsignados));
+    }
+    
+    /**
+     * Incrementa el contador de envíos asignados, sin tope de capacidad
      */
     public void incrementarEnviosAsignados() {
-        this.enviosAsignados++;
+        reservarEnvio(Integer.MAX_VALUE);
     }
     
     /**
      * Decrementa el contador de envíos asignados
      */
     public void decrementarEnviosAsignados() {
-        if (this.enviosAsignados > 0) {
-            this.enviosAsignados--;
+        int actual;
+        do {
+            actual = enviosAsignados.get();
+            if (actual <= 0) {
+                return;
+            }
+        } while (!enviosAsignados.compareAndSet(actual, actual - 1));
+    }
+    
+    /**
+     * Reserva un cupo para un envío si el repartidor está por debajo de la capacidad.
+     * 
+     * @param capacidadMaxima Envíos que el repartidor puede tener asignados a la vez
+     * @return true si se reservó el cupo; false si está lleno o retirado
+     */
+    public boolean reservarEnvio(int capacidadMaxima) {
+        int actual;
+        do {
+            actual = enviosAsignados.get();
+            if (actual == RETIRADO || actual >= capacidadMaxima) {
+                return false;
+            }
+        } while (!enviosAsignados.compareAndSet(actual, actual + 1));
+        return true;
+    }
+    
+    /**
+     * Mueve un envío de un repartidor a otro: primero reserva el cupo en el destino
+     * y, solo si lo consigue, libera el del origen. En ningún momento el destino
+     * supera su capacidad ni el origen queda por debajo de sus envíos reales.
+     * 
+     * @param desde Repartidor actual del envío, o null si no tenía
+     * @param hacia Repartidor nuevo
+     * @param capacidadMaxima Capacidad del repartidor nuevo
+     * @return true si el envío se movió; false si el destino está lleno o retirado
+     */
+    public static boolean moverEnvio(Repartidor desde, Repartidor hacia, int capacidadMaxima) {
+        if (desde == hacia) {
+            return hacia.enviosAsignados.get() != RETIRADO;
         }
+        if (!hacia.reservarEnvio(capacidadMaxima)) {
+            return false;
+        }
+        if (desde != null) {
+            desde.decrementarEnviosAsignados();
+        }
+        return true;
+    }
+    
+    /**
+     * Retira al repartidor si no tiene envíos asignados: desde ese momento toda
+     * reserva falla, así que la comprobación y la eliminación no compiten con
+     * las asignaciones concurrentes.
+     * 
+     * @return true si se retiró; false si tiene envíos asignados
+     */
+    public boolean retirar() {
+        return enviosAsignados.compareAndSet(0, RETIRADO);
+    }
+    
+    /**
+     * @return true si el repartidor fue retirado y ya no acepta reservas
+     */
+    public boolean isRetirado() {
+        return enviosAsignados.get() == RETIRADO;
     }
     
     /**
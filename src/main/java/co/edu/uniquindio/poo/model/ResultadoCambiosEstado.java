@@ -0,0 +1,101 @@
+package co.edu.uniquindio.poo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de aplicar en lote cambios de estado a varios envíos (por ejemplo,
+ * los paquetes escaneados por un repartidor en un centro de acopio).
+ *
+ * Reporta el desenlace de cada envío en el orden del lote, con el estado que
+ * tenía, el pedido y el motivo cuando el cambio no se aplicó.
+ */
+public class ResultadoCambiosEstado {
+    private final Map<String, CambioEstado> cambios;
+    private final int[] porDesenlace = new int[Desenlace.values().length];
+
+    /**
+     * Desenlace del cambio pedido para un envío.
+     */
+    public enum Desenlace {
+        /** El envío pasó al estado pedido */
+        APLICADO,
+        /** El envío ya estaba en el estado pedido */
+        SIN_CAMBIO,
+        /** La tabla de transiciones no permite el cambio */
+        RECHAZADO,
+        /** No hay un envío registrado con ese id */
+        NO_ENCONTRADO
+    }
+
+    /**
+     * Cambio pedido para un envío y su desenlace.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class CambioEstado {
+        private final String idEnvio;
+        /** Estado antes del lote (null si el envío no existe) */
+        private final Envio.EstadoEnvio anterior;
+        private final Envio.EstadoEnvio solicitado;
+        private final Desenlace desenlace;
+        /** Motivo del rechazo; null si el cambio se aplicó o no hacía falta */
+        private final String motivo;
+    }
+
+    public ResultadoCambiosEstado(int capacidad) {
+        this.cambios = new LinkedHashMap<>(Math.max(16, (int) (capacidad / 0.75f) + 1));
+    }
+
+    void registrar(String idEnvio, Envio.EstadoEnvio anterior, Envio.EstadoEnvio solicitado,
+                   Desenlace desenlace, String motivo) {
+        cambios.put(idEnvio, new CambioEstado(idEnvio, anterior, solicitado, desenlace, motivo));
+        porDesenlace[desenlace.ordinal()]++;
+    }
+
+    /**
+     * @param idEnvio Identificador del envío
+     * @return Cambio del envío, o null si no estaba en el lote
+     */
+    public CambioEstado getCambio(String idEnvio) {
+        return cambios.get(idEnvio);
+    }
+
+    public Map<String, CambioEstado> getCambios() {
+        return Collections.unmodifiableMap(cambios);
+    }
+
+    /**
+     * @param desenlace Desenlace buscado
+     * @return Cambios del lote con ese desenlace, en el orden del lote
+     */
+    public List<CambioEstado> filtrar(Desenlace desenlace) {
+        List<CambioEstado> filtrados = new ArrayList<>(contar(desenlace));
+        for (CambioEstado cambio : cambios.values()) {
+            if (cambio.getDesenlace() == desenlace) {
+                filtrados.add(cambio);
+            }
+        }
+        return filtrados;
+    }
+
+    public int contar(Desenlace desenlace) {
+        return porDesenlace[desenlace.ordinal()];
+    }
+
+    public int getAplicados() {
+        return contar(Desenlace.APLICADO);
+    }
+
+    public int getTotal() {
+        return cambios.size();
+    }
+}
@@ -0,0 +1,19 @@
+package co.edu.uniquindio.poo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Resultado de una ventana de despacho automático: cuántos envíos SOLICITADO se
+ * evaluaron, cuántos quedaron asignados y cuántos no tenían ningún repartidor
+ * activo con cobertura en su ciudad de origen.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ResultadoDespacho {
+    private final int enviosPendientes;
+    private final int enviosAsignados;
+    private final int enviosSinCobertura;
+}
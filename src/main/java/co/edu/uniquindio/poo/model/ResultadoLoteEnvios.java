@@ -0,0 +1,52 @@
+package co.edu.uniquindio.poo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de procesar un lote de solicitudes de envío.
+ *
+ * Contiene los envíos aceptados (ya registrados en el sistema, en el orden de
+ * las filas) y un reporte de rechazos con la fila y los errores de cada
+ * solicitud que no pasó la validación.
+ */
+public class ResultadoLoteEnvios {
+    private final List<Envio> aceptados = new ArrayList<>();
+    private final List<RechazoFila> rechazos = new ArrayList<>();
+
+    /**
+     * Solicitud rechazada: posición en el lote (desde 0) y mensaje de error.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class RechazoFila {
+        private final int fila;
+        private final String mensaje;
+    }
+
+    public void agregarAceptados(List<Envio> envios) {
+        aceptados.addAll(envios);
+    }
+
+    public void agregarRechazo(int fila, String mensaje) {
+        rechazos.add(new RechazoFila(fila, mensaje));
+    }
+
+    public List<Envio> getAceptados() {
+        return Collections.unmodifiableList(aceptados);
+    }
+
+    public List<RechazoFila> getRechazos() {
+        return Collections.unmodifiableList(rechazos);
+    }
+
+    public int getTotalFilas() {
+        return aceptados.size() + rechazos.size();
+    }
+}
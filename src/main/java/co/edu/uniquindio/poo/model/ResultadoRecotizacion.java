@@ -0,0 +1,19 @@
+package co.edu.uniquindio.poo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Resultado de recotizar en bloque los envíos abiertos tras un cambio de tarifas:
+ * cuántos envíos se evaluaron, cuántos cambiaron de costo y la variación total de
+ * ingresos (suma de costo nuevo menos costo anterior de los envíos modificados).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ResultadoRecotizacion {
+    private final int enviosEvaluados;
+    private final int enviosModificados;
+    private final double variacionIngresos;
+}
@@ -0,0 +1,55 @@
+package co.edu.uniquindio.poo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ruta de recogidas y entregas planificada para un repartidor: la secuencia de
+ * paradas (cada recogida antes de la entrega de su envío), la longitud de la ruta
+ * frente a la del orden de asignación y la hora estimada de cada entrega.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RutaPlanificada {
+    private final List<Parada> paradas;
+    private final double longitudKm;
+    /** Longitud recorriendo los envíos en el orden recibido (recogida y entrega de cada uno) */
+    private final double longitudOriginalKm;
+    /** Hora estimada de entrega de cada envío, por id */
+    private final Map<String, LocalDateTime> entregasEstimadas;
+    /** Movimientos 2-opt y Or-opt aplicados sobre la ruta inicial */
+    private final int mejoras;
+
+    /**
+     * @return Fracción de la longitud original que se ahorra (0 si no hay ruta)
+     */
+    public double getAhorro() {
+        return longitudOriginalKm == 0 ? 0 : 1 - longitudKm / longitudOriginalKm;
+    }
+
+    /**
+     * Parada de la ruta: recoger o entregar un envío.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Parada {
+        private final Envio envio;
+        private final TipoParada tipo;
+
+        public Direccion getDireccion() {
+            return tipo == TipoParada.RECOGIDA ? envio.getOrigen() : envio.getDestino();
+        }
+    }
+
+    public enum TipoParada {
+        RECOGIDA,
+        ENTREGA
+    }
+}
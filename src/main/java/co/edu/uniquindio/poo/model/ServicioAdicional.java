@@ -0,0 +1,57 @@
+package co.edu.uniquindio.poo.model;
+
+/**
+ * Servicios adicionales que se suman al costo de un envío. Cada uno ocupa un bit
+ * en la máscara de adicionales que recibe MotorTarifas.cotizar y su recargo es un
+ * porcentaje de una base (el valor declarado o el costo base del envío) cuya tasa
+ * vive en la TablaTarifas vigente; esa es la única definición de su precio, la
+ * que usan tanto la vista de nuevo envío como los decoradores de ServicioEnvio.
+ */
+public enum ServicioAdicional {
+    /** 10% del valor declarado */
+    SEGURO("Seguro", BaseRecargo.VALOR_DECLARADO, 0.10),
+    /** 50% del costo base del envío */
+    ENTREGA_EXPRESS("Entrega express", BaseRecargo.COSTO_BASE, 0.50);
+
+    /**
+     * Valor sobre el que se aplica la tasa del recargo.
+     */
+    public enum BaseRecargo {
+        /** Valor declarado del paquete */
+        VALOR_DECLARADO,
+        /** Costo del envío sin servicios adicionales */
+        COSTO_BASE
+    }
+
+    private final String descripcion;
+    private final BaseRecargo base;
+    private final double tasaPredeterminada;
+
+    ServicioAdicional(String descripcion, BaseRecargo base, double tasaPredeterminada) {
+        this.descripcion = descripcion;
+        this.base = base;
+        this.tasaPredeterminada = tasaPredeterminada;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public BaseRecargo getBase() {
+        return base;
+    }
+
+    /**
+     * @return Tasa del recargo (0.10 = 10% de la base) si la tabla no define otra
+     */
+    public double getTasaPredeterminada() {
+        return tasaPredeterminada;
+    }
+
+    /**
+     * @return Bit que representa este servicio en una máscara de adicionales
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+}
@@ -1,26 +1,130 @@
 package co.edu.uniquindio.poo.model;
+import co.edu.uniquindio.poo.observer.BusEventos;
+import co.edu.uniquindio.poo.observer.NotificadorUsuario;
+import co.edu.uniquindio.poo.persistencia.BitacoraEscritura;
+import co.edu.uniquindio.poo.persistencia.CodificadorEntidades;
+import co.edu.uniquindio.poo.persistencia.EscritorBinario;
+import co.edu.uniquindio.poo.persistencia.InstantaneaColumnar;
+import co.edu.uniquindio.poo.persistencia.LectorBinario;
+import co.edu.uniquindio.poo.persistencia.RegistroBitacora;
+import co.edu.uniquindio.poo.persistencia.ResolutorReferencias;
+import co.edu.uniquindio.poo.persistencia.TipoRegistro;
+import co.edu.uniquindio.poo.state.TablaTransiciones;
+import co.edu.uniquindio.poo.state.Transicion;
 
-
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+/**
+ * Sistema de gestión central (Singleton).
+ *
+ * Concentra todas las entidades del sistema. Es seguro para uso concurrente:
+ * la instancia se publica mediante el idiom del contenedor estático, los
+ * getters entregan copias de solo lectura y toda modificación pasa por los
+ * métodos de esta clase, protegidos por candados segmentados por id de entidad.
+ *
+ * Si la propiedad de sistema {@value #PROPIEDAD_DIRECTORIO_DATOS} indica un
+ * directorio, cada modificación se registra en una bitácora de escritura
+ * anticipada antes de confirmarse al llamador, y al iniciar se reconstruye el
+ * estado reproduciendo esa bitácora. Sin la propiedad el sistema opera solo en
+ * memoria con los datos de prueba.
+ *
+ * Con persistencia habilitada, un hilo en segundo plano toma periódicamente una
+ * instantánea columnar del estado y descarta los segmentos de bitácora que ya
+ * cubre; al iniciar se carga la última instantánea y solo se reproduce la cola
+ * de la bitácora posterior a ella.
+ */
 public class SistemaGestion {
-    private static SistemaGestion instancia;
-    private List<Usuario> usuarios;
-    private List<Envio> envios;
-    private List<Pago> pagos;
-    private List<Incidencia> incidencias;
-    private List<Administrador> administradores;
-    private List<Repartidor> repartidores;
+    /** Propiedad de sistema con el directorio donde se guarda la bitácora */
+    public static final String PROPIEDAD_DIRECTORIO_DATOS = "citydrop.datos";
+    /** Propiedad de sistema con los registros de bitácora que disparan una nueva instantánea (0 la desactiva) */
+    public static final String PROPIEDAD_UMBRAL_INSTANTANEA = "citydrop.instantanea.registros";
+    private static final long UMBRAL_INSTANTANEA_PREDETERMINADO = 50_000;
+    private static final long INTERVALO_REVISION_SEGUNDOS = 30;
+    private static final String PREFIJO_INSTANTANEA = "instantanea-";
+    private static final String EXTENSION_INSTANTANEA = ".snap";
+    
+    private final AlmacenEntidades<Usuario> usuarios;
+    private final AlmacenEntidades<Envio> envios;
+    private final AlmacenEntidades<Pago> pagos;
+    private final AlmacenEntidades<Incidencia> incidencias;
+    private final AlmacenEntidades<Administrador> administradores;
+    private final AlmacenEntidades<Repartidor> repartidores;
+    
+    // Índices únicos por correo para autenticación y validación de registro
+    private final Map<String, Usuario> usuariosPorCorreo;
+    private final Map<String, Administrador> administradoresPorCorreo;
+    
+    // Índices secundarios de envíos por estado, usuario y repartidor
+    private final IndiceEnvios indiceEnvios;
+    
+    // Índices espaciales de orígenes y destinos de envíos y de direcciones frecuentes de usuarios
+    private final IndiceEspacial<Envio> origenesEnvios;
+    private final IndiceEspacial<Envio> destinosEnvios;
+    private final IndiceEspacial<Direccion> direccionesFrecuentes;
+    
+    // Repartidores particionados por zona y estado, ordenados por carga
+    private final RegistroRepartidores registroRepartidores;
+    
+    // Métricas agregadas mantenidas en cada modificación
+    private final MetricasSistema metricas;
+    
+    // Bus donde se publican creaciones y cambios de estado; desactivado mientras se recupera el estado
+    private final BusEventos eventos;
+    private volatile boolean publicarEventos;
+    
+    // Bitácora de escritura anticipada (null cuando el sistema opera solo en memoria)
+    private volatile BitacoraEscritura bitacora;
+    
+    // Instantáneas: directorio de datos, posición de la última y tarea periódica que las toma
+    private volatile Path directorioDatos;
+    private volatile long posicionInstantanea;
+    private ScheduledExecutorService programadorInstantaneas;
+    private final ReentrantLock candadoInstantanea = new ReentrantLock();
+    
+    // Por hilo: {última posición agregada a la bitácora, profundidad de operaciones anidadas}
+    private static final ThreadLocal<long[]> operacionActual = ThreadLocal.withInitial(() -> new long[2]);
     
     private SistemaGestion() {
-        this.usuarios = new ArrayList<>();
-        this.envios = new ArrayList<>();
-        this.pagos = new ArrayList<>();
-        this.incidencias = new ArrayList<>();
-        this.administradores = new ArrayList<>();
-        this.repartidores = new ArrayList<>();
-        inicializarDatosPrueba();
+        this.usuarios = new AlmacenEntidades<>(Usuario::getIdUsuario);
+        this.envios = new AlmacenEntidades<>(Envio::getIdEnvio);
+        this.pagos = new AlmacenEntidades<>(Pago::getIdPago);
+        this.incidencias = new AlmacenEntidades<>(Incidencia::getIdIncidencia);
+        this.administradores = new AlmacenEntidades<>(Administrador::getIdAdmin);
+        this.repartidores = new AlmacenEntidades<>(Repartidor::getIdRepartidor);
+        this.usuariosPorCorreo = new ConcurrentHashMap<>();
+        this.administradoresPorCorreo = new ConcurrentHashMap<>();
+        this.indiceEnvios = new IndiceEnvios();
+        this.origenesEnvios = new IndiceEspacial<>(Envio::getOrigen);
+        this.destinosEnvios = new IndiceEspacial<>(Envio::getDestino);
+        this.direccionesFrecuentes = new IndiceEspacial<>(direccion -> direccion);
+        this.registroRepartidores = new RegistroRepartidores();
+        this.metricas = new MetricasSistema();
+        this.eventos = BusEventos.obtenerInstancia();
+        if (!iniciarPersistencia()) {
+            inicializarDatosPrueba();
+        }
+        eventos.suscribir(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, new NotificadorUsuario());
+        publicarEventos = true;
     }
     
     private void inicializarDatosPrueba() {
@@ -41,8 +145,8 @@ public class SistemaGestion {
                 .password("123456")
                 .build();
         
-        usuarios.add(usuario1);
-        usuarios.add(usuario2);
+        registrarUsuario(usuario1);
+        registrarUsuario(usuario2);
         
         // Crear administrador de prueba
         Administrador admin = Administrador.builder()
@@ -52,7 +156,7 @@ public class SistemaGestion {
                 .password("admin123")
                 .build();
         
-        administradores.add(admin);
+        registrarAdministrador(admin);
         
         // Crear repartidores de prueba
         crearRepartidoresPrueba();
@@ -92,9 +196,9 @@ public class SistemaGestion {
                 .enviosAsignados(0)
                 .build();
         
-        repartidores.add(rep1);
-        repartidores.add(rep2);
-        repartidores.add(rep3);
+        registrarRepartidor(rep1);
+        registrarRepartidor(rep2);
+        registrarRepartidor(rep3);
     }
     
     private void crearEnviosPrueba(Usuario usuario) {
@@ -192,92 +296,1273 @@ public class SistemaGestion {
                 .fechaEntregaEstimada(java.time.LocalDateTime.now().minusHours(2))
                 .build();
         
-        envios.add(envio1);
-        envios.add(envio2);
-        envios.add(envio3);
+        registrarEnvio(envio1);
+        registrarEnvio(envio2);
+        registrarEnvio(envio3);
+    }
+    
+    /**
+     * Contenedor de inicialización diferida: la JVM garantiza que la instancia
+     * se construye una sola vez y se publica de forma segura a todos los hilos.
+     */
+    private static class Contenedor {
+        private static final SistemaGestion INSTANCIA = new SistemaGestion();
     }
     
     public static SistemaGestion obtenerInstancia() {
-        if (instancia == null) {
-            instancia = new SistemaGestion();
-        }
-        return instancia;
+        return Contenedor.INSTANCIA;
     }
     
     // Métodos de gestión
     public void registrarUsuario(Usuario usuario) {
-        usuarios.add(usuario);
+        ejecutarOperacion(() -> usuarios.ejecutarConBloqueo(usuario.getIdUsuario(), () -> {
+            Usuario anterior = usuarios.guardar(usuario);
+            direccionesFrecuentes.actualizar(usuario.getIdUsuario(), usuario.getDireccionesFrecuentes());
+            if (anterior != null && anterior.getCorreoElectronico() != null) {
+                usuariosPorCorreo.remove(anterior.getCorreoElectronico(), anterior);
+            }
+            if (usuario.getCorreoElectronico() != null) {
+                usuariosPorCorreo.put(usuario.getCorreoElectronico(), usuario);
+            }
+            anotarEntidad(TipoRegistro.USUARIO, salida -> CodificadorEntidades.escribirUsuario(salida, usuario));
+        }));
     }
     
     public void registrarEnvio(Envio envio) {
-        envios.add(envio);
+        ejecutarOperacion(() -> guardarEnvio(envio));
+    }
+    
+    /**
+     * Registra un lote de envíos como una sola operación: cada envío se guarda
+     * bajo su candado y la espera de durabilidad de la bitácora ocurre una única
+     * vez al final, en lugar de una por envío.
+     *
+     * @param lote Envíos a registrar
+     */
+    public void registrarEnvios(Collection<Envio> lote) {
+        ejecutarOperacion(() -> lote.forEach(this::guardarEnvio));
+    }
+
+    /**
+     * Registra un lote de envíos nuevos como una sola operación, igual que
+     * {@link #registrarEnvios}, pero sin reemplazar envíos existentes: los que
+     * tienen un id ya registrado (o repetido antes en el lote) se descartan, de
+     * modo que los envíos vivos, sus cupos y las referencias desde pagos e
+     * incidencias no cambian. La comprobación y el registro ocurren bajo el
+     * candado del id.
+     *
+     * @param lote Envíos a registrar
+     * @return Posiciones en el lote de los envíos descartados, en orden creciente
+     */
+    public List<Integer> registrarEnviosNuevos(List<Envio> lote) {
+        List<Integer> descartados = new ArrayList<>();
+        ejecutarOperacion(() -> {
+            for (int i = 0; i < lote.size(); i++) {
+                Envio envio = lote.get(i);
+                boolean registrado = envios.calcularConBloqueo(envio.getIdEnvio(), () -> {
+                    if (envios.contiene(envio.getIdEnvio())) {
+                        return false;
+                    }
+                    guardarEnvio(envio);
+                    return true;
+                });
+                if (!registrado) {
+                    descartados.add(i);
+                }
+            }
+        });
+        return descartados;
+    }
+
+    /**
+     * Aplica los costos recalculados de un lote de envíos como una sola operación.
+     * Cada envío se actualiza con su candado adquirido y solo si sigue registrado y
+     * cumple la condición en ese momento (por ejemplo, que continúe abierto); la
+     * espera de durabilidad de la bitácora ocurre una única vez al final.
+     *
+     * Si el envío no tenía distancia registrada, la distancia con la que se cotizó
+     * se guarda en la misma escritura que el costo (un registro completo del envío
+     * en la bitácora); si ya la tenía, solo se anota el cambio de costo.
+     *
+     * @param lote Envíos a actualizar
+     * @param distancias Distancia con la que se cotizó cada envío, en el orden del lote
+     * @param costos Costo nuevo de cada envío, en el orden del lote
+     * @param condicion Condición que el envío debe cumplir al aplicar el costo
+     * @return Envíos evaluados, envíos cuyo costo cambió y variación de ingresos
+     */
+    public ResultadoRecotizacion actualizarCostos(List<Envio> lote, double[] distancias, double[] costos,
+                                                  Predicate<Envio> condicion) {
+        double[] variacion = new double[1];
+        int[] modificados = new int[1];
+        ejecutarOperacion(() -> {
+            for (int i = 0; i < lote.size(); i++) {
+                Envio envio = lote.get(i);
+                double distancia = distancias[i];
+                double costo = costos[i];
+                envios.ejecutarConBloqueo(envio.getIdEnvio(), () -> {
+                    double anterior = envio.getCosto();
+                    boolean cambiaCosto = Double.compare(anterior, costo) != 0;
+                    boolean completaDistancia = envio.getDistancia() <= 0 && distancia > 0;
+                    if (!(cambiaCosto || completaDistancia) || envios.buscar(envio.getIdEnvio()) != envio
+                            || !condicion.test(envio)) {
+                        return;
+                    }
+                    if (completaDistancia) {
+                        try {
+                            aplicarCambio(envio, abierto -> {
+                                abierto.setDistancia(distancia);
+                                abierto.setCosto(costo);
+                            }, null, false);
+                        } finally {
+                            anotarEntidad(TipoRegistro.ENVIO, salida -> CodificadorEntidades.escribirEnvio(salida, envio));
+                        }
+                    } else {
+                        aplicarCambio(envio, abierto -> abierto.setCosto(costo), null, true);
+                    }
+                    if (cambiaCosto) {
+                        variacion[0] += costo - anterior;
+                        modificados[0]++;
+                    }
+                });
+            }
+        });
+        return new ResultadoRecotizacion(lote.size(), modificados[0], variacion[0]);
+    }
+
+    /**
+     * Cambia el estado de varios envíos como una sola operación. Cada cambio se
+     * valida en la TablaTransiciones y se aplica con el candado del envío
+     * adquirido; los rechazados se reportan sin lanzar excepciones. Cada cambio
+     * aplicado se anota en la bitácora y se publica en el bus de eventos; la espera
+     * de durabilidad ocurre una única vez al final.
+     *
+     * @param cambios Estado pedido para cada envío, por id
+     * @return Desenlace de cada cambio, en el orden del mapa
+     */
+    public ResultadoCambiosEstado actualizarEstados(Map<String, Envio.EstadoEnvio> cambios) {
+        ResultadoCambiosEstado resultado = new ResultadoCambiosEstado(cambios.size());
+        ejecutarOperacion(() -> {
+            for (Map.Entry<String, Envio.EstadoEnvio> cambio : cambios.entrySet()) {
+                String idEnvio = cambio.getKey();
+                Envio.EstadoEnvio solicitado = cambio.getValue();
+                if (idEnvio == null) {
+                    continue;
+                }
+                envios.ejecutarConBloqueo(idEnvio, () -> {
+                    Envio envio = envios.buscar(idEnvio);
+                    if (envio == null) {
+                        resultado.registrar(idEnvio, null, solicitado, ResultadoCambiosEstado.Desenlace.NO_ENCONTRADO,
+                                "Envío no encontrado");
+                        return;
+                    }
+                    Envio.EstadoEnvio anterior = envio.getEstado();
+                    if (solicitado == null) {
+                        resultado.registrar(idEnvio, anterior, null, ResultadoCambiosEstado.Desenlace.RECHAZADO,
+                                "Estado no indicado");
+                        return;
+                    }
+                    Transicion transicion = TablaTransiciones.cambio(anterior, solicitado);
+                    if (!transicion.isPermitida()) {
+                        resultado.registrar(idEnvio, anterior, solicitado, ResultadoCambiosEstado.Desenlace.RECHAZADO,
+                                transicion.getMensaje());
+                    } else if (!transicion.cambiaEstado()) {
+                        resultado.registrar(idEnvio, anterior, solicitado, ResultadoCambiosEstado.Desenlace.SIN_CAMBIO,
+                                null);
+                    } else {
+                        aplicarCambio(envio, cambiado -> cambiado.setEstado(solicitado), null, true);
+                        resultado.registrar(idEnvio, anterior, solicitado, ResultadoCambiosEstado.Desenlace.APLICADO,
+                                null);
+                    }
+                });
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Anota en la bitácora, como una sola operación, los comandos que salieron
+     * del historial de deshacer de una sesión. Los registros son de auditoría:
+     * al reconstruir el estado se leen y se ignoran. Sin bitácora no hace nada.
+     *
+     * @param sesion Id del operador que ejecutó los comandos
+     * @param descripciones Descripción de cada comando, del más antiguo al más reciente
+     */
+    public void archivarComandos(String sesion, List<String> descripciones) {
+        ejecutarOperacion(() -> {
+            for (String descripcion : descripciones) {
+                anotar(TipoRegistro.COMANDO_ARCHIVADO,
+                        () -> CodificadorEntidades.codificarComandoArchivado(sesion, descripcion));
+            }
+        });
+    }
+
+    /**
+     * Asigna repartidores a un lote de envíos como una sola operación. Cada
+     * asignación se aplica con el candado del envío adquirido y solo si el envío
+     * sigue registrado, en SOLICITADO y sin repartidor, y el repartidor sigue activo
+     * y consigue reservar un cupo (sin candados, ver Repartidor#reservarEnvio).
+     * Cada asignación anota un único registro en la bitácora, el envío completo;
+     * la espera de durabilidad ocurre una única vez.
+     *
+     * @param lote Envíos a asignar
+     * @param asignados Repartidor de cada envío, en el orden del lote
+     * @param capacidadMaxima Envíos asignados que un repartidor puede tener a la vez
+     * @return Número de envíos asignados
+     */
+    public int asignarRepartidores(List<Envio> lote, List<Repartidor> asignados, int capacidadMaxima) {
+        int[] total = new int[1];
+        ejecutarOperacion(() -> {
+            for (int i = 0; i < lote.size(); i++) {
+                Envio envio = lote.get(i);
+                Repartidor repartidor = asignados.get(i);
+                envios.ejecutarConBloqueo(envio.getIdEnvio(), () -> {
+                    if (envios.buscar(envio.getIdEnvio()) != envio || envio.getRepartidor() != null
+                            || envio.getEstado() != Envio.EstadoEnvio.SOLICITADO) {
+                        return;
+                    }
+                    if (repartidores.buscar(repartidor.getIdRepartidor()) != repartidor
+                            || !repartidor.isDisponible() || !repartidor.reservarEnvio(capacidadMaxima)) {
+                        return;
+                    }
+                    aplicarCambio(envio, asignado -> {
+                        asignado.setRepartidor(repartidor);
+                        asignado.setEstado(Envio.EstadoEnvio.ASIGNADO);
+                    }, repartidor, false);
+                    anotarEntidad(TipoRegistro.ENVIO, salida -> CodificadorEntidades.escribirEnvio(salida, envio));
+                    total[0]++;
+                });
+            }
+        });
+        return total[0];
+    }
+
+    /**
+     * Asigna (o reasigna) el repartidor de un envío con el candado del envío
+     * adquirido. Un envío en SOLICITADO pasa a ASIGNADO. Si el envío ocupará un
+     * cupo del repartidor nuevo, primero se reserva con compare-and-set
+     * (Repartidor#reservarEnvio) y, si está lleno o retirado, el envío no cambia;
+     * el cupo del repartidor anterior se libera al aplicar el cambio.
+     * 
+     * @param idEnvio Identificador del envío
+     * @param repartidor Repartidor nuevo
+     * @param capacidadMaxima Envíos que el repartidor puede tener asignados a la vez
+     * @return true si el envío existe y quedó asignado al repartidor
+     */
+    public boolean reasignarRepartidor(String idEnvio, Repartidor repartidor, int capacidadMaxima) {
+        return calcularOperacion(() -> envios.calcularConBloqueo(idEnvio, () -> {
+            Envio envio = envios.buscar(idEnvio);
+            if (envio == null || repartidor.isRetirado()) {
+                return false;
+            }
+            Envio.EstadoEnvio estado = envio.getEstado() == Envio.EstadoEnvio.SOLICITADO
+                    ? Envio.EstadoEnvio.ASIGNADO : envio.getEstado();
+            boolean reservar = ocupaCupo(repartidor, estado)
+                    && (envio.getRepartidor() != repartidor || !ocupaCupo(envio));
+            if (reservar && !repartidor.reservarEnvio(capacidadMaxima)) {
+                return false;
+            }
+            aplicarCambio(envio, asignado -> {
+                asignado.setRepartidor(repartidor);
+                asignado.setEstado(estado);
+            }, reservar ? repartidor : null, false);
+            anotarEntidad(TipoRegistro.ENVIO, salida -> CodificadorEntidades.escribirEnvio(salida, envio));
+            return true;
+        }));
+    }
+    
+    /**
+     * Reubica en el registro por zona a un repartidor cuya carga cambió. El
+     * contador cambia sin candados, pero la lectura y la reubicación se hacen con
+     * el candado del repartidor: cada cambio va seguido de la suya y la última
+     * siempre lee el valor más reciente. La carga no se anota en la bitácora: se
+     * deduce de los envíos asignados (ver {@link #recalcularCargas}).
+     */
+    private void cargaCambiada(Repartidor repartidor) {
+        repartidores.ejecutarConBloqueo(repartidor.getIdRepartidor(), () -> {
+            if (repartidores.buscar(repartidor.getIdRepartidor()) == repartidor) {
+                registroRepartidores.actualizar(repartidor);
+            }
+        });
+    }
+    
+    /**
+     * Indica si un envío ocupa un cupo de su repartidor: lo hace mientras está
+     * asignado o en ruta, y lo libera al entregarse, pasar a incidencia o volver
+     * a SOLICITADO.
+     */
+    private static boolean ocupaCupo(Envio envio) {
+        return ocupaCupo(envio.getRepartidor(), envio.getEstado());
+    }
+    
+    private static boolean ocupaCupo(Repartidor repartidor, Envio.EstadoEnvio estado) {
+        return repartidor != null && (estado == Envio.EstadoEnvio.ASIGNADO || estado == Envio.EstadoEnvio.EN_RUTA);
+    }
+    
+    /**
+     * Libera el cupo que ocupaba un envío en su repartidor.
+     */
+    private void liberarCupo(Repartidor repartidor) {
+        repartidor.decrementarEnviosAsignados();
+        cargaCambiada(repartidor);
+    }
+    
+    /**
+     * Recalcula la carga de cada repartidor contando los envíos que ocupan uno de
+     * sus cupos. Como las asignaciones solo anotan el envío, la carga guardada en
+     * la instantánea o en la bitácora puede estar desactualizada; se invoca al
+     * terminar la recuperación, antes de aceptar operaciones.
+     */
+    private void recalcularCargas() {
+        Map<String, Integer> cargas = new HashMap<>();
+        for (Envio envio : envios.listar()) {
+            if (ocupaCupo(envio)) {
+                cargas.merge(envio.getRepartidor().getIdRepartidor(), 1, Integer::sum);
+            }
+        }
+        for (Repartidor repartidor : repartidores.listar()) {
+            repartidores.ejecutarConBloqueo(repartidor.getIdRepartidor(), () -> {
+                repartidor.setEnviosAsignados(cargas.getOrDefault(repartidor.getIdRepartidor(), 0));
+                registroRepartidores.actualizar(repartidor);
+            });
+        }
+    }
+    
+    private void guardarEnvio(Envio envio) {
+        envios.ejecutarConBloqueo(envio.getIdEnvio(), () -> {
+            Envio anterior = envios.guardar(envio);
+            long secuencia = envios.secuenciaDe(envio.getIdEnvio());
+            if (anterior != null) {
+                anterior.marcarRegistrado(false);
+                indiceEnvios.quitar(anterior, secuencia);
+                metricas.envioQuitado(anterior);
+                if (ocupaCupo(anterior)) {
+                    liberarCupo(anterior.getRepartidor());
+                }
+            }
+            envio.marcarRegistrado(true);
+            if (ocupaCupo(envio)) {
+                envio.getRepartidor().incrementarEnviosAsignados();
+                cargaCambiada(envio.getRepartidor());
+            }
+            indiceEnvios.agregar(envio, secuencia);
+            indexarUbicaciones(envio);
+            metricas.envioAgregado(envio);
+            anotarEntidad(TipoRegistro.ENVIO, salida -> CodificadorEntidades.escribirEnvio(salida, envio));
+            if (anterior == null) {
+                publicar(BusEventos.Tema.ENVIO_CREADO, envio.getIdEnvio(), "Envío registrado", envio);
+            }
+        });
+    }
+    
+    /**
+     * Publica un evento en el bus, salvo durante la recuperación y la carga de datos de prueba.
+     */
+    private void publicar(BusEventos.Tema tema, String clave, String mensaje, Object datos) {
+        if (publicarEventos) {
+            eventos.publicar(tema, clave, mensaje, datos);
+        }
+    }
+    
+    private void indexarUbicaciones(Envio envio) {
+        origenesEnvios.actualizar(envio.getIdEnvio(), List.of(envio));
+        destinosEnvios.actualizar(envio.getIdEnvio(), List.of(envio));
     }
     
     public void registrarPago(Pago pago) {
-        pagos.add(pago);
+        ejecutarOperacion(() -> pagos.ejecutarConBloqueo(pago.getIdPago(), () -> {
+            pagos.guardar(pago);
+            anotarEntidad(TipoRegistro.PAGO, salida -> CodificadorEntidades.escribirPago(salida, pago));
+        }));
     }
     
     public void registrarIncidencia(Incidencia incidencia) {
-        incidencias.add(incidencia);
+        ejecutarOperacion(() -> incidencias.ejecutarConBloqueo(incidencia.getIdIncidencia(), () -> {
+            Incidencia anterior = incidencias.guardar(incidencia);
+            if (anterior != null) {
+                metricas.incidenciaQuitada(anterior);
+            }
+            metricas.incidenciaAgregada(incidencia);
+            anotarEntidad(TipoRegistro.INCIDENCIA, salida -> CodificadorEntidades.escribirIncidencia(salida, incidencia));
+            if (anterior == null) {
+                publicar(BusEventos.Tema.INCIDENCIA_REPORTADA, incidencia.getIdIncidencia(),
+                        "Incidencia reportada", incidencia);
+            }
+        }));
     }
     
     public void registrarAdministrador(Administrador admin) {
-        administradores.add(admin);
+        ejecutarOperacion(() -> administradores.ejecutarConBloqueo(admin.getIdAdmin(), () -> {
+            Administrador anterior = administradores.guardar(admin);
+            if (anterior != null && anterior.getCorreo() != null) {
+                administradoresPorCorreo.remove(anterior.getCorreo(), anterior);
+            }
+            if (admin.getCorreo() != null) {
+                administradoresPorCorreo.put(admin.getCorreo(), admin);
+            }
+            anotarEntidad(TipoRegistro.ADMINISTRADOR, salida -> CodificadorEntidades.escribirAdministrador(salida, admin));
+        }));
     }
     
     public void registrarRepartidor(Repartidor repartidor) {
-        repartidores.add(repartidor);
+        ejecutarOperacion(() -> repartidores.ejecutarConBloqueo(repartidor.getIdRepartidor(), () -> {
+            repartidores.guardar(repartidor);
+            registroRepartidores.actualizar(repartidor);
+            anotarEntidad(TipoRegistro.REPARTIDOR, salida -> CodificadorEntidades.escribirRepartidor(salida, repartidor));
+        }));
     }
     
     public void eliminarRepartidor(String idRepartidor) {
-        repartidores.removeIf(r -> r.getIdRepartidor().equals(idRepartidor));
+        ejecutarOperacion(() -> repartidores.ejecutarConBloqueo(idRepartidor, () -> {
+            if (repartidores.eliminar(idRepartidor) != null) {
+                registroRepartidores.quitar(idRepartidor);
+                anotar(TipoRegistro.ELIMINAR_REPARTIDOR, () -> CodificadorEntidades.codificarId(idRepartidor));
+            }
+        }));
+    }
+    
+    public void eliminarIncidencia(String idIncidencia) {
+        ejecutarOperacion(() -> incidencias.ejecutarConBloqueo(idIncidencia, () -> {
+            Incidencia incidencia = incidencias.eliminar(idIncidencia);
+            if (incidencia != null) {
+                metricas.incidenciaQuitada(incidencia);
+                anotar(TipoRegistro.ELIMINAR_INCIDENCIA, () -> CodificadorEntidades.codificarId(idIncidencia));
+            }
+        }));
+    }
+    
+    public Envio eliminarEnvio(String idEnvio) {
+        return eliminarEnvio(idEnvio, envio -> { });
+    }
+    
+    /**
+     * Elimina un envío después de validarlo bajo el candado de su id, de modo
+     * que ningún otro hilo pueda cambiar su estado entre la validación y la eliminación.
+     * 
+     * @param idEnvio Identificador del envío
+     * @param validacion Validación que lanza excepción si el envío no puede eliminarse
+     * @return Envío eliminado, o null si no existía
+     */
+    public Envio eliminarEnvio(String idEnvio, Consumer<Envio> validacion) {
+        return calcularOperacion(() -> envios.calcularConBloqueo(idEnvio, () -> {
+            Envio envio = envios.buscar(idEnvio);
+            if (envio == null) {
+                return null;
+            }
+            validacion.accept(envio);
+            long secuencia = envios.secuenciaDe(idEnvio);
+            envios.eliminar(idEnvio);
+            envio.marcarRegistrado(false);
+            if (ocupaCupo(envio)) {
+                liberarCupo(envio.getRepartidor());
+            }
+            indiceEnvios.quitar(envio, secuencia);
+            origenesEnvios.quitar(idEnvio);
+            destinosEnvios.quitar(idEnvio);
+            metricas.envioQuitado(envio);
+            anotar(TipoRegistro.ELIMINAR_ENVIO, () -> CodificadorEntidades.codificarId(idEnvio));
+            return envio;
+        }));
+    }
+    
+    public Usuario eliminarUsuario(String idUsuario) {
+        return eliminarUsuario(idUsuario, usuario -> { });
+    }
+    
+    /**
+     * Elimina un usuario después de validarlo bajo el candado de su id.
+     * 
+     * @param idUsuario Identificador del usuario
+     * @param validacion Validación que lanza excepción si el usuario no puede eliminarse
+     * @return Usuario eliminado, o null si no existía
+     */
+    public Usuario eliminarUsuario(String idUsuario, Consumer<Usuario> validacion) {
+        return calcularOperacion(() -> usuarios.calcularConBloqueo(idUsuario, () -> {
+            Usuario usuario = usuarios.buscar(idUsuario);
+            if (usuario == null) {
+                return null;
+            }
+            validacion.accept(usuario);
+            usuarios.eliminar(idUsuario);
+            direccionesFrecuentes.quitar(idUsuario);
+            if (usuario.getCorreoElectronico() != null) {
+                usuariosPorCorreo.remove(usuario.getCorreoElectronico(), usuario);
+            }
+            anotar(TipoRegistro.ELIMINAR_USUARIO, () -> CodificadorEntidades.codificarId(idUsuario));
+            return usuario;
+        }));
+    }
+    
+    // Modificaciones atómicas por entidad
+    
+    /**
+     * Aplica un cambio sobre un envío registrado con el candado de su id adquirido.
+     * Es la única forma de modificar un envío registrado: sus setters solo
+     * aceptan escrituras dentro del bloque. Los cambios de estado, usuario,
+     * repartidor, costo, origen y destino hechos dentro del bloque actualizan los
+     * índices. El id no puede cambiar: es la clave del envío en el almacén.
+     * 
+     * @param idEnvio Identificador del envío
+     * @param cambio Modificación a aplicar
+     * @return true si el envío existe y se aplicó el cambio
+     * @throws IllegalStateException Si el cambio intenta modificar el id del envío;
+     *                               el id se restaura y el resto del cambio se conserva
+     */
+    public boolean modificarEnvio(String idEnvio, Consumer<Envio> cambio) {
+        return calcularOperacion(() -> envios.calcularConBloqueo(idEnvio, () -> {
+            Envio envio = envios.buscar(idEnvio);
+            if (envio == null) {
+                return false;
+            }
+            try {
+                aplicarCambio(envio, cambio, null, false);
+            } finally {
+                indexarUbicaciones(envio);
+                anotarEntidad(TipoRegistro.ENVIO, salida -> CodificadorEntidades.escribirEnvio(salida, envio));
+            }
+            return true;
+        }));
+    }
+    
+    /**
+     * Aplica un cambio sobre un envío registrado; debe invocarse con el candado
+     * del envío adquirido. Solo el hilo actual puede usar los setters del envío
+     * mientras dura el cambio, y al terminar (aunque el cambio falle a medias) los
+     * índices por estado, usuario y repartidor, las métricas, la carga de los repartidores
+     * y el bus de eventos se actualizan con los valores reales de antes y después,
+     * bajo el mismo candado.
+     * 
+     * @param reservado Repartidor en el que el llamador ya reservó el cupo que
+     *                  ocupará el envío, o null; si el cambio no lo usa, se libera
+     * @param anotarCambios true para anotar en la bitácora cada campo cambiado;
+     *                      false si el llamador anota el envío completo
+     * @throws IllegalStateException Si el cambio modificó el id del envío, que se restaura
+     */
+    private void aplicarCambio(Envio envio, Consumer<Envio> cambio, Repartidor reservado, boolean anotarCambios) {
+        String idEnvio = envio.getIdEnvio();
+        Envio.EstadoEnvio estadoAnterior = envio.getEstado();
+        Usuario usuarioAnterior = envio.getUsuario();
+        Repartidor repartidorAnterior = envio.getRepartidor();
+        double costoAnterior = envio.getCosto();
+        String idCambiado = null;
+        Object editor = envio.iniciarEdicion();
+        try {
+            cambio.accept(envio);
+        } finally {
+            if (!idEnvio.equals(envio.getIdEnvio())) {
+                idCambiado = envio.getIdEnvio();
+                envio.setIdEnvio(idEnvio);
+            }
+            envio.terminarEdicion(editor);
+            long secuencia = envios.secuenciaDe(idEnvio);
+            if (envio.getUsuario() != usuarioAnterior) {
+                indiceEnvios.moverUsuario(envio, secuencia, usuarioAnterior);
+            }
+            Repartidor repartidor = envio.getRepartidor();
+            if (repartidor != repartidorAnterior) {
+                indiceEnvios.moverRepartidor(envio, secuencia, repartidorAnterior);
+                if (anotarCambios) {
+                    anotar(TipoRegistro.REPARTIDOR_ENVIO, () -> CodificadorEntidades.codificarCambioRepartidor(
+                            idEnvio, repartidor != null ? repartidor.getIdRepartidor() : null));
+                }
+            }
+            Envio.EstadoEnvio estado = envio.getEstado();
+            boolean ocupaba = ocupaCupo(repartidorAnterior, estadoAnterior);
+            boolean ocupa = ocupaCupo(repartidor, estado);
+            if (ocupaba && (!ocupa || repartidor != repartidorAnterior)) {
+                liberarCupo(repartidorAnterior);
+            }
+            if (ocupa && (!ocupaba || repartidor != repartidorAnterior)) {
+                if (repartidor == reservado) {
+                    reservado = null;
+                } else {
+                    repartidor.incrementarEnviosAsignados();
+                }
+                cargaCambiada(repartidor);
+            }
+            if (reservado != null) {
+                liberarCupo(reservado);
+            }
+            if (estado != estadoAnterior) {
+                indiceEnvios.moverEstado(envio, secuencia, estadoAnterior);
+                metricas.estadoCambiado(estadoAnterior, estado);
+                if (anotarCambios) {
+                    anotar(TipoRegistro.ESTADO_ENVIO, () -> CodificadorEntidades.codificarCambioEstado(idEnvio, estado));
+                }
+                publicar(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, idEnvio, "Estado del envío cambiado a: " + estado, envio);
+            }
+            double costo = envio.getCosto();
+            if (Double.compare(costo, costoAnterior) != 0) {
+                metricas.costoCambiado(costoAnterior, costo);
+                if (anotarCambios) {
+                    anotar(TipoRegistro.COSTO_ENVIO, () -> CodificadorEntidades.codificarCambioCosto(idEnvio, costo));
+                }
+            }
+        }
+        if (idCambiado != null) {
+            throw new IllegalStateException("No se puede cambiar el id del envío " + idEnvio + " a " + idCambiado
+                    + ": elimínelo y regístrelo con el id nuevo");
+        }
     }
     
+    /**
+     * Aplica cambios sobre varios envíos como una sola operación: cada cambio se
+     * aplica como en {@link #modificarEnvio} y la espera de durabilidad de la
+     * bitácora ocurre una única vez al final.
+     * 
+     * @param cambios Modificación de cada envío, por id
+     * @return Número de envíos existentes a los que se aplicó su cambio
+     */
+    public int modificarEnvios(Map<String, Consumer<Envio>> cambios) {
+        return calcularOperacion(() -> {
+            int modificados = 0;
+            for (Map.Entry<String, Consumer<Envio>> cambio : cambios.entrySet()) {
+                if (modificarEnvio(cambio.getKey(), cambio.getValue())) {
+                    modificados++;
+                }
+            }
+            return modificados;
+        });
+    }
+    
+    /**
+     * Aplica un cambio sobre un usuario registrado con el candado de su id adquirido.
+     * Si el cambio modifica el correo o las direcciones frecuentes, los índices se actualizan.
+     * 
+     * @param idUsuario Identificador del usuario
+     * @param cambio Modificación a aplicar
+     * @return true si el usuario existe y se aplicó el cambio
+     */
+    public boolean modificarUsuario(String idUsuario, Consumer<Usuario> cambio) {
+        return calcularOperacion(() -> usuarios.calcularConBloqueo(idUsuario, () -> {
+            Usuario usuario = usuarios.buscar(idUsuario);
+            if (usuario == null) {
+                return false;
+            }
+            String correoAnterior = usuario.getCorreoElectronico();
+            cambio.accept(usuario);
+            String correoNuevo = usuario.getCorreoElectronico();
+            if (correoAnterior != null && !correoAnterior.equals(correoNuevo)) {
+                usuariosPorCorreo.remove(correoAnterior, usuario);
+            }
+            if (correoNuevo != null) {
+                usuariosPorCorreo.put(correoNuevo, usuario);
+            }
+            direccionesFrecuentes.actualizar(idUsuario, usuario.getDireccionesFrecuentes());
+            anotarEntidad(TipoRegistro.USUARIO, salida -> CodificadorEntidades.escribirUsuario(salida, usuario));
+            return true;
+        }));
+    }
+    
+    /**
+     * Aplica un cambio sobre un repartidor registrado con el candado de su id adquirido.
+     * 
+     * @param idRepartidor Identificador del repartidor
+     * @param cambio Modificación a aplicar
+     * @return true si el repartidor existe y se aplicó el cambio
+     */
+    public boolean modificarRepartidor(String idRepartidor, Consumer<Repartidor> cambio) {
+        return calcularOperacion(() -> repartidores.calcularConBloqueo(idRepartidor, () -> {
+            Repartidor repartidor = repartidores.buscar(idRepartidor);
+            if (repartidor == null) {
+                return false;
+            }
+            cambio.accept(repartidor);
+            registroRepartidores.actualizar(repartidor);
+            anotarEntidad(TipoRegistro.REPARTIDOR, salida -> CodificadorEntidades.escribirRepartidor(salida, repartidor));
+            return true;
+        }));
+    }
+    
+    /**
+     * Aplica un cambio sobre una incidencia registrada con el candado de su id adquirido.
+     * Si el cambio modifica su estado, el contador de incidencias pendientes se actualiza.
+     * 
+     * @param idIncidencia Identificador de la incidencia
+     * @param cambio Modificación a aplicar
+     * @return true si la incidencia existe y se aplicó el cambio
+     */
+    public boolean modificarIncidencia(String idIncidencia, Consumer<Incidencia> cambio) {
+        return calcularOperacion(() -> incidencias.calcularConBloqueo(idIncidencia, () -> {
+            Incidencia incidencia = incidencias.buscar(idIncidencia);
+            if (incidencia == null) {
+                return false;
+            }
+            Incidencia.EstadoIncidencia estadoAnterior = incidencia.getEstado();
+            cambio.accept(incidencia);
+            metricas.estadoIncidenciaCambiado(estadoAnterior, incidencia.getEstado());
+            anotarEntidad(TipoRegistro.INCIDENCIA, salida -> CodificadorEntidades.escribirIncidencia(salida, incidencia));
+            return true;
+        }));
+    }
+    
+    // Búsquedas por clave primaria (O(1))
     public Repartidor buscarRepartidorPorId(String idRepartidor) {
-        return repartidores.stream()
-                .filter(r -> r.getIdRepartidor().equals(idRepartidor))
-                .findFirst()
-                .orElse(null);
+        return repartidores.buscar(idRepartidor);
+    }
+    
+    /**
+     * @return Repartidores ACTIVO de todas las zonas, de menor a mayor carga
+     */
+    public List<Repartidor> buscarRepartidoresDisponibles() {
+        return registroRepartidores.listar(Repartidor.EstadoRepartidor.ACTIVO);
+    }
+    
+    /**
+     * @param zona Zona de cobertura (sin distinguir tildes ni mayúsculas); incluye sus
+     *             subzonas, p. ej. "Armenia" incluye "Armenia Norte"
+     * @return Repartidores ACTIVO de la zona, de menor a mayor carga
+     */
+    public List<Repartidor> buscarRepartidoresDisponibles(String zona) {
+        return registroRepartidores.listar(zona, Repartidor.EstadoRepartidor.ACTIVO);
+    }
+    
+    /**
+     * Repartidor ACTIVO menos cargado de una zona y sus subzonas, sin recorrer la
+     * lista de repartidores.
+     * 
+     * @param zona Zona de cobertura
+     * @return Repartidor con menos envíos asignados, o null si la zona no tiene disponibles
+     */
+    public Repartidor buscarRepartidorMenosCargado(String zona) {
+        return registroRepartidores.menosCargado(zona, Repartidor.EstadoRepartidor.ACTIVO);
     }
     
     public Envio buscarEnvioPorId(String idEnvio) {
-        return envios.stream()
-                .filter(e -> e.getIdEnvio().equals(idEnvio))
-                .findFirst()
-                .orElse(null);
+        return envios.buscar(idEnvio);
+    }
+    
+    public Usuario buscarUsuarioPorId(String idUsuario) {
+        return usuarios.buscar(idUsuario);
+    }
+    
+    public Usuario buscarUsuarioPorCorreo(String correo) {
+        return correo != null ? usuariosPorCorreo.get(correo) : null;
+    }
+    
+    public Administrador buscarAdministradorPorCorreo(String correo) {
+        return correo != null ? administradoresPorCorreo.get(correo) : null;
+    }
+    
+    public Pago buscarPagoPorId(String idPago) {
+        return pagos.buscar(idPago);
+    }
+    
+    public Incidencia buscarIncidenciaPorId(String idIncidencia) {
+        return incidencias.buscar(idIncidencia);
+    }
+    
+    // Consultas por índices secundarios (costo proporcional al resultado)
+    public List<Envio> buscarEnviosPorEstado(Envio.EstadoEnvio estado) {
+        return indiceEnvios.porEstado(estado);
+    }
+    
+    public List<Envio> buscarEnviosPorUsuario(String idUsuario) {
+        return indiceEnvios.porUsuario(idUsuario);
+    }
+    
+    public List<Envio> buscarEnviosPorRepartidor(String idRepartidor) {
+        return indiceEnvios.porRepartidor(idRepartidor);
+    }
+    
+    /**
+     * Busca los envíos cuyo punto de recogida está a una distancia máxima de un punto.
+     * 
+     * @param latitud Latitud del punto en grados
+     * @param longitud Longitud del punto en grados
+     * @param radioKm Radio en kilómetros
+     * @return Envíos dentro del radio, del más cercano al más lejano
+     */
+    public List<Envio> buscarEnviosPorOrigenCercano(double latitud, double longitud, double radioKm) {
+        return origenesEnvios.enRadio(latitud, longitud, radioKm);
+    }
+    
+    /**
+     * Busca los envíos cuyo destino está a una distancia máxima de un punto.
+     * 
+     * @param latitud Latitud del punto en grados
+     * @param longitud Longitud del punto en grados
+     * @param radioKm Radio en kilómetros
+     * @return Envíos dentro del radio, del más cercano al más lejano
+     */
+    public List<Envio> buscarEnviosPorDestinoCercano(double latitud, double longitud, double radioKm) {
+        return destinosEnvios.enRadio(latitud, longitud, radioKm);
+    }
+    
+    /**
+     * Busca las k direcciones frecuentes de usuarios más cercanas a un punto.
+     * 
+     * @param latitud Latitud del punto en grados
+     * @param longitud Longitud del punto en grados
+     * @param cantidad Número de direcciones
+     * @return Hasta k direcciones, de la más cercana a la más lejana
+     */
+    public List<Direccion> buscarDireccionesFrecuentesCercanas(double latitud, double longitud, int cantidad) {
+        return direccionesFrecuentes.masCercanos(latitud, longitud, cantidad);
+    }
+    
+    /**
+     * Busca la dirección conocida (frecuente de un usuario, u origen o destino de un
+     * envío) más cercana a un punto, por ejemplo para ajustar un clic en el mapa.
+     * 
+     * @param latitud Latitud del punto en grados
+     * @param longitud Longitud del punto en grados
+     * @param radioMaximoKm Distancia máxima aceptada
+     * @return Dirección más cercana dentro del radio, o null si no hay ninguna
+     */
+    public Direccion buscarDireccionConocidaMasCercana(double latitud, double longitud, double radioMaximoKm) {
+        Direccion mejor = null;
+        double mejorDistancia = Double.POSITIVE_INFINITY;
+        List<Direccion> candidatas = new ArrayList<>(3);
+        direccionesFrecuentes.masCercanos(latitud, longitud, 1).forEach(candidatas::add);
+        origenesEnvios.enRadio(latitud, longitud, radioMaximoKm).stream().findFirst()
+                .ifPresent(envio -> candidatas.add(envio.getOrigen()));
+        destinosEnvios.enRadio(latitud, longitud, radioMaximoKm).stream().findFirst()
+                .ifPresent(envio -> candidatas.add(envio.getDestino()));
+        for (Direccion candidata : candidatas) {
+            double distancia = IndiceEspacial.distanciaKm(latitud, longitud,
+                    candidata.getLatitud(), candidata.getLongitud());
+            if (distancia <= radioMaximoKm && distancia < mejorDistancia) {
+                mejor = candidata;
+                mejorDistancia = distancia;
+            }
+        }
+        return mejor;
+    }
+    
+    public int contarEnviosPorEstado(Envio.EstadoEnvio estado) {
+        return (int) metricas.getEnviosEnEstado(estado);
     }
     
-    // Getters
+    /**
+     * Obtiene el agregado de métricas del sistema, actualizado en cada modificación.
+     * 
+     * @return Métricas del sistema
+     */
+    public MetricasSistema obtenerMetricas() {
+        return metricas;
+    }
+    
+    public int contarUsuarios() {
+        return usuarios.tamano();
+    }
+    
+    public int contarEnvios() {
+        return envios.tamano();
+    }
+    
+    // Getters: instantáneas de solo lectura en orden de registro
     public List<Usuario> getUsuarios() {
-        return usuarios;
+        return Collections.unmodifiableList(usuarios.listar());
     }
     
     public List<Envio> getEnvios() {
-        return envios;
+        return Collections.unmodifiableList(envios.listar());
     }
     
     public List<Pago> getPagos() {
-        return pagos;
+        return Collections.unmodifiableList(pagos.listar());
     }
     
     public List<Incidencia> getIncidencias() {
-        return incidencias;
+        return Collections.unmodifiableList(incidencias.listar());
     }
     
     public List<Administrador> getAdministradores() {
-        return administradores;
+        return Collections.unmodifiableList(administradores.listar());
     }
     
     public List<Repartidor> getRepartidores() {
-        return repartidores;
+        return Collections.unmodifiableList(repartidores.listar());
     }
     
     public void actualizarEnvio(Envio envio) {
-        for (int i = 0; i < envios.size(); i++) {
-            if (envios.get(i).getIdEnvio().equals(envio.getIdEnvio())) {
-                envios.set(i, envio);
-                break;
+        ejecutarOperacion(() -> envios.ejecutarConBloqueo(envio.getIdEnvio(), () -> {
+            if (envios.contiene(envio.getIdEnvio())) {
+                guardarEnvio(envio);
             }
+        }));
+    }
+    
+    // ===== PERSISTENCIA =====
+    
+    /**
+     * Carga la última instantánea del directorio configurado, reproduce la cola
+     * de la bitácora posterior a ella y arranca la toma periódica de instantáneas.
+     * 
+     * @return true si se recuperaron datos; false si el sistema opera en memoria o no hay datos guardados
+     */
+    private boolean iniciarPersistencia() {
+        String directorio = System.getProperty(PROPIEDAD_DIRECTORIO_DATOS);
+        if (directorio == null || directorio.isBlank()) {
+            return false;
+        }
+        Path ruta = Path.of(directorio);
+        long inicio = System.nanoTime();
+        try {
+            Files.createDirectories(ruta);
+            Path ultimaInstantanea = buscarUltimaInstantanea(ruta);
+            long desde = 0;
+            if (ultimaInstantanea != null) {
+                desde = InstantaneaColumnar.cargar(ultimaInstantanea, new ResolutorSistema(), new DestinoSistema());
+            }
+            BitacoraEscritura abierta = BitacoraEscritura.abrir(ruta, desde, this::aplicarRegistro);
+            recalcularCargas();
+            directorioDatos = ruta;
+            posicionInstantanea = desde;
+            bitacora = abierta;
+            iniciarInstantaneasPeriodicas();
+            long recuperados = abierta.getRegistrosRecuperados();
+            boolean hayDatos = ultimaInstantanea != null || recuperados > 0;
+            if (hayDatos) {
+                System.out.println("✓ Estado recuperado en " + (System.nanoTime() - inicio) / 1_000_000 + " ms ("
+                        + (ultimaInstantanea != null ? "instantánea hasta la posición " + desde + ", " : "")
+                        + recuperados + " registros de bitácora)");
+            }
+            return hayDatos;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo recuperar el estado de " + ruta + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Detiene la toma de instantáneas, vuelca los registros pendientes de la bitácora y la cierra.
+     * Las modificaciones posteriores solo se aplican en memoria.
+     */
+    public void cerrarPersistencia() {
+        ScheduledExecutorService programador = programadorInstantaneas;
+        programadorInstantaneas = null;
+        if (programador != null) {
+            programador.shutdown();
+            try {
+                programador.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        BitacoraEscritura actual = bitacora;
+        bitacora = null;
+        if (actual != null) {
+            try {
+                actual.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar la bitácora: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Escribe una instantánea del estado actual y elimina los segmentos de bitácora
+     * y las instantáneas anteriores que esta cubre.
+     * 
+     * Los escritores no se detienen: primero se rota la bitácora en un punto de
+     * corte y luego cada entidad se copia bajo su propio candado. Una entidad
+     * modificada después del corte puede quedar en la instantánea con su valor
+     * más reciente, pero su registro queda en la cola de la bitácora y reproducirlo
+     * al iniciar produce el mismo estado, porque todos los registros son
+     * asignaciones idempotentes.
+     * 
+     * @return Posición de bitácora que refleja la instantánea
+     * @throws IllegalStateException Si la persistencia no está habilitada o la escritura falla
+     */
+    public long tomarInstantanea() {
+        BitacoraEscritura actual = bitacora;
+        if (actual == null) {
+            throw new IllegalStateException("La persistencia no está habilitada");
+        }
+        candadoInstantanea.lock();
+        try {
+            long inicio = System.nanoTime();
+            long corte = actual.rotar();
+            InstantaneaColumnar instantanea = new InstantaneaColumnar(corte);
+            copiarConBloqueo(repartidores, repartidores.listar(), Repartidor::getIdRepartidor,
+                    instantanea::agregarRepartidor);
+            copiarConBloqueo(usuarios, usuarios.listar(), Usuario::getIdUsuario, instantanea::agregarUsuario);
+            copiarConBloqueo(administradores, administradores.listar(), Administrador::getIdAdmin,
+                    instantanea::agregarAdministrador);
+            copiarConBloqueo(envios, envios.listar(), Envio::getIdEnvio, instantanea::agregarEnvio);
+            copiarConBloqueo(pagos, pagos.listar(), Pago::getIdPago, instantanea::agregarPago);
+            copiarConBloqueo(incidencias, incidencias.listar(), Incidencia::getIdIncidencia,
+                    instantanea::agregarIncidencia);
+            
+            instantanea.escribir(directorioDatos.resolve(nombreInstantanea(corte)));
+            posicionInstantanea = corte;
+            actual.eliminarSegmentosHasta(corte);
+            eliminarInstantaneasAnteriores(corte);
+            System.out.println("✓ Instantánea escrita: " + instantanea.getTotalFilas() + " entidades hasta la posición "
+                    + corte + " en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            return corte;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo escribir la instantánea: " + e.getMessage(), e);
+        } finally {
+            candadoInstantanea.unlock();
+        }
+    }
+    
+    private <T> void copiarConBloqueo(AlmacenEntidades<T> almacen, List<T> listado,
+                                      Function<T, String> extractorId, Consumer<T> destino) {
+        for (T entidad : listado) {
+            String id = extractorId.apply(entidad);
+            almacen.ejecutarConBloqueo(id, () -> {
+                T vigente = almacen.buscar(id);
+                if (vigente != null) {
+                    destino.accept(vigente);
+                }
+            });
+        }
+    }
+    
+    private void iniciarInstantaneasPeriodicas() {
+        long umbral = Long.getLong(PROPIEDAD_UMBRAL_INSTANTANEA, UMBRAL_INSTANTANEA_PREDETERMINADO);
+        if (umbral <= 0) {
+            return;
+        }
+        programadorInstantaneas = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "instantaneas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programadorInstantaneas.scheduleWithFixedDelay(() -> {
+            BitacoraEscritura actual = bitacora;
+            if (actual != null && actual.getUltimaPosicion() - posicionInstantanea >= umbral) {
+                try {
+                    tomarInstantanea();
+                } catch (RuntimeException e) {
+                    System.err.println("Error al tomar la instantánea: " + e.getMessage());
+                }
+            }
+        }, INTERVALO_REVISION_SEGUNDOS, INTERVALO_REVISION_SEGUNDOS, TimeUnit.SECONDS);
+    }
+    
+    private static String nombreInstantanea(long posicion) {
+        return String.format("%s%020d%s", PREFIJO_INSTANTANEA, posicion, EXTENSION_INSTANTANEA);
+    }
+    
+    private static List<Path> listarInstantaneas(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(p -> {
+                        String nombre = p.getFileName().toString();
+                        return nombre.startsWith(PREFIJO_INSTANTANEA) && nombre.endsWith(EXTENSION_INSTANTANEA);
+                    })
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    private static Path buscarUltimaInstantanea(Path directorio) throws IOException {
+        List<Path> instantaneas = listarInstantaneas(directorio);
+        return instantaneas.isEmpty() ? null : instantaneas.get(instantaneas.size() - 1);
+    }
+    
+    private void eliminarInstantaneasAnteriores(long posicion) throws IOException {
+        String vigente = nombreInstantanea(posicion);
+        for (Path archivo : listarInstantaneas(directorioDatos)) {
+            if (archivo.getFileName().toString().compareTo(vigente) < 0) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+    }
+    
+    /**
+     * Aplica un registro de la bitácora durante la recuperación. Las entidades
+     * que ya existen se actualizan en el mismo objeto para que las referencias
+     * desde otras entidades sigan siendo válidas.
+     */
+    private void aplicarRegistro(RegistroBitacora registro) {
+        LectorBinario entrada = registro.lector();
+        ResolutorReferencias referencias = new ResolutorSistema();
+        switch (registro.getTipo()) {
+            case USUARIO -> {
+                Usuario leido = CodificadorEntidades.leerUsuario(entrada);
+                if (!modificarUsuario(leido.getIdUsuario(), usuario -> copiarUsuario(leido, usuario))) {
+                    registrarUsuario(leido);
+                }
+            }
+            case ENVIO -> {
+                Envio leido = CodificadorEntidades.leerEnvio(entrada, referencias);
+                if (!modificarEnvio(leido.getIdEnvio(), envio -> copiarEnvio(leido, envio))) {
+                    registrarEnvio(leido);
+                }
+            }
+            case REPARTIDOR -> {
+                Repartidor leido = CodificadorEntidades.leerRepartidor(entrada);
+                if (!modificarRepartidor(leido.getIdRepartidor(), repartidor -> copiarRepartidor(leido, repartidor))) {
+                    registrarRepartidor(leido);
+                }
+            }
+            case PAGO -> registrarPago(CodificadorEntidades.leerPago(entrada, referencias));
+            case INCIDENCIA -> registrarIncidencia(CodificadorEntidades.leerIncidencia(entrada, referencias));
+            case ADMINISTRADOR -> registrarAdministrador(CodificadorEntidades.leerAdministrador(entrada));
+            case ELIMINAR_USUARIO -> eliminarUsuario(entrada.leerTexto());
+            case ELIMINAR_ENVIO -> eliminarEnvio(entrada.leerTexto());
+            case ELIMINAR_REPARTIDOR -> eliminarRepartidor(entrada.leerTexto());
+            case ELIMINAR_INCIDENCIA -> eliminarIncidencia(entrada.leerTexto());
+            case ESTADO_ENVIO -> {
+                String idEnvio = entrada.leerTexto();
+                Envio.EstadoEnvio estado = CodificadorEntidades.leerEstadoEnvio(entrada);
+                modificarEnvio(idEnvio, envio -> envio.setEstado(estado));
+            }
+            case REPARTIDOR_ENVIO -> {
+                String idEnvio = entrada.leerTexto();
+                String idRepartidor = entrada.leerTexto();
+                modificarEnvio(idEnvio, envio -> envio.setRepartidor(
+                        idRepartidor != null ? repartidores.buscar(idRepartidor) : null));
+            }
+            case COSTO_ENVIO -> {
+                String idEnvio = entrada.leerTexto();
+                double costo = entrada.leerDobleCompacto();
+                modificarEnvio(idEnvio, envio -> envio.setCosto(costo));
+            }
+            case COMANDO_ARCHIVADO -> {
+                // Solo de auditoría
+            }
+        }
+    }
+    
+    private static void copiarUsuario(Usuario desde, Usuario hacia) {
+        hacia.setNombreCompleto(desde.getNombreCompleto());
+        hacia.setCorreoElectronico(desde.getCorreoElectronico());
+        hacia.setTelefono(desde.getTelefono());
+        hacia.setPassword(desde.getPassword());
+        hacia.setDireccionesFrecuentes(desde.getDireccionesFrecuentes());
+        hacia.setMetodosPago(desde.getMetodosPago());
+    }
+    
+    private static void copiarRepartidor(Repartidor desde, Repartidor hacia) {
+        hacia.setNombre(desde.getNombre());
+        hacia.setDocumento(desde.getDocumento());
+        hacia.setTelefono(desde.getTelefono());
+        hacia.setEstado(desde.getEstado());
+        hacia.setZonaCobertura(desde.getZonaCobertura());
+        hacia.setEnviosAsignados(desde.getEnviosAsignados());
+    }
+    
+    private static void copiarEnvio(Envio desde, Envio hacia) {
+        hacia.setOrigen(desde.getOrigen());
+        hacia.setDestino(desde.getDestino());
+        hacia.setPeso(desde.getPeso());
+        hacia.setLargo(desde.getLargo());
+        hacia.setAncho(desde.getAncho());
+        hacia.setAlto(desde.getAlto());
+        double calculado = desde.getLargo() * desde.getAncho() * desde.getAlto();
+        hacia.setVolumen(desde.getVolumen() != calculado ? desde.getVolumen() : 0.0);
+        hacia.setDescripcion(desde.getDescripcion());
+        hacia.setValorDeclarado(desde.getValorDeclarado());
+        hacia.setDistancia(desde.getDistancia());
+        hacia.setNombreDestinatario(desde.getNombreDestinatario());
+        hacia.setTelefonoDestinatario(desde.getTelefonoDestinatario());
+        hacia.setEmailDestinatario(desde.getEmailDestinatario());
+        hacia.setTipoEnvio(desde.getTipoEnvio());
+        hacia.setEstado(desde.getEstado());
+        hacia.setUsuario(desde.getUsuario());
+        hacia.setRepartidor(desde.getRepartidor());
+        hacia.setAdicionales(desde.getAdicionales());
+        hacia.setCosto(desde.getCosto());
+        hacia.setFechaCreacion(desde.getFechaCreacion());
+        hacia.setFechaEntregaEstimada(desde.getFechaEntregaEstimada());
+    }
+    
+    /**
+     * Ejecuta una operación pública de modificación. Al terminar la operación
+     * más externa del hilo, espera a que sus registros de bitácora sean durables;
+     * la espera ocurre fuera de los candados para que el fsync agrupado no
+     * bloquee a otros escritores.
+     */
+    private void ejecutarOperacion(Runnable operacion) {
+        calcularOperacion(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+    
+    private <R> R calcularOperacion(Supplier<R> operacion) {
+        long[] estado = operacionActual.get();
+        estado[1]++;
+        try {
+            return operacion.get();
+        } finally {
+            if (--estado[1] == 0 && estado[0] > 0) {
+                long posicion = estado[0];
+                estado[0] = 0;
+                BitacoraEscritura actual = bitacora;
+                if (actual != null) {
+                    actual.esperarDurable(posicion);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Agrega un registro a la bitácora; debe invocarse con el candado de la entidad adquirido
+     * para que el orden de la bitácora coincida con el orden de aplicación.
+     */
+    private void anotar(TipoRegistro tipo, Supplier<byte[]> contenido) {
+        BitacoraEscritura actual = bitacora;
+        if (actual != null) {
+            operacionActual.get()[0] = actual.agregar(tipo, contenido.get());
+        }
+    }
+    
+    private void anotarEntidad(TipoRegistro tipo, Consumer<EscritorBinario> codificar) {
+        anotar(tipo, () -> {
+            EscritorBinario salida = new EscritorBinario();
+            codificar.accept(salida);
+            return salida.aBytes();
+        });
+    }
+    
+    /**
+     * Resuelve las referencias de las entidades recuperadas contra los almacenes del sistema.
+     */
+    private class ResolutorSistema implements ResolutorReferencias {
+        @Override
+        public Usuario buscarUsuario(String idUsuario) {
+            return usuarios.buscar(idUsuario);
+        }
+        
+        @Override
+        public Repartidor buscarRepartidor(String idRepartidor) {
+            return repartidores.buscar(idRepartidor);
+        }
+        
+        @Override
+        public Envio buscarEnvio(String idEnvio) {
+            return envios.buscar(idEnvio);
+        }
+    }
+    
+    /**
+     * Registra en el sistema las entidades leídas de una instantánea.
+     */
+    private class DestinoSistema implements InstantaneaColumnar.Destino {
+        @Override
+        public void repartidor(Repartidor repartidor) {
+            registrarRepartidor(repartidor);
+        }
+        
+        @Override
+        public void usuario(Usuario usuario) {
+            registrarUsuario(usuario);
+        }
+        
+        @Override
+        public void administrador(Administrador administrador) {
+            registrarAdministrador(administrador);
+        }
+        
+        @Override
+        public void envio(Envio envio) {
+            registrarEnvio(envio);
+        }
+        
+        @Override
+        public void pago(Pago pago) {
+            registrarPago(pago);
+        }
+        
+        @Override
+        public void incidencia(Incidencia incidencia) {
+            registrarIncidencia(incidencia);
         }
     }
 }
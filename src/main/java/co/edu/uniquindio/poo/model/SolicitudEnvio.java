@@ -0,0 +1,50 @@
+package co.edu.uniquindio.poo.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Solicitud de creación de un envío recibida en un lote (por ejemplo, el
+ * archivo de un aliado). Contiene los mismos datos que el formulario de nuevo
+ * envío; el usuario se indica por su id y se resuelve al procesar el lote.
+ */
+@Getter
+@ToString
+@Builder
+public class SolicitudEnvio {
+
+    /** Identificador del usuario propietario del envío */
+    private final String idUsuario;
+
+    /** Dirección de origen del paquete */
+    private final Direccion origen;
+
+    /** Dirección de destino del paquete */
+    private final Direccion destino;
+
+    /** Categoría de envío que determina tarifa y tiempo de entrega */
+    @Builder.Default
+    private final Envio.TipoEnvio tipoEnvio = Envio.TipoEnvio.ESTANDAR;
+
+    /** Peso del paquete en kilogramos */
+    private final double peso;
+
+    /** Volumen del paquete en centímetros cúbicos */
+    private final double volumen;
+
+    /** Descripción del contenido del paquete */
+    private final String descripcion;
+
+    /** Valor declarado para propósitos de aseguramiento en pesos */
+    private final double valorDeclarado;
+
+    /** Nombre completo de la persona que recibirá el paquete */
+    private final String nombreDestinatario;
+
+    /** Número de teléfono del destinatario */
+    private final String telefonoDestinatario;
+
+    /** Correo electrónico del destinatario (opcional) */
+    private final String emailDestinatario;
+}
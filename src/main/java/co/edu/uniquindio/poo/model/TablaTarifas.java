@@ -0,0 +1,158 @@
+package co.edu.uniquindio.poo.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tabla de reglas de tarificación compilada e inmutable.
+ *
+ * Las tarifas de cada tipo de envío se aplanan en un arreglo de doubles (una fila
+ * de {@link #ANCHO_FILA} columnas por tipo, en el orden de Envio.TipoEnvio) y las
+ * tasas de los servicios adicionales en dos arreglos indexados por ordinal, uno
+ * por cada base de recargo (el del otro queda en cero), de modo que una
+ * cotización es aritmética sobre primitivos sin crear objetos ni ramificar.
+ */
+public final class TablaTarifas {
+    /** Columnas de la fila de un tipo de envío */
+    static final int BASE = 0;
+    static final int POR_KILOGRAMO = 1;
+    static final int POR_DECIMETRO_CUBICO = 2;
+    static final int POR_KILOMETRO = 3;
+    static final int FACTOR_PRIORIDAD = 4;
+    static final int RECARGO_FIJO = 5;
+    static final int ANCHO_FILA = 6;
+
+    /** Bits de la máscara que corresponden a un ServicioAdicional */
+    private static final long ADICIONALES_VALIDOS = (1L << ServicioAdicional.values().length) - 1;
+
+    private final double[] reglas;
+    private final double[] tasasSobreValorDeclarado;
+    private final double[] tasasSobreCostoBase;
+
+    /**
+     * Compila las tarifas y las tasas de servicios adicionales.
+     *
+     * @param tarifas Tarifa de cada tipo de envío (todos los tipos son obligatorios)
+     * @param recargos Tasa de cada servicio adicional sobre su base (0.10 = 10%); los
+     *                 ausentes usan su tasa predeterminada
+     * @throws IllegalArgumentException Si falta la tarifa de algún tipo o hay valores negativos
+     */
+    public TablaTarifas(Map<Envio.TipoEnvio, Tarifa> tarifas, Map<ServicioAdicional, Double> recargos) {
+        Envio.TipoEnvio[] tipos = Envio.TipoEnvio.values();
+        reglas = new double[tipos.length * ANCHO_FILA];
+        for (Envio.TipoEnvio tipo : tipos) {
+            Tarifa tarifa = tarifas.get(tipo);
+            if (tarifa == null) {
+                throw new IllegalArgumentException("Falta la tarifa del tipo de envío " + tipo);
+            }
+            if (tarifa.getBase() < 0 || tarifa.getPeso() < 0 || tarifa.getVolumen() < 0
+                    || tarifa.getDistancia() < 0 || tarifa.getPrioridad() <= 0 || tarifa.getRecargos() < 0) {
+                throw new IllegalArgumentException("Tarifa inválida para el tipo de envío " + tipo);
+            }
+            int fila = tipo.ordinal() * ANCHO_FILA;
+            reglas[fila + BASE] = tarifa.getBase();
+            reglas[fila + POR_KILOGRAMO] = tarifa.getPeso();
+            reglas[fila + POR_DECIMETRO_CUBICO] = tarifa.getVolumen();
+            reglas[fila + POR_KILOMETRO] = tarifa.getDistancia();
+            reglas[fila + FACTOR_PRIORIDAD] = tarifa.getPrioridad();
+            reglas[fila + RECARGO_FIJO] = tarifa.getRecargos();
+        }
+        ServicioAdicional[] adicionales = ServicioAdicional.values();
+        tasasSobreValorDeclarado = new double[adicionales.length];
+        tasasSobreCostoBase = new double[adicionales.length];
+        for (ServicioAdicional adicional : adicionales) {
+            Double recargo = recargos.get(adicional);
+            double tasa = recargo != null ? recargo : adicional.getTasaPredeterminada();
+            if (tasa < 0) {
+                throw new IllegalArgumentException("Recargo inválido para el servicio " + adicional);
+            }
+            if (adicional.getBase() == ServicioAdicional.BaseRecargo.VALOR_DECLARADO) {
+                tasasSobreValorDeclarado[adicional.ordinal()] = tasa;
+            } else {
+                tasasSobreCostoBase[adicional.ordinal()] = tasa;
+            }
+        }
+    }
+
+    /**
+     * Tabla con las tarifas vigentes hasta ahora en EnvioController:
+     * base $3,500, $150 por kg, $50 por dm³, $50 por km y factores
+     * 1.0 (ESTANDAR), 1.5 (EXPRESS) y 1.3 (FRAGIL).
+     */
+    public static TablaTarifas predeterminada() {
+        Map<Envio.TipoEnvio, Tarifa> tarifas = new EnumMap<>(Envio.TipoEnvio.class);
+        tarifas.put(Envio.TipoEnvio.ESTANDAR, tarifaPredeterminada(1.0));
+        tarifas.put(Envio.TipoEnvio.EXPRESS, tarifaPredeterminada(1.5));
+        tarifas.put(Envio.TipoEnvio.FRAGIL, tarifaPredeterminada(1.3));
+        return new TablaTarifas(tarifas, Map.of());
+    }
+
+    private static Tarifa tarifaPredeterminada(double prioridad) {
+        return new Tarifa.Builder(3500.0)
+                .conPeso(150.0)
+                .conVolumen(50.0)
+                .conDistancia(50.0)
+                .conPrioridad(prioridad)
+                .build();
+    }
+
+    /**
+     * Calcula el costo de un envío: el costo base
+     * (base + peso·$kg + volumen/1000·$dm³ + distancia·$km) · factor + recargo fijo
+     * más el recargo de cada servicio adicional de la máscara, que es su tasa por
+     * el valor declarado o por el costo base.
+     *
+     * @param peso Peso en kilogramos
+     * @param volumen Volumen en centímetros cúbicos
+     * @param distancia Distancia en kilómetros
+     * @param tipo Ordinal del tipo de envío
+     * @param valorDeclarado Valor declarado en pesos
+     * @param adicionales Máscara de bits de ServicioAdicional
+     * @return Costo en pesos colombianos
+     * @throws IllegalArgumentException Si la máscara tiene bits que no son de ningún servicio
+     */
+    public double cotizar(double peso, double volumen, double distancia, int tipo, double valorDeclarado,
+                          long adicionales) {
+        if ((adicionales & ~ADICIONALES_VALIDOS) != 0) {
+            throw new IllegalArgumentException("Máscara de servicios adicionales inválida: "
+                    + Long.toBinaryString(adicionales));
+        }
+        int fila = tipo * ANCHO_FILA;
+        double costoBase = reglas[fila + BASE] + peso * reglas[fila + POR_KILOGRAMO]
+                + volumen / 1000.0 * reglas[fila + POR_DECIMETRO_CUBICO]
+                + distancia * reglas[fila + POR_KILOMETRO];
+        costoBase = costoBase * reglas[fila + FACTOR_PRIORIDAD] + reglas[fila + RECARGO_FIJO];
+        double costo = costoBase;
+        while (adicionales != 0) {
+            int servicio = Long.numberOfTrailingZeros(adicionales);
+            costo += valorDeclarado * tasasSobreValorDeclarado[servicio] + costoBase * tasasSobreCostoBase[servicio];
+            adicionales &= adicionales - 1;
+        }
+        return costo;
+    }
+
+    /**
+     * @param adicional Servicio adicional
+     * @param costoBase Costo del envío sin servicios adicionales
+     * @param valorDeclarado Valor declarado en pesos
+     * @return Recargo del servicio, el mismo que suma {@link #cotizar} con su bit
+     */
+    public double calcularRecargo(ServicioAdicional adicional, double costoBase, double valorDeclarado) {
+        int servicio = adicional.ordinal();
+        return valorDeclarado * tasasSobreValorDeclarado[servicio] + costoBase * tasasSobreCostoBase[servicio];
+    }
+
+    /**
+     * @return Tasa del servicio adicional sobre su base en esta tabla
+     */
+    public double getRecargo(ServicioAdicional adicional) {
+        return tasasSobreValorDeclarado[adicional.ordinal()] + tasasSobreCostoBase[adicional.ordinal()];
+    }
+
+    /**
+     * @return Factor de prioridad del tipo de envío en esta tabla
+     */
+    public double getFactorPrioridad(Envio.TipoEnvio tipo) {
+        return reglas[tipo.ordinal() * ANCHO_FILA + FACTOR_PRIORIDAD];
+    }
+}
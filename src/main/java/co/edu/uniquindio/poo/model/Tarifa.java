@@ -1,9 +1,15 @@
 package co.edu.uniquindio.poo.model;
 
+/**
+ * Reglas de tarificación de un tipo de envío: cargo base, tarifas por kilogramo,
+ * por decímetro cúbico y por kilómetro, factor de prioridad y recargo fijo.
+ * MotorTarifas compila un conjunto de tarifas en una TablaTarifas.
+ */
 public class Tarifa {
     private double base;
     private double peso;
     private double volumen;
+    private double distancia;
     private double prioridad;
     private double recargos;
     
@@ -11,6 +17,7 @@ public class Tarifa {
         this.base = builder.base;
         this.peso = builder.peso;
         this.volumen = builder.volumen;
+        this.distancia = builder.distancia;
         this.prioridad = builder.prioridad;
         this.recargos = builder.recargos;
     }
@@ -20,6 +27,7 @@ public class Tarifa {
         private double base;
         private double peso;
         private double volumen;
+        private double distancia;
         private double prioridad;
         private double recargos;
         
@@ -27,6 +35,7 @@ public class Tarifa {
             this.base = base;
             this.peso = 0.0;
             this.volumen = 0.0;
+            this.distancia = 0.0;
             this.prioridad = 0.0;
             this.recargos = 0.0;
         }
@@ -46,6 +55,11 @@ public class Tarifa {
             return this;
         }
         
+        public Builder conDistancia(double distancia) {
+            this.distancia = distancia;
+            return this;
+        }
+        
         public Builder conPrioridad(double prioridad) {
             this.prioridad = prioridad;
             return this;
@@ -74,6 +88,10 @@ public class Tarifa {
         return volumen;
     }
     
+    public double getDistancia() {
+        return distancia;
+    }
+    
     public double getPrioridad() {
         return prioridad;
     }
@@ -83,6 +101,6 @@ public class Tarifa {
     }
     
     public double calcularTotal() {
-        return base + peso + volumen + prioridad + recargos;
+        return base + peso + volumen + distancia + prioridad + recargos;
     }
 }
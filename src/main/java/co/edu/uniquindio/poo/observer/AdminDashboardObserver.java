@@ -1,50 +1,176 @@
 package co.edu.uniquindio.poo.observer;
 
 import javafx.application.Platform;
-import javafx.collections.ObservableList;
 import co.edu.uniquindio.poo.model.Envio;
-import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Observer que actualiza automáticamente la tabla de envíos en el AdminDashboard
  * cuando hay cambios en el estado de un envío.
- * 
- * Utiliza Platform.runLater para asegurar que la actualización ocurra en el hilo de JavaFX.
+ *
+ * Los eventos no se aplican uno por uno: se acumulan por id fuera del hilo de
+ * JavaFX y se vuelcan a lo sumo una vez por pulso (16 ms). Las filas se ubican
+ * con un mapa id→índice que solo usa el hilo de JavaFX y cada volcado es un
+ * único cambio de {@link TablaEnvios}: las filas cambiadas se reemplazan en su
+ * posición y los envíos nuevos se agregan al final, así la tabla recibe una
+ * notificación por pulso y el volcado cuesta lo que cambió, no el tamaño de la
+ * tabla.
+ *
+ * El pulso lo marca un temporizador propio o, en las pruebas, un ejecutor
+ * externo que decide cuándo correr cada volcado programado.
  */
-@AllArgsConstructor
 public class AdminDashboardObserver implements Observer {
-    private ObservableList<Envio> enviosTable;
-    
+    /** Intervalo entre volcados, equivalente a un cuadro a 60 Hz */
+    public static final Duration PULSO = Duration.ofMillis(16);
+
+    private final TablaEnvios enviosTable;
+    private final Executor hiloInterfaz;
+    private final Executor pulso;
+    /** Temporizador propio del pulso, o null si el pulso es externo */
+    private final ScheduledExecutorService temporizador;
+    private final Map<String, Envio> pendientes = new ConcurrentHashMap<>();
+    private final AtomicBoolean volcadoProgramado = new AtomicBoolean();
+    private final LongAdder eventosRecibidos = new LongAdder();
+    private final LongAdder volcados = new LongAdder();
+    /** Posición de cada envío en enviosTable; solo se usa en el hilo de interfaz */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    public AdminDashboardObserver(TablaEnvios enviosTable) {
+        this(enviosTable, Platform::runLater, PULSO);
+    }
+
+    /**
+     * @param enviosTable Lista mostrada por la tabla de envíos
+     * @param hiloInterfaz Ejecutor del hilo que puede modificar la lista
+     * @param pulso Intervalo mínimo entre volcados
+     */
+    public AdminDashboardObserver(TablaEnvios enviosTable, Executor hiloInterfaz, Duration pulso) {
+        this(enviosTable, hiloInterfaz, crearTemporizador(), pulso.toNanos());
+    }
+
+    /**
+     * @param enviosTable Lista mostrada por la tabla de envíos
+     * @param hiloInterfaz Ejecutor del hilo que puede modificar la lista
+     * @param pulso Ejecutor que corre cada volcado programado cuando llega el pulso
+     */
+    public AdminDashboardObserver(TablaEnvios enviosTable, Executor hiloInterfaz, Executor pulso) {
+        this.enviosTable = enviosTable;
+        this.hiloInterfaz = hiloInterfaz;
+        this.pulso = pulso;
+        this.temporizador = null;
+    }
+
+    private AdminDashboardObserver(TablaEnvios enviosTable, Executor hiloInterfaz,
+                                   ScheduledExecutorService temporizador, long pulsoNanos) {
+        this.enviosTable = enviosTable;
+        this.hiloInterfaz = hiloInterfaz;
+        this.pulso = tarea -> temporizador.schedule(tarea, pulsoNanos, TimeUnit.NANOSECONDS);
+        this.temporizador = temporizador;
+    }
+
+    private static ScheduledExecutorService crearTemporizador() {
+        return Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "dashboard-envios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
     @Override
     public void actualizar(String mensaje, Object datos) {
-        if (datos instanceof Envio) {
-            Envio envioActualizado = (Envio) datos;
-            
-            // Usar Platform.runLater para asegurar que se ejecuta en el hilo de JavaFX
-            Platform.runLater(() -> {
-                synchronized (enviosTable) {
-                    // Buscar el envío en la tabla
-                    int indice = -1;
-                    for (int i = 0; i < enviosTable.size(); i++) {
-                        if (enviosTable.get(i).getIdEnvio().equals(envioActualizado.getIdEnvio())) {
-                            indice = i;
-                            break;
-                        }
-                    }
-                    
-                    if (indice >= 0) {
-                        // Actualizar el envío en la posición encontrada
-                        // Esto mantiene el índice pero actualiza todos los campos
-                        enviosTable.set(indice, envioActualizado);
-                        System.out.println("[OBSERVER] Tabla actualizada para envío: " + envioActualizado.getIdEnvio() 
-                                         + " - Estado: " + envioActualizado.getEstado());
-                    } else {
-                        // Si no existe, agregarlo (situación excepcional)
-                        enviosTable.add(envioActualizado);
-                        System.out.println("[OBSERVER] Nuevo envío agregado a la tabla: " + envioActualizado.getIdEnvio());
-                    }
+        if (datos instanceof Envio envioActualizado) {
+            eventosRecibidos.increment();
+            pendientes.put(envioActualizado.getIdEnvio(), envioActualizado);
+            if (volcadoProgramado.compareAndSet(false, true)) {
+                pulso.execute(() -> hiloInterfaz.execute(this::volcarPendientes));
+            }
+        }
+    }
+
+    /**
+     * Detiene el temporizador; los cambios aún no volcados se descartan.
+     */
+    public void cerrar() {
+        if (temporizador != null) {
+            temporizador.shutdownNow();
+        }
+    }
+
+    public long getEventosRecibidos() {
+        return eventosRecibidos.sum();
+    }
+
+    /**
+     * @return Volcados aplicados a la lista observable
+     */
+    public long getVolcados() {
+        return volcados.sum();
+    }
+
+    private void volcarPendientes() {
+        // Se libera antes de drenar: un evento que llegue durante el volcado o
+        // queda incluido en él o programa el siguiente
+        volcadoProgramado.set(false);
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        int[] posiciones = new int[pendientes.size()];
+        List<Envio> reemplazos = new ArrayList<>(posiciones.length);
+        List<Envio> nuevos = new ArrayList<>();
+        boolean indicesReconstruidos = false;
+        for (Envio envio : pendientes.values()) {
+            String id = envio.getIdEnvio();
+            // Si llegó una versión más nueva se conserva para el siguiente volcado
+            pendientes.remove(id, envio);
+            Integer indice = indices.get(id);
+            if (!apuntaA(indice, id) && !indicesReconstruidos) {
+                // La lista pudo recargarse desde fuera; se reindexa una vez por volcado
+                reconstruirIndices(nuevos);
+                indicesReconstruidos = true;
+                indice = indices.get(id);
+            }
+            if (apuntaA(indice, id)) {
+                if (reemplazos.size() == posiciones.length) {
+                    posiciones = Arrays.copyOf(posiciones, posiciones.length * 2 + 1);
                 }
-            });
+                posiciones[reemplazos.size()] = indice;
+                reemplazos.add(envio);
+            } else {
+                indices.put(id, enviosTable.size() + nuevos.size());
+                nuevos.add(envio);
+            }
+        }
+        enviosTable.aplicarCambios(Arrays.copyOf(posiciones, reemplazos.size()), reemplazos, nuevos);
+        volcados.increment();
+    }
+
+    private boolean apuntaA(Integer indice, String id) {
+        return indice != null && indice < enviosTable.size() && enviosTable.get(indice).getIdEnvio().equals(id);
+    }
+
+    /**
+     * Reindexa la tabla y, a continuación, los envíos nuevos que este volcado agregará al final.
+     */
+    private void reconstruirIndices(List<Envio> nuevos) {
+        indices.clear();
+        for (int i = 0; i < enviosTable.size(); i++) {
+            indices.put(enviosTable.get(i).getIdEnvio(), i);
+        }
+        for (int i = 0; i < nuevos.size(); i++) {
+            indices.put(nuevos.get(i).getIdEnvio(), enviosTable.size() + i);
         }
     }
 }
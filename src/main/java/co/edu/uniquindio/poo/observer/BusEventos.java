@@ -0,0 +1,221 @@
+package co.edu.uniquindio.poo.observer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus central de eventos del patrón Observer.
+ *
+ * Los observadores se suscriben una sola vez por tema, en lugar de agregarse a
+ * cada sujeto. Los productores publican sin candados: el evento se guarda en un
+ * mapa concurrente por (tema, clave) y la clave entra a una cola no bloqueante
+ * solo si no tenía un evento pendiente. Así, una ráfaga de publicaciones sobre la
+ * misma clave (p. ej. varios cambios de estado de un envío) se fusiona y el hilo
+ * del bus entrega únicamente la última. Los eventos se entregan en un único hilo,
+ * en el orden de su primera publicación pendiente; un observador que lanza una
+ * excepción no afecta a los demás.
+ */
+public class BusEventos {
+
+    /**
+     * Temas a los que se puede suscribir un observador.
+     */
+    public enum Tema {
+        /** Envío registrado; la clave es su id y los datos el Envio */
+        ENVIO_CREADO,
+        /** Envío con nuevo estado; la clave es su id y los datos el Envio */
+        ENVIO_ESTADO_CAMBIADO,
+        /** Incidencia reportada; la clave es su id y los datos la Incidencia */
+        INCIDENCIA_REPORTADA
+    }
+
+    private static final long ESPERA_MAXIMA_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final Map<Tema, CopyOnWriteArrayList<Observer>> suscriptores = new EnumMap<>(Tema.class);
+    private final Map<Clave, Evento> pendientes = new ConcurrentHashMap<>();
+    private final Queue<Clave> cola = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sinEntregar = new AtomicLong();
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder coalescidos = new LongAdder();
+    private final LongAdder entregados = new LongAdder();
+    private final Thread hilo;
+    private volatile boolean esperando;
+    private volatile boolean activo = true;
+
+    /**
+     * Contenedor de inicialización diferida del bus compartido.
+     */
+    private static class Contenedor {
+        private static final BusEventos INSTANCIA = new BusEventos();
+    }
+
+    /**
+     * @return Bus compartido por el sistema
+     */
+    public static BusEventos obtenerInstancia() {
+        return Contenedor.INSTANCIA;
+    }
+
+    public BusEventos() {
+        for (Tema tema : Tema.values()) {
+            suscriptores.put(tema, new CopyOnWriteArrayList<>());
+        }
+        hilo = new Thread(this::atender, "bus-eventos");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Suscribe un observador a un tema; suscribirlo de nuevo no tiene efecto.
+     *
+     * @param tema Tema de los eventos
+     * @param observador Observador que recibirá los eventos
+     */
+    public void suscribir(Tema tema, Observer observador) {
+        suscriptores.get(tema).addIfAbsent(observador);
+    }
+
+    /**
+     * @param tema Tema de los eventos
+     * @param observador Observador que dejará de recibirlos
+     */
+    public void cancelarSuscripcion(Tema tema, Observer observador) {
+        suscriptores.get(tema).remove(observador);
+    }
+
+    /**
+     * Publica un evento sin bloquear. Si la misma clave del tema ya tenía un
+     * evento pendiente de entrega, este lo reemplaza.
+     *
+     * @param tema Tema del evento
+     * @param clave Identificador de la entidad (p. ej. el id del envío)
+     * @param mensaje Descripción del evento
+     * @param datos Entidad afectada
+     */
+    public void publicar(Tema tema, String clave, String mensaje, Object datos) {
+        publicados.increment();
+        if (suscriptores.get(tema).isEmpty()) {
+            return;
+        }
+        Clave llave = new Clave(tema, clave);
+        if (pendientes.put(llave, new Evento(mensaje, datos)) != null) {
+            coalescidos.increment();
+            return;
+        }
+        sinEntregar.incrementAndGet();
+        cola.offer(llave);
+        if (esperando) {
+            LockSupport.unpark(hilo);
+        }
+    }
+
+    /**
+     * Espera a que se entreguen los eventos publicados hasta ahora.
+     *
+     * @param espera Tiempo máximo de espera
+     * @return true si no quedan eventos pendientes
+     */
+    public boolean esperarEntregas(Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        while (sinEntregar.get() > 0) {
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    /**
+     * Detiene el hilo del bus; los eventos pendientes no se entregan.
+     */
+    public void cerrar() {
+        activo = false;
+        LockSupport.unpark(hilo);
+    }
+
+    public long getPublicados() {
+        return publicados.sum();
+    }
+
+    /**
+     * @return Eventos reemplazados por uno posterior de la misma clave antes de entregarse
+     */
+    public long getCoalescidos() {
+        return coalescidos.sum();
+    }
+
+    public long getEntregados() {
+        return entregados.sum();
+    }
+
+    private void atender() {
+        while (activo) {
+            Clave llave = cola.poll();
+            if (llave == null) {
+                // El productor revisa la bandera después de encolar: o la cola ya no está
+                // vacía aquí, o el productor ve la bandera y despierta al hilo
+                esperando = true;
+                if (cola.isEmpty()) {
+                    LockSupport.parkNanos(this, ESPERA_MAXIMA_NANOS);
+                }
+                esperando = false;
+                continue;
+            }
+            Evento evento = pendientes.remove(llave);
+            if (evento != null) {
+                entregar(llave.tema, evento);
+            }
+            sinEntregar.decrementAndGet();
+        }
+    }
+
+    private void entregar(Tema tema, Evento evento) {
+        for (Observer observador : suscriptores.get(tema)) {
+            try {
+                observador.actualizar(evento.mensaje, evento.datos);
+            } catch (RuntimeException e) {
+                System.out.println("✗ Error al entregar evento " + tema + ": " + e.getMessage());
+            }
+        }
+        entregados.increment();
+    }
+
+    private static final class Clave {
+        private final Tema tema;
+        private final String id;
+
+        private Clave(Tema tema, String id) {
+            this.tema = tema;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object otro) {
+            return otro instanceof Clave clave && tema == clave.tema && id.equals(clave.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tema.ordinal() + id.hashCode();
+        }
+    }
+
+    private static final class Evento {
+        private final String mensaje;
+        private final Object datos;
+
+        private Evento(String mensaje, Object datos) {
+            this.mensaje = mensaje;
+            this.datos = datos;
+        }
+    }
+}
@@ -1,31 +1,38 @@
 package co.edu.uniquindio.poo.observer;
 
-import lombok.AllArgsConstructor;
+import co.edu.uniquindio.poo.adapter.DespachadorNotificaciones;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Usuario;
 
 /**
  * Implementación concreta de Observer para notificar usuarios.
- * Recibe eventos del sistema y los comunica al usuario correspondiente.
- * Actualmente imprime en consola, pero puede extenderse para enviar
- * emails, SMS, o notificaciones push.
+ * Se suscribe una sola vez en el BusEventos a los cambios de estado de los
+ * envíos y comunica cada cambio al usuario dueño del envío por email, a
+ * través del despachador asíncrono de notificaciones, de modo que el cambio
+ * de estado nunca espera el envío.
  */
-@AllArgsConstructor
 public class NotificadorUsuario implements Observer {
-    private String idUsuario;
-    private String nombreUsuario;
     
     /**
-     * Notifica al usuario sobre un evento ocurrido en el sistema.
-     * Actualmente imprime en consola, pero puede adaptarse para:
-     * - Enviar notificaciones por email
-     * - Enviar mensajes SMS
-     * - Generar notificaciones en aplicación
+     * Notifica al usuario dueño del envío sobre un evento ocurrido en el sistema.
+     * La notificación solo se encola; si el usuario no tiene correo se
+     * imprime en consola, y si la cola está llena se descarta.
      * 
      * @param mensaje Tipo y descripción del evento
-     * @param datos Información adicional del evento (ej: detalles del envío)
+     * @param datos Envío afectado por el evento
      */
     @Override
     public void actualizar(String mensaje, Object datos) {
-        System.out.println("Notificación para " + nombreUsuario + ": " + mensaje);
-        // Aquí se puede integrar con un sistema de notificaciones real
+        if (!(datos instanceof Envio envio)) {
+            return;
+        }
+        Usuario usuario = envio.getUsuario();
+        String correo = usuario.getCorreoElectronico();
+        if (correo == null) {
+            System.out.println("Notificación para " + usuario.getNombreCompleto() + ": " + mensaje);
+        } else if (!DespachadorNotificaciones.compartido().encolar(DespachadorNotificaciones.EMAIL, correo,
+                "Hola " + usuario.getNombreCompleto() + ": " + mensaje)) {
+            System.out.println("✗ Notificación para " + usuario.getNombreCompleto() + " descartada: cola llena");
+        }
     }
 }
@@ -0,0 +1,67 @@
+package co.edu.uniquindio.poo.observer;
+
+import co.edu.uniquindio.poo.model.Envio;
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista observable de las filas de la tabla de envíos del AdminDashboard.
+ *
+ * Además de las operaciones de una lista observable, permite aplicar un lote de
+ * reemplazos por posición y agregados al final como un único cambio, así la
+ * TableView recibe una sola notificación por volcado de AdminDashboardObserver
+ * y solo redibuja las filas que cambiaron.
+ */
+public class TablaEnvios extends ModifiableObservableListBase<Envio> {
+    private final List<Envio> filas = new ArrayList<>();
+
+    /**
+     * Reemplaza las filas indicadas y agrega los envíos nuevos al final en una
+     * sola notificación.
+     *
+     * @param posiciones Posición de cada fila a reemplazar
+     * @param reemplazos Envío que ocupa cada posición, en el mismo orden
+     * @param nuevos Envíos que se agregan al final
+     */
+    public void aplicarCambios(int[] posiciones, List<Envio> reemplazos, List<Envio> nuevos) {
+        if (posiciones.length != reemplazos.size()) {
+            throw new IllegalArgumentException("Cada posición debe tener su envío de reemplazo");
+        }
+        beginChange();
+        try {
+            for (int i = 0; i < posiciones.length; i++) {
+                set(posiciones[i], reemplazos.get(i));
+            }
+            addAll(nuevos);
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public Envio get(int indice) {
+        return filas.get(indice);
+    }
+
+    @Override
+    public int size() {
+        return filas.size();
+    }
+
+    @Override
+    protected void doAdd(int indice, Envio envio) {
+        filas.add(indice, envio);
+    }
+
+    @Override
+    protected Envio doSet(int indice, Envio envio) {
+        return filas.set(indice, envio);
+    }
+
+    @Override
+    protected Envio doRemove(int indice) {
+        return filas.remove(indice);
+    }
+}
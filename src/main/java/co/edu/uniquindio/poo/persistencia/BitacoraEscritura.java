@@ -0,0 +1,522 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Bitácora binaria de escritura anticipada (write-ahead log) con confirmación agrupada.
+ *
+ * Cada modificación se agrega en memoria con un número de secuencia (LSN) y un
+ * hilo escritor dedicado vuelca a disco todos los registros acumulados con una
+ * sola escritura y un solo {@link FileChannel#force(boolean)}. Mientras ese
+ * force está en curso se acumula el siguiente lote, así que muchos escritores
+ * concurrentes comparten el costo de cada sincronización (group commit).
+ *
+ * La bitácora vive en un directorio como una serie de segmentos
+ * {@code bitacora-<primer LSN>.log}. Cada segmento tiene una cabecera (número
+ * mágico y versión) seguida de registros
+ * [longitud del contenido][LSN][tipo][contenido][CRC32 de tipo y contenido].
+ * Al abrir se reproducen los segmentos en orden y cualquier registro final
+ * incompleto o corrupto (escritura interrumpida) del último se descarta.
+ *
+ * {@link #rotar()} cierra el segmento actual en un punto de corte; una vez que
+ * una instantánea refleja todo lo anterior a ese corte, {@link #eliminarSegmentosHasta}
+ * borra los segmentos ya cubiertos y la bitácora deja de crecer sin límite.
+ */
+public class BitacoraEscritura implements AutoCloseable {
+    private static final int MAGICO = 0x43444A31; // "CDJ1"
+    /** Coincide con la versión de esquema con que se codifica el contenido de los registros */
+    private static final int VERSION = CodificadorEntidades.VERSION_ESQUEMA;
+    private static final int TAMANO_CABECERA = 8;
+    private static final int CABECERA_REGISTRO = 4 + 8 + 1;
+    private static final int TAMANO_CRC = 4;
+    private static final String PREFIJO_SEGMENTO = "bitacora-";
+    private static final String EXTENSION_SEGMENTO = ".log";
+
+    /** Marca en la cola de pendientes que indica al escritor que cambie de segmento. */
+    private static final byte[] ROTACION = new byte[0];
+
+    private final Path directorio;
+    private FileChannel canal;
+    private final Thread escritor;
+
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition hayPendientes = candado.newCondition();
+    private final Condition loteDurable = candado.newCondition();
+
+    private List<byte[]> pendientes = new ArrayList<>();
+    private final ArrayDeque<Long> rotaciones = new ArrayDeque<>();
+    private long inicioSegmentoActual;
+    private long ultimaAsignada;
+    private long ultimaDurable;
+    private boolean abierta = true;
+    private IOException fallo;
+
+    private long registrosEscritos;
+    private long lotesEscritos;
+    private final long registrosRecuperados;
+
+    private BitacoraEscritura(Path directorio, FileChannel canal, long ultimaPosicion, long registrosRecuperados) {
+        this.directorio = directorio;
+        this.canal = canal;
+        this.inicioSegmentoActual = ultimaPosicion + 1;
+        this.ultimaAsignada = ultimaPosicion;
+        this.ultimaDurable = ultimaPosicion;
+        this.registrosRecuperados = registrosRecuperados;
+        this.escritor = new Thread(this::bucleEscritor, "bitacora-escritor");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Abre (o crea) una bitácora, reproduciendo primero todos sus registros válidos.
+     *
+     * @param directorio Directorio que contiene los segmentos de la bitácora
+     * @param aplicar Acción que aplica cada registro recuperado, en orden
+     * @return Bitácora lista para agregar nuevos registros
+     * @throws IOException Si los segmentos no pueden leerse o crearse
+     */
+    public static BitacoraEscritura abrir(Path directorio, Consumer<RegistroBitacora> aplicar) throws IOException {
+        return abrir(directorio, 0, aplicar);
+    }
+
+    /**
+     * Abre (o crea) una bitácora reproduciendo solo los registros posteriores a
+     * una posición, normalmente la de la última instantánea cargada.
+     *
+     * Los registros nuevos se escriben en un segmento nuevo, y su numeración
+     * continúa después de la mayor entre la última posición encontrada y
+     * {@code desdePosicion}.
+     *
+     * @param directorio Directorio que contiene los segmentos de la bitácora
+     * @param desdePosicion Posición ya reflejada; solo se aplican registros posteriores
+     * @param aplicar Acción que aplica cada registro recuperado, en orden
+     * @return Bitácora lista para agregar nuevos registros
+     * @throws IOException Si algún segmento intermedio está corrupto o no puede leerse
+     */
+    public static BitacoraEscritura abrir(Path directorio, long desdePosicion, Consumer<RegistroBitacora> aplicar)
+            throws IOException {
+        Files.createDirectories(directorio);
+        List<Path> segmentos = listarSegmentos(directorio);
+        long ultimaPosicion = 0;
+        long recuperados = 0;
+        for (int i = 0; i < segmentos.size(); i++) {
+            Path segmento = segmentos.get(i);
+            long[] estado = reproducir(segmento, desdePosicion, ultimaPosicion, aplicar);
+            long finValido = estado[0];
+            boolean ultimo = i == segmentos.size() - 1;
+            if (finValido < Files.size(segmento)) {
+                if (!ultimo) {
+                    throw new IOException("Segmento de bitácora corrupto: " + segmento);
+                }
+                // Descartar la cola de una escritura interrumpida
+                try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+                    canal.truncate(finValido);
+                    canal.force(true);
+                }
+            }
+            ultimaPosicion = estado[1];
+            recuperados += estado[2];
+        }
+        ultimaPosicion = Math.max(ultimaPosicion, desdePosicion);
+        FileChannel canal = crearSegmento(directorio, ultimaPosicion + 1);
+        return new BitacoraEscritura(directorio, canal, ultimaPosicion, recuperados);
+    }
+
+    /**
+     * Agrega un registro a la cola de escritura sin esperar a que sea durable.
+     * Debe invocarse en el mismo orden en que se aplican los cambios en memoria.
+     *
+     * @param tipo Tipo de registro
+     * @param contenido Contenido codificado del registro
+     * @return Posición (LSN) asignada al registro
+     */
+    public long agregar(TipoRegistro tipo, byte[] contenido) {
+        byte[] registro = new byte[CABECERA_REGISTRO + contenido.length + TAMANO_CRC];
+        ByteBuffer buffer = ByteBuffer.wrap(registro);
+        buffer.putInt(contenido.length).putLong(0L).put(tipo.getCodigo()).put(contenido);
+        CRC32 crc = new CRC32();
+        crc.update(registro, 12, 1 + contenido.length);
+        buffer.putInt((int) crc.getValue());
+
+        candado.lock();
+        try {
+            if (!abierta) {
+                throw new IllegalStateException("La bitácora está cerrada");
+            }
+            long posicion = ++ultimaAsignada;
+            ByteBuffer.wrap(registro, 4, 8).putLong(posicion);
+            pendientes.add(registro);
+            hayPendientes.signal();
+            return posicion;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Espera a que el registro indicado (y todos los anteriores) esté en disco.
+     *
+     * @param posicion Posición devuelta por {@link #agregar}
+     * @throws IllegalStateException Si la escritura a disco falló
+     */
+    public void esperarDurable(long posicion) {
+        candado.lock();
+        try {
+            while (ultimaDurable < posicion) {
+                if (fallo != null) {
+                    throw new IllegalStateException("Error al escribir la bitácora: " + fallo.getMessage(), fallo);
+                }
+                loteDurable.awaitUninterruptibly();
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Agrega un registro y espera a que sea durable.
+     *
+     * @param tipo Tipo de registro
+     * @param contenido Contenido codificado del registro
+     * @return Posición (LSN) asignada al registro
+     */
+    public long escribir(TipoRegistro tipo, byte[] contenido) {
+        long posicion = agregar(tipo, contenido);
+        esperarDurable(posicion);
+        return posicion;
+    }
+
+    /**
+     * Cierra el segmento actual: todos los registros agregados hasta ahora quedan
+     * en segmentos anteriores y los siguientes van a un segmento nuevo. Espera a
+     * que el cambio se complete (y por tanto a que lo anterior sea durable).
+     *
+     * @return Posición de corte: último registro escrito antes de la rotación
+     */
+    public long rotar() {
+        candado.lock();
+        try {
+            if (!abierta) {
+                throw new IllegalStateException("La bitácora está cerrada");
+            }
+            long corte = ultimaAsignada;
+            pendientes.add(ROTACION);
+            rotaciones.add(corte + 1);
+            hayPendientes.signal();
+            while (inicioSegmentoActual <= corte) {
+                if (fallo != null) {
+                    throw new IllegalStateException("Error al escribir la bitácora: " + fallo.getMessage(), fallo);
+                }
+                loteDurable.awaitUninterruptibly();
+            }
+            return corte;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Borra los segmentos cerrados cuyos registros son todos anteriores o
+     * iguales a la posición indicada.
+     *
+     * @param posicion Posición ya reflejada en una instantánea durable
+     * @return Cantidad de segmentos eliminados
+     * @throws IOException Si no se puede listar o borrar algún segmento
+     */
+    public int eliminarSegmentosHasta(long posicion) throws IOException {
+        long actual;
+        candado.lock();
+        try {
+            actual = inicioSegmentoActual;
+        } finally {
+            candado.unlock();
+        }
+        List<Path> segmentos = listarSegmentos(directorio);
+        int eliminados = 0;
+        for (int i = 0; i + 1 < segmentos.size(); i++) {
+            long siguiente = inicioSegmento(segmentos.get(i + 1));
+            if (inicioSegmento(segmentos.get(i)) < actual && siguiente - 1 <= posicion) {
+                Files.deleteIfExists(segmentos.get(i));
+                eliminados++;
+            }
+        }
+        return eliminados;
+    }
+
+    private void bucleEscritor() {
+        List<byte[]> lote = new ArrayList<>();
+        while (true) {
+            long hasta;
+            candado.lock();
+            try {
+                while (pendientes.isEmpty() && abierta) {
+                    hayPendientes.awaitUninterruptibly();
+                }
+                if (pendientes.isEmpty()) {
+                    return;
+                }
+                List<byte[]> tomado = pendientes;
+                pendientes = lote;
+                lote = tomado;
+                hasta = ultimaAsignada;
+            } finally {
+                candado.unlock();
+            }
+
+            IOException error = null;
+            long nuevoInicio = -1;
+            int registros = 0;
+            try {
+                int desde = 0;
+                for (int i = 0; i < lote.size(); i++) {
+                    if (lote.get(i) == ROTACION) {
+                        escribirLote(lote.subList(desde, i));
+                        registros += i - desde;
+                        nuevoInicio = cambiarSegmento();
+                        desde = i + 1;
+                    }
+                }
+                escribirLote(lote.subList(desde, lote.size()));
+                registros += lote.size() - desde;
+                canal.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            candado.lock();
+            try {
+                if (nuevoInicio > 0) {
+                    inicioSegmentoActual = nuevoInicio;
+                }
+                if (error != null) {
+                    fallo = error;
+                } else {
+                    ultimaDurable = hasta;
+                    registrosEscritos += registros;
+                    lotesEscritos++;
+                }
+                loteDurable.signalAll();
+            } finally {
+                candado.unlock();
+            }
+            lote.clear();
+        }
+    }
+
+    /**
+     * Sincroniza y cierra el segmento actual y abre el siguiente. Solo lo invoca el hilo escritor.
+     *
+     * @return Primer LSN del segmento nuevo
+     */
+    private long cambiarSegmento() throws IOException {
+        long inicio;
+        candado.lock();
+        try {
+            inicio = rotaciones.poll();
+        } finally {
+            candado.unlock();
+        }
+        canal.force(false);
+        canal.close();
+        canal = crearSegmento(directorio, inicio);
+        return inicio;
+    }
+
+    private void escribirLote(List<byte[]> lote) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[lote.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(lote.get(i));
+        }
+        int siguiente = 0;
+        while (siguiente < buffers.length) {
+            canal.write(buffers, siguiente, buffers.length - siguiente);
+            while (siguiente < buffers.length && !buffers[siguiente].hasRemaining()) {
+                siguiente++;
+            }
+        }
+    }
+
+    /**
+     * Lee un segmento y entrega en orden cada registro válido posterior a {@code desdePosicion}.
+     *
+     * @return {fin del último registro válido, última posición, registros aplicados}
+     */
+    private static long[] reproducir(Path archivo, long desdePosicion, long posicionAnterior,
+                                     Consumer<RegistroBitacora> aplicar) throws IOException {
+        if (Files.size(archivo) < TAMANO_CABECERA) {
+            return new long[] {0, posicionAnterior, 0};
+        }
+        long finValido = TAMANO_CABECERA;
+        long ultimaPosicion = posicionAnterior;
+        long leidos = 0;
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(archivo), 1 << 16);
+             DataInputStream datos = new DataInputStream(entrada)) {
+            if (datos.readInt() != MAGICO) {
+                throw new IOException("El archivo no es una bitácora válida: " + archivo);
+            }
+            int version = datos.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de bitácora no soportada (" + version + "): " + archivo);
+            }
+            CRC32 crc = new CRC32();
+            while (true) {
+                RegistroBitacora registro;
+                try {
+                    int longitud = datos.readInt();
+                    if (longitud < 0) {
+                        break;
+                    }
+                    long posicion = datos.readLong();
+                    byte codigo = datos.readByte();
+                    byte[] contenido = new byte[longitud];
+                    datos.readFully(contenido);
+                    int crcLeido = datos.readInt();
+
+                    crc.reset();
+                    crc.update(codigo);
+                    crc.update(contenido);
+                    TipoRegistro tipo = TipoRegistro.desdeCodigo(codigo);
+                    if ((int) crc.getValue() != crcLeido || tipo == null || posicion <= ultimaPosicion) {
+                        break;
+                    }
+                    registro = new RegistroBitacora(posicion, tipo, contenido);
+                    finValido += CABECERA_REGISTRO + longitud + TAMANO_CRC;
+                } catch (EOFException e) {
+                    break;
+                }
+                if (registro.getPosicion() > desdePosicion) {
+                    aplicar.accept(registro);
+                    leidos++;
+                }
+                ultimaPosicion = registro.getPosicion();
+            }
+        }
+        return new long[] {finValido, ultimaPosicion, leidos};
+    }
+
+    /**
+     * Crea (o reinicia, si quedó vacío) el segmento que empieza en la posición indicada.
+     */
+    private static FileChannel crearSegmento(Path directorio, long inicio) throws IOException {
+        Path archivo = directorio.resolve(String.format("%s%020d%s", PREFIJO_SEGMENTO, inicio, EXTENSION_SEGMENTO));
+        FileChannel canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        canal.truncate(0);
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).putInt(MAGICO).putInt(VERSION);
+        cabecera.flip();
+        escribirCompleto(canal, cabecera, 0);
+        canal.force(true);
+        canal.position(TAMANO_CABECERA);
+        return canal;
+    }
+
+    /**
+     * Segmentos del directorio ordenados por su primer LSN.
+     */
+    private static List<Path> listarSegmentos(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .filter(p -> {
+                        String nombre = p.getFileName().toString();
+                        return nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_SEGMENTO);
+                    })
+                    .sorted(Comparator.comparingLong(BitacoraEscritura::inicioSegmento))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long inicioSegmento(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO_SEGMENTO.length(), nombre.length() - EXTENSION_SEGMENTO.length()));
+    }
+
+    private static void escribirCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicion += canal.write(buffer, posicion);
+        }
+    }
+
+    /**
+     * Vuelca los registros pendientes, detiene el hilo escritor y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        candado.lock();
+        try {
+            if (!abierta) {
+                return;
+            }
+            abierta = false;
+            hayPendientes.signal();
+        } finally {
+            candado.unlock();
+        }
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    public long getUltimaPosicion() {
+        candado.lock();
+        try {
+            return ultimaAsignada;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long getRegistrosRecuperados() {
+        return registrosRecuperados;
+    }
+
+    /**
+     * Cantidad de registros escritos a disco desde que se abrió la bitácora.
+     */
+    public long getRegistrosEscritos() {
+        candado.lock();
+        try {
+            return registrosEscritos;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Cantidad de lotes (y por tanto de sincronizaciones) escritos a disco.
+     */
+    public long getLotesEscritos() {
+        candado.lock();
+        try {
+            return lotesEscritos;
+        } finally {
+            candado.unlock();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.model.*;
+import co.edu.uniquindio.poo.strategy.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Codificación binaria de las entidades del sistema.
+ *
+ * Cada entidad se escribe campo a campo con {@link EscritorBinario}. Las
+ * referencias a otras entidades registradas se guardan como ids y se resuelven
+ * al decodificar mediante un {@link ResolutorReferencias}; las direcciones y
+ * métodos de pago no tienen almacén propio y se guardan en línea.
+ *
+ * Esquema versión {@value #VERSION_ESQUEMA}: conteos, enteros y la máscara de
+ * servicios adicionales del envío como varint,
+ * dobles enteros (pesos, costos, dimensiones) como varint, enumeraciones como
+ * un byte y los textos que se repiten entre entidades (ciudades, alias, ids de
+ * referencias, zonas) internados en el flujo. Los flujos independientes
+ * (exportación, comunicación entre procesos) empiezan con
+ * {@link #escribirCabecera}; la bitácora y las instantáneas llevan la versión
+ * en su propia cabecera.
+ *
+ * Los envíos se decodifican sin publicar eventos: SistemaGestion los suspende
+ * mientras reconstruye su estado para no disparar notificaciones.
+ */
+public final class CodificadorEntidades {
+
+    /**
+     * Versión 1: enteros y dobles de ancho fijo; versión 2: varints y textos
+     * internados; versión 3: servicios adicionales del envío
+     */
+    public static final int VERSION_ESQUEMA = 3;
+    private static final int MAGICO_FLUJO = 0x43444531; // "CDE1"
+
+    private static final byte PAGO_EFECTIVO = 0;
+    private static final byte PAGO_TARJETA = 1;
+    private static final byte PAGO_NEQUI = 2;
+    private static final byte PAGO_PAYPAL = 3;
+
+    private CodificadorEntidades() {
+    }
+
+    /**
+     * Escribe el número mágico y la versión de esquema al inicio de un flujo de entidades.
+     */
+    public static void escribirCabecera(EscritorBinario salida) {
+        salida.escribirEntero(MAGICO_FLUJO);
+        salida.escribirVarint(VERSION_ESQUEMA);
+    }
+
+    /**
+     * Verifica la cabecera de un flujo de entidades.
+     *
+     * @throws IllegalStateException Si el flujo no tiene cabecera o su versión no es soportada
+     */
+    public static void leerCabecera(LectorBinario entrada) {
+        if (entrada.leerEntero() != MAGICO_FLUJO) {
+            throw new IllegalStateException("El flujo no contiene entidades codificadas");
+        }
+        int version = entrada.leerVarint();
+        if (version != VERSION_ESQUEMA) {
+            throw new IllegalStateException("Versión de esquema no soportada: " + version);
+        }
+    }
+
+    // ===== USUARIO =====
+
+    public static void escribirUsuario(EscritorBinario salida, Usuario usuario) {
+        salida.escribirTexto(usuario.getIdUsuario());
+        salida.escribirTexto(usuario.getNombreCompleto());
+        salida.escribirTexto(usuario.getCorreoElectronico());
+        salida.escribirTexto(usuario.getTelefono());
+        salida.escribirTexto(usuario.getPassword());
+        escribirListasUsuario(salida, usuario);
+    }
+
+    /**
+     * Escribe las direcciones frecuentes y los métodos de pago de un usuario.
+     */
+    public static void escribirListasUsuario(EscritorBinario salida, Usuario usuario) {
+        List<Direccion> direcciones = usuario.getDireccionesFrecuentes();
+        salida.escribirVarint(direcciones.size());
+        for (Direccion direccion : direcciones) {
+            escribirDireccion(salida, direccion);
+        }
+        List<MetodoPago> metodos = usuario.getMetodosPago();
+        salida.escribirVarint(metodos.size());
+        for (MetodoPago metodo : metodos) {
+            escribirMetodoPago(salida, metodo);
+        }
+    }
+
+    public static Usuario leerUsuario(LectorBinario entrada) {
+        Usuario usuario = Usuario.builder()
+                .idUsuario(entrada.leerTexto())
+                .nombreCompleto(entrada.leerTexto())
+                .correoElectronico(entrada.leerTexto())
+                .telefono(entrada.leerTexto())
+                .password(entrada.leerTexto())
+                .build();
+        leerListasUsuario(entrada, usuario);
+        return usuario;
+    }
+
+    /**
+     * Lee las direcciones frecuentes y los métodos de pago y los agrega al usuario.
+     */
+    public static void leerListasUsuario(LectorBinario entrada, Usuario usuario) {
+        int direcciones = entrada.leerVarint();
+        for (int i = 0; i < direcciones; i++) {
+            usuario.agregarDireccionFrecuente(leerDireccion(entrada));
+        }
+        int metodos = entrada.leerVarint();
+        for (int i = 0; i < metodos; i++) {
+            usuario.agregarMetodoPago(leerMetodoPago(entrada));
+        }
+    }
+
+    // ===== ENVIO =====
+
+    public static void escribirEnvio(EscritorBinario salida, Envio envio) {
+        salida.escribirTexto(envio.getIdEnvio());
+        escribirDireccion(salida, envio.getOrigen());
+        escribirDireccion(salida, envio.getDestino());
+        salida.escribirDobleCompacto(envio.getPeso());
+        salida.escribirDobleCompacto(envio.getLargo());
+        salida.escribirDobleCompacto(envio.getAncho());
+        salida.escribirDobleCompacto(envio.getAlto());
+        // Solo se guarda el volumen ingresado manualmente; el calculado se deriva de las dimensiones
+        double calculado = envio.getLargo() * envio.getAncho() * envio.getAlto();
+        salida.escribirDobleCompacto(envio.getVolumen() != calculado ? envio.getVolumen() : 0.0);
+        salida.escribirTexto(envio.getDescripcion());
+        salida.escribirDobleCompacto(envio.getValorDeclarado());
+        salida.escribirDobleCompacto(envio.getDistancia());
+        salida.escribirTexto(envio.getNombreDestinatario());
+        salida.escribirTexto(envio.getTelefonoDestinatario());
+        salida.escribirTexto(envio.getEmailDestinatario());
+        salida.escribirByte(envio.getTipoEnvio().ordinal());
+        salida.escribirByte(envio.getEstado() != null ? envio.getEstado().ordinal() : -1);
+        salida.escribirTextoFrecuente(envio.getUsuario().getIdUsuario());
+        salida.escribirTextoFrecuente(envio.getRepartidor() != null ? envio.getRepartidor().getIdRepartidor() : null);
+        salida.escribirVarlong(envio.getAdicionales());
+        salida.escribirDobleCompacto(envio.getCosto());
+        salida.escribirFecha(envio.getFechaCreacion());
+        salida.escribirFecha(envio.getFechaEntregaEstimada());
+    }
+
+    public static Envio leerEnvio(LectorBinario entrada, ResolutorReferencias referencias) {
+        String idEnvio = entrada.leerTexto();
+        Direccion origen = leerDireccion(entrada);
+        Direccion destino = leerDireccion(entrada);
+        double peso = entrada.leerDobleCompacto();
+        double largo = entrada.leerDobleCompacto();
+        double ancho = entrada.leerDobleCompacto();
+        double alto = entrada.leerDobleCompacto();
+        double volumen = entrada.leerDobleCompacto();
+        String descripcion = entrada.leerTexto();
+        double valorDeclarado = entrada.leerDobleCompacto();
+        double distancia = entrada.leerDobleCompacto();
+        String nombreDestinatario = entrada.leerTexto();
+        String telefonoDestinatario = entrada.leerTexto();
+        String emailDestinatario = entrada.leerTexto();
+        Envio.TipoEnvio tipo = Envio.TipoEnvio.values()[entrada.leerByte()];
+        int estado = entrada.leerByte();
+        String idUsuario = entrada.leerTextoFrecuente();
+        String idRepartidor = entrada.leerTextoFrecuente();
+        long adicionales = entrada.leerVarlong();
+        double costo = entrada.leerDobleCompacto();
+        LocalDateTime fechaCreacion = entrada.leerFecha();
+        LocalDateTime fechaEntregaEstimada = entrada.leerFecha();
+
+        return Envio.builder()
+                .idEnvio(idEnvio)
+                .origen(origen)
+                .destino(destino)
+                .peso(peso)
+                .largo(largo)
+                .ancho(ancho)
+                .alto(alto)
+                .volumen(volumen)
+                .descripcion(descripcion)
+                .valorDeclarado(valorDeclarado)
+                .distancia(distancia)
+                .nombreDestinatario(nombreDestinatario)
+                .telefonoDestinatario(telefonoDestinatario)
+                .emailDestinatario(emailDestinatario)
+                .tipoEnvio(tipo)
+                .estado(estado >= 0 ? Envio.EstadoEnvio.values()[estado] : null)
+                .usuario(resolverUsuario(referencias, idUsuario))
+                .repartidor(idRepartidor != null ? referencias.buscarRepartidor(idRepartidor) : null)
+                .adicionales(adicionales)
+                .costo(costo)
+                .fechaCreacion(fechaCreacion)
+                .fechaEntregaEstimada(fechaEntregaEstimada)
+                .build();
+    }
+
+    // ===== PAGO =====
+
+    public static void escribirPago(EscritorBinario salida, Pago pago) {
+        salida.escribirTexto(pago.getIdPago());
+        salida.escribirDobleCompacto(pago.getMonto());
+        salida.escribirFecha(pago.getFecha());
+        salida.escribirBooleano(pago.getMetodoPago() != null);
+        if (pago.getMetodoPago() != null) {
+            escribirMetodoPago(salida, pago.getMetodoPago());
+        }
+        salida.escribirByte(pago.getEstado().ordinal());
+        salida.escribirTextoFrecuente(pago.getEnvio() != null ? pago.getEnvio().getIdEnvio() : null);
+    }
+
+    public static Pago leerPago(LectorBinario entrada, ResolutorReferencias referencias) {
+        Pago.Builder builder = new Pago.Builder(entrada.leerTexto())
+                .conMonto(entrada.leerDobleCompacto())
+                .conFecha(entrada.leerFecha());
+        if (entrada.leerBooleano()) {
+            builder.conMetodoPago(leerMetodoPago(entrada));
+        }
+        Pago.EstadoPago estado = Pago.EstadoPago.values()[entrada.leerByte()];
+        String idEnvio = entrada.leerTextoFrecuente();
+        Pago pago = builder.conEnvio(idEnvio != null ? referencias.buscarEnvio(idEnvio) : null).build();
+        pago.setEstado(estado);
+        return pago;
+    }
+
+    // ===== INCIDENCIA =====
+
+    public static void escribirIncidencia(EscritorBinario salida, Incidencia incidencia) {
+        salida.escribirTexto(incidencia.getIdIncidencia());
+        salida.escribirTexto(incidencia.getDescripcion());
+        salida.escribirFecha(incidencia.getFecha());
+        salida.escribirByte(incidencia.getEstado().ordinal());
+        salida.escribirTextoFrecuente(incidencia.getEnvio() != null ? incidencia.getEnvio().getIdEnvio() : null);
+    }
+
+    public static Incidencia leerIncidencia(LectorBinario entrada, ResolutorReferencias referencias) {
+        Incidencia.Builder builder = new Incidencia.Builder(entrada.leerTexto())
+                .conDescripcion(entrada.leerTexto())
+                .conFecha(entrada.leerFecha());
+        Incidencia.EstadoIncidencia estado = Incidencia.EstadoIncidencia.values()[entrada.leerByte()];
+        String idEnvio = entrada.leerTextoFrecuente();
+        Incidencia incidencia = builder.conEnvio(idEnvio != null ? referencias.buscarEnvio(idEnvio) : null).build();
+        incidencia.setEstado(estado);
+        return incidencia;
+    }
+
+    // ===== ADMINISTRADOR =====
+
+    public static void escribirAdministrador(EscritorBinario salida, Administrador admin) {
+        salida.escribirTexto(admin.getIdAdmin());
+        salida.escribirTexto(admin.getNombre());
+        salida.escribirTexto(admin.getCorreo());
+        salida.escribirTexto(admin.getPassword());
+        int permisos = 0;
+        for (Administrador.Permiso permiso : admin.getPermisos()) {
+            permisos |= 1 << permiso.ordinal();
+        }
+        salida.escribirVarint(permisos);
+    }
+
+    public static Administrador leerAdministrador(LectorBinario entrada) {
+        Administrador admin = Administrador.builder()
+                .idAdmin(entrada.leerTexto())
+                .nombre(entrada.leerTexto())
+                .correo(entrada.leerTexto())
+                .password(entrada.leerTexto())
+                .build();
+        int permisos = entrada.leerVarint();
+        for (Administrador.Permiso permiso : Administrador.Permiso.values()) {
+            if ((permisos & (1 << permiso.ordinal())) != 0) {
+                admin.agregarPermiso(permiso);
+            }
+        }
+        return admin;
+    }
+
+    // ===== REPARTIDOR =====
+
+    public static void escribirRepartidor(EscritorBinario salida, Repartidor repartidor) {
+        salida.escribirTexto(repartidor.getIdRepartidor());
+        salida.escribirTexto(repartidor.getNombre());
+        salida.escribirTexto(repartidor.getDocumento());
+        salida.escribirTexto(repartidor.getTelefono());
+        salida.escribirByte(repartidor.getEstado().ordinal());
+        salida.escribirTextoFrecuente(repartidor.getZonaCobertura());
+        salida.escribirVarint(repartidor.getEnviosAsignados());
+    }
+
+    public static Repartidor leerRepartidor(LectorBinario entrada) {
+        return Repartidor.builder()
+                .idRepartidor(entrada.leerTexto())
+                .nombre(entrada.leerTexto())
+                .documento(entrada.leerTexto())
+                .telefono(entrada.leerTexto())
+                .estado(Repartidor.EstadoRepartidor.values()[entrada.leerByte()])
+                .zonaCobertura(entrada.leerTextoFrecuente())
+                .enviosAsignados(entrada.leerVarint())
+                .build();
+    }
+
+    // ===== VALORES EN LÍNEA =====
+
+    public static void escribirDireccion(EscritorBinario salida, Direccion direccion) {
+        salida.escribirTextoFrecuente(direccion.getIdDireccion());
+        salida.escribirTextoFrecuente(direccion.getAlias());
+        salida.escribirTextoFrecuente(direccion.getCalle());
+        salida.escribirTextoFrecuente(direccion.getCiudad());
+        salida.escribirDoble(direccion.getLatitud());
+        salida.escribirDoble(direccion.getLongitud());
+    }
+
+    public static Direccion leerDireccion(LectorBinario entrada) {
+        return new Direccion.Builder(entrada.leerTextoFrecuente())
+                .conAlias(entrada.leerTextoFrecuente())
+                .conCalle(entrada.leerTextoFrecuente())
+                .conCiudad(entrada.leerTextoFrecuente())
+                .conCoordenadas(entrada.leerDoble(), entrada.leerDoble())
+                .build();
+    }
+
+    public static void escribirMetodoPago(EscritorBinario salida, MetodoPago metodo) {
+        salida.escribirTexto(metodo.getIdMetodoPago());
+        EstrategiaPago estrategia = metodo.getEstrategia();
+        if (estrategia instanceof PagoEfectivo) {
+            salida.escribirByte(PAGO_EFECTIVO);
+        } else if (estrategia instanceof PagoTarjeta tarjeta) {
+            salida.escribirByte(PAGO_TARJETA);
+            salida.escribirTexto(tarjeta.getNumeroTarjeta());
+            salida.escribirTexto(tarjeta.getFechaExpiracion());
+        } else if (estrategia instanceof PagoNequi nequi) {
+            salida.escribirByte(PAGO_NEQUI);
+            salida.escribirTexto(nequi.getNumeroCelular());
+        } else if (estrategia instanceof PagoPayPal paypal) {
+            salida.escribirByte(PAGO_PAYPAL);
+            salida.escribirTexto(paypal.getCorreoElectronico());
+            salida.escribirTexto(paypal.getTokenSesion());
+        } else {
+            throw new IllegalArgumentException("Estrategia de pago no soportada: " + estrategia.getTipo());
+        }
+    }
+
+    public static MetodoPago leerMetodoPago(LectorBinario entrada) {
+        String idMetodo = entrada.leerTexto();
+        int tipo = entrada.leerByte();
+        EstrategiaPago estrategia = switch (tipo) {
+            case PAGO_EFECTIVO -> new PagoEfectivo();
+            case PAGO_TARJETA -> new PagoTarjeta(entrada.leerTexto(), entrada.leerTexto());
+            case PAGO_NEQUI -> new PagoNequi(entrada.leerTexto());
+            case PAGO_PAYPAL -> new PagoPayPal(entrada.leerTexto(), entrada.leerTexto());
+            default -> throw new IllegalStateException("Tipo de método de pago desconocido: " + tipo);
+        };
+        return new MetodoPago.Builder(idMetodo).conEstrategia(estrategia).build();
+    }
+
+    /**
+     * Un envío puede sobrevivir a su usuario (los entregados no impiden eliminarlo);
+     * en ese caso se conserva una referencia mínima con solo el id.
+     */
+    public static Usuario resolverUsuario(ResolutorReferencias referencias, String idUsuario) {
+        Usuario usuario = referencias.buscarUsuario(idUsuario);
+        return usuario != null ? usuario : Usuario.builder().idUsuario(idUsuario).build();
+    }
+
+    // ===== REGISTROS DE CAMBIO =====
+
+    public static byte[] codificarId(String id) {
+        EscritorBinario salida = new EscritorBinario(48);
+        salida.escribirTexto(id);
+        return salida.aBytes();
+    }
+
+    public static byte[] codificarCambioEstado(String idEnvio, Envio.EstadoEnvio estado) {
+        EscritorBinario salida = new EscritorBinario(48);
+        salida.escribirTexto(idEnvio);
+        salida.escribirByte(estado != null ? estado.ordinal() : -1);
+        return salida.aBytes();
+    }
+
+    public static Envio.EstadoEnvio leerEstadoEnvio(LectorBinario entrada) {
+        int estado = entrada.leerByte();
+        return estado >= 0 ? Envio.EstadoEnvio.values()[estado] : null;
+    }
+
+    public static byte[] codificarComandoArchivado(String sesion, String descripcion) {
+        EscritorBinario salida = new EscritorBinario(96);
+        salida.escribirTexto(sesion);
+        salida.escribirTexto(descripcion);
+        return salida.aBytes();
+    }
+
+    public static byte[] codificarCambioRepartidor(String idEnvio, String idRepartidor) {
+        EscritorBinario salida = new EscritorBinario(64);
+        salida.escribirTexto(idEnvio);
+        salida.escribirTexto(idRepartidor);
+        return salida.aBytes();
+    }
+
+    public static byte[] codificarCambioCosto(String idEnvio, double costo) {
+        EscritorBinario salida = new EscritorBinario(48);
+        salida.escribirTexto(idEnvio);
+        salida.escribirDobleCompacto(costo);
+        return salida.aBytes();
+    }
+}
@@ -0,0 +1,237 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Búfer de escritura binaria que crece según se necesite.
+ *
+ * Reúne las primitivas que usa el codificador de entidades: números de ancho
+ * fijo en orden big-endian, enteros de longitud variable (varint, con zigzag
+ * para los que llevan signo), textos UTF-8 con longitud y fechas como segundos
+ * desde la época. Los textos y fechas nulos se marcan explícitamente.
+ *
+ * Los textos frecuentes (ciudades, ids de referencias, zonas) pueden
+ * internarse: la primera aparición se escribe completa y las siguientes como
+ * un índice a la tabla de textos ya escritos, que dura hasta {@link #reiniciar()}.
+ */
+public class EscritorBinario {
+    /** Máximo de textos internados por flujo; los siguientes se escriben completos */
+    static final int MAXIMO_INTERNADOS = 1 << 16;
+
+    private static final long BITS_CERO_NEGATIVO = Double.doubleToRawLongBits(-0.0);
+    private static final long MAXIMO_DOBLE_ENTERO = 1L << 52;
+
+    private byte[] datos;
+    private int posicion;
+    private Map<String, Integer> internados;
+
+    public EscritorBinario() {
+        this(256);
+    }
+
+    public EscritorBinario(int capacidadInicial) {
+        this.datos = new byte[Math.max(16, capacidadInicial)];
+    }
+
+    public void escribirByte(int valor) {
+        asegurarCapacidad(1);
+        datos[posicion++] = (byte) valor;
+    }
+
+    public void escribirBooleano(boolean valor) {
+        escribirByte(valor ? 1 : 0);
+    }
+
+    public void escribirEntero(int valor) {
+        asegurarCapacidad(4);
+        datos[posicion++] = (byte) (valor >>> 24);
+        datos[posicion++] = (byte) (valor >>> 16);
+        datos[posicion++] = (byte) (valor >>> 8);
+        datos[posicion++] = (byte) valor;
+    }
+
+    public void escribirLargo(long valor) {
+        escribirEntero((int) (valor >>> 32));
+        escribirEntero((int) valor);
+    }
+
+    public void escribirDoble(double valor) {
+        escribirLargo(Double.doubleToLongBits(valor));
+    }
+
+    /**
+     * Escribe un entero sin signo de 1 a 5 bytes (7 bits por byte).
+     *
+     * @param valor Valor a escribir, interpretado sin signo
+     */
+    public void escribirVarint(int valor) {
+        asegurarCapacidad(5);
+        while ((valor & ~0x7F) != 0) {
+            datos[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos[posicion++] = (byte) valor;
+    }
+
+    /**
+     * Escribe un largo sin signo de 1 a 10 bytes (7 bits por byte).
+     *
+     * @param valor Valor a escribir, interpretado sin signo
+     */
+    public void escribirVarlong(long valor) {
+        asegurarCapacidad(10);
+        while ((valor & ~0x7FL) != 0) {
+            datos[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos[posicion++] = (byte) valor;
+    }
+
+    /**
+     * Escribe un entero con signo en zigzag para que los negativos pequeños ocupen poco.
+     */
+    public void escribirVarintConSigno(int valor) {
+        escribirVarint((valor << 1) ^ (valor >> 31));
+    }
+
+    public void escribirVarlongConSigno(long valor) {
+        escribirVarlong((valor << 1) ^ (valor >> 63));
+    }
+
+    /**
+     * Escribe un doble de forma compacta: los valores enteros (pesos, costos,
+     * dimensiones) como varint par y el resto como el byte 1 seguido de los
+     * 8 bytes del valor.
+     *
+     * @param valor Valor a escribir
+     */
+    public void escribirDobleCompacto(double valor) {
+        long entero = (long) valor;
+        if (entero == valor && Math.abs(entero) < MAXIMO_DOBLE_ENTERO
+                && Double.doubleToRawLongBits(valor) != BITS_CERO_NEGATIVO) {
+            escribirVarlong(((entero << 1) ^ (entero >> 63)) << 1);
+        } else {
+            escribirByte(1);
+            escribirLargo(Double.doubleToRawLongBits(valor));
+        }
+    }
+
+    /**
+     * Escribe un texto UTF-8 precedido por su longitud más uno como varint; 0 representa null.
+     * Los textos ASCII se copian directamente sin crear arreglos intermedios.
+     *
+     * @param texto Texto a escribir (puede ser null)
+     */
+    public void escribirTexto(String texto) {
+        if (texto == null) {
+            escribirVarint(0);
+            return;
+        }
+        int inicio = posicion;
+        int longitud = texto.length();
+        escribirVarint(longitud + 1);
+        asegurarCapacidad(longitud);
+        for (int i = 0; i < longitud; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80) {
+                // No es ASCII: descartar lo escrito y codificar en UTF-8
+                posicion = inicio;
+                byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                escribirVarint(bytes.length + 1);
+                escribirBytes(bytes, 0, bytes.length);
+                return;
+            }
+            datos[posicion++] = (byte) c;
+        }
+    }
+
+    /**
+     * Escribe un texto que probablemente se repite en el flujo. La primera vez se
+     * escribe completo (marca 1) y las siguientes como índice más dos; 0 es null.
+     *
+     * @param texto Texto a escribir (puede ser null)
+     */
+    public void escribirTextoFrecuente(String texto) {
+        if (texto == null) {
+            escribirVarint(0);
+            return;
+        }
+        if (internados == null) {
+            internados = new HashMap<>();
+        }
+        Integer indice = internados.get(texto);
+        if (indice != null) {
+            escribirVarint(indice + 2);
+            return;
+        }
+        escribirVarint(1);
+        escribirTexto(texto);
+        if (internados.size() < MAXIMO_INTERNADOS) {
+            internados.put(texto, internados.size());
+        }
+    }
+
+    /**
+     * Escribe una fecha como marca (0 nulo, 1 sin nanosegundos, 2 con nanosegundos),
+     * segundos UTC en zigzag y, si hay, los nanosegundos.
+     *
+     * @param fecha Fecha a escribir (puede ser null)
+     */
+    public void escribirFecha(LocalDateTime fecha) {
+        if (fecha == null) {
+            escribirVarint(0);
+            return;
+        }
+        int nanos = fecha.getNano();
+        escribirVarint(nanos == 0 ? 1 : 2);
+        escribirVarlongConSigno(fecha.toEpochSecond(ZoneOffset.UTC));
+        if (nanos != 0) {
+            escribirVarint(nanos);
+        }
+    }
+
+    public void escribirBytes(byte[] origen, int desde, int cantidad) {
+        asegurarCapacidad(cantidad);
+        System.arraycopy(origen, desde, datos, posicion, cantidad);
+        posicion += cantidad;
+    }
+
+    /**
+     * Cantidad de bytes escritos hasta el momento.
+     *
+     * @return Tamaño del contenido
+     */
+    public int tamano() {
+        return posicion;
+    }
+
+    /**
+     * Descarta el contenido y la tabla de textos internados para reutilizar el búfer.
+     */
+    public void reiniciar() {
+        posicion = 0;
+        if (internados != null) {
+            internados.clear();
+        }
+    }
+
+    /**
+     * Obtiene una copia exacta del contenido escrito.
+     *
+     * @return Bytes escritos
+     */
+    public byte[] aBytes() {
+        return Arrays.copyOf(datos, posicion);
+    }
+
+    private void asegurarCapacidad(int adicional) {
+        if (posicion + adicional > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, posicion + adicional));
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.ResultadoLoteEnvios;
+import co.edu.uniquindio.poo.model.SistemaGestion;
+import co.edu.uniquindio.poo.model.Usuario;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Importa a SistemaGestion los envíos de un CSV con el formato que escribe
+ * ReporteEnvios ({@value #ENCABEZADO}), sin cargar el archivo en memoria.
+ *
+ * El hilo que invoca {@link #importar} lee el archivo con un FileChannel en
+ * bloques de tamaño fijo cortados en fin de línea y los entrega por una cola
+ * acotada a un grupo de trabajadores. Cada trabajador separa los campos
+ * directamente sobre los bytes (sin String.split), construye los envíos del
+ * bloque y los registra con {@link SistemaGestion#registrarEnviosNuevos} respetando
+ * el orden del archivo. Los bloques se reciclan, de modo que la memoria del
+ * importador es la misma sin importar el tamaño del archivo; los envíos
+ * importados sí quedan en el sistema, que guarda sus entidades en memoria.
+ *
+ * Como el reporte solo trae el nombre del usuario y la ciudad de origen y
+ * destino, el usuario se resuelve por id o por nombre completo y las
+ * direcciones importadas solo tienen ciudad. Una fila cuyo id ya está
+ * registrado se rechaza en lugar de reemplazar al envío vivo (que puede tener
+ * repartidor, pagos e incidencias), así que importar dos veces el mismo archivo
+ * no duplica ni pisa envíos.
+ */
+public class ImportadorEnviosCSV {
+    /** Línea de columnas que escribe ReporteEnvios */
+    public static final String ENCABEZADO = "ID,Usuario,Origen,Destino,Estado,Costo,Fecha Creación";
+    /** Máximo de rechazos detallados en el resultado; el resto solo se cuenta */
+    public static final int MAXIMO_RECHAZOS_REPORTADOS = 1000;
+    private static final int TAMANO_BLOQUE_PREDETERMINADO = 1 << 20;
+    private static final int CAPACIDAD_COLA = 4;
+    private static final int COLUMNAS = 7;
+    private static final int DIAS_ENTREGA_ESTIMADA = 3;
+
+    private static final byte[] TEXTO_NULO = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PREFIJO_GENERADO = "Generado el:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] NOMBRES_ESTADO;
+
+    static {
+        Envio.EstadoEnvio[] estados = Envio.EstadoEnvio.values();
+        NOMBRES_ESTADO = new byte[estados.length][];
+        for (int i = 0; i < estados.length; i++) {
+            NOMBRES_ESTADO[i] = estados[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Recibe el avance de la importación después de registrar cada bloque.
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        void reportar(long bytesProcesados, long bytesTotales, long filasImportadas, long filasRechazadas);
+    }
+
+    /**
+     * Totales de una importación y detalle de los primeros rechazos (fila = número de línea).
+     */
+    public static class Resultado {
+        private final long filasImportadas;
+        private final long filasRechazadas;
+        private final List<ResultadoLoteEnvios.RechazoFila> rechazos;
+
+        private Resultado(long filasImportadas, long filasRechazadas, List<ResultadoLoteEnvios.RechazoFila> rechazos) {
+            this.filasImportadas = filasImportadas;
+            this.filasRechazadas = filasRechazadas;
+            this.rechazos = Collections.unmodifiableList(rechazos);
+        }
+
+        public long getFilasImportadas() {
+            return filasImportadas;
+        }
+
+        public long getFilasRechazadas() {
+            return filasRechazadas;
+        }
+
+        public List<ResultadoLoteEnvios.RechazoFila> getRechazos() {
+            return rechazos;
+        }
+    }
+
+    private final SistemaGestion sistema;
+    private final int trabajadores;
+    private final int tamanoBloque;
+    private final Charset codificacion;
+    private final byte[] bytesEncabezado;
+
+    /**
+     * Importador con un trabajador por procesador y la codificación por defecto de
+     * la plataforma, que es la que usa FormatoCSV al escribir el reporte.
+     *
+     * @param sistema Sistema donde se registran los envíos
+     */
+    public ImportadorEnviosCSV(SistemaGestion sistema) {
+        this(sistema, Runtime.getRuntime().availableProcessors(), TAMANO_BLOQUE_PREDETERMINADO,
+                Charset.defaultCharset());
+    }
+
+    /**
+     * @param sistema Sistema donde se registran los envíos
+     * @param trabajadores Hilos que construyen y registran las filas
+     * @param tamanoBloque Bytes por bloque de lectura; limita también la longitud de una línea
+     * @param codificacion Codificación del archivo (compatible con ASCII)
+     */
+    public ImportadorEnviosCSV(SistemaGestion sistema, int trabajadores, int tamanoBloque, Charset codificacion) {
+        if (trabajadores < 1 || tamanoBloque < 1024) {
+            throw new IllegalArgumentException("Se requiere al menos un trabajador y bloques de 1 KB");
+        }
+        this.sistema = sistema;
+        this.trabajadores = trabajadores;
+        this.tamanoBloque = tamanoBloque;
+        this.codificacion = codificacion;
+        this.bytesEncabezado = ENCABEZADO.getBytes(codificacion);
+    }
+
+    /**
+     * Importa el archivo completo.
+     *
+     * @param archivo CSV generado por ReporteEnvios
+     * @param progreso Receptor del avance (puede ser null)
+     * @return Filas importadas y rechazadas
+     * @throws IOException Si el archivo no se puede leer o una línea excede el tamaño de bloque
+     */
+    public Resultado importar(Path archivo, Progreso progreso) throws IOException {
+        return new Importacion(archivo, progreso).ejecutar();
+    }
+
+    /**
+     * Bloque de líneas completas leído del archivo.
+     */
+    private static final class Bloque {
+        static final Bloque FIN = new Bloque(null);
+
+        final byte[] datos;
+        int longitud;
+        long numero;
+        long primeraLinea;
+        long bytesHasta;
+
+        Bloque(byte[] datos) {
+            this.datos = datos;
+        }
+    }
+
+    /**
+     * Estado de una importación en curso.
+     */
+    private final class Importacion {
+        private final Path archivo;
+        private final Progreso progreso;
+        private final long bytesTotales;
+        private final BlockingQueue<Bloque> pendientes = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+        private final BlockingQueue<Bloque> libres;
+        private final Map<String, Usuario> usuariosPorNombre = new HashMap<>();
+        private final Map<String, Direccion> direccionesPorCiudad = new ConcurrentHashMap<>();
+
+        // Protegidos por el monitor de la importación
+        private long siguienteBloque;
+        private long filasImportadas;
+        private long filasRechazadas;
+        private final List<ResultadoLoteEnvios.RechazoFila> rechazos = new ArrayList<>();
+        private volatile Throwable fallo;
+
+        Importacion(Path archivo, Progreso progreso) throws IOException {
+            this.archivo = archivo;
+            this.progreso = progreso;
+            this.bytesTotales = Files.size(archivo);
+            // Dos bloques para el lector, uno por trabajador y los que caben en la cola
+            int bloques = CAPACIDAD_COLA + trabajadores + 2;
+            this.libres = new ArrayBlockingQueue<>(bloques);
+            for (int i = 0; i < bloques; i++) {
+                libres.add(new Bloque(new byte[tamanoBloque]));
+            }
+            for (Usuario usuario : sistema.getUsuarios()) {
+                if (usuario.getNombreCompleto() != null) {
+                    usuariosPorNombre.putIfAbsent(usuario.getNombreCompleto(), usuario);
+                }
+            }
+        }
+
+        Resultado ejecutar() throws IOException {
+            List<Thread> hilos = new ArrayList<>(trabajadores);
+            for (int i = 0; i < trabajadores; i++) {
+                Thread hilo = new Thread(this::trabajar, "importador-csv-" + i);
+                hilo.setDaemon(true);
+                hilo.start();
+                hilos.add(hilo);
+            }
+            try {
+                leer();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Importación interrumpida", e);
+            } finally {
+                ponerFin();
+                for (Thread hilo : hilos) {
+                    esperarHilo(hilo);
+                }
+            }
+            if (fallo != null) {
+                throw new IOException("Error al importar " + archivo + ": " + fallo.getMessage(), fallo);
+            }
+            synchronized (this) {
+                return new Resultado(filasImportadas, filasRechazadas, rechazos);
+            }
+        }
+
+        /**
+         * Lee el archivo en bloques cortados en el último fin de línea; el resto
+         * de la última línea incompleta pasa al inicio del bloque siguiente.
+         */
+        private void leer() throws IOException, InterruptedException {
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                Bloque actual = libres.take();
+                int ocupados = 0;
+                long numero = 0;
+                long linea = 1;
+                long posicion = 0;
+                boolean finArchivo = false;
+                while (!finArchivo && fallo == null) {
+                    ByteBuffer destino = ByteBuffer.wrap(actual.datos, ocupados, tamanoBloque - ocupados);
+                    while (destino.hasRemaining()) {
+                        if (canal.read(destino) < 0) {
+                            finArchivo = true;
+                            break;
+                        }
+                    }
+                    int limite = destino.position();
+                    if (limite == 0) {
+                        break;
+                    }
+                    int corte = finArchivo ? limite : ultimoFinDeLinea(actual.datos, limite) + 1;
+                    if (corte == 0) {
+                        throw new IOException("La línea " + linea + " excede el tamaño de bloque de "
+                                + tamanoBloque + " bytes");
+                    }
+                    Bloque siguiente = finArchivo ? null : libres.take();
+                    ocupados = limite - corte;
+                    if (siguiente != null) {
+                        System.arraycopy(actual.datos, corte, siguiente.datos, 0, ocupados);
+                    }
+                    posicion += corte;
+                    actual.longitud = corte;
+                    actual.numero = numero++;
+                    actual.primeraLinea = linea;
+                    actual.bytesHasta = posicion;
+                    linea += contarLineas(actual.datos, corte);
+                    pendientes.put(actual);
+                    actual = siguiente;
+                }
+            }
+        }
+
+        private void ponerFin() {
+            while (true) {
+                try {
+                    pendientes.put(Bloque.FIN);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void esperarHilo(Thread hilo) {
+            boolean interrumpido = false;
+            while (hilo.isAlive()) {
+                try {
+                    hilo.join();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void trabajar() {
+            try {
+                while (true) {
+                    Bloque bloque = pendientes.take();
+                    if (bloque == Bloque.FIN) {
+                        pendientes.put(Bloque.FIN);
+                        return;
+                    }
+                    procesarBloque(bloque);
+                }
+            } catch (InterruptedException | RuntimeException | Error e) {
+                fallo = e;
+                synchronized (this) {
+                    notifyAll();
+                }
+                // Seguir drenando para que el lector no quede bloqueado
+                drenar();
+            }
+        }
+
+        private void drenar() {
+            try {
+                while (true) {
+                    Bloque bloque = pendientes.take();
+                    if (bloque == Bloque.FIN) {
+                        pendientes.put(Bloque.FIN);
+                        return;
+                    }
+                    libres.put(bloque);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void procesarBloque(Bloque bloque) throws InterruptedException {
+            List<Envio> envios = new ArrayList<>(bloque.longitud / 64);
+            List<Integer> lineasEnvios = new ArrayList<>(bloque.longitud / 64);
+            List<ResultadoLoteEnvios.RechazoFila> rechazosBloque = new ArrayList<>();
+            byte[] datos = bloque.datos;
+            long linea = bloque.primeraLinea;
+            int inicio = 0;
+            while (inicio < bloque.longitud) {
+                int fin = inicio;
+                while (fin < bloque.longitud && datos[fin] != '\n') {
+                    fin++;
+                }
+                int finContenido = fin > inicio && datos[fin - 1] == '\r' ? fin - 1 : fin;
+                if (!esLineaIgnorada(datos, inicio, finContenido)) {
+                    int fila = (int) Math.min(linea, Integer.MAX_VALUE);
+                    try {
+                        envios.add(construirEnvio(datos, inicio, finContenido));
+                        lineasEnvios.add(fila);
+                    } catch (IllegalArgumentException | DateTimeParseException e) {
+                        rechazosBloque.add(new ResultadoLoteEnvios.RechazoFila(fila, e.getMessage()));
+                    }
+                }
+                inicio = fin + 1;
+                linea++;
+            }
+            long numero = bloque.numero;
+            long bytesHasta = bloque.bytesHasta;
+            libres.put(bloque);
+
+            // Registrar en el orden del archivo
+            synchronized (this) {
+                while (siguienteBloque != numero && fallo == null) {
+                    wait();
+                }
+                if (fallo != null) {
+                    return;
+                }
+                try {
+                    List<Integer> existentes = sistema.registrarEnviosNuevos(envios);
+                    for (int posicion : existentes) {
+                        rechazosBloque.add(new ResultadoLoteEnvios.RechazoFila(lineasEnvios.get(posicion),
+                                "El envío " + envios.get(posicion).getIdEnvio() + " ya existe"));
+                    }
+                    if (!existentes.isEmpty()) {
+                        rechazosBloque.sort(Comparator.comparingInt(ResultadoLoteEnvios.RechazoFila::getFila));
+                    }
+                    filasImportadas += envios.size() - existentes.size();
+                    filasRechazadas += rechazosBloque.size();
+                    for (ResultadoLoteEnvios.RechazoFila rechazo : rechazosBloque) {
+                        if (rechazos.size() < MAXIMO_RECHAZOS_REPORTADOS) {
+                            rechazos.add(rechazo);
+                        }
+                    }
+                    if (progreso != null) {
+                        progreso.reportar(bytesHasta, bytesTotales, filasImportadas, filasRechazadas);
+                    }
+                } finally {
+                    siguienteBloque++;
+                    notifyAll();
+                }
+            }
+        }
+
+        private Envio construirEnvio(byte[] datos, int inicio, int fin) {
+            int[] limites = new int[COLUMNAS + 1];
+            int columnas = 0;
+            limites[0] = inicio - 1;
+            for (int i = inicio; i < fin; i++) {
+                if (datos[i] == ',') {
+                    if (++columnas == COLUMNAS) {
+                        break;
+                    }
+                    limites[columnas] = i;
+                }
+            }
+            if (columnas != COLUMNAS - 1) {
+                throw new IllegalArgumentException("Número de columnas inválido (se esperaban " + COLUMNAS + ")");
+            }
+            limites[COLUMNAS] = fin;
+
+            String idEnvio = texto(datos, limites, 0);
+            if (idEnvio == null || idEnvio.isEmpty()) {
+                throw new IllegalArgumentException("El ID del envío es obligatorio");
+            }
+            String nombreUsuario = texto(datos, limites, 1);
+            Usuario usuario = nombreUsuario == null ? null : resolverUsuario(nombreUsuario);
+            if (usuario == null) {
+                throw new IllegalArgumentException("Usuario no encontrado: " + nombreUsuario);
+            }
+            Envio.EstadoEnvio estado = estado(datos, limites[4] + 1, limites[5]);
+            double costo = Double.parseDouble(new String(datos, limites[5] + 1, limites[6] - limites[5] - 1,
+                    StandardCharsets.US_ASCII));
+            String fecha = texto(datos, limites, 6);
+            LocalDateTime fechaCreacion = fecha == null ? null : LocalDateTime.parse(fecha);
+
+            return Envio.builder()
+                    .idEnvio(idEnvio)
+                    .usuario(usuario)
+                    .origen(direccion(texto(datos, limites, 2)))
+                    .destino(direccion(texto(datos, limites, 3)))
+                    .estado(estado)
+                    .costo(costo)
+                    .fechaCreacion(fechaCreacion)
+                    .fechaEntregaEstimada((fechaCreacion != null ? fechaCreacion : LocalDateTime.now())
+                            .plusDays(DIAS_ENTREGA_ESTIMADA))
+                    .build();
+        }
+
+        private Usuario resolverUsuario(String valor) {
+            Usuario usuario = sistema.buscarUsuarioPorId(valor);
+            return usuario != null ? usuario : usuariosPorNombre.get(valor);
+        }
+
+        private Direccion direccion(String ciudad) {
+            String clave = ciudad == null ? "" : ciudad;
+            return direccionesPorCiudad.computeIfAbsent(clave,
+                    c -> new Direccion.Builder("IMP-" + c).conCiudad(ciudad).build());
+        }
+    }
+
+    /**
+     * Texto de una columna; el literal "null" que escribe ReporteEnvios se lee como null.
+     */
+    private String texto(byte[] datos, int[] limites, int columna) {
+        int inicio = limites[columna] + 1;
+        int fin = limites[columna + 1];
+        if (igual(datos, inicio, fin, TEXTO_NULO)) {
+            return null;
+        }
+        return new String(datos, inicio, fin - inicio, codificacion);
+    }
+
+    private Envio.EstadoEnvio estado(byte[] datos, int inicio, int fin) {
+        for (int i = 0; i < NOMBRES_ESTADO.length; i++) {
+            if (igual(datos, inicio, fin, NOMBRES_ESTADO[i])) {
+                return Envio.EstadoEnvio.values()[i];
+            }
+        }
+        if (igual(datos, inicio, fin, TEXTO_NULO)) {
+            return null;
+        }
+        throw new IllegalArgumentException("Estado inválido: " + new String(datos, inicio, fin - inicio,
+                codificacion));
+    }
+
+    /**
+     * Líneas del reporte que no son envíos: vacías, comentarios (#), fecha de
+     * generación y encabezado de columnas.
+     */
+    private boolean esLineaIgnorada(byte[] datos, int inicio, int fin) {
+        return inicio == fin
+                || datos[inicio] == '#'
+                || empiezaCon(datos, inicio, fin, PREFIJO_GENERADO)
+                || igual(datos, inicio, fin, bytesEncabezado);
+    }
+
+    private static boolean igual(byte[] datos, int inicio, int fin, byte[] literal) {
+        return fin - inicio == literal.length && empiezaCon(datos, inicio, fin, literal);
+    }
+
+    private static boolean empiezaCon(byte[] datos, int inicio, int fin, byte[] prefijo) {
+        if (fin - inicio < prefijo.length) {
+            return false;
+        }
+        for (int i = 0; i < prefijo.length; i++) {
+            if (datos[inicio + i] != prefijo[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int ultimoFinDeLinea(byte[] datos, int limite) {
+        for (int i = limite - 1; i >= 0; i--) {
+            if (datos[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int contarLineas(byte[] datos, int longitud) {
+        int lineas = 0;
+        for (int i = 0; i < longitud; i++) {
+            if (datos[i] == '\n') {
+                lineas++;
+            }
+        }
+        return lineas;
+    }
+}
@@ -0,0 +1,581 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.model.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea puntual del sistema en formato columnar.
+ *
+ * Guarda una tabla por tipo de entidad (repartidores, usuarios, administradores,
+ * envíos, pagos e incidencias, en ese orden para que las referencias se puedan
+ * resolver al cargar) junto con la posición de bitácora hasta la que refleja
+ * todos los cambios. Al arrancar basta con cargar la instantánea y reproducir
+ * los registros de bitácora posteriores a esa posición.
+ *
+ * Formato: número mágico, versión, posición, cantidad de tablas, las tablas
+ * escritas por {@link TablaColumnas} y un CRC32 final de todo el contenido.
+ * La carga mapea el archivo en memoria y lee cada columna en bloque.
+ */
+public class InstantaneaColumnar {
+    private static final int MAGICO = 0x43445331; // "CDS1"
+    /** Los bloques de usuarios y métodos de pago usan el esquema de CodificadorEntidades */
+    private static final int VERSION = CodificadorEntidades.VERSION_ESQUEMA;
+
+    private static final byte TABLA_REPARTIDORES = 1;
+    private static final byte TABLA_USUARIOS = 2;
+    private static final byte TABLA_ADMINISTRADORES = 3;
+    private static final byte TABLA_ENVIOS = 4;
+    private static final byte TABLA_PAGOS = 5;
+    private static final byte TABLA_INCIDENCIAS = 6;
+
+    /**
+     * Recibe las entidades reconstruidas al cargar una instantánea, en orden de dependencia.
+     */
+    public interface Destino {
+        void repartidor(Repartidor repartidor);
+
+        void usuario(Usuario usuario);
+
+        void administrador(Administrador administrador);
+
+        void envio(Envio envio);
+
+        void pago(Pago pago);
+
+        void incidencia(Incidencia incidencia);
+    }
+
+    private final long posicion;
+    private final TablaRepartidores repartidores = new TablaRepartidores();
+    private final TablaUsuarios usuarios = new TablaUsuarios();
+    private final TablaAdministradores administradores = new TablaAdministradores();
+    private final TablaEnvios envios = new TablaEnvios();
+    private final TablaPagos pagos = new TablaPagos();
+    private final TablaIncidencias incidencias = new TablaIncidencias();
+
+    /**
+     * Crea una instantánea vacía.
+     *
+     * @param posicion Posición de bitácora cuyos cambios (y todos los anteriores) quedan incluidos
+     */
+    public InstantaneaColumnar(long posicion) {
+        this.posicion = posicion;
+    }
+
+    public long getPosicion() {
+        return posicion;
+    }
+
+    // Cada método agrega una fila; quien llama debe sostener el bloqueo de la entidad
+
+    public void agregarRepartidor(Repartidor repartidor) {
+        repartidores.agregar(repartidor);
+    }
+
+    public void agregarUsuario(Usuario usuario) {
+        usuarios.agregar(usuario);
+    }
+
+    public void agregarAdministrador(Administrador administrador) {
+        administradores.agregar(administrador);
+    }
+
+    public void agregarEnvio(Envio envio) {
+        envios.agregar(envio);
+    }
+
+    public void agregarPago(Pago pago) {
+        pagos.agregar(pago);
+    }
+
+    public void agregarIncidencia(Incidencia incidencia) {
+        incidencias.agregar(incidencia);
+    }
+
+    public int getTotalFilas() {
+        return repartidores.tabla.getFilas() + usuarios.tabla.getFilas() + administradores.tabla.getFilas()
+                + envios.tabla.getFilas() + pagos.tabla.getFilas() + incidencias.tabla.getFilas();
+    }
+
+    /**
+     * Escribe la instantánea en un archivo temporal, lo sincroniza y lo renombra
+     * atómicamente, de modo que nunca queda una instantánea a medio escribir.
+     *
+     * @param archivo Ruta final del archivo
+     * @throws IOException Si ocurre un error de escritura
+     */
+    public void escribir(Path archivo) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileOutputStream archivoSalida = new FileOutputStream(temporal.toFile())) {
+            CheckedOutputStream verificado = new CheckedOutputStream(archivoSalida, new CRC32());
+            DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(verificado, 1 << 16));
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeLong(posicion);
+            List<TablaColumnas> tablas = List.of(repartidores.tabla, usuarios.tabla, administradores.tabla,
+                    envios.tabla, pagos.tabla, incidencias.tabla);
+            salida.writeInt(tablas.size());
+            for (TablaColumnas tabla : tablas) {
+                tabla.escribir(salida);
+            }
+            salida.flush();
+            salida.writeInt((int) verificado.getChecksum().getValue());
+            salida.flush();
+            archivoSalida.getChannel().force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga una instantánea mapeando el archivo en memoria.
+     *
+     * @param archivo Archivo de instantánea
+     * @param referencias Resolutor para las referencias entre entidades ya cargadas
+     * @param destino Receptor de las entidades reconstruidas
+     * @return Posición de bitácora que refleja la instantánea
+     * @throws IOException Si el archivo no puede leerse o está corrupto
+     */
+    public static long cargar(Path archivo, ResolutorReferencias referencias, Destino destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("Instantánea demasiado grande para mapearse: " + archivo);
+            }
+            if (tamano < 24) {
+                throw new IOException("Instantánea incompleta: " + archivo);
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit((int) tamano - 4));
+            if ((int) crc.getValue() != buffer.getInt((int) tamano - 4)) {
+                throw new IOException("Instantánea corrupta (CRC inválido): " + archivo);
+            }
+            if (buffer.getInt() != MAGICO || buffer.getInt() != VERSION) {
+                throw new IOException("El archivo no es una instantánea válida: " + archivo);
+            }
+            long posicion = buffer.getLong();
+            int tablas = buffer.getInt();
+            for (int i = 0; i < tablas; i++) {
+                LectorTablaColumnas tabla = new LectorTablaColumnas(buffer);
+                switch (tabla.getTipo()) {
+                    case TABLA_REPARTIDORES -> TablaRepartidores.leer(tabla, destino);
+                    case TABLA_USUARIOS -> TablaUsuarios.leer(tabla, destino);
+                    case TABLA_ADMINISTRADORES -> TablaAdministradores.leer(tabla, destino);
+                    case TABLA_ENVIOS -> TablaEnvios.leer(tabla, referencias, destino);
+                    case TABLA_PAGOS -> TablaPagos.leer(tabla, referencias, destino);
+                    case TABLA_INCIDENCIAS -> TablaIncidencias.leer(tabla, referencias, destino);
+                    default -> throw new IOException("Tabla desconocida en la instantánea: " + tabla.getTipo());
+                }
+            }
+            return posicion;
+        }
+    }
+
+    // ===== TABLAS POR ENTIDAD =====
+
+    private static final class TablaRepartidores {
+        final TablaColumnas tabla = new TablaColumnas(TABLA_REPARTIDORES);
+        final TablaColumnas.ColumnaTexto id = tabla.texto();
+        final TablaColumnas.ColumnaTexto nombre = tabla.texto();
+        final TablaColumnas.ColumnaTexto documento = tabla.texto();
+        final TablaColumnas.ColumnaTexto telefono = tabla.texto();
+        final TablaColumnas.ColumnaOcteto estado = tabla.octeto();
+        final TablaColumnas.ColumnaTexto zona = tabla.texto();
+        final TablaColumnas.ColumnaEntero asignados = tabla.entero();
+
+        void agregar(Repartidor repartidor) {
+            id.agregar(repartidor.getIdRepartidor());
+            nombre.agregar(repartidor.getNombre());
+            documento.agregar(repartidor.getDocumento());
+            telefono.agregar(repartidor.getTelefono());
+            estado.agregar(repartidor.getEstado().ordinal());
+            zona.agregar(repartidor.getZonaCobertura());
+            asignados.agregar(repartidor.getEnviosAsignados());
+            tabla.filaCompleta();
+        }
+
+        static void leer(LectorTablaColumnas tabla, Destino destino) {
+            String[] id = tabla.textos();
+            String[] nombre = tabla.textos();
+            String[] documento = tabla.textos();
+            String[] telefono = tabla.textos();
+            byte[] estado = tabla.octetos();
+            String[] zona = tabla.textos();
+            int[] asignados = tabla.enteros();
+            Repartidor.EstadoRepartidor[] estados = Repartidor.EstadoRepartidor.values();
+            for (int i = 0; i < tabla.getFilas(); i++) {
+                destino.repartidor(Repartidor.builder()
+                        .idRepartidor(id[i])
+                        .nombre(nombre[i])
+                        .documento(documento[i])
+                        .telefono(telefono[i])
+                        .estado(estados[estado[i]])
+                        .zonaCobertura(zona[i])
+                        .enviosAsignados(asignados[i])
+                        .build());
+            }
+        }
+    }
+
+    private static final class TablaUsuarios {
+        final TablaColumnas tabla = new TablaColumnas(TABLA_USUARIOS);
+        final TablaColumnas.ColumnaTexto id = tabla.texto();
+        final TablaColumnas.ColumnaTexto nombre = tabla.texto();
+        final TablaColumnas.ColumnaTexto correo = tabla.texto();
+        final TablaColumnas.ColumnaTexto telefono = tabla.texto();
+        final TablaColumnas.ColumnaTexto password = tabla.texto();
+        final TablaColumnas.ColumnaBloque listas = tabla.bloque();
+
+        void agregar(Usuario usuario) {
+            id.agregar(usuario.getIdUsuario());
+            nombre.agregar(usuario.getNombreCompleto());
+            correo.agregar(usuario.getCorreoElectronico());
+            telefono.agregar(usuario.getTelefono());
+            password.agregar(usuario.getPassword());
+            EscritorBinario salida = new EscritorBinario(64);
+            CodificadorEntidades.escribirListasUsuario(salida, usuario);
+            listas.agregar(salida.aBytes());
+            tabla.filaCompleta();
+        }
+
+        static void leer(LectorTablaColumnas tabla, Destino destino) {
+            String[] id = tabla.textos();
+            String[] nombre = tabla.textos();
+            String[] correo = tabla.textos();
+            String[] telefono = tabla.textos();
+            String[] password = tabla.textos();
+            byte[][] listas = tabla.bloques();
+            for (int i = 0; i < tabla.getFilas(); i++) {
+                Usuario usuario = Usuario.builder()
+                        .idUsuario(id[i])
+                        .nombreCompleto(nombre[i])
+                        .correoElectronico(correo[i])
+                        .telefono(telefono[i])
+                        .password(password[i])
+                        .build();
+                CodificadorEntidades.leerListasUsuario(new LectorBinario(listas[i]), usuario);
+                destino.usuario(usuario);
+            }
+        }
+    }
+
+    private static final class TablaAdministradores {
+        final TablaColumnas tabla = new TablaColumnas(TABLA_ADMINISTRADORES);
+        final TablaColumnas.ColumnaTexto id = tabla.texto();
+        final TablaColumnas.ColumnaTexto nombre = tabla.texto();
+        final TablaColumnas.ColumnaTexto correo = tabla.texto();
+        final TablaColumnas.ColumnaTexto password = tabla.texto();
+        final TablaColumnas.ColumnaEntero permisos = tabla.entero();
+
+        void agregar(Administrador admin) {
+            id.agregar(admin.getIdAdmin());
+            nombre.agregar(admin.getNombre());
+            correo.agregar(admin.getCorreo());
+            password.agregar(admin.getPassword());
+            int mascara = 0;
+            for (Administrador.Permiso permiso : admin.getPermisos()) {
+                mascara |= 1 << permiso.ordinal();
+            }
+            permisos.agregar(mascara);
+            tabla.filaCompleta();
+        }
+
+        static void leer(LectorTablaColumnas tabla, Destino destino) {
+            String[] id = tabla.textos();
+            String[] nombre = tabla.textos();
+            String[] correo = tabla.textos();
+            String[] password = tabla.textos();
+            int[] permisos = tabla.enteros();
+            for (int i = 0; i < tabla.getFilas(); i++) {
+                Administrador admin = Administrador.builder()
+                        .idAdmin(id[i])
+                        .nombre(nombre[i])
+                        .correo(correo[i])
+                        .password(password[i])
+                        .build();
+                for (Administrador.Permiso permiso : Administrador.Permiso.values()) {
+                    if ((permisos[i] & (1 << permiso.ordinal())) != 0) {
+                        admin.agregarPermiso(permiso);
+                    }
+                }
+                destino.administrador(admin);
+            }
+        }
+    }
+
+    /**
+     * Las seis columnas de una dirección guardada en línea.
+     */
+    private static final class ColumnasDireccion {
+        private static final int MAXIMO_DIRECCIONES_COMPARTIDAS = 1 << 16;
+
+        final TablaColumnas.ColumnaTexto id;
+        final TablaColumnas.ColumnaTexto alias;
+        final TablaColumnas.ColumnaTexto calle;
+        final TablaColumnas.ColumnaTexto ciudad;
+        final TablaColumnas.ColumnaDoble latitud;
+        final TablaColumnas.ColumnaDoble longitud;
+
+        ColumnasDireccion(TablaColumnas tabla) {
+            id = tabla.texto();
+            alias = tabla.texto();
+            calle = tabla.texto();
+            ciudad = tabla.texto();
+            latitud = tabla.doble();
+            longitud = tabla.doble();
+        }
+
+        void agregar(Direccion direccion) {
+            id.agregar(direccion.getIdDireccion());
+            alias.agregar(direccion.getAlias());
+            calle.agregar(direccion.getCalle());
+            ciudad.agregar(direccion.getCiudad());
+            latitud.agregar(direccion.getLatitud());
+            longitud.agregar(direccion.getLongitud());
+        }
+
+        /**
+         * Las direcciones son inmutables, así que las filas idénticas comparten
+         * una sola instancia. Los ids repetidos llegan como la misma cadena desde
+         * el diccionario de la columna, por eso basta un mapa por identidad.
+         */
+        static Direccion[] leer(LectorTablaColumnas tabla, Map<String, Direccion> compartidas) {
+            String[] id = tabla.textos();
+            String[] alias = tabla.textos();
+            String[] calle = tabla.textos();
+            String[] ciudad = tabla.textos();
+            double[] latitud = tabla.dobles();
+            double[] longitud = tabla.dobles();
+            Direccion[] direcciones = new Direccion[tabla.getFilas()];
+            for (int i = 0; i < direcciones.length; i++) {
+                Direccion previa = compartidas.get(id[i]);
+                if (previa != null && Objects.equals(previa.getAlias(), alias[i])
+                        && Objects.equals(previa.getCalle(), calle[i]) && Objects.equals(previa.getCiudad(), ciudad[i])
+                        && previa.getLatitud() == latitud[i] && previa.getLongitud() == longitud[i]) {
+                    direcciones[i] = previa;
+                    continue;
+                }
+                direcciones[i] = new Direccion.Builder(id[i])
+                        .conAlias(alias[i])
+                        .conCalle(calle[i])
+                        .conCiudad(ciudad[i])
+                        .conCoordenadas(latitud[i], longitud[i])
+                        .build();
+                if (compartidas.size() < MAXIMO_DIRECCIONES_COMPARTIDAS) {
+                    compartidas.put(id[i], direcciones[i]);
+                }
+            }
+            return direcciones;
+        }
+    }
+
+    private static final class TablaEnvios {
+        final TablaColumnas tabla = new TablaColumnas(TABLA_ENVIOS);
+        final TablaColumnas.ColumnaTexto id = tabla.texto();
+        final ColumnasDireccion origen = new ColumnasDireccion(tabla);
+        final ColumnasDireccion destino = new ColumnasDireccion(tabla);
+        final TablaColumnas.ColumnaDoble peso = tabla.doble();
+        final TablaColumnas.ColumnaDoble largo = tabla.doble();
+        final TablaColumnas.ColumnaDoble ancho = tabla.doble();
+        final TablaColumnas.ColumnaDoble alto = tabla.doble();
+        final TablaColumnas.ColumnaDoble volumen = tabla.doble();
+        final TablaColumnas.ColumnaTexto descripcion = tabla.texto();
+        final TablaColumnas.ColumnaDoble valorDeclarado = tabla.doble();
+        final TablaColumnas.ColumnaDoble distancia = tabla.doble();
+        final TablaColumnas.ColumnaTexto nombreDestinatario = tabla.texto();
+        final TablaColumnas.ColumnaTexto telefonoDestinatario = tabla.texto();
+        final TablaColumnas.ColumnaTexto emailDestinatario = tabla.texto();
+        final TablaColumnas.ColumnaOcteto tipo = tabla.octeto();
+        final TablaColumnas.ColumnaOcteto estado = tabla.octeto();
+        final TablaColumnas.ColumnaTexto idUsuario = tabla.texto();
+        final TablaColumnas.ColumnaTexto idRepartidor = tabla.texto();
+        // Cabe en un entero mientras haya menos de 32 servicios adicionales
+        final TablaColumnas.ColumnaEntero adicionales = tabla.entero();
+        final TablaColumnas.ColumnaDoble costo = tabla.doble();
+        final TablaColumnas.ColumnaFecha fechaCreacion = tabla.fecha();
+        final TablaColumnas.ColumnaFecha fechaEntregaEstimada = tabla.fecha();
+
+        void agregar(Envio envio) {
+            id.agregar(envio.getIdEnvio());
+            origen.agregar(envio.getOrigen());
+            destino.agregar(envio.getDestino());
+            peso.agregar(envio.getPeso());
+            largo.agregar(envio.getLargo());
+            ancho.agregar(envio.getAncho());
+            alto.agregar(envio.getAlto());
+            // Igual que en la bitácora: solo se guarda el volumen ingresado manualmente
+            double calculado = envio.getLargo() * envio.getAncho() * envio.getAlto();
+            volumen.agregar(envio.getVolumen() != calculado ? envio.getVolumen() : 0.0);
+            descripcion.agregar(envio.getDescripcion());
+            valorDeclarado.agregar(envio.getValorDeclarado());
+            distancia.agregar(envio.getDistancia());
+            nombreDestinatario.agregar(envio.getNombreDestinatario());
+            telefonoDestinatario.agregar(envio.getTelefonoDestinatario());
+            emailDestinatario.agregar(envio.getEmailDestinatario());
+            tipo.agregar(envio.getTipoEnvio().ordinal());
+            estado.agregar(envio.getEstado() != null ? envio.getEstado().ordinal() : -1);
+            idUsuario.agregar(envio.getUsuario().getIdUsuario());
+            idRepartidor.agregar(envio.getRepartidor() != null ? envio.getRepartidor().getIdRepartidor() : null);
+            adicionales.agregar((int) envio.getAdicionales());
+            costo.agregar(envio.getCosto());
+            fechaCreacion.agregar(envio.getFechaCreacion());
+            fechaEntregaEstimada.agregar(envio.getFechaEntregaEstimada());
+            tabla.filaCompleta();
+        }
+
+        static void leer(LectorTablaColumnas tabla, ResolutorReferencias referencias, Destino receptor) {
+            String[] id = tabla.textos();
+            Map<String, Direccion> compartidas = new IdentityHashMap<>();
+            Direccion[] origen = ColumnasDireccion.leer(tabla, compartidas);
+            Direccion[] destino = ColumnasDireccion.leer(tabla, compartidas);
+            double[] peso = tabla.dobles();
+            double[] largo = tabla.dobles();
+            double[] ancho = tabla.dobles();
+            double[] alto = tabla.dobles();
+            double[] volumen = tabla.dobles();
+            String[] descripcion = tabla.textos();
+            double[] valorDeclarado = tabla.dobles();
+            double[] distancia = tabla.dobles();
+            String[] nombreDestinatario = tabla.textos();
+            String[] telefonoDestinatario = tabla.textos();
+            String[] emailDestinatario = tabla.textos();
+            byte[] tipo = tabla.octetos();
+            byte[] estado = tabla.octetos();
+            String[] idUsuario = tabla.textos();
+            String[] idRepartidor = tabla.textos();
+            int[] adicionales = tabla.enteros();
+            double[] costo = tabla.dobles();
+            LocalDateTime[] fechaCreacion = tabla.fechas();
+            LocalDateTime[] fechaEntregaEstimada = tabla.fechas();
+
+            Envio.TipoEnvio[] tipos = Envio.TipoEnvio.values();
+            Envio.EstadoEnvio[] estados = Envio.EstadoEnvio.values();
+            for (int i = 0; i < tabla.getFilas(); i++) {
+                receptor.envio(Envio.builder()
+                        .idEnvio(id[i])
+                        .origen(origen[i])
+                        .destino(destino[i])
+                        .peso(peso[i])
+                        .largo(largo[i])
+                        .ancho(ancho[i])
+                        .alto(alto[i])
+                        .volumen(volumen[i])
+                        .descripcion(descripcion[i])
+                        .valorDeclarado(valorDeclarado[i])
+                        .distancia(distancia[i])
+                        .nombreDestinatario(nombreDestinatario[i])
+                        .telefonoDestinatario(telefonoDestinatario[i])
+                        .emailDestinatario(emailDestinatario[i])
+                        .tipoEnvio(tipos[tipo[i]])
+                        .estado(estado[i] >= 0 ? estados[estado[i]] : null)
+                        .usuario(CodificadorEntidades.resolverUsuario(referencias, idUsuario[i]))
+                        .repartidor(idRepartidor[i] != null ? referencias.buscarRepartidor(idRepartidor[i]) : null)
+                        .adicionales(Integer.toUnsignedLong(adicionales[i]))
+                        .costo(costo[i])
+                        .fechaCreacion(fechaCreacion[i])
+                        .fechaEntregaEstimada(fechaEntregaEstimada[i])
+                        .build());
+            }
+        }
+    }
+
+    private static final class TablaPagos {
+        final TablaColumnas tabla = new TablaColumnas(TABLA_PAGOS);
+        final TablaColumnas.ColumnaTexto id = tabla.texto();
+        final TablaColumnas.ColumnaDoble monto = tabla.doble();
+        final TablaColumnas.ColumnaFecha fecha = tabla.fecha();
+        final TablaColumnas.ColumnaBloque metodo = tabla.bloque();
+        final TablaColumnas.ColumnaOcteto estado = tabla.octeto();
+        final TablaColumnas.ColumnaTexto idEnvio = tabla.texto();
+
+        void agregar(Pago pago) {
+            id.agregar(pago.getIdPago());
+            monto.agregar(pago.getMonto());
+            fecha.agregar(pago.getFecha());
+            if (pago.getMetodoPago() != null) {
+                EscritorBinario salida = new EscritorBinario(64);
+                CodificadorEntidades.escribirMetodoPago(salida, pago.getMetodoPago());
+                metodo.agregar(salida.aBytes());
+            } else {
+                metodo.agregar(null);
+            }
+            estado.agregar(pago.getEstado().ordinal());
+            idEnvio.agregar(pago.getEnvio() != null ? pago.getEnvio().getIdEnvio() : null);
+            tabla.filaCompleta();
+        }
+
+        static void leer(LectorTablaColumnas tabla, ResolutorReferencias referencias, Destino destino) {
+            String[] id = tabla.textos();
+            double[] monto = tabla.dobles();
+            LocalDateTime[] fecha = tabla.fechas();
+            byte[][] metodo = tabla.bloques();
+            byte[] estado = tabla.octetos();
+            String[] idEnvio = tabla.textos();
+            Pago.EstadoPago[] estados = Pago.EstadoPago.values();
+            for (int i = 0; i < tabla.getFilas(); i++) {
+                Pago.Builder builder = new Pago.Builder(id[i])
+                        .conMonto(monto[i])
+                        .conFecha(fecha[i]);
+                if (metodo[i] != null) {
+                    builder.conMetodoPago(CodificadorEntidades.leerMetodoPago(new LectorBinario(metodo[i])));
+                }
+                Pago pago = builder.conEnvio(idEnvio[i] != null ? referencias.buscarEnvio(idEnvio[i]) : null).build();
+                pago.setEstado(estados[estado[i]]);
+                destino.pago(pago);
+            }
+        }
+    }
+
+    private static final class TablaIncidencias {
+        final TablaColumnas tabla = new TablaColumnas(TABLA_INCIDENCIAS);
+        final TablaColumnas.ColumnaTexto id = tabla.texto();
+        final TablaColumnas.ColumnaTexto descripcion = tabla.texto();
+        final TablaColumnas.ColumnaFecha fecha = tabla.fecha();
+        final TablaColumnas.ColumnaOcteto estado = tabla.octeto();
+        final TablaColumnas.ColumnaTexto idEnvio = tabla.texto();
+
+        void agregar(Incidencia incidencia) {
+            id.agregar(incidencia.getIdIncidencia());
+            descripcion.agregar(incidencia.getDescripcion());
+            fecha.agregar(incidencia.getFecha());
+            estado.agregar(incidencia.getEstado().ordinal());
+            idEnvio.agregar(incidencia.getEnvio() != null ? incidencia.getEnvio().getIdEnvio() : null);
+            tabla.filaCompleta();
+        }
+
+        static void leer(LectorTablaColumnas tabla, ResolutorReferencias referencias, Destino destino) {
+            String[] id = tabla.textos();
+            String[] descripcion = tabla.textos();
+            LocalDateTime[] fecha = tabla.fechas();
+            byte[] estado = tabla.octetos();
+            String[] idEnvio = tabla.textos();
+            Incidencia.EstadoIncidencia[] estados = Incidencia.EstadoIncidencia.values();
+            for (int i = 0; i < tabla.getFilas(); i++) {
+                Incidencia incidencia = new Incidencia.Builder(id[i])
+                        .conDescripcion(descripcion[i])
+                        .conFecha(fecha[i])
+                        .conEnvio(idEnvio[i] != null ? referencias.buscarEnvio(idEnvio[i]) : null)
+                        .build();
+                incidencia.setEstado(estados[estado[i]]);
+                destino.incidencia(incidencia);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de las primitivas escritas por {@link EscritorBinario}.
+ *
+ * Trabaja directamente sobre un arreglo de bytes sin copias intermedias y
+ * mantiene su propia tabla de textos internados, en el mismo orden que el
+ * escritor. Lanza IllegalStateException si los datos terminan antes de lo
+ * esperado o están mal formados.
+ */
+public class LectorBinario {
+    private final byte[] datos;
+    private final int limite;
+    private int posicion;
+    private List<String> internados;
+
+    public LectorBinario(byte[] datos) {
+        this(datos, 0, datos.length);
+    }
+
+    public LectorBinario(byte[] datos, int desde, int cantidad) {
+        this.datos = datos;
+        this.posicion = desde;
+        this.limite = desde + cantidad;
+    }
+
+    public int leerByte() {
+        verificarDisponible(1);
+        return datos[posicion++];
+    }
+
+    public boolean leerBooleano() {
+        return leerByte() != 0;
+    }
+
+    public int leerEntero() {
+        verificarDisponible(4);
+        int valor = ((datos[posicion] & 0xFF) << 24)
+                | ((datos[posicion + 1] & 0xFF) << 16)
+                | ((datos[posicion + 2] & 0xFF) << 8)
+                | (datos[posicion + 3] & 0xFF);
+        posicion += 4;
+        return valor;
+    }
+
+    public long leerLargo() {
+        long alto = leerEntero() & 0xFFFFFFFFL;
+        long bajo = leerEntero() & 0xFFFFFFFFL;
+        return (alto << 32) | bajo;
+    }
+
+    public double leerDoble() {
+        return Double.longBitsToDouble(leerLargo());
+    }
+
+    public int leerVarint() {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            verificarDisponible(1);
+            byte b = datos[posicion++];
+            valor |= (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Varint mal formado");
+    }
+
+    public long leerVarlong() {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 70; desplazamiento += 7) {
+            verificarDisponible(1);
+            byte b = datos[posicion++];
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Varint mal formado");
+    }
+
+    public int leerVarintConSigno() {
+        int valor = leerVarint();
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    public long leerVarlongConSigno() {
+        long valor = leerVarlong();
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    public double leerDobleCompacto() {
+        long valor = leerVarlong();
+        if (valor == 1) {
+            return Double.longBitsToDouble(leerLargo());
+        }
+        long zigzag = valor >>> 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    public String leerTexto() {
+        int marca = leerVarint();
+        if (marca == 0) {
+            return null;
+        }
+        int longitud = marca - 1;
+        if (longitud < 0) {
+            throw new IllegalStateException("Longitud de texto inválida");
+        }
+        verificarDisponible(longitud);
+        String texto = new String(datos, posicion, longitud, StandardCharsets.UTF_8);
+        posicion += longitud;
+        return texto;
+    }
+
+    /**
+     * Lee un texto escrito con {@link EscritorBinario#escribirTextoFrecuente}; las
+     * repeticiones devuelven la misma instancia de String.
+     */
+    public String leerTextoFrecuente() {
+        int marca = leerVarint();
+        if (marca == 0) {
+            return null;
+        }
+        if (internados == null) {
+            internados = new ArrayList<>();
+        }
+        if (marca == 1) {
+            String texto = leerTexto();
+            if (internados.size() < EscritorBinario.MAXIMO_INTERNADOS) {
+                internados.add(texto);
+            }
+            return texto;
+        }
+        int indice = marca - 2;
+        if (indice < 0 || indice >= internados.size()) {
+            throw new IllegalStateException("Referencia a texto internado inválida: " + indice);
+        }
+        return internados.get(indice);
+    }
+
+    public LocalDateTime leerFecha() {
+        int marca = leerVarint();
+        if (marca == 0) {
+            return null;
+        }
+        long segundos = leerVarlongConSigno();
+        int nanos = marca == 2 ? leerVarint() : 0;
+        return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Indica si quedan bytes por leer.
+     *
+     * @return true si la posición no ha llegado al límite
+     */
+    public boolean quedanDatos() {
+        return posicion < limite;
+    }
+
+    private void verificarDisponible(int cantidad) {
+        if (cantidad > limite - posicion) {
+            throw new IllegalStateException("Datos binarios incompletos");
+        }
+    }
+}
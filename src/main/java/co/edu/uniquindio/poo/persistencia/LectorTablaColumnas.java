@@ -0,0 +1,168 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Lee una tabla escrita por {@link TablaColumnas} desde un búfer (normalmente
+ * un archivo mapeado en memoria). Cada columna se copia en bloque a un arreglo.
+ *
+ * Las columnas deben leerse en el mismo orden en que se declararon al escribir;
+ * si la etiqueta no coincide se lanza IllegalStateException.
+ */
+public class LectorTablaColumnas {
+    private final ByteBuffer buffer;
+    private final byte tipo;
+    private final int filas;
+    private final int columnas;
+    private int leidas;
+
+    /**
+     * Lee la cabecera de la tabla en la posición actual del búfer.
+     *
+     * @param buffer Búfer posicionado al inicio de la tabla
+     */
+    public LectorTablaColumnas(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.tipo = buffer.get();
+        this.filas = buffer.getInt();
+        this.columnas = buffer.getInt();
+    }
+
+    public byte getTipo() {
+        return tipo;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public String[] textos() {
+        verificarEtiqueta(TablaColumnas.COLUMNA_TEXTO);
+        byte modo = buffer.get();
+        if (modo == TablaColumnas.TEXTO_PLANO) {
+            return leerPlano(filas);
+        }
+        if (modo != TablaColumnas.TEXTO_DICCIONARIO) {
+            throw new IllegalStateException("Codificación de texto desconocida: " + modo);
+        }
+        String[] distintos = leerPlano(buffer.getInt());
+        int[] indices = new int[filas];
+        buffer.asIntBuffer().get(indices);
+        avanzar(filas * 4L);
+        String[] valores = new String[filas];
+        for (int i = 0; i < filas; i++) {
+            if (indices[i] >= 0) {
+                valores[i] = distintos[indices[i]];
+            }
+        }
+        return valores;
+    }
+
+    public byte[][] bloques() {
+        verificarEtiqueta(TablaColumnas.COLUMNA_BLOQUE);
+        int[] longitudes = leerLongitudes(filas);
+        byte[][] valores = new byte[filas][];
+        for (int i = 0; i < filas; i++) {
+            if (longitudes[i] >= 0) {
+                valores[i] = new byte[longitudes[i]];
+            }
+        }
+        buffer.getLong();
+        for (byte[] valor : valores) {
+            if (valor != null) {
+                buffer.get(valor);
+            }
+        }
+        return valores;
+    }
+
+    public double[] dobles() {
+        verificarEtiqueta(TablaColumnas.COLUMNA_DOBLE);
+        double[] valores = new double[filas];
+        buffer.asDoubleBuffer().get(valores);
+        avanzar(filas * 8L);
+        return valores;
+    }
+
+    public int[] enteros() {
+        verificarEtiqueta(TablaColumnas.COLUMNA_ENTERO);
+        int[] valores = new int[filas];
+        buffer.asIntBuffer().get(valores);
+        avanzar(filas * 4L);
+        return valores;
+    }
+
+    public byte[] octetos() {
+        verificarEtiqueta(TablaColumnas.COLUMNA_OCTETO);
+        byte[] valores = new byte[filas];
+        buffer.get(valores);
+        return valores;
+    }
+
+    public LocalDateTime[] fechas() {
+        verificarEtiqueta(TablaColumnas.COLUMNA_FECHA);
+        long[] segundos = new long[filas];
+        buffer.asLongBuffer().get(segundos);
+        avanzar(filas * 8L);
+        int[] nanos = new int[filas];
+        buffer.asIntBuffer().get(nanos);
+        avanzar(filas * 4L);
+        LocalDateTime[] valores = new LocalDateTime[filas];
+        for (int i = 0; i < filas; i++) {
+            if (segundos[i] != Long.MIN_VALUE) {
+                valores[i] = LocalDateTime.ofEpochSecond(segundos[i], nanos[i], ZoneOffset.UTC);
+            }
+        }
+        return valores;
+    }
+
+    private String[] leerPlano(int cantidad) {
+        int[] longitudes = leerLongitudes(cantidad);
+        byte[] datos = leerDatos();
+        String[] valores = new String[cantidad];
+        int desde = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (longitudes[i] >= 0) {
+                valores[i] = new String(datos, desde, longitudes[i], StandardCharsets.UTF_8);
+                desde += longitudes[i];
+            }
+        }
+        return valores;
+    }
+
+    private int[] leerLongitudes(int cantidad) {
+        int[] longitudes = new int[cantidad];
+        buffer.asIntBuffer().get(longitudes);
+        avanzar(cantidad * 4L);
+        return longitudes;
+    }
+
+    private byte[] leerDatos() {
+        long total = buffer.getLong();
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Columna de texto demasiado grande");
+        }
+        byte[] datos = new byte[(int) total];
+        buffer.get(datos);
+        return datos;
+    }
+
+    private void verificarEtiqueta(byte esperada) {
+        if (leidas >= columnas) {
+            throw new IllegalStateException("La tabla " + tipo + " no tiene más columnas");
+        }
+        byte etiqueta = buffer.get();
+        if (etiqueta != esperada) {
+            throw new IllegalStateException("Columna " + leidas + " de la tabla " + tipo
+                    + ": se esperaba tipo " + esperada + " y se encontró " + etiqueta);
+        }
+        leidas++;
+    }
+
+    private void avanzar(long bytes) {
+        buffer.position(buffer.position() + (int) bytes);
+    }
+}
@@ -0,0 +1,42 @@
+package co.edu.uniquindio.poo.persistencia;
+
+/**
+ * Registro leído de la bitácora: su posición (LSN), su tipo y su contenido.
+ */
+public class RegistroBitacora {
+    private final long posicion;
+    private final TipoRegistro tipo;
+    private final byte[] contenido;
+
+    public RegistroBitacora(long posicion, TipoRegistro tipo, byte[] contenido) {
+        this.posicion = posicion;
+        this.tipo = tipo;
+        this.contenido = contenido;
+    }
+
+    /**
+     * Número de secuencia del registro, creciente a lo largo de la bitácora.
+     *
+     * @return Posición lógica del registro
+     */
+    public long getPosicion() {
+        return posicion;
+    }
+
+    public TipoRegistro getTipo() {
+        return tipo;
+    }
+
+    public byte[] getContenido() {
+        return contenido;
+    }
+
+    /**
+     * Crea un lector sobre el contenido del registro.
+     *
+     * @return Lector posicionado al inicio del contenido
+     */
+    public LectorBinario lector() {
+        return new LectorBinario(contenido);
+    }
+}
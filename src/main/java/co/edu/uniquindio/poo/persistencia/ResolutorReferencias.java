@@ -0,0 +1,21 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Repartidor;
+import co.edu.uniquindio.poo.model.Usuario;
+
+/**
+ * Resuelve las referencias entre entidades al decodificarlas.
+ *
+ * Las entidades se codifican con los ids de las entidades que referencian
+ * (el usuario y el repartidor de un envío, el envío de un pago o incidencia);
+ * al decodificar, estas referencias se buscan en el almacén ya reconstruido.
+ */
+public interface ResolutorReferencias {
+
+    Usuario buscarUsuario(String idUsuario);
+
+    Repartidor buscarRepartidor(String idRepartidor);
+
+    Envio buscarEnvio(String idEnvio);
+}
@@ -0,0 +1,342 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acumula las filas de una tabla columna por columna y las escribe en formato columnar.
+ *
+ * Cada columna guarda todos los valores de un mismo campo de forma contigua:
+ * los números como arreglos de ancho fijo y los textos como un arreglo de
+ * longitudes seguido de los bytes UTF-8 concatenados (o como diccionario
+ * cuando se repiten mucho). Así la carga puede leer
+ * cada columna con una sola copia en bloque desde el archivo mapeado en memoria.
+ *
+ * Las columnas se declaran en orden y {@link LectorTablaColumnas} debe leerlas
+ * en ese mismo orden.
+ */
+public class TablaColumnas {
+    static final byte COLUMNA_TEXTO = 1;
+    static final byte COLUMNA_DOBLE = 2;
+    static final byte COLUMNA_ENTERO = 3;
+    static final byte COLUMNA_OCTETO = 4;
+    static final byte COLUMNA_FECHA = 5;
+    static final byte COLUMNA_BLOQUE = 6;
+
+    static final byte TEXTO_PLANO = 0;
+    static final byte TEXTO_DICCIONARIO = 1;
+
+    private final byte tipo;
+    private final List<Columna> columnas = new ArrayList<>();
+    private int filas;
+
+    /**
+     * Crea una tabla vacía.
+     *
+     * @param tipo Código que identifica el tipo de entidad guardado en la tabla
+     */
+    public TablaColumnas(byte tipo) {
+        this.tipo = tipo;
+    }
+
+    public ColumnaTexto texto() {
+        return agregar(new ColumnaTexto());
+    }
+
+    public ColumnaDoble doble() {
+        return agregar(new ColumnaDoble());
+    }
+
+    public ColumnaEntero entero() {
+        return agregar(new ColumnaEntero());
+    }
+
+    public ColumnaOcteto octeto() {
+        return agregar(new ColumnaOcteto());
+    }
+
+    public ColumnaFecha fecha() {
+        return agregar(new ColumnaFecha());
+    }
+
+    public ColumnaBloque bloque() {
+        return agregar(new ColumnaBloque());
+    }
+
+    /**
+     * Marca como completa la fila cuyos valores se acaban de agregar a cada columna.
+     */
+    public void filaCompleta() {
+        filas++;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Escribe la tabla: tipo, filas, cantidad de columnas y cada columna con su etiqueta.
+     *
+     * @param salida Flujo de salida
+     * @throws IOException Si ocurre un error de escritura
+     */
+    void escribir(DataOutputStream salida) throws IOException {
+        salida.writeByte(tipo);
+        salida.writeInt(filas);
+        salida.writeInt(columnas.size());
+        for (Columna columna : columnas) {
+            if (columna.tamano() != filas) {
+                throw new IllegalStateException("Columna incompleta en la tabla " + tipo);
+            }
+            salida.writeByte(columna.etiqueta());
+            columna.escribir(salida);
+        }
+    }
+
+    private <C extends Columna> C agregar(C columna) {
+        columnas.add(columna);
+        return columna;
+    }
+
+    private abstract static class Columna {
+        abstract byte etiqueta();
+
+        abstract int tamano();
+
+        abstract void escribir(DataOutputStream salida) throws IOException;
+    }
+
+    /**
+     * Textos UTF-8. Si la columna tiene pocos valores distintos (ciudades, alias,
+     * ids de usuario) se escribe como diccionario más índices: el archivo es más
+     * pequeño y al cargar cada valor distinto se crea una sola vez.
+     */
+    public static final class ColumnaTexto extends Columna {
+        private static final int MAXIMO_DICCIONARIO = 1 << 16;
+
+        private final List<String> valores = new ArrayList<>();
+        private Map<String, Integer> diccionario = new HashMap<>();
+
+        public void agregar(String texto) {
+            valores.add(texto);
+            if (diccionario != null && texto != null) {
+                diccionario.putIfAbsent(texto, diccionario.size());
+                if (diccionario.size() > MAXIMO_DICCIONARIO) {
+                    diccionario = null;
+                }
+            }
+        }
+
+        @Override
+        byte etiqueta() {
+            return COLUMNA_TEXTO;
+        }
+
+        @Override
+        int tamano() {
+            return valores.size();
+        }
+
+        @Override
+        void escribir(DataOutputStream salida) throws IOException {
+            if (diccionario == null || diccionario.size() * 2L > valores.size()) {
+                salida.writeByte(TEXTO_PLANO);
+                escribirPlano(salida, codificar(valores));
+                return;
+            }
+            salida.writeByte(TEXTO_DICCIONARIO);
+            String[] distintos = new String[diccionario.size()];
+            diccionario.forEach((texto, indice) -> distintos[indice] = texto);
+            salida.writeInt(distintos.length);
+            escribirPlano(salida, codificar(Arrays.asList(distintos)));
+            for (String valor : valores) {
+                salida.writeInt(valor != null ? diccionario.get(valor) : -1);
+            }
+        }
+
+        private static List<byte[]> codificar(List<String> textos) {
+            List<byte[]> bytes = new ArrayList<>(textos.size());
+            for (String texto : textos) {
+                bytes.add(texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null);
+            }
+            return bytes;
+        }
+    }
+
+    public static final class ColumnaBloque extends Columna {
+        private final List<byte[]> valores = new ArrayList<>();
+
+        /**
+         * Agrega un bloque de bytes opaco (por ejemplo, listas de tamaño variable).
+         *
+         * @param bloque Bytes a guardar, o null
+         */
+        public void agregar(byte[] bloque) {
+            valores.add(bloque);
+        }
+
+        @Override
+        byte etiqueta() {
+            return COLUMNA_BLOQUE;
+        }
+
+        @Override
+        int tamano() {
+            return valores.size();
+        }
+
+        @Override
+        void escribir(DataOutputStream salida) throws IOException {
+            escribirPlano(salida, valores);
+        }
+    }
+
+    /**
+     * Longitudes (-1 para null), total de bytes y los bytes concatenados.
+     */
+    private static void escribirPlano(DataOutputStream salida, List<byte[]> valores) throws IOException {
+        long total = 0;
+        for (byte[] valor : valores) {
+            salida.writeInt(valor != null ? valor.length : -1);
+            total += valor != null ? valor.length : 0;
+        }
+        salida.writeLong(total);
+        for (byte[] valor : valores) {
+            if (valor != null) {
+                salida.write(valor);
+            }
+        }
+    }
+
+    public static final class ColumnaDoble extends Columna {
+        private double[] valores = new double[64];
+        private int tamano;
+
+        public void agregar(double valor) {
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = valor;
+        }
+
+        @Override
+        byte etiqueta() {
+            return COLUMNA_DOBLE;
+        }
+
+        @Override
+        int tamano() {
+            return tamano;
+        }
+
+        @Override
+        void escribir(DataOutputStream salida) throws IOException {
+            for (int i = 0; i < tamano; i++) {
+                salida.writeDouble(valores[i]);
+            }
+        }
+    }
+
+    public static final class ColumnaEntero extends Columna {
+        private int[] valores = new int[64];
+        private int tamano;
+
+        public void agregar(int valor) {
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = valor;
+        }
+
+        @Override
+        byte etiqueta() {
+            return COLUMNA_ENTERO;
+        }
+
+        @Override
+        int tamano() {
+            return tamano;
+        }
+
+        @Override
+        void escribir(DataOutputStream salida) throws IOException {
+            for (int i = 0; i < tamano; i++) {
+                salida.writeInt(valores[i]);
+            }
+        }
+    }
+
+    public static final class ColumnaOcteto extends Columna {
+        private byte[] valores = new byte[64];
+        private int tamano;
+
+        public void agregar(int valor) {
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = (byte) valor;
+        }
+
+        @Override
+        byte etiqueta() {
+            return COLUMNA_OCTETO;
+        }
+
+        @Override
+        int tamano() {
+            return tamano;
+        }
+
+        @Override
+        void escribir(DataOutputStream salida) throws IOException {
+            salida.write(valores, 0, tamano);
+        }
+    }
+
+    /**
+     * Fechas como dos subcolumnas: segundos UTC (Long.MIN_VALUE para null) y nanosegundos.
+     */
+    public static final class ColumnaFecha extends Columna {
+        private long[] segundos = new long[64];
+        private int[] nanos = new int[64];
+        private int tamano;
+
+        public void agregar(LocalDateTime fecha) {
+            if (tamano == segundos.length) {
+                segundos = Arrays.copyOf(segundos, tamano * 2);
+                nanos = Arrays.copyOf(nanos, tamano * 2);
+            }
+            segundos[tamano] = fecha != null ? fecha.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+            nanos[tamano] = fecha != null ? fecha.getNano() : 0;
+            tamano++;
+        }
+
+        @Override
+        byte etiqueta() {
+            return COLUMNA_FECHA;
+        }
+
+        @Override
+        int tamano() {
+            return tamano;
+        }
+
+        @Override
+        void escribir(DataOutputStream salida) throws IOException {
+            for (int i = 0; i < tamano; i++) {
+                salida.writeLong(segundos[i]);
+            }
+            for (int i = 0; i < tamano; i++) {
+                salida.writeInt(nanos[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package co.edu.uniquindio.poo.persistencia;
+
+/**
+ * Tipos de registro de la bitácora de escritura anticipada.
+ *
+ * Los registros de entidad guardan la entidad completa y se aplican como
+ * alta o reemplazo; los de eliminación guardan solo el id y los de cambio
+ * de envío guardan el id junto al nuevo valor. Los de comando archivado son
+ * solo de auditoría y no cambian el estado al reconstruirlo. El código de cada
+ * tipo es el byte que se escribe en disco, por lo que no debe cambiar entre
+ * versiones.
+ */
+public enum TipoRegistro {
+    USUARIO(1),
+    ENVIO(2),
+    PAGO(3),
+    INCIDENCIA(4),
+    ADMINISTRADOR(5),
+    REPARTIDOR(6),
+    ELIMINAR_USUARIO(10),
+    ELIMINAR_ENVIO(11),
+    ELIMINAR_REPARTIDOR(12),
+    ELIMINAR_INCIDENCIA(13),
+    ESTADO_ENVIO(20),
+    REPARTIDOR_ENVIO(21),
+    COSTO_ENVIO(22),
+    COMANDO_ARCHIVADO(30);
+
+    private static final TipoRegistro[] POR_CODIGO = new TipoRegistro[128];
+
+    static {
+        for (TipoRegistro tipo : values()) {
+            POR_CODIGO[tipo.codigo] = tipo;
+        }
+    }
+
+    private final byte codigo;
+
+    TipoRegistro(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Obtiene el tipo correspondiente a un código leído de disco.
+     *
+     * @param codigo Código del registro
+     * @return Tipo de registro, o null si el código es desconocido
+     */
+    public static TipoRegistro desdeCodigo(int codigo) {
+        return codigo >= 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : null;
+    }
+}
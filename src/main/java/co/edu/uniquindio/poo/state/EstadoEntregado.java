@@ -14,58 +14,16 @@ import co.edu.uniquindio.poo.model.Envio;
  * - Reportar incidencias (ya fue entregado)
  * - Cancelar (ya fue entregado)
  */
-public class EstadoEntregado implements EstadoEnvio {
+public final class EstadoEntregado implements EstadoEnvio {
     
-    /**
-     * No permite ninguna modificación en envío entregado.
-     */
-    @Override
-    public void procesar(Envio envio) {
-        System.out.println("Envío ya entregado");
-    }
-    
-    /**
-     * No permite reasignación de envío entregado.
-     */
-    @Override
-    public void asignar(Envio envio) {
-        throw new IllegalStateException("No se puede asignar un envío ya entregado");
-    }
-    
-    /**
-     * No permite modificar ruta de envío entregado.
-     */
-    @Override
-    public void iniciarRuta(Envio envio) {
-        throw new IllegalStateException("No se puede iniciar ruta de un envío ya entregado");
-    }
+    /** Instancia compartida por todos los envíos en estado ENTREGADO */
+    public static final EstadoEntregado INSTANCIA = new EstadoEntregado();
     
-    /**
-     * El envío ya fue entregado.
-     */
-    @Override
-    public void entregar(Envio envio) {
-        System.out.println("El envío ya fue entregado");
-    }
-    
-    /**
-     * No se puede reportar incidencia en envío ya entregado.
-     */
-    @Override
-    public void reportarIncidencia(Envio envio) {
-        throw new IllegalStateException("No se puede reportar incidencia en un envío entregado");
-    }
-    
-    /**
-     * No se puede cancelar un envío ya entregado.
-     */
-    @Override
-    public void cancelar(Envio envio) {
-        throw new IllegalStateException("No se puede cancelar un envío ya entregado");
+    private EstadoEntregado() {
     }
     
     @Override
-    public String getNombre() {
-        return "ENTREGADO";
+    public Envio.EstadoEnvio getEstado() {
+        return Envio.EstadoEnvio.ENTREGADO;
     }
 }
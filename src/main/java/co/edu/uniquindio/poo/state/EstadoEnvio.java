@@ -6,8 +6,9 @@ import co.edu.uniquindio.poo.model.Envio;
  * Interfaz de patrón State para transiciones de estado de envíos
  * 
  * Define el contrato que deben cumplir todos los estados posibles de un envío.
- * Cada implementación concreta (EstadoSolicitado, EstadoAsignado, etc.) valida
- * qué transiciones son permitidas desde ese estado particular.
+ * Cada implementación concreta (EstadoSolicitado, EstadoAsignado, etc.) es un
+ * objeto único y sin estado propio; las reglas de qué transiciones se permiten
+ * desde cada estado viven en la TablaTransiciones, que estos métodos consultan.
  * 
  * Beneficios de este patrón:
  * - Encapsula la lógica de transición de estado
@@ -17,22 +18,33 @@ import co.edu.uniquindio.poo.model.Envio;
  */
 public interface EstadoEnvio {
     
+    /**
+     * Valor del enum de Envio que representa este objeto de estado.
+     * 
+     * @return Estado del envío
+     */
+    Envio.EstadoEnvio getEstado();
+    
     /**
      * Procesa el envío en su estado actual.
      * Realiza cualquier acción necesaria según el estado.
      * 
      * @param envio Envío a procesar
      */
-    void procesar(Envio envio);
+    default void procesar(Envio envio) {
+        TablaTransiciones.aplicar(envio, EventoEnvio.PROCESAR);
+    }
     
     /**
      * Asigna un repartidor al envío.
-     * Válido solo en estado SOLICITADO, transiciona a ASIGNADO.
+     * Válido en estado SOLICITADO (o INCIDENCIA), transiciona a ASIGNADO.
      * 
      * @param envio Envío a asignar
      * @throws IllegalStateException Si el estado no permite asignación
      */
-    void asignar(Envio envio);
+    default void asignar(Envio envio) {
+        TablaTransiciones.aplicar(envio, EventoEnvio.ASIGNAR);
+    }
     
     /**
      * Inicia la ruta de entrega del envío.
@@ -41,7 +53,9 @@ public interface EstadoEnvio {
      * @param envio Envío a iniciar ruta
      * @throws IllegalStateException Si el estado no permite iniciar ruta
      */
-    void iniciarRuta(Envio envio);
+    default void iniciarRuta(Envio envio) {
+        TablaTransiciones.aplicar(envio, EventoEnvio.INICIAR_RUTA);
+    }
     
     /**
      * Marca el envío como entregado.
@@ -50,7 +64,9 @@ public interface EstadoEnvio {
      * @param envio Envío a entregar
      * @throws IllegalStateException Si el estado no permite entrega
      */
-    void entregar(Envio envio);
+    default void entregar(Envio envio) {
+        TablaTransiciones.aplicar(envio, EventoEnvio.ENTREGAR);
+    }
     
     /**
      * Reporta una incidencia en el envío.
@@ -58,7 +74,9 @@ public interface EstadoEnvio {
      * 
      * @param envio Envío con incidencia
      */
-    void reportarIncidencia(Envio envio);
+    default void reportarIncidencia(Envio envio) {
+        TablaTransiciones.aplicar(envio, EventoEnvio.REPORTAR_INCIDENCIA);
+    }
     
     /**
      * Cancela el envío.
@@ -67,12 +85,27 @@ public interface EstadoEnvio {
      * @param envio Envío a cancelar
      * @throws IllegalStateException Si el estado no permite cancelación
      */
-    void cancelar(Envio envio);
+    default void cancelar(Envio envio) {
+        TablaTransiciones.aplicar(envio, EventoEnvio.CANCELAR);
+    }
     
     /**
      * Obtiene el nombre del estado actual.
      * 
      * @return Nombre del estado como String
      */
-    String getNombre();
+    default String getNombre() {
+        return getEstado().name();
+    }
+    
+    /**
+     * Obtiene el objeto de estado que corresponde a un valor del enum de Envio.
+     * Los objetos son compartidos, así que no se crea ninguno por transición.
+     * 
+     * @param estado Estado del envío
+     * @return Objeto de estado correspondiente
+     */
+    static EstadoEnvio desde(Envio.EstadoEnvio estado) {
+        return TablaTransiciones.objeto(estado);
+    }
 }
@@ -15,59 +15,16 @@ import co.edu.uniquindio.poo.model.Envio;
  * - Iniciar ruta sin asignar primero
  * - Entregar directamente sin pasar por ASIGNADO y EN_RUTA
  */
-public class EstadoSolicitado implements EstadoEnvio {
+public final class EstadoSolicitado implements EstadoEnvio {
     
-    @Override
-    public void procesar(Envio envio) {
-        System.out.println("Procesando envío solicitado...");
-    }
-    
-    /**
-     * Asigna el envío a un repartidor.
-     * Transiciona de SOLICITADO a ASIGNADO.
-     */
-    @Override
-    public void asignar(Envio envio) {
-        System.out.println("Preparando envío para ruta...");
-        envio.setEstadoActual(new EstadoAsignado());
-        envio.setEstado(Envio.EstadoEnvio.ASIGNADO);
-    }
-    
-    /**
-     * No permite iniciar ruta sin asignar primero.
-     */
-    @Override
-    public void iniciarRuta(Envio envio) {
-        throw new IllegalStateException("No se puede iniciar ruta sin asignar primero");
-    }
+    /** Instancia compartida por todos los envíos en estado SOLICITADO */
+    public static final EstadoSolicitado INSTANCIA = new EstadoSolicitado();
     
-    /**
-     * No permite entrega directa sin pasos intermedios.
-     */
-    @Override
-    public void entregar(Envio envio) {
-        throw new IllegalStateException("No se puede entregar. Debe seguir: asignar -> iniciar ruta -> entregar");
-    }
-    
-    /**
-     * Permite reportar incidencia incluso en estado inicial.
-     */
-    @Override
-    public void reportarIncidencia(Envio envio) {
-        envio.setEstadoActual(new EstadoIncidencia());
-        envio.setEstado(Envio.EstadoEnvio.INCIDENCIA);
-    }
-    
-    /**
-     * Permite cancelación de envíos solicitados.
-     */
-    @Override
-    public void cancelar(Envio envio) {
-        System.out.println("Envío cancelado exitosamente");
+    private EstadoSolicitado() {
     }
     
     @Override
-    public String getNombre() {
-        return "SOLICITADO";
+    public Envio.EstadoEnvio getEstado() {
+        return Envio.EstadoEnvio.SOLICITADO;
     }
 }
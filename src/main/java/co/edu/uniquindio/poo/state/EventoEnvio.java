@@ -0,0 +1,14 @@
+package co.edu.uniquindio.poo.state;
+
+/**
+ * Acciones que pueden aplicarse a un envío; cada una corresponde a un método
+ * de EstadoEnvio y es la segunda dimensión de la TablaTransiciones.
+ */
+public enum EventoEnvio {
+    PROCESAR,
+    ASIGNAR,
+    INICIAR_RUTA,
+    ENTREGAR,
+    REPORTAR_INCIDENCIA,
+    CANCELAR
+}
@@ -0,0 +1,175 @@
+package co.edu.uniquindio.poo.state;
+
+import co.edu.uniquindio.poo.model.Envio;
+
+/**
+ * Tabla precalculada de transiciones del ciclo de vida de un envío.
+ *
+ * Es la única fuente de las reglas del patrón State: cada celda (estado, evento)
+ * indica el estado resultante, si la acción está permitida y el aviso o motivo
+ * de rechazo. De ella se deriva una segunda tabla (estado, estado destino) para
+ * validar cambios directos de estado, como los del administrador o los de un
+ * lote. Ambas se indexan por ordinal, así cada consulta es O(1) y no reserva
+ * memoria ni lanza excepciones; solo {@link #aplicar} lanza al rechazar.
+ */
+public final class TablaTransiciones {
+
+    private static final Envio.EstadoEnvio[] ESTADOS = Envio.EstadoEnvio.values();
+    private static final int EVENTOS = EventoEnvio.values().length;
+    private static final Transicion[] POR_EVENTO = new Transicion[ESTADOS.length * EVENTOS];
+    private static final Transicion[] POR_DESTINO = new Transicion[ESTADOS.length * ESTADOS.length];
+    private static final EstadoEnvio[] OBJETOS = new EstadoEnvio[ESTADOS.length];
+
+    static {
+        OBJETOS[Envio.EstadoEnvio.SOLICITADO.ordinal()] = EstadoSolicitado.INSTANCIA;
+        OBJETOS[Envio.EstadoEnvio.ASIGNADO.ordinal()] = EstadoAsignado.INSTANCIA;
+        OBJETOS[Envio.EstadoEnvio.EN_RUTA.ordinal()] = EstadoEnRuta.INSTANCIA;
+        OBJETOS[Envio.EstadoEnvio.ENTREGADO.ordinal()] = EstadoEntregado.INSTANCIA;
+        OBJETOS[Envio.EstadoEnvio.INCIDENCIA.ordinal()] = EstadoIncidencia.INSTANCIA;
+
+        // SOLICITADO: se asigna, reporta incidencia o cancela; no salta pasos
+        permitir(Envio.EstadoEnvio.SOLICITADO, EventoEnvio.PROCESAR, Envio.EstadoEnvio.SOLICITADO,
+                "Procesando envío solicitado...");
+        permitir(Envio.EstadoEnvio.SOLICITADO, EventoEnvio.ASIGNAR, Envio.EstadoEnvio.ASIGNADO,
+                "Preparando envío para ruta...");
+        rechazar(Envio.EstadoEnvio.SOLICITADO, EventoEnvio.INICIAR_RUTA,
+                "No se puede iniciar ruta sin asignar primero");
+        rechazar(Envio.EstadoEnvio.SOLICITADO, EventoEnvio.ENTREGAR,
+                "No se puede entregar. Debe seguir: asignar -> iniciar ruta -> entregar");
+        permitir(Envio.EstadoEnvio.SOLICITADO, EventoEnvio.REPORTAR_INCIDENCIA, Envio.EstadoEnvio.INCIDENCIA, null);
+        permitir(Envio.EstadoEnvio.SOLICITADO, EventoEnvio.CANCELAR, Envio.EstadoEnvio.SOLICITADO,
+                "Envío cancelado exitosamente");
+
+        // ASIGNADO: inicia ruta o reporta incidencia
+        rechazar(Envio.EstadoEnvio.ASIGNADO, EventoEnvio.PROCESAR, "No se puede retroceder a estado anterior");
+        permitir(Envio.EstadoEnvio.ASIGNADO, EventoEnvio.ASIGNAR, Envio.EstadoEnvio.ASIGNADO,
+                "El envío ya ha sido preparado");
+        permitir(Envio.EstadoEnvio.ASIGNADO, EventoEnvio.INICIAR_RUTA, Envio.EstadoEnvio.EN_RUTA,
+                "Iniciando ruta de entrega...");
+        rechazar(Envio.EstadoEnvio.ASIGNADO, EventoEnvio.ENTREGAR,
+                "No se puede entregar. Debe iniciar ruta primero");
+        permitir(Envio.EstadoEnvio.ASIGNADO, EventoEnvio.REPORTAR_INCIDENCIA, Envio.EstadoEnvio.INCIDENCIA, null);
+        rechazar(Envio.EstadoEnvio.ASIGNADO, EventoEnvio.CANCELAR, "No se puede cancelar un envío ya asignado");
+
+        // EN_RUTA: se entrega o reporta incidencia
+        rechazar(Envio.EstadoEnvio.EN_RUTA, EventoEnvio.PROCESAR, "No se puede retroceder a estado anterior");
+        rechazar(Envio.EstadoEnvio.EN_RUTA, EventoEnvio.ASIGNAR, "No se puede retroceder a estado anterior");
+        permitir(Envio.EstadoEnvio.EN_RUTA, EventoEnvio.INICIAR_RUTA, Envio.EstadoEnvio.EN_RUTA,
+                "El envío ya está en ruta");
+        permitir(Envio.EstadoEnvio.EN_RUTA, EventoEnvio.ENTREGAR, Envio.EstadoEnvio.ENTREGADO,
+                "Entregando paquete...");
+        permitir(Envio.EstadoEnvio.EN_RUTA, EventoEnvio.REPORTAR_INCIDENCIA, Envio.EstadoEnvio.INCIDENCIA, null);
+        rechazar(Envio.EstadoEnvio.EN_RUTA, EventoEnvio.CANCELAR, "No se puede cancelar un envío en ruta");
+
+        // ENTREGADO: estado terminal
+        permitir(Envio.EstadoEnvio.ENTREGADO, EventoEnvio.PROCESAR, Envio.EstadoEnvio.ENTREGADO,
+                "Envío ya entregado");
+        rechazar(Envio.EstadoEnvio.ENTREGADO, EventoEnvio.ASIGNAR, "No se puede asignar un envío ya entregado");
+        rechazar(Envio.EstadoEnvio.ENTREGADO, EventoEnvio.INICIAR_RUTA,
+                "No se puede iniciar ruta de un envío ya entregado");
+        permitir(Envio.EstadoEnvio.ENTREGADO, EventoEnvio.ENTREGAR, Envio.EstadoEnvio.ENTREGADO,
+                "El envío ya fue entregado");
+        rechazar(Envio.EstadoEnvio.ENTREGADO, EventoEnvio.REPORTAR_INCIDENCIA,
+                "No se puede reportar incidencia en un envío entregado");
+        rechazar(Envio.EstadoEnvio.ENTREGADO, EventoEnvio.CANCELAR, "No se puede cancelar un envío ya entregado");
+
+        // INCIDENCIA: solo se reasigna o cancela
+        rechazar(Envio.EstadoEnvio.INCIDENCIA, EventoEnvio.PROCESAR,
+                "No se puede retroceder a estado anterior. Resuelva la incidencia primero");
+        permitir(Envio.EstadoEnvio.INCIDENCIA, EventoEnvio.ASIGNAR, Envio.EstadoEnvio.ASIGNADO,
+                "Reasignando envío después de resolver incidencia...");
+        rechazar(Envio.EstadoEnvio.INCIDENCIA, EventoEnvio.INICIAR_RUTA, "Debe resolver la incidencia primero");
+        rechazar(Envio.EstadoEnvio.INCIDENCIA, EventoEnvio.ENTREGAR, "Debe resolver la incidencia primero");
+        permitir(Envio.EstadoEnvio.INCIDENCIA, EventoEnvio.REPORTAR_INCIDENCIA, Envio.EstadoEnvio.INCIDENCIA,
+                "Ya existe una incidencia reportada");
+        permitir(Envio.EstadoEnvio.INCIDENCIA, EventoEnvio.CANCELAR, Envio.EstadoEnvio.INCIDENCIA,
+                "Cancelando envío con incidencia...");
+
+        // Un cambio directo es válido si algún evento lo produce, o si no cambia nada
+        for (Envio.EstadoEnvio origen : ESTADOS) {
+            for (Envio.EstadoEnvio destino : ESTADOS) {
+                boolean alcanzable = origen == destino;
+                for (int evento = 0; evento < EVENTOS && !alcanzable; evento++) {
+                    Transicion celda = POR_EVENTO[origen.ordinal() * EVENTOS + evento];
+                    alcanzable = celda.isPermitida() && celda.getDestino() == destino;
+                }
+                POR_DESTINO[origen.ordinal() * ESTADOS.length + destino.ordinal()] = alcanzable
+                        ? new Transicion(origen, destino, true, null)
+                        : new Transicion(origen, origen, false,
+                                "No se permite pasar de " + origen + " a " + destino);
+            }
+        }
+        for (int i = 0; i < POR_EVENTO.length; i++) {
+            if (POR_EVENTO[i] == null) {
+                throw new IllegalStateException("Transición sin definir: "
+                        + ESTADOS[i / EVENTOS] + " x " + EventoEnvio.values()[i % EVENTOS]);
+            }
+        }
+    }
+
+    private TablaTransiciones() {
+    }
+
+    private static void permitir(Envio.EstadoEnvio origen, EventoEnvio evento, Envio.EstadoEnvio destino,
+                                 String aviso) {
+        POR_EVENTO[origen.ordinal() * EVENTOS + evento.ordinal()] = new Transicion(origen, destino, true, aviso);
+    }
+
+    private static void rechazar(Envio.EstadoEnvio origen, EventoEnvio evento, String motivo) {
+        POR_EVENTO[origen.ordinal() * EVENTOS + evento.ordinal()] = new Transicion(origen, origen, false, motivo);
+    }
+
+    /**
+     * Consulta la transición que produce un evento sin aplicarla.
+     *
+     * @param estado Estado actual (null equivale a SOLICITADO)
+     * @param evento Acción a aplicar
+     * @return Celda de la tabla; nunca null
+     */
+    public static Transicion transicion(Envio.EstadoEnvio estado, EventoEnvio evento) {
+        return POR_EVENTO[ordinal(estado) * EVENTOS + evento.ordinal()];
+    }
+
+    /**
+     * Consulta si se puede pasar directamente de un estado a otro.
+     *
+     * @param estado Estado actual (null equivale a SOLICITADO)
+     * @param destino Estado pedido
+     * @return Celda de la tabla; si no es permitida trae el motivo
+     */
+    public static Transicion cambio(Envio.EstadoEnvio estado, Envio.EstadoEnvio destino) {
+        return POR_DESTINO[ordinal(estado) * ESTADOS.length + destino.ordinal()];
+    }
+
+    /**
+     * @param estado Estado del envío (null equivale a SOLICITADO)
+     * @return Objeto de estado compartido para ese valor del enum
+     */
+    public static EstadoEnvio objeto(Envio.EstadoEnvio estado) {
+        return OBJETOS[ordinal(estado)];
+    }
+
+    /**
+     * Aplica un evento a un envío, mostrando el aviso de la transición.
+     *
+     * @param envio Envío a modificar
+     * @param evento Acción a aplicar
+     * @throws IllegalStateException Si el estado actual no permite la acción
+     */
+    public static void aplicar(Envio envio, EventoEnvio evento) {
+        Transicion celda = transicion(envio.getEstado(), evento);
+        if (!celda.isPermitida()) {
+            throw new IllegalStateException(celda.getMensaje());
+        }
+        if (celda.getMensaje() != null) {
+            System.out.println(celda.getMensaje());
+        }
+        if (celda.cambiaEstado()) {
+            envio.setEstado(celda.getDestino());
+        }
+    }
+
+    private static int ordinal(Envio.EstadoEnvio estado) {
+        return estado == null ? 0 : estado.ordinal();
+    }
+}
@@ -0,0 +1,29 @@
+package co.edu.uniquindio.poo.state;
+
+import co.edu.uniquindio.poo.model.Envio;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Celda inmutable de la TablaTransiciones. Las celdas se crean una sola vez al
+ * cargar la tabla, así consultar una transición no reserva memoria.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class Transicion {
+    private final Envio.EstadoEnvio origen;
+    /** Estado resultante; igual al origen cuando la acción no cambia el estado */
+    private final Envio.EstadoEnvio destino;
+    private final boolean permitida;
+    /** Aviso a mostrar si es permitida, o motivo del rechazo si no lo es */
+    private final String mensaje;
+
+    /**
+     * @return true si la transición es permitida y lleva a otro estado
+     */
+    public boolean cambiaEstado() {
+        return permitida && destino != origen;
+    }
+}
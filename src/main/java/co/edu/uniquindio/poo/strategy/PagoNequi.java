@@ -1,5 +1,7 @@
 package co.edu.uniquindio.poo.strategy;
 
+import co.edu.uniquindio.poo.utils.ValidadorDatos;
+
 public class PagoNequi implements EstrategiaPago {
     private String numeroCelular;
     
@@ -10,8 +12,7 @@ public class PagoNequi implements EstrategiaPago {
     @Override
     public boolean procesarPago(double monto) {
         // Simulación de procesamiento de pago con Nequi
-        return numeroCelular != null && 
-               numeroCelular.matches("^3\\d{9}$"); // Valida que sea un celular colombiano
+        return ValidadorDatos.esCelularColombiano(numeroCelular); // Valida que sea un celular colombiano
     }
     
     @Override
@@ -1,5 +1,7 @@
 package co.edu.uniquindio.poo.strategy;
 
+import co.edu.uniquindio.poo.utils.ValidadorDatos;
+
 public class PagoPayPal implements EstrategiaPago {
     private String correoElectronico;
     private String tokenSesion;
@@ -12,8 +14,7 @@ public class PagoPayPal implements EstrategiaPago {
     @Override
     public boolean procesarPago(double monto) {
         // Simulación de procesamiento de pago con PayPal
-        return correoElectronico != null && 
-               correoElectronico.matches("^[A-Za-z0-9+_.-]+@(.+)$") && // Valida formato de email
+        return ValidadorDatos.esEmailSimple(correoElectronico) && // Valida formato de email
                tokenSesion != null && !tokenSesion.isEmpty();
     }
     
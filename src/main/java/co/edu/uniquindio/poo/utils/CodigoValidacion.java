@@ -0,0 +1,76 @@
+package co.edu.uniquindio.poo.utils;
+
+/**
+ * Códigos de error de la validación de datos de un envío.
+ *
+ * ValidadorDatos devuelve los errores como un conjunto de bits (uno por código,
+ * en el orden de esta enumeración) para no reservar memoria cuando los datos son
+ * válidos; {@link #renderizar(long)} produce el mismo texto que mostraba
+ * EnvioController, una línea "- mensaje" por error.
+ */
+public enum CodigoValidacion {
+    DESCRIPCION_OBLIGATORIA("La descripción del paquete es obligatoria"),
+    DESCRIPCION_DEMASIADO_LARGA("La descripción no puede exceder 200 caracteres"),
+    PESO_NO_POSITIVO("El peso debe ser mayor a 0 kg"),
+    PESO_EXCEDIDO("El peso máximo permitido es 1000 kg"),
+    VOLUMEN_NO_POSITIVO("El volumen debe ser mayor a 0 cm³"),
+    VOLUMEN_EXCEDIDO("El volumen máximo permitido es 1,000,000 cm³ (1 m³)"),
+    VALOR_DECLARADO_NEGATIVO("El valor declarado no puede ser negativo"),
+    VALOR_DECLARADO_EXCEDIDO("El valor declarado máximo es $100,000,000"),
+    ORIGEN_OBLIGATORIO("La dirección de origen es obligatoria"),
+    CIUDAD_ORIGEN_OBLIGATORIA("La ciudad de origen es obligatoria"),
+    COORDENADAS_ORIGEN_OBLIGATORIAS("Las coordenadas de origen son obligatorias"),
+    DESTINO_OBLIGATORIO("La dirección de destino es obligatoria"),
+    CIUDAD_DESTINO_OBLIGATORIA("La ciudad de destino es obligatoria"),
+    COORDENADAS_DESTINO_OBLIGATORIAS("Las coordenadas de destino son obligatorias"),
+    ORIGEN_IGUAL_DESTINO("El origen y destino no pueden ser el mismo lugar"),
+    NOMBRE_DESTINATARIO_OBLIGATORIO("El nombre del destinatario es obligatorio"),
+    NOMBRE_DESTINATARIO_CORTO("El nombre del destinatario debe tener al menos 3 caracteres"),
+    NOMBRE_DESTINATARIO_INVALIDO("El nombre del destinatario solo puede contener letras y espacios"),
+    TELEFONO_DESTINATARIO_OBLIGATORIO("El teléfono del destinatario es obligatorio"),
+    TELEFONO_DESTINATARIO_INVALIDO("El teléfono debe tener entre 7 y 10 dígitos"),
+    EMAIL_DESTINATARIO_INVALIDO("El formato del email no es válido");
+
+    private static final CodigoValidacion[] VALORES = values();
+
+    private final String mensaje;
+
+    CodigoValidacion(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    /**
+     * @return Bit que representa este código en un conjunto de errores
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * @param errores Conjunto de errores
+     * @return true si el conjunto contiene este código
+     */
+    public boolean presenteEn(long errores) {
+        return (errores & bit()) != 0;
+    }
+
+    /**
+     * Convierte un conjunto de errores al texto que se muestra al usuario.
+     *
+     * @param errores Conjunto de errores devuelto por ValidadorDatos
+     * @return Una línea "- mensaje" por error, o cadena vacía si no hay errores
+     */
+    public static String renderizar(long errores) {
+        StringBuilder texto = new StringBuilder();
+        for (CodigoValidacion codigo : VALORES) {
+            if (codigo.presenteEn(errores)) {
+                texto.append("- ").append(codigo.mensaje).append('\n');
+            }
+        }
+        return texto.toString();
+    }
+}
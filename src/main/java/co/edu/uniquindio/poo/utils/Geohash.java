@@ -0,0 +1,99 @@
+package co.edu.uniquindio.poo.utils;
+
+/**
+ * Codificación geohash de coordenadas.
+ *
+ * Un geohash divide el mundo en celdas intercalando bits de longitud y latitud
+ * (empezando por la longitud); cada carácter base 32 aporta 5 bits. Aquí la celda
+ * se representa como un long con los 5·precisión bits del geohash, lo que permite
+ * usarla como clave sin crear cadenas. Con precisión 7 la celda mide unos
+ * 153 m × 153 m y con precisión 8 unos 38 m × 19 m.
+ */
+public final class Geohash {
+    /** Precisión máxima: 12 caracteres (60 bits) */
+    public static final int PRECISION_MAXIMA = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {
+    }
+
+    /**
+     * Calcula la celda geohash que contiene unas coordenadas.
+     *
+     * @param latitud Latitud en grados (-90 a 90)
+     * @param longitud Longitud en grados (-180 a 180)
+     * @param precision Número de caracteres del geohash (1 a 12)
+     * @return Bits de la celda
+     * @throws IllegalArgumentException Si la precisión está fuera de rango
+     */
+    public static long codificar(double latitud, double longitud, int precision) {
+        validarPrecision(precision);
+        double latMin = -90;
+        double latMax = 90;
+        double lonMin = -180;
+        double lonMax = 180;
+        long celda = 0;
+        int bits = precision * 5;
+        for (int i = 0; i < bits; i++) {
+            celda <<= 1;
+            if (i % 2 == 0) {
+                double medio = (lonMin + lonMax) / 2;
+                if (longitud >= medio) {
+                    celda |= 1;
+                    lonMin = medio;
+                } else {
+                    lonMax = medio;
+                }
+            } else {
+                double medio = (latMin + latMax) / 2;
+                if (latitud >= medio) {
+                    celda |= 1;
+                    latMin = medio;
+                } else {
+                    latMax = medio;
+                }
+            }
+        }
+        return celda;
+    }
+
+    /**
+     * Convierte una celda a su representación de texto en base 32.
+     *
+     * @param celda Bits de la celda
+     * @param precision Número de caracteres con que se codificó
+     * @return Geohash como texto (por ejemplo "d29ep4")
+     */
+    public static String aTexto(long celda, int precision) {
+        validarPrecision(precision);
+        char[] texto = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            texto[i] = BASE32[(int) (celda & 31)];
+            celda >>>= 5;
+        }
+        return new String(texto);
+    }
+
+    /**
+     * @return Alto de una celda en grados de latitud
+     */
+    public static double altoCelda(int precision) {
+        validarPrecision(precision);
+        return 180.0 / (1L << (precision * 5 / 2));
+    }
+
+    /**
+     * @return Ancho de una celda en grados de longitud
+     */
+    public static double anchoCelda(int precision) {
+        validarPrecision(precision);
+        return 360.0 / (1L << ((precision * 5 + 1) / 2));
+    }
+
+    private static void validarPrecision(int precision) {
+        if (precision < 1 || precision > PRECISION_MAXIMA) {
+            throw new IllegalArgumentException("La precisión del geohash debe estar entre 1 y " + PRECISION_MAXIMA);
+        }
+    }
+}
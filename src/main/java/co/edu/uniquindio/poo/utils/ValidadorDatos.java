@@ -0,0 +1,249 @@
+package co.edu.uniquindio.poo.utils;
+
+import co.edu.uniquindio.poo.model.Direccion;
+
+/**
+ * Motor de validación de datos de entrada (envíos, pagos y correos).
+ *
+ * Las expresiones regulares que antes se evaluaban con String.matches (que
+ * compila un Pattern en cada llamada) se reemplazan por recorridos de caracteres
+ * escritos a mano que aceptan exactamente el mismo lenguaje. La validación de un
+ * envío devuelve los errores como un conjunto de bits de {@link CodigoValidacion},
+ * así que con datos válidos no reserva memoria; el texto se construye solo si
+ * hay errores, con {@link CodigoValidacion#renderizar(long)}.
+ *
+ * Todos los métodos son estáticos, sin estado y seguros para uso concurrente.
+ */
+public final class ValidadorDatos {
+    /** Conjunto de errores vacío: los datos son válidos */
+    public static final long SIN_ERRORES = 0L;
+
+    private static final int MAXIMO_DESCRIPCION = 200;
+    private static final double MAXIMO_PESO = 1000;
+    private static final double MAXIMO_VOLUMEN = 1000000; // 1 metro cúbico
+    private static final double MAXIMO_VALOR_DECLARADO = 100000000; // 100 millones
+    private static final double TOLERANCIA_MISMO_LUGAR = 0.0001;
+
+    private ValidadorDatos() {
+    }
+
+    /**
+     * Valida los datos de un nuevo envío con las reglas de EnvioController.validarDatosEnvio.
+     *
+     * @return Conjunto de errores ({@link #SIN_ERRORES} si los datos son válidos)
+     */
+    public static long validarEnvio(String descripcion, double peso, double volumen, double valorDeclarado,
+                                    Direccion origen, Direccion destino,
+                                    String nombreDestinatario, String telefonoDestinatario,
+                                    String emailDestinatario) {
+        long errores = SIN_ERRORES;
+
+        if (estaVacio(descripcion)) {
+            errores |= CodigoValidacion.DESCRIPCION_OBLIGATORIA.bit();
+        } else if (descripcion.length() > MAXIMO_DESCRIPCION) {
+            errores |= CodigoValidacion.DESCRIPCION_DEMASIADO_LARGA.bit();
+        }
+
+        if (peso <= 0) {
+            errores |= CodigoValidacion.PESO_NO_POSITIVO.bit();
+        } else if (peso > MAXIMO_PESO) {
+            errores |= CodigoValidacion.PESO_EXCEDIDO.bit();
+        }
+
+        if (volumen <= 0) {
+            errores |= CodigoValidacion.VOLUMEN_NO_POSITIVO.bit();
+        } else if (volumen > MAXIMO_VOLUMEN) {
+            errores |= CodigoValidacion.VOLUMEN_EXCEDIDO.bit();
+        }
+
+        if (valorDeclarado < 0) {
+            errores |= CodigoValidacion.VALOR_DECLARADO_NEGATIVO.bit();
+        } else if (valorDeclarado > MAXIMO_VALOR_DECLARADO) {
+            errores |= CodigoValidacion.VALOR_DECLARADO_EXCEDIDO.bit();
+        }
+
+        if (origen == null) {
+            errores |= CodigoValidacion.ORIGEN_OBLIGATORIO.bit();
+        } else {
+            if (estaVacio(origen.getCiudad())) {
+                errores |= CodigoValidacion.CIUDAD_ORIGEN_OBLIGATORIA.bit();
+            }
+            if (origen.getLatitud() == 0 && origen.getLongitud() == 0) {
+                errores |= CodigoValidacion.COORDENADAS_ORIGEN_OBLIGATORIAS.bit();
+            }
+        }
+
+        if (destino == null) {
+            errores |= CodigoValidacion.DESTINO_OBLIGATORIO.bit();
+        } else {
+            if (estaVacio(destino.getCiudad())) {
+                errores |= CodigoValidacion.CIUDAD_DESTINO_OBLIGATORIA.bit();
+            }
+            if (destino.getLatitud() == 0 && destino.getLongitud() == 0) {
+                errores |= CodigoValidacion.COORDENADAS_DESTINO_OBLIGATORIAS.bit();
+            }
+        }
+
+        if (origen != null && destino != null
+                && Math.abs(origen.getLatitud() - destino.getLatitud()) < TOLERANCIA_MISMO_LUGAR
+                && Math.abs(origen.getLongitud() - destino.getLongitud()) < TOLERANCIA_MISMO_LUGAR) {
+            errores |= CodigoValidacion.ORIGEN_IGUAL_DESTINO.bit();
+        }
+
+        if (estaVacio(nombreDestinatario)) {
+            errores |= CodigoValidacion.NOMBRE_DESTINATARIO_OBLIGATORIO.bit();
+        } else if (nombreDestinatario.length() < 3) {
+            errores |= CodigoValidacion.NOMBRE_DESTINATARIO_CORTO.bit();
+        } else if (!esNombre(nombreDestinatario)) {
+            errores |= CodigoValidacion.NOMBRE_DESTINATARIO_INVALIDO.bit();
+        }
+
+        if (estaVacio(telefonoDestinatario)) {
+            errores |= CodigoValidacion.TELEFONO_DESTINATARIO_OBLIGATORIO.bit();
+        } else if (!esTelefono(telefonoDestinatario)) {
+            errores |= CodigoValidacion.TELEFONO_DESTINATARIO_INVALIDO.bit();
+        }
+
+        if (!estaVacio(emailDestinatario) && !esEmail(emailDestinatario)) {
+            errores |= CodigoValidacion.EMAIL_DESTINATARIO_INVALIDO.bit();
+        }
+
+        return errores;
+    }
+
+    /**
+     * Equivale a {@code texto == null || texto.trim().isEmpty()} sin crear la cadena recortada.
+     */
+    public static boolean estaVacio(String texto) {
+        if (texto == null) {
+            return true;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nombre de persona: {@code ^[a-zA-ZáéíóúÁÉÍÓÚñÑ ]+$}.
+     */
+    public static boolean esNombre(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (!esLetraAscii(c) && c != ' ' && "áéíóúÁÉÍÓÚñÑ".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Teléfono fijo o celular: {@code ^[0-9]{7,10}$}.
+     */
+    public static boolean esTelefono(String texto) {
+        return texto != null && texto.length() >= 7 && texto.length() <= 10 && sonDigitos(texto, 0);
+    }
+
+    /**
+     * Celular colombiano: {@code ^3\d{9}$}.
+     */
+    public static boolean esCelularColombiano(String texto) {
+        return texto != null && texto.length() == 10 && texto.charAt(0) == '3' && sonDigitos(texto, 1);
+    }
+
+    /**
+     * Correo con dominio y extensión: {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}.
+     *
+     * Como el dominio admite puntos, la expresión acepta si todo el dominio usa
+     * caracteres válidos y lo que sigue a su último punto son al menos dos letras.
+     */
+    public static boolean esEmail(String texto) {
+        int arroba = posicionArroba(texto);
+        if (arroba < 0) {
+            return false;
+        }
+        int ultimoPunto = -1;
+        for (int i = arroba + 1; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '.') {
+                ultimoPunto = i;
+            } else if (!esLetraAscii(c) && !esDigito(c) && c != '-') {
+                return false;
+            }
+        }
+        // Al menos un carácter antes del último punto y dos letras después
+        if (ultimoPunto <= arroba + 1 || texto.length() - ultimoPunto - 1 < 2) {
+            return false;
+        }
+        for (int i = ultimoPunto + 1; i < texto.length(); i++) {
+            if (!esLetraAscii(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Correo con cualquier dominio no vacío: {@code ^[A-Za-z0-9+_.-]+@(.+)$}.
+     */
+    public static boolean esEmailSimple(String texto) {
+        int arroba = posicionArroba(texto);
+        if (arroba < 0 || arroba == texto.length() - 1) {
+            return false;
+        }
+        for (int i = arroba + 1; i < texto.length(); i++) {
+            if (esFinDeLinea(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Posición de la primera arroba si la parte local ({@code [A-Za-z0-9+_.-]+}) es válida, o -1.
+     */
+    private static int posicionArroba(String texto) {
+        if (texto == null) {
+            return -1;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '@') {
+                return i > 0 ? i : -1;
+            }
+            if (!esLetraAscii(c) && !esDigito(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean sonDigitos(String texto, int desde) {
+        for (int i = desde; i < texto.length(); i++) {
+            if (!esDigito(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean esLetraAscii(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Caracteres que el punto de una expresión regular de Java no acepta.
+     */
+    private static boolean esFinDeLinea(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -4,11 +4,15 @@ import co.edu.uniquindio.poo.controller.AdminController;
 import co.edu.uniquindio.poo.controller.EnvioController;
 import co.edu.uniquindio.poo.model.*;
 import co.edu.uniquindio.poo.observer.AdminDashboardObserver;
+import co.edu.uniquindio.poo.observer.BusEventos;
+import co.edu.uniquindio.poo.observer.TablaEnvios;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.WindowEvent;
 
 import java.util.List;
 import java.util.Map;
@@ -68,17 +72,23 @@ public class AdminDashboardViewController {
     private AdminController adminController;
     private EnvioController envioController;
     
+    // Lista de la tabla de envíos, mantenida por un único observador suscrito al bus de eventos
+    private final TablaEnvios enviosObservable = new TablaEnvios();
+    private AdminDashboardObserver observadorEnvios;
+    private final EventHandler<WindowEvent> alCerrarVentana = evento -> liberarObservadorEnvios();
+    
     public void initialize() {
         System.out.println("[DEBUG] AdminDashboardViewController.initialize() called");
         adminActual = SessionManager.getCurrentAdmin();
         System.out.println("[DEBUG] getCurrentAdmin() returned: " + adminActual);
         adminController = new AdminController();
-        envioController = new EnvioController();
+        envioController = new EnvioController(SessionManager.getInstance().getCurrentUserId());
         
         if (adminActual != null) {
             System.out.println("[DEBUG] Admin found: " + adminActual.getNombre());
             welcomeLabel.setText("Bienvenido Admin: " + adminActual.getNombre());
             configurarTablas();
+            suscribirObservadorEnvios();
             cargarDatos();
         } else {
             System.out.println("[DEBUG] NO ADMIN FOUND IN SESSION!");
@@ -199,15 +209,49 @@ public class AdminDashboardViewController {
     }
     
     private void cargarEnvios() {
-        List<Envio> envios = adminController.obtenerTodosEnvios();
-        javafx.collections.ObservableList<Envio> enviosObservable = FXCollections.observableArrayList(envios);
+        enviosObservable.setAll(adminController.obtenerTodosEnvios());
         enviosTable.setItems(enviosObservable);
-        
-        // Agregar el AdminDashboardObserver a cada envío para que se actualice automáticamente
-        // Se usa la lista observable de la tabla para que los cambios se reflejen directamente
-        AdminDashboardObserver observer = new AdminDashboardObserver(enviosObservable);
-        for (Envio envio : envios) {
-            envio.agregarObservador(observer);
+    }
+    
+    /**
+     * Suscribe una sola vez el AdminDashboardObserver a las creaciones y cambios de
+     * estado de envíos; recargar la tabla no agrega observadores. El observador
+     * vuelca los cambios sobre enviosObservable una vez por pulso.
+     * 
+     * El observador se libera al cerrar la ventana o cuando la vista deja de
+     * estar en ella (cerrar sesión o navegar a otra pantalla), así su
+     * temporizador no sobrevive al dashboard.
+     */
+    private void suscribirObservadorEnvios() {
+        observadorEnvios = new AdminDashboardObserver(enviosObservable);
+        BusEventos.obtenerInstancia().suscribir(BusEventos.Tema.ENVIO_CREADO, observadorEnvios);
+        BusEventos.obtenerInstancia().suscribir(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, observadorEnvios);
+        welcomeLabel.sceneProperty().addListener((obsEscena, escenaAnterior, escena) -> {
+            if (escena != null) {
+                escena.windowProperty().addListener((obsVentana, ventanaAnterior, ventana) -> {
+                    if (ventanaAnterior != null) {
+                        ventanaAnterior.removeEventHandler(WindowEvent.WINDOW_HIDDEN, alCerrarVentana);
+                    }
+                    if (ventana != null) {
+                        ventana.addEventHandler(WindowEvent.WINDOW_HIDDEN, alCerrarVentana);
+                    } else {
+                        liberarObservadorEnvios();
+                    }
+                });
+            }
+        });
+    }
+    
+    /**
+     * Cancela las suscripciones del observador de envíos y detiene su temporizador.
+     * Se puede invocar más de una vez.
+     */
+    private void liberarObservadorEnvios() {
+        if (observadorEnvios != null) {
+            BusEventos.obtenerInstancia().cancelarSuscripcion(BusEventos.Tema.ENVIO_CREADO, observadorEnvios);
+            BusEventos.obtenerInstancia().cancelarSuscripcion(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, observadorEnvios);
+            observadorEnvios.cerrar();
+            observadorEnvios = null;
         }
     }
     
@@ -316,9 +360,7 @@ public class AdminDashboardViewController {
         }
         
         Envio.EstadoEnvio estado = Envio.EstadoEnvio.valueOf(estadoSeleccionado);
-        List<Envio> enviosFiltrados = adminController.obtenerTodosEnvios().stream()
-                .filter(e -> e.getEstado() == estado)
-                .collect(Collectors.toList());
+        List<Envio> enviosFiltrados = adminController.obtenerEnviosPorEstado(estado);
         
         enviosTable.setItems(FXCollections.observableArrayList(enviosFiltrados));
     }
@@ -410,11 +452,15 @@ public class AdminDashboardViewController {
         
         Optional<Envio.EstadoEnvio> resultado = dialog.showAndWait();
         resultado.ifPresent(nuevoEstado -> {
-            envioController.actualizarEstado(seleccionado.getIdEnvio(), nuevoEstado);
-            cargarEnvios();
-            cargarMetricas();
-            mostrarAlerta(Alert.AlertType.INFORMATION, "Estado Actualizado", 
-                    "Estado del envío actualizado a: " + nuevoEstado);
+            try {
+                envioController.actualizarEstado(seleccionado.getIdEnvio(), nuevoEstado);
+                cargarEnvios();
+                cargarMetricas();
+                mostrarAlerta(Alert.AlertType.INFORMATION, "Estado Actualizado", 
+                        "Estado del envío actualizado a: " + nuevoEstado);
+            } catch (IllegalStateException e) {
+                mostrarAlerta(Alert.AlertType.ERROR, "Transición no permitida", e.getMessage());
+            }
         });
     }
     
@@ -531,14 +577,13 @@ public class AdminDashboardViewController {
         
         Optional<ButtonType> resultado = confirmacion.showAndWait();
         if (resultado.isPresent() && resultado.get() == ButtonType.OK) {
+            liberarObservadorEnvios();
             SessionManager.logout();
         }
     }
     
-    private int contarEnviosPorEstado(Envio.EstadoEnvio estado) {
-        return (int) adminController.obtenerTodosEnvios().stream()
-                .filter(e -> e.getEstado() == estado)
-                .count();
+    private long contarEnviosPorEstado(Envio.EstadoEnvio estado) {
+        return adminController.contarEnviosPorEstado(estado);
     }
     
     private void mostrarAlerta(Alert.AlertType tipo, String titulo, String mensaje) {
@@ -662,10 +707,7 @@ public class AdminDashboardViewController {
         }
         
         // Obtener todos los envíos asignados al repartidor
-        List<Envio> enviosDelRepartidor = adminController.obtenerTodosEnvios().stream()
-                .filter(e -> e.getRepartidor() != null && 
-                            e.getRepartidor().getIdRepartidor().equals(seleccionado.getIdRepartidor()))
-                .collect(Collectors.toList());
+        List<Envio> enviosDelRepartidor = adminController.obtenerEnviosDeRepartidor(seleccionado.getIdRepartidor());
         
         if (enviosDelRepartidor.isEmpty()) {
             mostrarAlerta(Alert.AlertType.INFORMATION, "Sin Envíos", 
@@ -762,7 +804,8 @@ public class AdminDashboardViewController {
         }
         
         if (repartidorAsignarCombo != null) {
-            List<Repartidor> repartidores = adminController.obtenerTodosRepartidores();
+            // Solo los disponibles, el menos cargado primero
+            List<Repartidor> repartidores = adminController.obtenerRepartidoresDisponibles();
             repartidorAsignarCombo.setItems(FXCollections.observableArrayList(
                     repartidores.stream()
                             .map(r -> r.getNombre() + " - " + r.getIdRepartidor())
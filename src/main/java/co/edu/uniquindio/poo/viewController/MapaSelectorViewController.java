@@ -1,5 +1,7 @@
 package co.edu.uniquindio.poo.viewController;
 
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.SistemaGestion;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -28,6 +30,9 @@ public class MapaSelectorViewController {
     @FXML
     private Button cancelarButton;
 
+    /** Distancia máxima a una dirección conocida para ajustar el clic a ella (50 m) */
+    private static final double RADIO_AJUSTE_KM = 0.05;
+
     private WebEngine webEngine;
     private double latitudSeleccionada = 0;
     private double longitudSeleccionada = 0;
@@ -79,11 +84,21 @@ public class MapaSelectorViewController {
     }
 
     /**
-     * Actualiza los campos de texto con las coordenadas obtenidas del mapa
+     * Actualiza los campos de texto con las coordenadas obtenidas del mapa.
+     * Si el clic cae cerca de una dirección ya conocida (frecuente de un usuario u
+     * origen/destino de un envío), se ajusta a sus coordenadas exactas.
      */
     private void actualizarCoordenadas(double latitud, double longitud) {
         System.out.println("[MAPA] Coordenadas detectadas: Lat=" + latitud + ", Lng=" + longitud);
         
+        Direccion conocida = SistemaGestion.obtenerInstancia()
+                .buscarDireccionConocidaMasCercana(latitud, longitud, RADIO_AJUSTE_KM);
+        if (conocida != null) {
+            latitud = conocida.getLatitud();
+            longitud = conocida.getLongitud();
+            System.out.println("[MAPA] Ajustado a dirección conocida: " + conocida.getCalle() + ", " + conocida.getCiudad());
+        }
+        
         this.latitudSeleccionada = latitud;
         this.longitudSeleccionada = longitud;
         
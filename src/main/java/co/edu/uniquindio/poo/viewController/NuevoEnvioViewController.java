@@ -1,9 +1,11 @@
 package co.edu.uniquindio.poo.viewController;
 
-import co.edu.uniquindio.poo.adapter.MapasAdapter;
+import co.edu.uniquindio.poo.adapter.ServicioDistancia;
+import co.edu.uniquindio.poo.adapter.ServicioDistanciaCache;
 import co.edu.uniquindio.poo.controller.EnvioController;
 import co.edu.uniquindio.poo.controller.PagoController;
 import co.edu.uniquindio.poo.model.*;
+import co.edu.uniquindio.poo.utils.ValidadorDatos;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -57,20 +59,42 @@ public class NuevoEnvioViewController {
     private Usuario usuarioActual;
     private EnvioController envioController;
     private PagoController pagoController;
-    private MapasAdapter mapasAdapter;
+    private ServicioDistancia mapasAdapter;
     private double distanciaCalculada = 0.0;
     private double costoCalculado = 0.0;
     
     public void initialize() {
         usuarioActual = SessionManager.getCurrentUser();
-        envioController = new EnvioController();
+        envioController = new EnvioController(SessionManager.getInstance().getCurrentUserId());
         pagoController = new PagoController();
-        mapasAdapter = new MapasAdapter();
+        mapasAdapter = ServicioDistanciaCache.compartido();
         
         configurarTiposEnvio();
+        configurarServiciosAdicionales();
         configurarValidaciones();
     }
     
+    private void configurarServiciosAdicionales() {
+        seguroCheckBox.setText(String.format("Seguro del paquete (+%.0f%% del valor declarado)",
+                envioController.obtenerRecargo(ServicioAdicional.SEGURO) * 100));
+        expresCheckBox.setText(String.format("Envío Express (+%.0f%% del costo base)",
+                envioController.obtenerRecargo(ServicioAdicional.ENTREGA_EXPRESS) * 100));
+    }
+    
+    /**
+     * @return Máscara de los servicios adicionales marcados
+     */
+    private long obtenerAdicionales() {
+        long adicionales = 0L;
+        if (seguroCheckBox.isSelected()) {
+            adicionales |= ServicioAdicional.SEGURO.bit();
+        }
+        if (expresCheckBox.isSelected()) {
+            adicionales |= ServicioAdicional.ENTREGA_EXPRESS.bit();
+        }
+        return adicionales;
+    }
+    
     private void configurarTiposEnvio() {
         tipoEnvioCombo.getItems().addAll("ESTANDAR", "EXPRESS", "FRAGIL");
         tipoEnvioCombo.setValue("ESTANDAR");
@@ -252,7 +276,7 @@ public class NuevoEnvioViewController {
         destinatarioEmailField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
             if (!isNowFocused && !destinatarioEmailField.getText().isEmpty()) {
                 String email = destinatarioEmailField.getText();
-                if (!email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+                if (!ValidadorDatos.esEmail(email)) {
                     mostrarAlerta(Alert.AlertType.WARNING, "Email Inválido", "Por favor ingrese un email válido (ej: usuario@ejemplo.com)");
                     destinatarioEmailField.clear();
                 }
@@ -330,22 +354,13 @@ public class NuevoEnvioViewController {
             double costoBase = envioController.calcularCostoEnvio(peso, volumen, distanciaCalculada, tipo);
             costoBaseLabel.setText(String.format("$%.0f", costoBase));
             
-            // Calcular servicios adicionales
-            double costosAdicionales = 0.0;
-            
-            if (seguroCheckBox.isSelected()) {
-                costosAdicionales += valorDeclarado * 0.10; // 10% del valor declarado
-            }
-            
-            if (expresCheckBox.isSelected()) {
-                costosAdicionales += costoBase * 0.50; // 50% del costo base
-            }
+            // Calcular costo total con los recargos de la tabla de tarifas
+            costoCalculado = envioController.calcularCostoEnvio(peso, volumen, distanciaCalculada, tipo,
+                    valorDeclarado, obtenerAdicionales());
+            double costosAdicionales = costoCalculado - costoBase;
             
             costosAdicionalesLabel.setText(String.format("$%.0f", costosAdicionales));
             
-            // Calcular costo total
-            costoCalculado = costoBase + costosAdicionales;
-            
             costoTotalLabel.setText(String.format("$%.0f", costoCalculado));
             
             mostrarAlerta(Alert.AlertType.INFORMATION, "Costo Calculado", 
@@ -392,7 +407,7 @@ public class NuevoEnvioViewController {
                 return;
             }
             
-            // Crear el envío en el sistema
+            // Crear el envío en el sistema con todos sus datos antes de registrarlo
             Envio envioCreado = envioController.crearEnvio(
                     usuarioActual.getIdUsuario(), 
                     origen, 
@@ -400,7 +415,15 @@ public class NuevoEnvioViewController {
                     tipo, 
                     peso, 
                     volumen, 
-                    descripcionField.getText()
+                    descripcionField.getText(),
+                    detalles -> detalles
+                            .valorDeclarado(valorDeclarado)
+                            .adicionales(obtenerAdicionales())
+                            .costo(costoCalculado)
+                            .distancia(distanciaCalculada)
+                            .nombreDestinatario(destinatarioNombreField.getText())
+                            .telefonoDestinatario(destinatarioTelefonoField.getText())
+                            .emailDestinatario(destinatarioEmailField.getText())
             );
             
             if (envioCreado == null) {
@@ -408,14 +431,6 @@ public class NuevoEnvioViewController {
                 return;
             }
             
-            // Actualizar datos adicionales
-            envioCreado.setValorDeclarado(valorDeclarado);
-            envioCreado.setCosto(costoCalculado);
-            envioCreado.setDistancia(distanciaCalculada);
-            envioCreado.setNombreDestinatario(destinatarioNombreField.getText());
-            envioCreado.setTelefonoDestinatario(destinatarioTelefonoField.getText());
-            envioCreado.setEmailDestinatario(destinatarioEmailField.getText());
-            
             // Mostrar diálogo de pago
             if (mostrarDialogoPago(envioCreado)) {
                 mostrarAlerta(Alert.AlertType.INFORMATION, "Envío Creado", 
@@ -1,5 +1,6 @@
 package co.edu.uniquindio.poo.viewController;
 
+import co.edu.uniquindio.poo.command.GestorComandos;
 import co.edu.uniquindio.poo.model.Usuario;
 import co.edu.uniquindio.poo.model.Administrador;
 
@@ -36,6 +37,10 @@ public class SessionManager {
     }
     
     public static void logout() {
+        String sesion = getInstance().getCurrentUserId();
+        if (sesion != null) {
+            GestorComandos.compartido().cerrarSesion(sesion);
+        }
         currentUser = null;
         currentAdmin = null;
         NavigationController.navigateToLogin();
@@ -33,7 +33,7 @@ public class UserDashboardViewController {
     public void initialize() {
         usuarioActual = SessionManager.getCurrentUser();
         usuarioController = new UsuarioController();
-        envioController = new EnvioController();
+        envioController = new EnvioController(SessionManager.getInstance().getCurrentUserId());
         
         if (usuarioActual != null) {
             welcomeLabel.setText("Bienvenido, " + usuarioActual.getNombreCompleto());
@@ -25,4 +25,5 @@ module co.edu.uniquindio.demop2pf {
     exports co.edu.uniquindio.poo.command;
     exports co.edu.uniquindio.poo.decorator;
     exports co.edu.uniquindio.poo.factory;
+    exports co.edu.uniquindio.poo.persistencia;
 }
\ No newline at end of file
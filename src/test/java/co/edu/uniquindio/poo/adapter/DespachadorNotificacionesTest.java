@@ -0,0 +1,125 @@
+package co.edu.uniquindio.poo.adapter;
+
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para DespachadorNotificaciones
+ * Verifica el envío por lotes con reintentos y que encolar no bloquea cuando
+ * la cola está llena
+ */
+class DespachadorNotificacionesTest {
+
+    /**
+     * Servicio de prueba que registra cada llamada y falla las primeras indicadas.
+     */
+    private static class ServicioPrueba implements ServicioNotificacion {
+        private final List<List<String>> llamadas = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger fallosRestantes;
+        private final CountDownLatch liberar;
+
+        ServicioPrueba(int fallos, CountDownLatch liberar) {
+            this.fallosRestantes = new AtomicInteger(fallos);
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void enviarNotificacion(String destinatario, String mensaje) {
+            enviarNotificaciones(List.of(destinatario), mensaje);
+        }
+
+        @Override
+        public void enviarNotificaciones(List<String> destinatarios, String mensaje) {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fallosRestantes.getAndDecrement() > 0) {
+                throw new IllegalStateException("Proveedor no disponible");
+            }
+            llamadas.add(List.copyOf(destinatarios));
+        }
+
+        @Override
+        public String getTipo() {
+            return "EMAIL";
+        }
+    }
+
+    @Test
+    @DisplayName("Debe agrupar destinatarios por llamada y reintentar las llamadas fallidas")
+    void testLotesYReintentos() {
+        ServicioPrueba servicio = new ServicioPrueba(2, new CountDownLatch(0));
+        DespachadorNotificaciones despachador = new DespachadorNotificaciones(List.of(servicio), 1000, 2, 20, 4,
+                Duration.ofMillis(5));
+        try {
+            List<String> correos = new ArrayList<>();
+            for (int i = 0; i < 95; i++) {
+                correos.add("usuario" + i + "@test.com");
+            }
+            assertEquals(95, despachador.encolarTodos(DespachadorNotificaciones.EMAIL, correos, "Aviso",
+                    Duration.ZERO));
+            for (int i = 0; i < 30; i++) {
+                assertTrue(despachador.encolar(DespachadorNotificaciones.EMAIL, "individual" + i + "@test.com",
+                        "Estado cambiado"));
+            }
+            assertTrue(despachador.esperarEntregas(Duration.ofSeconds(10)));
+
+            HashSet<String> recibidos = new HashSet<>();
+            servicio.llamadas.forEach(llamada -> {
+                assertTrue(llamada.size() <= 20);
+                recibidos.addAll(llamada);
+            });
+            assertEquals(125, recibidos.size());
+            EstadisticasNotificaciones estadisticas = despachador.estadisticas(DespachadorNotificaciones.EMAIL);
+            assertEquals(125, estadisticas.getEnviadas());
+            assertEquals(0, estadisticas.getFallidas());
+            assertTrue(estadisticas.getReintentos() > 0);
+            assertEquals(0, estadisticas.getProfundidadCola());
+            assertTrue(estadisticas.getDestinatariosPorLlamada() > 1, estadisticas.toString());
+        } finally {
+            despachador.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar sin bloquear cuando la cola está llena y descartar tras agotar los intentos")
+    void testContrapresionYDescarte() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        ServicioPrueba servicio = new ServicioPrueba(Integer.MAX_VALUE, liberar);
+        DespachadorNotificaciones despachador = new DespachadorNotificaciones(List.of(servicio), 4, 1, 1, 2,
+                Duration.ZERO);
+        try {
+            int aceptadas = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < 50; i++) {
+                if (despachador.encolar(DespachadorNotificaciones.EMAIL, "u" + i + "@test.com", "Mensaje " + i)) {
+                    aceptadas++;
+                }
+            }
+            assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1));
+            // La cola admite 4 y el hilo del canal retiene a lo sumo una más
+            assertTrue(aceptadas <= 5, "Aceptadas: " + aceptadas);
+            assertEquals(50 - aceptadas, despachador.estadisticas(DespachadorNotificaciones.EMAIL).getRechazadas());
+
+            liberar.countDown();
+            assertTrue(despachador.esperarEntregas(Duration.ofSeconds(10)));
+            EstadisticasNotificaciones estadisticas = despachador.estadisticas(DespachadorNotificaciones.EMAIL);
+            assertEquals(aceptadas, estadisticas.getFallidas());
+            assertEquals(0, estadisticas.getEnviadas());
+            assertThrows(IllegalArgumentException.class,
+                    () -> despachador.encolar(DespachadorNotificaciones.SMS, "3001234567", "Sin canal"));
+        } finally {
+            despachador.cerrar();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package co.edu.uniquindio.poo.adapter;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.utils.Geohash;
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para ServicioDistanciaCache
+ * Verifica la memorización por celdas geohash, la expulsión LRU, la vigencia,
+ * las estadísticas y la deduplicación de los cálculos por lote
+ */
+class ServicioDistanciaCacheTest {
+
+    /** Servicio de distancia que cuenta las llamadas que recibe */
+    private static class ServicioContador implements ServicioDistancia {
+        private final MapasAdapter mapas = new MapasAdapter();
+        private int llamadas;
+        private final List<Integer> tamanosLote = new ArrayList<>();
+
+        @Override
+        public double calcularDistancia(Direccion origen, Direccion destino) {
+            llamadas++;
+            return mapas.calcularDistancia(origen, destino);
+        }
+
+        @Override
+        public int calcularTiempoEstimado(Direccion origen, Direccion destino) {
+            llamadas++;
+            return mapas.calcularTiempoEstimado(origen, destino);
+        }
+
+        @Override
+        public double[] calcularDistancias(List<ParDirecciones> pares) {
+            tamanosLote.add(pares.size());
+            return ServicioDistancia.super.calcularDistancias(pares);
+        }
+    }
+
+    private final Direccion oficina = direccion("OF", 4.536389, -75.681111);
+    private final Direccion oficinaVecina = direccion("OF2", 4.536390, -75.681112);
+    private final Direccion barrio = direccion("BA", 4.540000, -75.675000);
+    private final Direccion otroBarrio = direccion("BB", 4.518000, -75.643000);
+
+    private static Direccion direccion(String id, double latitud, double longitud) {
+        return new Direccion.Builder(id).conCiudad("Armenia").conCoordenadas(latitud, longitud).build();
+    }
+
+    @Test
+    @DisplayName("Debe codificar geohash como el algoritmo de referencia")
+    void testGeohash() {
+        assertEquals("u4pruydqqvj", Geohash.aTexto(Geohash.codificar(57.64911, 10.40744, 11), 11));
+        assertEquals(Geohash.codificar(4.536389, -75.681111, 8), Geohash.codificar(4.536390, -75.681112, 8));
+        assertThrows(IllegalArgumentException.class, () -> Geohash.codificar(0, 0, 13));
+    }
+
+    @Test
+    @DisplayName("Debe memorizar por celdas, expulsar la entrada menos usada y respetar la vigencia")
+    void testMemorizacionExpulsionYVigencia() {
+        ServicioContador contador = new ServicioContador();
+        AtomicLong reloj = new AtomicLong();
+        ServicioDistanciaCache cache = new ServicioDistanciaCache(contador, 2, Duration.ofMinutes(10), 8,
+                reloj::get);
+
+        double distancia = cache.calcularDistancia(oficina, barrio);
+        assertEquals(distancia, cache.calcularDistancia(oficinaVecina, barrio));
+        assertEquals(cache.calcularTiempoEstimado(oficina, barrio), cache.calcularTiempoEstimado(oficina, barrio));
+        assertEquals(2, contador.llamadas);
+
+        // Capacidad 2: la entrada oficina→barrio es la más usada y sobrevive
+        cache.calcularDistancia(oficina, otroBarrio);
+        cache.calcularDistancia(oficina, barrio);
+        cache.calcularDistancia(barrio, otroBarrio);
+        cache.calcularDistancia(oficina, barrio);
+        assertEquals(4, contador.llamadas);
+        cache.calcularDistancia(oficina, otroBarrio);
+        assertEquals(5, contador.llamadas);
+
+        // Vencida la vigencia se vuelve a consultar el servicio
+        reloj.addAndGet(Duration.ofMinutes(11).toNanos());
+        cache.calcularDistancia(oficina, otroBarrio);
+        assertEquals(6, contador.llamadas);
+
+        EstadisticasCache estadisticas = cache.getEstadisticas();
+        assertEquals(4, estadisticas.getAciertos());
+        assertEquals(6, estadisticas.getFallos());
+        assertEquals(2, estadisticas.getExpulsiones());
+        assertEquals(1, estadisticas.getExpiraciones());
+        assertEquals(0.4, estadisticas.getTasaAciertos(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Debe deduplicar los pares del lote y llamar una vez al servicio")
+    void testCalcularDistanciasPorLote() {
+        ServicioContador contador = new ServicioContador();
+        ServicioDistanciaCache cache = new ServicioDistanciaCache(contador);
+        double conocida = cache.calcularDistancia(oficina, barrio);
+
+        List<ParDirecciones> pares = List.of(
+                new ParDirecciones(oficina, barrio),
+                new ParDirecciones(oficina, otroBarrio),
+                new ParDirecciones(oficinaVecina, otroBarrio),
+                new ParDirecciones(barrio, otroBarrio),
+                new ParDirecciones(oficina, otroBarrio));
+        double[] distancias = cache.calcularDistancias(pares);
+
+        assertEquals(List.of(2), contador.tamanosLote);
+        assertEquals(conocida, distancias[0]);
+        assertEquals(distancias[1], distancias[2]);
+        assertEquals(distancias[1], distancias[4]);
+        assertEquals(new MapasAdapter().calcularDistancia(barrio, otroBarrio), distancias[3]);
+        assertEquals(distancias[3], cache.calcularDistancia(barrio, otroBarrio));
+        assertEquals(3, contador.llamadas);
+    }
+}
@@ -0,0 +1,61 @@
+package co.edu.uniquindio.poo.adapter;
+
+import org.junit.jupiter.api.*;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para ServicioMapasExterno
+ * Verifica que el cálculo de distancias por lote coincide con el cálculo por par
+ */
+class ServicioMapasExternoTest {
+
+    @Test
+    @DisplayName("Debe calcular por lote las mismas distancias que calcularDistanciaKm")
+    void testCalcularDistanciasPorLote() {
+        Random aleatorio = new Random(7);
+        double[] latitudes = new double[1000];
+        double[] longitudes = new double[1000];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = -80 + aleatorio.nextDouble() * 160;
+            longitudes[i] = -180 + aleatorio.nextDouble() * 360;
+        }
+        latitudes[0] = 4.536389;
+        longitudes[0] = -75.681111;
+        latitudes[1] = 4.536390;
+        longitudes[1] = -75.681112;
+        LoteCoordenadas lote = LoteCoordenadas.de(latitudes, longitudes);
+
+        ServicioMapasExterno servicio = new ServicioMapasExterno();
+        double[] distancias = new double[lote.getTamano()];
+        servicio.calcularDistanciasKm(4.536389, -75.681111, lote, distancias);
+        for (int i = 0; i < distancias.length; i++) {
+            double esperada = servicio.calcularDistanciaKm(4.536389, -75.681111, latitudes[i], longitudes[i]);
+            assertEquals(esperada, distancias[i], 1e-9 + esperada * 1e-12, "punto " + i);
+        }
+        assertEquals(0, distancias[0]);
+
+        // El camino genérico de ServicioDistancia da el mismo resultado que el de MapasAdapter
+        double[] generico = new double[lote.getTamano()];
+        ServicioDistancia porPares = new ServicioDistancia() {
+            private final MapasAdapter mapas = new MapasAdapter();
+
+            @Override
+            public double calcularDistancia(co.edu.uniquindio.poo.model.Direccion origen,
+                                            co.edu.uniquindio.poo.model.Direccion destino) {
+                return mapas.calcularDistancia(origen, destino);
+            }
+
+            @Override
+            public int calcularTiempoEstimado(co.edu.uniquindio.poo.model.Direccion origen,
+                                              co.edu.uniquindio.poo.model.Direccion destino) {
+                return mapas.calcularTiempoEstimado(origen, destino);
+            }
+        };
+        porPares.calcularDistancias(4.536389, -75.681111, lote, generico);
+        for (int i = 0; i < distancias.length; i++) {
+            assertEquals(generico[i], distancias[i], 1e-9 + generico[i] * 1e-12);
+        }
+        assertThrows(IllegalArgumentException.class, () -> LoteCoordenadas.de(new double[2], new double[1]));
+    }
+}
@@ -0,0 +1,94 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.AlmacenEntidades;
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la búsqueda por id con recorrido lineal sobre ArrayList (implementación
+ * anterior de SistemaGestion) contra el AlmacenEntidades indexado por hash.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AlmacenEntidadesBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int cantidad;
+
+    private List<Envio> lista;
+    private AlmacenEntidades<Envio> almacen;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Usuario usuario = Usuario.builder().idUsuario("USR-BENCH").nombreCompleto("Bench").build();
+        Direccion origen = new Direccion.Builder("DIR-O").conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        Direccion destino = new Direccion.Builder("DIR-D").conCiudad("Armenia").conCoordenadas(4.54, -75.67).build();
+        LocalDateTime fecha = LocalDateTime.now();
+
+        lista = new ArrayList<>(cantidad);
+        almacen = new AlmacenEntidades<>(Envio::getIdEnvio);
+        for (int i = 0; i < cantidad; i++) {
+            Envio envio = Envio.builder()
+                    .idEnvio("ENV" + i)
+                    .origen(origen)
+                    .destino(destino)
+                    .usuario(usuario)
+                    .fechaEntregaEstimada(fecha)
+                    .build();
+            lista.add(envio);
+            almacen.guardar(envio);
+        }
+    }
+
+    private String idAleatorio() {
+        return "ENV" + ThreadLocalRandom.current().nextInt(cantidad);
+    }
+
+    @Benchmark
+    public Envio busquedaLineal() {
+        String id = idAleatorio();
+        return lista.stream()
+                .filter(e -> e.getIdEnvio().equals(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public Envio busquedaIndexada() {
+        return almacen.buscar(idAleatorio());
+    }
+
+    @Benchmark
+    public Envio actualizacionLineal() {
+        String id = idAleatorio();
+        for (int i = 0; i < lista.size(); i++) {
+            Envio envio = lista.get(i);
+            if (envio.getIdEnvio().equals(id)) {
+                lista.set(i, envio);
+                return envio;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Envio actualizacionIndexada() {
+        Envio envio = almacen.buscar(idAleatorio());
+        almacen.guardar(envio);
+        return envio;
+    }
+}
@@ -0,0 +1,157 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Repartidor;
+import co.edu.uniquindio.poo.model.Usuario;
+import co.edu.uniquindio.poo.persistencia.BitacoraEscritura;
+import co.edu.uniquindio.poo.persistencia.CodificadorEntidades;
+import co.edu.uniquindio.poo.persistencia.EscritorBinario;
+import co.edu.uniquindio.poo.persistencia.ResolutorReferencias;
+import co.edu.uniquindio.poo.persistencia.TipoRegistro;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Mide la bitácora de escritura anticipada:
+ * - escritura: operaciones por segundo esperando durabilidad (un fsync por lote
+ *   compartido entre los hilos concurrentes);
+ * - recuperación: tiempo de reproducir y decodificar un millón de registros de envío.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+public class BitacoraEscrituraBenchmark {
+
+    private static final int REGISTROS_RECUPERACION = 1_000_000;
+
+    private static byte[] codificarEnvio(int i) {
+        Usuario usuario = Usuario.builder().idUsuario("USR-BENCH").nombreCompleto("Bench").build();
+        Direccion origen = new Direccion.Builder("DIR-O").conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        Direccion destino = new Direccion.Builder("DIR-D").conCiudad("Calarcá").conCoordenadas(4.52, -75.64).build();
+        Envio envio = Envio.builder()
+                .idEnvio("ENV" + i)
+                .origen(origen)
+                .destino(destino)
+                .usuario(usuario)
+                .peso(2.5)
+                .costo(15000)
+                .fechaEntregaEstimada(LocalDateTime.now())
+                .build();
+        EscritorBinario salida = new EscritorBinario();
+        CodificadorEntidades.escribirEnvio(salida, envio);
+        return salida.aBytes();
+    }
+
+    private static void borrarDirectorio(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * Escritura concurrente con confirmación agrupada.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public static class Escritura {
+        private Path directorio;
+        private BitacoraEscritura bitacora;
+        private byte[] contenido;
+
+        @Setup(Level.Trial)
+        public void abrir() throws IOException {
+            directorio = Files.createTempDirectory("bitacora-bench");
+            bitacora = BitacoraEscritura.abrir(directorio, r -> { });
+            contenido = codificarEnvio(0);
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() throws IOException {
+            long lotes = Math.max(1, bitacora.getLotesEscritos());
+            System.out.printf("%n  registros por fsync: %.1f%n", bitacora.getRegistrosEscritos() / (double) lotes);
+            bitacora.close();
+            borrarDirectorio(directorio);
+        }
+
+        @Benchmark
+        @Threads(1)
+        public long escrituraUnHilo() {
+            return bitacora.escribir(TipoRegistro.ENVIO, contenido);
+        }
+
+        @Benchmark
+        @Threads(16)
+        public long escrituraDieciseisHilos() {
+            return bitacora.escribir(TipoRegistro.ENVIO, contenido);
+        }
+    }
+
+    /**
+     * Reproducción completa de una bitácora con un millón de envíos.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+    public static class Recuperacion {
+        private Path directorio;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            directorio = Files.createTempDirectory("bitacora-bench");
+            try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, r -> { })) {
+                for (int i = 0; i < REGISTROS_RECUPERACION; i++) {
+                    bitacora.agregar(TipoRegistro.ENVIO, codificarEnvio(i));
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void limpiar() throws IOException {
+            borrarDirectorio(directorio);
+        }
+
+        @Benchmark
+        public int recuperarMillon() throws IOException {
+            Map<String, Envio> envios = new HashMap<>(REGISTROS_RECUPERACION * 2);
+            Usuario usuario = Usuario.builder().idUsuario("USR-BENCH").nombreCompleto("Bench").build();
+            ResolutorReferencias referencias = new ResolutorReferencias() {
+                @Override
+                public Usuario buscarUsuario(String idUsuario) {
+                    return usuario;
+                }
+
+                @Override
+                public Repartidor buscarRepartidor(String idRepartidor) {
+                    return null;
+                }
+
+                @Override
+                public Envio buscarEnvio(String idEnvio) {
+                    return envios.get(idEnvio);
+                }
+            };
+            try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, registro -> {
+                Envio envio = CodificadorEntidades.leerEnvio(registro.lector(), referencias);
+                envios.put(envio.getIdEnvio(), envio);
+            })) {
+                return envios.size();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Usuario;
+import co.edu.uniquindio.poo.observer.BusEventos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide los eventos por segundo que acepta el BusEventos según cuántas claves
+ * distintas reciben las publicaciones (menos claves, más fusión) y la memoria
+ * que ocupa crear un envío ahora que no guarda su propia lista de observadores.
+ * La memoria por envío se lee en gc.alloc.rate.norm ejecutando con -prof gc.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusEventosBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int claves;
+
+    private BusEventos bus;
+    private String[] ids;
+    private Usuario usuario;
+    private Direccion origen;
+    private Direccion destino;
+    private LocalDateTime fecha;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        bus = new BusEventos();
+        bus.suscribir(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, (mensaje, datos) -> Blackhole.consumeCPU(10));
+        ids = new String[claves];
+        for (int i = 0; i < claves; i++) {
+            ids[i] = "ENV" + i;
+        }
+        usuario = Usuario.builder().idUsuario("USR-BENCH").nombreCompleto("Bench").build();
+        origen = new Direccion.Builder("DIR-O").conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        destino = new Direccion.Builder("DIR-D").conCiudad("Armenia").conCoordenadas(4.54, -75.67).build();
+        fecha = LocalDateTime.now();
+    }
+
+    @TearDown(Level.Iteration)
+    public void drenar() {
+        bus.esperarEntregas(Duration.ofSeconds(30));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        bus.cerrar();
+    }
+
+    @Benchmark
+    public void publicarCambioEstado() {
+        String id = ids[ThreadLocalRandom.current().nextInt(claves)];
+        bus.publicar(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, id, "Estado del envío cambiado a: EN_RUTA", id);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Envio crearEnvio() {
+        return Envio.builder()
+                .idEnvio("ENV-NUEVO")
+                .origen(origen)
+                .destino(destino)
+                .usuario(usuario)
+                .fechaEntregaEstimada(fecha)
+                .build();
+    }
+}
@@ -0,0 +1,438 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.*;
+import co.edu.uniquindio.poo.persistencia.CodificadorEntidades;
+import co.edu.uniquindio.poo.persistencia.EscritorBinario;
+import co.edu.uniquindio.poo.persistencia.LectorBinario;
+import co.edu.uniquindio.poo.persistencia.ResolutorReferencias;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el codificador binario compacto con la serialización de Java y con
+ * JSON al codificar y decodificar un lote de 1000 envíos (tamaño y velocidad).
+ *
+ * Envio no es Serializable, así que la serialización de Java trabaja sobre
+ * records con los mismos campos y las mismas referencias compartidas. El proyecto no incluye una biblioteca JSON;
+ * la referencia JSON es un codificador y un analizador mínimos escritos aquí.
+ * Los tamaños por envío se imprimen al preparar el estado.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodificadorEntidadesBenchmark {
+
+    private static final int ENVIOS = 1000;
+    private static final String[] CIUDADES = {"Armenia", "Calarcá", "Circasia", "Montenegro", "La Tebaida"};
+
+    private List<Envio> envios;
+    private Map<String, Usuario> usuarios;
+    private Map<String, Repartidor> repartidores;
+    private ResolutorReferencias referencias;
+
+    private EscritorBinario escritor;
+    private byte[] binario;
+    private byte[] serializado;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        Random aleatorio = new Random(20241017L);
+        usuarios = new HashMap<>();
+        repartidores = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            Usuario usuario = Usuario.builder().idUsuario("USR" + i).nombreCompleto("Usuario " + i).build();
+            usuarios.put(usuario.getIdUsuario(), usuario);
+        }
+        for (int i = 0; i < 20; i++) {
+            Repartidor repartidor = Repartidor.builder().idRepartidor("REP" + i).nombre("Repartidor " + i)
+                    .documento("1" + i).telefono("3000000000").zonaCobertura("Armenia").build();
+            repartidores.put(repartidor.getIdRepartidor(), repartidor);
+        }
+        List<Direccion> direcciones = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            direcciones.add(new Direccion.Builder("DIR" + i)
+                    .conAlias(i % 2 == 0 ? "Casa" : "Oficina")
+                    .conCalle("Calle " + i + " #" + (i % 30) + "-" + (i % 50))
+                    .conCiudad(CIUDADES[i % CIUDADES.length])
+                    .conCoordenadas(4.5 + aleatorio.nextDouble() / 10, -75.7 + aleatorio.nextDouble() / 10)
+                    .build());
+        }
+        LocalDateTime base = LocalDateTime.of(2024, 10, 17, 8, 0);
+        envios = new ArrayList<>(ENVIOS);
+        for (int i = 0; i < ENVIOS; i++) {
+            envios.add(Envio.builder()
+                    .idEnvio(UUID.nameUUIDFromBytes(new byte[] {(byte) i, (byte) (i >> 8)}).toString())
+                    .origen(direcciones.get(aleatorio.nextInt(direcciones.size())))
+                    .destino(direcciones.get(aleatorio.nextInt(direcciones.size())))
+                    .usuario(usuarios.get("USR" + aleatorio.nextInt(50)))
+                    .repartidor(i % 2 == 0 ? repartidores.get("REP" + aleatorio.nextInt(20)) : null)
+                    .peso(1 + aleatorio.nextInt(20))
+                    .largo(30).ancho(20).alto(10)
+                    .descripcion("Paquete " + i)
+                    .valorDeclarado(10_000 * (1 + aleatorio.nextInt(10)))
+                    .distancia(Math.round(aleatorio.nextDouble() * 1500) / 100.0)
+                    .nombreDestinatario("Destinatario " + i)
+                    .telefonoDestinatario("310" + (1_000_000 + i))
+                    .tipoEnvio(Envio.TipoEnvio.values()[i % 3])
+                    .estado(Envio.EstadoEnvio.values()[i % 4])
+                    .costo(5000 + 250 * aleatorio.nextInt(60))
+                    .fechaCreacion(base.plusMinutes(i))
+                    .fechaEntregaEstimada(base.plusDays(2).plusMinutes(i))
+                    .build());
+        }
+        referencias = new ResolutorReferencias() {
+            @Override
+            public Usuario buscarUsuario(String idUsuario) {
+                return usuarios.get(idUsuario);
+            }
+
+            @Override
+            public Repartidor buscarRepartidor(String idRepartidor) {
+                return repartidores.get(idRepartidor);
+            }
+
+            @Override
+            public Envio buscarEnvio(String idEnvio) {
+                return null;
+            }
+        };
+
+        escritor = new EscritorBinario(1 << 16);
+        binarioCodificar();
+        binario = escritor.aBytes();
+        serializado = serializacionJavaCodificar();
+        json = jsonCodificar();
+        System.out.printf("%n  bytes por envío: binario %.1f, serialización Java %.1f, JSON %.1f%n",
+                binario.length / (double) ENVIOS, serializado.length / (double) ENVIOS,
+                json.getBytes(java.nio.charset.StandardCharsets.UTF_8).length / (double) ENVIOS);
+    }
+
+    // ===== BINARIO COMPACTO =====
+
+    @Benchmark
+    public int binarioCodificar() {
+        escritor.reiniciar();
+        CodificadorEntidades.escribirCabecera(escritor);
+        escritor.escribirVarint(envios.size());
+        for (Envio envio : envios) {
+            CodificadorEntidades.escribirEnvio(escritor, envio);
+        }
+        return escritor.tamano();
+    }
+
+    @Benchmark
+    public List<Envio> binarioDecodificar() {
+        LectorBinario entrada = new LectorBinario(binario);
+        CodificadorEntidades.leerCabecera(entrada);
+        int cantidad = entrada.leerVarint();
+        List<Envio> leidos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            leidos.add(CodificadorEntidades.leerEnvio(entrada, referencias));
+        }
+        return leidos;
+    }
+
+    // ===== SERIALIZACIÓN DE JAVA =====
+
+    record DireccionSerializable(String id, String alias, String calle, String ciudad,
+                                 double latitud, double longitud) implements Serializable {
+    }
+
+    record EnvioSerializable(String idEnvio, DireccionSerializable origen, DireccionSerializable destino,
+                             double peso, double largo, double ancho, double alto, double volumen,
+                             String descripcion, double valorDeclarado, double distancia,
+                             String nombreDestinatario, String telefonoDestinatario, String emailDestinatario,
+                             int tipo, int estado, String idUsuario, String idRepartidor, double costo,
+                             LocalDateTime fechaCreacion, LocalDateTime fechaEntregaEstimada) implements Serializable {
+    }
+
+    @Benchmark
+    public byte[] serializacionJavaCodificar() throws IOException {
+        Map<Direccion, DireccionSerializable> direcciones = new IdentityHashMap<>();
+        ArrayList<EnvioSerializable> registros = new ArrayList<>(envios.size());
+        for (Envio e : envios) {
+            registros.add(new EnvioSerializable(e.getIdEnvio(),
+                    direcciones.computeIfAbsent(e.getOrigen(), CodificadorEntidadesBenchmark::aSerializable),
+                    direcciones.computeIfAbsent(e.getDestino(), CodificadorEntidadesBenchmark::aSerializable),
+                    e.getPeso(), e.getLargo(), e.getAncho(), e.getAlto(), e.getVolumen(),
+                    e.getDescripcion(), e.getValorDeclarado(), e.getDistancia(),
+                    e.getNombreDestinatario(), e.getTelefonoDestinatario(), e.getEmailDestinatario(),
+                    e.getTipoEnvio().ordinal(), e.getEstado().ordinal(), e.getUsuario().getIdUsuario(),
+                    e.getRepartidor() != null ? e.getRepartidor().getIdRepartidor() : null, e.getCosto(),
+                    e.getFechaCreacion(), e.getFechaEntregaEstimada()));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        try (ObjectOutputStream salida = new ObjectOutputStream(bytes)) {
+            salida.writeObject(registros);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Envio> serializacionJavaDecodificar() throws IOException, ClassNotFoundException {
+        List<EnvioSerializable> registros;
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(serializado))) {
+            registros = (List<EnvioSerializable>) entrada.readObject();
+        }
+        Map<DireccionSerializable, Direccion> direcciones = new IdentityHashMap<>();
+        List<Envio> leidos = new ArrayList<>(registros.size());
+        for (EnvioSerializable r : registros) {
+            leidos.add(Envio.builder()
+                    .idEnvio(r.idEnvio())
+                    .origen(direcciones.computeIfAbsent(r.origen(), CodificadorEntidadesBenchmark::desdeSerializable))
+                    .destino(direcciones.computeIfAbsent(r.destino(), CodificadorEntidadesBenchmark::desdeSerializable))
+                    .peso(r.peso()).largo(r.largo()).ancho(r.ancho()).alto(r.alto()).volumen(r.volumen())
+                    .descripcion(r.descripcion()).valorDeclarado(r.valorDeclarado()).distancia(r.distancia())
+                    .nombreDestinatario(r.nombreDestinatario()).telefonoDestinatario(r.telefonoDestinatario())
+                    .emailDestinatario(r.emailDestinatario())
+                    .tipoEnvio(Envio.TipoEnvio.values()[r.tipo()])
+                    .estado(Envio.EstadoEnvio.values()[r.estado()])
+                    .usuario(usuarios.get(r.idUsuario()))
+                    .repartidor(r.idRepartidor() != null ? repartidores.get(r.idRepartidor()) : null)
+                    .costo(r.costo())
+                    .fechaCreacion(r.fechaCreacion())
+                    .fechaEntregaEstimada(r.fechaEntregaEstimada())
+                    .build());
+        }
+        return leidos;
+    }
+
+    private static DireccionSerializable aSerializable(Direccion d) {
+        return new DireccionSerializable(d.getIdDireccion(), d.getAlias(), d.getCalle(), d.getCiudad(),
+                d.getLatitud(), d.getLongitud());
+    }
+
+    private static Direccion desdeSerializable(DireccionSerializable d) {
+        return new Direccion.Builder(d.id()).conAlias(d.alias()).conCalle(d.calle()).conCiudad(d.ciudad())
+                .conCoordenadas(d.latitud(), d.longitud()).build();
+    }
+
+    // ===== JSON =====
+
+    @Benchmark
+    public String jsonCodificar() {
+        StringBuilder salida = new StringBuilder(envios.size() * 700);
+        salida.append('[');
+        for (int i = 0; i < envios.size(); i++) {
+            Envio e = envios.get(i);
+            if (i > 0) {
+                salida.append(',');
+            }
+            salida.append('{');
+            campo(salida, "idEnvio", e.getIdEnvio()).append(',');
+            salida.append("\"origen\":");
+            direccionJson(salida, e.getOrigen()).append(',');
+            salida.append("\"destino\":");
+            direccionJson(salida, e.getDestino()).append(',');
+            campo(salida, "peso", e.getPeso()).append(',');
+            campo(salida, "largo", e.getLargo()).append(',');
+            campo(salida, "ancho", e.getAncho()).append(',');
+            campo(salida, "alto", e.getAlto()).append(',');
+            campo(salida, "volumen", e.getVolumen()).append(',');
+            campo(salida, "descripcion", e.getDescripcion()).append(',');
+            campo(salida, "valorDeclarado", e.getValorDeclarado()).append(',');
+            campo(salida, "distancia", e.getDistancia()).append(',');
+            campo(salida, "nombreDestinatario", e.getNombreDestinatario()).append(',');
+            campo(salida, "telefonoDestinatario", e.getTelefonoDestinatario()).append(',');
+            campo(salida, "emailDestinatario", e.getEmailDestinatario()).append(',');
+            campo(salida, "tipoEnvio", e.getTipoEnvio().name()).append(',');
+            campo(salida, "estado", e.getEstado().name()).append(',');
+            campo(salida, "idUsuario", e.getUsuario().getIdUsuario()).append(',');
+            campo(salida, "idRepartidor", e.getRepartidor() != null ? e.getRepartidor().getIdRepartidor() : null)
+                    .append(',');
+            campo(salida, "costo", e.getCosto()).append(',');
+            campo(salida, "fechaCreacion", e.getFechaCreacion().toString()).append(',');
+            campo(salida, "fechaEntregaEstimada", e.getFechaEntregaEstimada().toString());
+            salida.append('}');
+        }
+        return salida.append(']').toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Envio> jsonDecodificar() {
+        List<Object> registros = (List<Object>) new AnalizadorJson(json).valor();
+        List<Envio> leidos = new ArrayList<>(registros.size());
+        for (Object registro : registros) {
+            Map<String, Object> r = (Map<String, Object>) registro;
+            String idRepartidor = (String) r.get("idRepartidor");
+            leidos.add(Envio.builder()
+                    .idEnvio((String) r.get("idEnvio"))
+                    .origen(direccionDesdeJson((Map<String, Object>) r.get("origen")))
+                    .destino(direccionDesdeJson((Map<String, Object>) r.get("destino")))
+                    .peso((Double) r.get("peso")).largo((Double) r.get("largo"))
+                    .ancho((Double) r.get("ancho")).alto((Double) r.get("alto"))
+                    .volumen((Double) r.get("volumen"))
+                    .descripcion((String) r.get("descripcion"))
+                    .valorDeclarado((Double) r.get("valorDeclarado"))
+                    .distancia((Double) r.get("distancia"))
+                    .nombreDestinatario((String) r.get("nombreDestinatario"))
+                    .telefonoDestinatario((String) r.get("telefonoDestinatario"))
+                    .emailDestinatario((String) r.get("emailDestinatario"))
+                    .tipoEnvio(Envio.TipoEnvio.valueOf((String) r.get("tipoEnvio")))
+                    .estado(Envio.EstadoEnvio.valueOf((String) r.get("estado")))
+                    .usuario(usuarios.get((String) r.get("idUsuario")))
+                    .repartidor(idRepartidor != null ? repartidores.get(idRepartidor) : null)
+                    .costo((Double) r.get("costo"))
+                    .fechaCreacion(LocalDateTime.parse((String) r.get("fechaCreacion")))
+                    .fechaEntregaEstimada(LocalDateTime.parse((String) r.get("fechaEntregaEstimada")))
+                    .build());
+        }
+        return leidos;
+    }
+
+    private static StringBuilder direccionJson(StringBuilder salida, Direccion d) {
+        salida.append('{');
+        campo(salida, "idDireccion", d.getIdDireccion()).append(',');
+        campo(salida, "alias", d.getAlias()).append(',');
+        campo(salida, "calle", d.getCalle()).append(',');
+        campo(salida, "ciudad", d.getCiudad()).append(',');
+        campo(salida, "latitud", d.getLatitud()).append(',');
+        campo(salida, "longitud", d.getLongitud());
+        return salida.append('}');
+    }
+
+    private static Direccion direccionDesdeJson(Map<String, Object> d) {
+        return new Direccion.Builder((String) d.get("idDireccion"))
+                .conAlias((String) d.get("alias"))
+                .conCalle((String) d.get("calle"))
+                .conCiudad((String) d.get("ciudad"))
+                .conCoordenadas((Double) d.get("latitud"), (Double) d.get("longitud"))
+                .build();
+    }
+
+    private static StringBuilder campo(StringBuilder salida, String nombre, double valor) {
+        return salida.append('"').append(nombre).append("\":").append(valor);
+    }
+
+    private static StringBuilder campo(StringBuilder salida, String nombre, String valor) {
+        salida.append('"').append(nombre).append("\":");
+        if (valor == null) {
+            return salida.append("null");
+        }
+        salida.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                salida.append('\\').append(c);
+            } else if (c < 0x20) {
+                salida.append(String.format("\\u%04x", (int) c));
+            } else {
+                salida.append(c);
+            }
+        }
+        return salida.append('"');
+    }
+
+    /**
+     * Analizador JSON mínimo (objetos, arreglos, textos, números y null) para la comparación.
+     */
+    private static final class AnalizadorJson {
+        private final String texto;
+        private int posicion;
+
+        AnalizadorJson(String texto) {
+            this.texto = texto;
+        }
+
+        Object valor() {
+            char c = texto.charAt(posicion);
+            switch (c) {
+                case '{':
+                    return objeto();
+                case '[':
+                    return arreglo();
+                case '"':
+                    return cadena();
+                case 'n':
+                    posicion += 4;
+                    return null;
+                default:
+                    return numero();
+            }
+        }
+
+        private Map<String, Object> objeto() {
+            Map<String, Object> objeto = new HashMap<>();
+            posicion++;
+            if (texto.charAt(posicion) == '}') {
+                posicion++;
+                return objeto;
+            }
+            while (true) {
+                String clave = cadena();
+                posicion++; // ':'
+                objeto.put(clave, valor());
+                if (texto.charAt(posicion++) == '}') {
+                    return objeto;
+                }
+            }
+        }
+
+        private List<Object> arreglo() {
+            List<Object> arreglo = new ArrayList<>();
+            posicion++;
+            if (texto.charAt(posicion) == ']') {
+                posicion++;
+                return arreglo;
+            }
+            while (true) {
+                arreglo.add(valor());
+                if (texto.charAt(posicion++) == ']') {
+                    return arreglo;
+                }
+            }
+        }
+
+        private String cadena() {
+            posicion++;
+            StringBuilder valor = null;
+            int inicio = posicion;
+            while (true) {
+                char c = texto.charAt(posicion);
+                if (c == '"') {
+                    String resultado = valor == null ? texto.substring(inicio, posicion)
+                            : valor.append(texto, inicio, posicion).toString();
+                    posicion++;
+                    return resultado;
+                }
+                if (c == '\\') {
+                    if (valor == null) {
+                        valor = new StringBuilder();
+                    }
+                    valor.append(texto, inicio, posicion);
+                    char escapado = texto.charAt(posicion + 1);
+                    if (escapado == 'u') {
+                        valor.append((char) Integer.parseInt(texto.substring(posicion + 2, posicion + 6), 16));
+                        posicion += 6;
+                    } else {
+                        valor.append(escapado);
+                        posicion += 2;
+                    }
+                    inicio = posicion;
+                } else {
+                    posicion++;
+                }
+            }
+        }
+
+        private Double numero() {
+            int inicio = posicion;
+            while (posicion < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(posicion)) >= 0) {
+                posicion++;
+            }
+            return Double.parseDouble(texto.substring(inicio, posicion));
+        }
+    }
+}
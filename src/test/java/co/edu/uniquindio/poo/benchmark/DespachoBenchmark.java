@@ -0,0 +1,117 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide una ventana de despacho automático con 10 mil envíos SOLICITADO y mil
+ * repartidores activos repartidos en tres zonas:
+ * - planificar: solo el cálculo de la asignación (cola de prioridad voraz);
+ * - despachar: planificación más la aplicación del plan en SistemaGestion.
+ *
+ * Cada repartidor tiene un envío EN_RUTA que fija su posición. Antes de cada
+ * iteración de despachar los envíos vuelven a SOLICITADO y las cargas a 1.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DespachoBenchmark {
+
+    private static final int ENVIOS = 10_000;
+    private static final int REPARTIDORES = 1_000;
+    private static final String[] ZONAS = {"Armenia Norte", "Armenia Sur", "Calarcá"};
+    private static final String[] CIUDADES = {"Armenia", "Armenia", "Calarcá"};
+
+    private SistemaGestion sistema;
+    private MotorDespacho motor;
+    private List<Envio> pendientes;
+    private List<Envio> enRuta;
+    private List<Repartidor> repartidores;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        sistema = SistemaGestion.obtenerInstancia();
+        motor = new MotorDespacho(sistema, 12);
+        Usuario usuario = Usuario.builder().idUsuario("USR-DESP").nombreCompleto("Aliado").build();
+        sistema.registrarUsuario(usuario);
+        Random aleatorio = new Random(42);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        repartidores = new ArrayList<>(REPARTIDORES);
+        enRuta = new ArrayList<>(REPARTIDORES);
+        for (int i = 0; i < REPARTIDORES; i++) {
+            Repartidor repartidor = Repartidor.builder().idRepartidor("REP-DESP-" + i).nombre("Repartidor " + i)
+                    .documento("1" + i).telefono("3000000000").zonaCobertura(ZONAS[i % ZONAS.length])
+                    .enviosAsignados(1).build();
+            repartidores.add(repartidor);
+            sistema.registrarRepartidor(repartidor);
+            enRuta.add(envio("DESP-RUTA-" + i, usuario, CIUDADES[i % CIUDADES.length], aleatorio, ahora)
+                    .toBuilder().estado(Envio.EstadoEnvio.EN_RUTA).repartidor(repartidor).build());
+        }
+        sistema.registrarEnvios(enRuta);
+
+        pendientes = new ArrayList<>(ENVIOS);
+        for (int i = 0; i < ENVIOS; i++) {
+            pendientes.add(envio("DESP-" + i, usuario, CIUDADES[i % CIUDADES.length], aleatorio,
+                    ahora.minusMinutes(aleatorio.nextInt(60))));
+        }
+        sistema.registrarEnvios(pendientes);
+    }
+
+    private static Envio envio(String id, Usuario usuario, String ciudad, Random aleatorio, LocalDateTime creacion) {
+        double latitud = 4.45 + aleatorio.nextDouble() * 0.15;
+        double longitud = -75.75 + aleatorio.nextDouble() * 0.15;
+        return Envio.builder()
+                .idEnvio(id)
+                .usuario(usuario)
+                .origen(new Direccion.Builder(id + "-O").conCiudad(ciudad).conCoordenadas(latitud, longitud).build())
+                .destino(new Direccion.Builder(id + "-D").conCiudad(ciudad)
+                        .conCoordenadas(latitud + aleatorio.nextGaussian() * 0.02,
+                                longitud + aleatorio.nextGaussian() * 0.02).build())
+                .fechaCreacion(creacion)
+                .fechaEntregaEstimada(creacion.plusDays(1))
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void reiniciar() {
+        for (Envio envio : pendientes) {
+            sistema.modificarEnvio(envio.getIdEnvio(), pendiente -> {
+                pendiente.setRepartidor(null);
+                pendiente.setEstado(Envio.EstadoEnvio.SOLICITADO);
+            });
+        }
+        for (Repartidor repartidor : repartidores) {
+            sistema.modificarRepartidor(repartidor.getIdRepartidor(), r -> r.setEnviosAsignados(1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        pendientes.forEach(envio -> sistema.eliminarEnvio(envio.getIdEnvio()));
+        enRuta.forEach(envio -> sistema.eliminarEnvio(envio.getIdEnvio()));
+        repartidores.forEach(repartidor -> sistema.eliminarRepartidor(repartidor.getIdRepartidor()));
+        sistema.eliminarUsuario("USR-DESP");
+    }
+
+    @Benchmark
+    public int[] planificar() {
+        return motor.planificar(pendientes, repartidores);
+    }
+
+    @Benchmark
+    public ResultadoDespacho despachar() {
+        return motor.despachar();
+    }
+}
@@ -0,0 +1,72 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.adapter.LoteCoordenadas;
+import co.edu.uniquindio.poo.adapter.ServicioMapasExterno;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el cálculo de distancias de un origen contra mil y cien mil puntos:
+ * - porPar: un ciclo sobre ServicioMapasExterno.calcularDistanciaKm;
+ * - lote: calcularDistanciasKm sobre un LoteCoordenadas ya preparado (el caso de
+ *   candidatos reutilizados contra muchos orígenes);
+ * - loteConPreparacion: igual, incluyendo la construcción del lote (radianes y
+ *   cosenos) en cada invocación.
+ *
+ * El resultado es el tiempo por consulta completa; el tiempo por punto se obtiene
+ * dividiendo entre el número de puntos.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanciaLoteBenchmark {
+
+    @Param({"1000", "100000"})
+    private int puntos;
+
+    private final ServicioMapasExterno servicio = new ServicioMapasExterno();
+    private double[] latitudes;
+    private double[] longitudes;
+    private LoteCoordenadas lote;
+    private double[] distancias;
+
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        latitudes = new double[puntos];
+        longitudes = new double[puntos];
+        for (int i = 0; i < puntos; i++) {
+            latitudes[i] = 4.45 + aleatorio.nextDouble() * 0.15;
+            longitudes[i] = -75.75 + aleatorio.nextDouble() * 0.15;
+        }
+        lote = LoteCoordenadas.de(latitudes, longitudes);
+        distancias = new double[puntos];
+    }
+
+    @Benchmark
+    public double[] porPar() {
+        for (int i = 0; i < puntos; i++) {
+            distancias[i] = servicio.calcularDistanciaKm(4.536389, -75.681111, latitudes[i], longitudes[i]);
+        }
+        return distancias;
+    }
+
+    @Benchmark
+    public double[] lote() {
+        servicio.calcularDistanciasKm(4.536389, -75.681111, lote, distancias);
+        return distancias;
+    }
+
+    @Benchmark
+    public double[] loteConPreparacion() {
+        servicio.calcularDistanciasKm(4.536389, -75.681111, LoteCoordenadas.de(latitudes, longitudes), distancias);
+        return distancias;
+    }
+}
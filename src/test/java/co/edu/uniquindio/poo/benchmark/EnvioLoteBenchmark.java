@@ -0,0 +1,105 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.controller.EnvioController;
+import co.edu.uniquindio.poo.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la ingesta de un archivo de envíos de 10 mil, 100 mil y un millón de filas
+ * (5% inválidas):
+ * - unoPorUno: el camino actual, validarDatosEnvio y crearEnvioEstandar por fila;
+ * - enLote: EnvioController.crearEnviosEnLote con validación y tarifación en
+ *   paralelo y un único registro del lote.
+ *
+ * El resultado es el tiempo por archivo; las filas por segundo se obtienen
+ * dividiendo el número de filas entre ese tiempo. Los envíos creados se
+ * eliminan del sistema después de cada iteración.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EnvioLoteBenchmark {
+
+    private static final int USUARIOS = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int filas;
+
+    private SistemaGestion sistema;
+    private EnvioController controlador;
+    private List<SolicitudEnvio> solicitudes;
+    private List<Envio> creados;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        sistema = SistemaGestion.obtenerInstancia();
+        controlador = new EnvioController();
+        for (int i = 0; i < USUARIOS; i++) {
+            sistema.registrarUsuario(Usuario.builder().idUsuario("USR-LOTE-" + i)
+                    .nombreCompleto("Aliado " + i).correoElectronico("aliado" + i + "@email.com").build());
+        }
+        List<Direccion> direcciones = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            direcciones.add(new Direccion.Builder("DIR-LOTE-" + i).conCalle("Calle " + i).conCiudad("Armenia")
+                    .conCoordenadas(4.50 + i * 0.001, -75.70 + i * 0.001).build());
+        }
+        solicitudes = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            solicitudes.add(SolicitudEnvio.builder()
+                    .idUsuario("USR-LOTE-" + (i % USUARIOS))
+                    .origen(direcciones.get(i % 100))
+                    .destino(direcciones.get((i * 7 + 13) % 100))
+                    .peso(1 + i % 20)
+                    .volumen(6000)
+                    .descripcion("Paquete " + i)
+                    .valorDeclarado(50_000)
+                    .nombreDestinatario("Destinatario Prueba")
+                    .telefonoDestinatario(i % 20 == 0 ? "12" : "3001234567")
+                    .emailDestinatario("destino@email.com")
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiar() {
+        if (creados != null) {
+            creados.forEach(envio -> sistema.eliminarEnvio(envio.getIdEnvio()));
+            creados = null;
+        }
+    }
+
+    @Benchmark
+    public int unoPorUno() {
+        creados = new ArrayList<>(filas);
+        for (SolicitudEnvio solicitud : solicitudes) {
+            try {
+                controlador.validarDatosEnvio(solicitud.getDescripcion(), solicitud.getPeso(),
+                        solicitud.getVolumen(), solicitud.getValorDeclarado(), solicitud.getOrigen(),
+                        solicitud.getDestino(), solicitud.getNombreDestinatario(),
+                        solicitud.getTelefonoDestinatario(), solicitud.getEmailDestinatario());
+                Usuario usuario = sistema.buscarUsuarioPorId(solicitud.getIdUsuario());
+                creados.add(controlador.crearEnvioEstandar(usuario, solicitud.getOrigen(), solicitud.getDestino(),
+                        solicitud.getPeso(), 30, 20, 10));
+            } catch (IllegalArgumentException e) {
+                // Fila rechazada
+            }
+        }
+        return creados.size();
+    }
+
+    @Benchmark
+    public int enLote() {
+        ResultadoLoteEnvios resultado = controlador.crearEnviosEnLote(solicitudes);
+        creados = resultado.getAceptados();
+        return creados.size();
+    }
+}
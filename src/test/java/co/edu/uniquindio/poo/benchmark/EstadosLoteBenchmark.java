@@ -0,0 +1,102 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.controller.EnvioController;
+import co.edu.uniquindio.poo.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Mide el escaneo de un lote de envíos que pasan de SOLICITADO a ASIGNADO, con
+ * un 5% de cambios no permitidos (a ENTREGADO):
+ * - unoPorUno: EnvioController.actualizarEstado por envío, con un comando, una
+ *   operación de SistemaGestion y una excepción por cada rechazo;
+ * - enLote: EnvioController.actualizarEstadosEnLote, una sola operación y un
+ *   único comando compuesto con el reporte por envío.
+ *
+ * El resultado es el tiempo por lote; los envíos vuelven a SOLICITADO antes de
+ * cada lote.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EstadosLoteBenchmark {
+
+    @Param({"1000", "10000"})
+    private int cantidad;
+
+    private SistemaGestion sistema;
+    private EnvioController controlador;
+    private List<Envio> envios;
+    private Map<String, Envio.EstadoEnvio> cambios;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        sistema = SistemaGestion.obtenerInstancia();
+        controlador = new EnvioController();
+        Usuario usuario = Usuario.builder().idUsuario("USR-ESTADOS").nombreCompleto("Bench")
+                .correoElectronico("bench@email.com").build();
+        sistema.registrarUsuario(usuario);
+        Direccion origen = new Direccion.Builder("DIR-EO").conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        Direccion destino = new Direccion.Builder("DIR-ED").conCiudad("Armenia").conCoordenadas(4.54, -75.67).build();
+        LocalDateTime fecha = LocalDateTime.now().plusDays(3);
+        envios = new ArrayList<>(cantidad);
+        cambios = new LinkedHashMap<>();
+        for (int i = 0; i < cantidad; i++) {
+            Envio envio = Envio.builder()
+                    .idEnvio("ENV-ESTADOS-" + i)
+                    .usuario(usuario)
+                    .origen(origen)
+                    .destino(destino)
+                    .fechaEntregaEstimada(fecha)
+                    .build();
+            envios.add(envio);
+            cambios.put(envio.getIdEnvio(), i % 20 == 0 ? Envio.EstadoEnvio.ENTREGADO : Envio.EstadoEnvio.ASIGNADO);
+        }
+        sistema.registrarEnvios(envios);
+    }
+
+    @Setup(Level.Invocation)
+    public void reiniciar() {
+        Map<String, Consumer<Envio>> reinicio = new LinkedHashMap<>();
+        for (Envio envio : envios) {
+            reinicio.put(envio.getIdEnvio(), e -> e.setEstado(Envio.EstadoEnvio.SOLICITADO));
+        }
+        sistema.modificarEnvios(reinicio);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        envios.forEach(envio -> sistema.eliminarEnvio(envio.getIdEnvio()));
+    }
+
+    @Benchmark
+    public int unoPorUno() {
+        int aplicados = 0;
+        for (Map.Entry<String, Envio.EstadoEnvio> cambio : cambios.entrySet()) {
+            try {
+                controlador.actualizarEstado(cambio.getKey(), cambio.getValue());
+                aplicados++;
+            } catch (IllegalStateException e) {
+                // Escaneo rechazado
+            }
+        }
+        return aplicados;
+    }
+
+    @Benchmark
+    public int enLote() {
+        return controlador.actualizarEstadosEnLote(cambios).getAplicados();
+    }
+}
@@ -0,0 +1,113 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.command.Command;
+import co.edu.uniquindio.poo.command.GestorComandos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la memoria que retiene el historial de deshacer tras ejecutar un millón
+ * de comandos en una sesión:
+ * - pilaSinLimite: como la implementación anterior, dos java.util.Stack
+ *   sincronizadas que crecen sin límite;
+ * - historialAcotado: GestorComandos con la profundidad predeterminada.
+ *
+ * El resultado es el tiempo por millón de comandos; los bytes retenidos (heap
+ * usado tras un GC, menos el de antes de la iteración) se imprimen al cerrar
+ * cada iteración. Con -prof gc se obtienen además los bytes reservados.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HistorialComandosBenchmark {
+
+    private static final int COMANDOS = 1_000_000;
+    private static final String SESION = "ADM-BENCH";
+
+    private long base;
+    private Stack<Command> historial;
+    private Stack<Command> rehacer;
+    private GestorComandos gestor;
+
+    /**
+     * Comando con el tamaño típico de ActualizarEstadoCommand: una referencia y
+     * dos valores.
+     */
+    private static final class Comando implements Command {
+        private final Object objetivo;
+        private final int anterior;
+        private int actual;
+
+        private Comando(Object objetivo, int anterior) {
+            this.objetivo = objetivo;
+            this.anterior = anterior;
+        }
+
+        @Override
+        public void ejecutar() {
+            actual = anterior + 1;
+        }
+
+        @Override
+        public void deshacer() {
+            actual = anterior;
+        }
+
+        @Override
+        public String getDescripcion() {
+            return "Comando " + objetivo + " " + actual;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        historial = null;
+        rehacer = null;
+        gestor = null;
+        base = usadoTrasGc();
+        historial = new Stack<>();
+        rehacer = new Stack<>();
+        gestor = new GestorComandos(GestorComandos.PROFUNDIDAD_PREDETERMINADA, null);
+    }
+
+    @TearDown(Level.Iteration)
+    public void medir() {
+        long retenidos = usadoTrasGc() - base;
+        System.out.printf("%n  retenidos: %,d bytes por millón de comandos (pila: %d, historial: %d)%n",
+                retenidos, historial.size(), gestor.obtenerHistorial(SESION).split("\n").length - 1);
+    }
+
+    private long usadoTrasGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime entorno = Runtime.getRuntime();
+        return entorno.totalMemory() - entorno.freeMemory();
+    }
+
+    @Benchmark
+    public int pilaSinLimite() {
+        for (int i = 0; i < COMANDOS; i++) {
+            Command comando = new Comando(SESION, i);
+            comando.ejecutar();
+            historial.push(comando);
+            rehacer.clear();
+        }
+        return historial.size();
+    }
+
+    @Benchmark
+    public int historialAcotado() {
+        for (int i = 0; i < COMANDOS; i++) {
+            gestor.ejecutarComando(SESION, new Comando(SESION, i));
+        }
+        return gestor.getProfundidad();
+    }
+}
@@ -0,0 +1,111 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.SistemaGestion;
+import co.edu.uniquindio.poo.model.Usuario;
+import co.edu.uniquindio.poo.persistencia.ImportadorEnviosCSV;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la importación en flujo de un CSV con el formato de ReporteEnvios de un
+ * millón de filas (unos 100 MB) y de veinte millones (unos 2 GB) con un heap fijo
+ * de 256 MB.
+ *
+ * Los ids de las filas se repiten cada 100 mil envíos, de modo que el sistema
+ * conserva un número acotado de envíos (las filas con un id ya registrado se
+ * rechazan y los importados se eliminan antes de cada iteración) y el heap mide
+ * solo el costo del importador. Al terminar se imprime el pico de
+ * uso del heap (muestreado cada 5 ms) y el rendimiento en MB/s.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m"})
+public class ImportadorEnviosCSVBenchmark {
+
+    private static final int USUARIOS = 1000;
+    private static final int IDS_DISTINTOS = 100_000;
+    private static final String[] ESTADOS = {"SOLICITADO", "ASIGNADO", "EN_RUTA", "ENTREGADO", "INCIDENCIA"};
+
+    @Param({"1000000", "20000000"})
+    private int filas;
+
+    private Path archivo;
+    private SistemaGestion sistema;
+    private long tiempoTotalNanos;
+    private int importaciones;
+    private volatile long picoHeap;
+    private Thread muestreo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        sistema = SistemaGestion.obtenerInstancia();
+        for (int i = 0; i < USUARIOS; i++) {
+            sistema.registrarUsuario(Usuario.builder().idUsuario("USR-CSV-" + i).nombreCompleto("Aliado " + i)
+                    .build());
+        }
+        archivo = Files.createTempFile("envios-bench", ".csv");
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 1, 8, 0, 0, 123_000_000);
+        // FileWriter, como FormatoCSV: codificación de la plataforma
+        try (BufferedWriter salida = new BufferedWriter(new FileWriter(archivo.toFile()), 1 << 16)) {
+            salida.write("# REPORTE DE ENVÍOS\nGenerado el: 2024-10-17T08:00\n\n");
+            salida.write(ImportadorEnviosCSV.ENCABEZADO);
+            salida.write('\n');
+            for (int i = 0; i < filas; i++) {
+                salida.write("ENV-" + (i % IDS_DISTINTOS) + ",Aliado " + (i % USUARIOS) + ",Armenia,"
+                        + (i % 2 == 0 ? "Calarca" : "Pereira") + "," + ESTADOS[i % ESTADOS.length] + ","
+                        + (8000 + i % 5000) + ".5," + fecha.plusSeconds(i % 86_400) + "\n");
+            }
+        }
+        System.gc();
+        muestreo = new Thread(() -> {
+            Runtime runtime = Runtime.getRuntime();
+            while (!Thread.currentThread().isInterrupted()) {
+                picoHeap = Math.max(picoHeap, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        muestreo.setDaemon(true);
+        muestreo.start();
+    }
+
+    @Setup(Level.Iteration)
+    public void vaciar() {
+        for (int i = 0; i < IDS_DISTINTOS; i++) {
+            sistema.eliminarEnvio("ENV-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        muestreo.interrupt();
+        double megas = Files.size(archivo) / 1e6;
+        System.out.printf("%n  archivo %.0f MB, %.0f MB/s, pico de heap %.0f MB%n", megas,
+                megas * importaciones / (tiempoTotalNanos / 1e9), picoHeap / 1e6);
+        Files.deleteIfExists(archivo);
+    }
+
+    @Benchmark
+    public long importar() throws IOException {
+        long inicio = System.nanoTime();
+        ImportadorEnviosCSV.Resultado resultado = new ImportadorEnviosCSV(sistema).importar(archivo, null);
+        tiempoTotalNanos += System.nanoTime() - inicio;
+        importaciones++;
+        return resultado.getFilasImportadas();
+    }
+}
@@ -0,0 +1,175 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.*;
+import co.edu.uniquindio.poo.persistencia.InstantaneaColumnar;
+import co.edu.uniquindio.poo.persistencia.ResolutorReferencias;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la instantánea columnar con un millón de envíos:
+ * - escritura: tiempo de volcar el estado completo a disco;
+ * - carga: tiempo de mapear el archivo y reconstruir todas las entidades, que
+ *   es el costo de arranque antes de reproducir la cola de la bitácora.
+ *
+ * Comparar con BitacoraEscrituraBenchmark.Recuperacion, que reconstruye el mismo
+ * volumen reproduciendo la bitácora completa.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+public class InstantaneaColumnarBenchmark {
+
+    private static final int ENVIOS = 1_000_000;
+    private static final int USUARIOS = 10_000;
+
+    /**
+     * Genera la instantánea de prueba; los envíos en memoria se descartan al terminar
+     * para que la carga no compita por el heap con el conjunto original.
+     */
+    private static InstantaneaColumnar crearInstantanea() {
+        List<Usuario> usuarios = new ArrayList<>(USUARIOS);
+        for (int i = 0; i < USUARIOS; i++) {
+            usuarios.add(Usuario.builder().idUsuario("USR" + i).nombreCompleto("Usuario " + i)
+                    .correoElectronico("usuario" + i + "@email.com").telefono("300" + i).password("123").build());
+        }
+        Direccion origen = new Direccion.Builder("DIR-O").conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        Direccion destino = new Direccion.Builder("DIR-D").conCiudad("Calarcá").conCoordenadas(4.52, -75.64).build();
+        LocalDateTime ahora = LocalDateTime.now();
+        InstantaneaColumnar instantanea = new InstantaneaColumnar(ENVIOS);
+        usuarios.forEach(instantanea::agregarUsuario);
+        for (int i = 0; i < ENVIOS; i++) {
+            instantanea.agregarEnvio(Envio.builder()
+                    .idEnvio("ENV" + i)
+                    .origen(origen)
+                    .destino(destino)
+                    .usuario(usuarios.get(i % USUARIOS))
+                    .peso(1 + i % 20)
+                    .largo(30).ancho(20).alto(10)
+                    .descripcion("Paquete " + i)
+                    .nombreDestinatario("Destinatario " + i)
+                    .telefonoDestinatario("310" + i)
+                    .estado(Envio.EstadoEnvio.values()[i % 4])
+                    .costo(8000 + i % 5000)
+                    .fechaCreacion(ahora)
+                    .fechaEntregaEstimada(ahora.plusDays(1))
+                    .build());
+        }
+        return instantanea;
+    }
+
+    /**
+     * Volcado a disco de una instantánea ya construida.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+    public static class Escritura {
+        private InstantaneaColumnar instantanea;
+        private Path archivo;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            instantanea = crearInstantanea();
+            archivo = Files.createTempFile("instantanea-bench", ".snap");
+        }
+
+        @TearDown(Level.Trial)
+        public void limpiar() throws IOException {
+            System.out.printf("%n  tamaño de la instantánea: %.1f MB%n", Files.size(archivo) / 1e6);
+            Files.deleteIfExists(archivo);
+        }
+
+        @Benchmark
+        public Path escribirMillon() throws IOException {
+            instantanea.escribir(archivo);
+            return archivo;
+        }
+    }
+
+    /**
+     * Arranque desde la instantánea: mapeo y reconstrucción de todas las entidades.
+     */
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+    public static class Carga {
+        private Path archivo;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            archivo = Files.createTempFile("instantanea-bench", ".snap");
+            crearInstantanea().escribir(archivo);
+            System.gc();
+        }
+
+        @TearDown(Level.Trial)
+        public void limpiar() throws IOException {
+            Files.deleteIfExists(archivo);
+        }
+
+        @Benchmark
+        public int cargarMillon() throws IOException {
+            Map<String, Usuario> usuariosLeidos = new HashMap<>(USUARIOS * 2);
+            Map<String, Envio> enviosLeidos = new HashMap<>(ENVIOS * 2);
+            ResolutorReferencias referencias = new ResolutorReferencias() {
+                @Override
+                public Usuario buscarUsuario(String idUsuario) {
+                    return usuariosLeidos.get(idUsuario);
+                }
+
+                @Override
+                public Repartidor buscarRepartidor(String idRepartidor) {
+                    return null;
+                }
+
+                @Override
+                public Envio buscarEnvio(String idEnvio) {
+                    return enviosLeidos.get(idEnvio);
+                }
+            };
+            InstantaneaColumnar.cargar(archivo, referencias, new InstantaneaColumnar.Destino() {
+                @Override
+                public void repartidor(Repartidor repartidor) {
+                }
+
+                @Override
+                public void usuario(Usuario usuario) {
+                    usuariosLeidos.put(usuario.getIdUsuario(), usuario);
+                }
+
+                @Override
+                public void administrador(Administrador administrador) {
+                }
+
+                @Override
+                public void envio(Envio envio) {
+                    enviosLeidos.put(envio.getIdEnvio(), envio);
+                }
+
+                @Override
+                public void pago(Pago pago) {
+                }
+
+                @Override
+                public void incidencia(Incidencia incidencia) {
+                }
+            });
+            return enviosLeidos.size();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.decorator.ServicioEnvio;
+import co.edu.uniquindio.poo.decorator.ServicioEnvioBase;
+import co.edu.uniquindio.poo.decorator.ServicioSeguro;
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.MotorTarifas;
+import co.edu.uniquindio.poo.model.ServicioAdicional;
+import co.edu.uniquindio.poo.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la cotización de un envío frágil con seguro:
+ * - cadenaDecoradores: el camino anterior, la fórmula de calcularCostoEnvio con el
+ *   factor por tipo y una cadena ServicioSeguro(ServicioEnvioBase) creada en cada
+ *   cotización sobre el envío;
+ * - motor: MotorTarifas.cotizar con argumentos primitivos y la máscara de adicionales.
+ *
+ * Con -prof gc se obtienen además los bytes reservados por cotización.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorTarifasBenchmark {
+
+    private MotorTarifas motor;
+    private Envio envio;
+    private double peso;
+    private double volumen;
+    private double distancia;
+    private double valorDeclarado;
+
+    @Setup
+    public void preparar() {
+        motor = MotorTarifas.obtenerInstancia();
+        peso = 2.5;
+        volumen = 3000;
+        distancia = 12.3;
+        valorDeclarado = 200000;
+        Direccion direccion = new Direccion.Builder("D-BENCH").conCiudad("Armenia").build();
+        envio = Envio.builder().idEnvio("BENCH").origen(direccion).destino(direccion)
+                .usuario(Usuario.builder().idUsuario("USR-BENCH").build())
+                .tipoEnvio(Envio.TipoEnvio.FRAGIL).valorDeclarado(valorDeclarado)
+                .fechaEntregaEstimada(LocalDateTime.now()).build();
+    }
+
+    @Benchmark
+    public double cadenaDecoradores() {
+        double factorPrioridad;
+        switch (envio.getTipoEnvio()) {
+            case EXPRESS:
+                factorPrioridad = 1.5;
+                break;
+            case FRAGIL:
+                factorPrioridad = 1.3;
+                break;
+            default:
+                factorPrioridad = 1.0;
+        }
+        double costoBase = (3500.0 + peso * 150.0 + volumen / 1000.0 * 50.0 + distancia * 50.0) * factorPrioridad;
+        envio.setCosto(costoBase);
+        ServicioEnvio servicio = new ServicioSeguro(new ServicioEnvioBase());
+        return servicio.calcularCosto(envio);
+    }
+
+    @Benchmark
+    public double motor() {
+        return motor.cotizar(peso, volumen, distancia, Envio.TipoEnvio.FRAGIL.ordinal(), valorDeclarado,
+                ServicioAdicional.SEGURO.bit());
+    }
+}
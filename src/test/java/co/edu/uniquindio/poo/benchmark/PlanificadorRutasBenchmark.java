@@ -0,0 +1,87 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.adapter.MapasAdapter;
+import co.edu.uniquindio.poo.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la planificación de la ruta de un repartidor con 10 a 200 paradas (la mitad
+ * de envíos ASIGNADO, cada uno con recogida y entrega, dentro de Armenia):
+ * - construccion: solo la inserción del más cercano (presupuesto cero);
+ * - optimizada: inserción más 2-opt y Or-opt hasta el óptimo local (presupuesto de 1 s).
+ *
+ * Al terminar se imprime la longitud media de la ruta frente al orden de asignación.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanificadorRutasBenchmark {
+
+    private static final int INSTANCIAS = 16;
+
+    @Param({"10", "50", "100", "200"})
+    private int paradas;
+
+    private final PlanificadorRutas planificador = new PlanificadorRutas(new MapasAdapter());
+    private final List<List<Envio>> instancias = new ArrayList<>();
+    private final LocalDateTime salida = LocalDateTime.now();
+    private int siguiente;
+    private double longitud;
+    private double longitudOriginal;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Usuario usuario = Usuario.builder().idUsuario("USR-RUTAS").nombreCompleto("Aliado").build();
+        Random aleatorio = new Random(3);
+        for (int k = 0; k < INSTANCIAS; k++) {
+            List<Envio> envios = new ArrayList<>();
+            for (int i = 0; i < paradas / 2; i++) {
+                String id = "RUTA-" + k + "-" + i;
+                envios.add(Envio.builder().idEnvio(id).usuario(usuario).estado(Envio.EstadoEnvio.ASIGNADO)
+                        .origen(new Direccion.Builder(id + "-O").conCiudad("Armenia").conCoordenadas(
+                                4.48 + aleatorio.nextDouble() * 0.1, -75.73 + aleatorio.nextDouble() * 0.1).build())
+                        .destino(new Direccion.Builder(id + "-D").conCiudad("Armenia").conCoordenadas(
+                                4.48 + aleatorio.nextDouble() * 0.1, -75.73 + aleatorio.nextDouble() * 0.1).build())
+                        .fechaEntregaEstimada(salida.plusDays(1))
+                        .build());
+            }
+            instancias.add(envios);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void informar() {
+        System.out.printf("%n  ruta media %.1f km frente a %.1f km en orden de asignación (%.0f%% menos)%n",
+                longitud / siguiente, longitudOriginal / siguiente, 100 * (1 - longitud / longitudOriginal));
+    }
+
+    private RutaPlanificada planificar(Duration presupuesto) {
+        RutaPlanificada ruta = planificador.planificar(instancias.get(siguiente++ % INSTANCIAS), null, presupuesto,
+                salida);
+        longitud += ruta.getLongitudKm();
+        longitudOriginal += ruta.getLongitudOriginalKm();
+        return ruta;
+    }
+
+    @Benchmark
+    public RutaPlanificada construccion() {
+        return planificar(Duration.ZERO);
+    }
+
+    @Benchmark
+    public RutaPlanificada optimizada() {
+        return planificar(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,122 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.controller.EnvioController;
+import co.edu.uniquindio.poo.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la recotización de 100 mil y un millón de envíos abiertos tras un cambio
+ * de tarifas:
+ * - unoPorUno: el camino anterior, buscar los envíos abiertos por estado y aplicar
+ *   calcularCostoEnvio y modificarEnvio a cada uno;
+ * - enBloque: EnvioController.recotizarEnviosAbiertos (proyección a arreglos,
+ *   cotización fork-join y una única escritura bajo los candados del almacén).
+ *
+ * Antes de cada iteración se alterna entre dos tablas de tarifas para que todos
+ * los envíos cambien de costo.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RecotizacionBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int envios;
+
+    private SistemaGestion sistema;
+    private EnvioController controlador;
+    private MotorTarifas motor;
+    private Administrador administrador;
+    private List<Envio> creados;
+    private final List<Map<Envio.TipoEnvio, Tarifa>> tablas = new ArrayList<>();
+    private int iteracion;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        sistema = SistemaGestion.obtenerInstancia();
+        controlador = new EnvioController();
+        motor = MotorTarifas.obtenerInstancia();
+        administrador = Administrador.builder().idAdmin("ADM-BENCH").nombre("Tarifas").build();
+        administrador.agregarPermiso(Administrador.Permiso.GESTIONAR_TARIFAS);
+        for (double base : new double[] {3500.0, 3800.0}) {
+            Map<Envio.TipoEnvio, Tarifa> tarifas = new EnumMap<>(Envio.TipoEnvio.class);
+            tarifas.put(Envio.TipoEnvio.ESTANDAR, tarifa(base, 1.0));
+            tarifas.put(Envio.TipoEnvio.EXPRESS, tarifa(base, 1.5));
+            tarifas.put(Envio.TipoEnvio.FRAGIL, tarifa(base, 1.3));
+            tablas.add(tarifas);
+        }
+
+        Usuario usuario = Usuario.builder().idUsuario("USR-RECOT").nombreCompleto("Aliado").build();
+        sistema.registrarUsuario(usuario);
+        Direccion origen = new Direccion.Builder("DIR-RECOT-O").conCiudad("Armenia")
+                .conCoordenadas(4.536, -75.681).build();
+        Direccion destino = new Direccion.Builder("DIR-RECOT-D").conCiudad("Calarcá")
+                .conCoordenadas(4.518, -75.643).build();
+        Envio.TipoEnvio[] tipos = Envio.TipoEnvio.values();
+        creados = new ArrayList<>(envios);
+        LocalDateTime ahora = LocalDateTime.now();
+        for (int i = 0; i < envios; i++) {
+            creados.add(Envio.builder()
+                    .idEnvio("RECOT-" + i)
+                    .usuario(usuario)
+                    .origen(origen)
+                    .destino(destino)
+                    .tipoEnvio(tipos[i % tipos.length])
+                    .estado(i % 2 == 0 ? Envio.EstadoEnvio.SOLICITADO : Envio.EstadoEnvio.ASIGNADO)
+                    .peso(1 + i % 50)
+                    .volumen(1000 + i % 20_000)
+                    .distancia(1 + i % 30)
+                    .fechaEntregaEstimada(ahora.plusDays(3))
+                    .build());
+        }
+        sistema.registrarEnvios(creados);
+    }
+
+    private static Tarifa tarifa(double base, double prioridad) {
+        return new Tarifa.Builder(base).conPeso(150.0).conVolumen(50.0).conDistancia(50.0)
+                .conPrioridad(prioridad).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void cambiarTarifas() {
+        motor.actualizarTarifas(administrador, tablas.get(iteracion++ % 2), Map.of());
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        creados.forEach(envio -> sistema.eliminarEnvio(envio.getIdEnvio()));
+        sistema.eliminarUsuario("USR-RECOT");
+    }
+
+    @Benchmark
+    public int unoPorUno() {
+        List<Envio> abiertos = new ArrayList<>(sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.SOLICITADO));
+        abiertos.addAll(sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.ASIGNADO));
+        int modificados = 0;
+        for (Envio envio : abiertos) {
+            double costo = controlador.calcularCostoEnvio(envio.getPeso(), envio.getVolumen(),
+                    envio.getDistancia(), envio.getTipoEnvio());
+            if (sistema.modificarEnvio(envio.getIdEnvio(), abierto -> abierto.setCosto(costo))) {
+                modificados++;
+            }
+        }
+        return modificados;
+    }
+
+    @Benchmark
+    public ResultadoRecotizacion enBloque() {
+        return controlador.recotizarEnviosAbiertos();
+    }
+}
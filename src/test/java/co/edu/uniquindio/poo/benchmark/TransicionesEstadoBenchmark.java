@@ -0,0 +1,112 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.state.TablaTransiciones;
+import co.edu.uniquindio.poo.state.Transicion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las transiciones de estado validadas por segundo sobre un lote de
+ * cambios (estado actual, estado pedido) con distinta proporción de cambios no
+ * permitidos:
+ * - excepciones: como la implementación anterior, crea un objeto de estado por
+ *   transición aceptada y señala cada rechazo con una IllegalStateException;
+ * - tabla: TablaTransiciones.cambio, que consulta una celda precalculada sin
+ *   reservar memoria ni lanzar excepciones.
+ *
+ * Con -prof gc se obtienen además los bytes reservados por transición.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransicionesEstadoBenchmark {
+
+    private static final int CAMBIOS = 1024;
+
+    /** Porcentaje de cambios no permitidos en el lote */
+    @Param({"0", "10", "50"})
+    private int invalidos;
+
+    private Envio.EstadoEnvio[] origenes;
+    private Envio.EstadoEnvio[] destinos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<Envio.EstadoEnvio[]> validos = new ArrayList<>();
+        List<Envio.EstadoEnvio[]> rechazados = new ArrayList<>();
+        for (Envio.EstadoEnvio origen : Envio.EstadoEnvio.values()) {
+            for (Envio.EstadoEnvio destino : Envio.EstadoEnvio.values()) {
+                if (origen == destino) {
+                    continue;
+                }
+                Envio.EstadoEnvio[] par = {origen, destino};
+                (TablaTransiciones.cambio(origen, destino).isPermitida() ? validos : rechazados).add(par);
+            }
+        }
+        Random aleatorio = new Random(42);
+        origenes = new Envio.EstadoEnvio[CAMBIOS];
+        destinos = new Envio.EstadoEnvio[CAMBIOS];
+        for (int i = 0; i < CAMBIOS; i++) {
+            List<Envio.EstadoEnvio[]> fuente = aleatorio.nextInt(100) < invalidos ? rechazados : validos;
+            Envio.EstadoEnvio[] par = fuente.get(aleatorio.nextInt(fuente.size()));
+            origenes[i] = par[0];
+            destinos[i] = par[1];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CAMBIOS)
+    public int excepciones() {
+        int aplicados = 0;
+        for (int i = 0; i < CAMBIOS; i++) {
+            try {
+                if (validarConExcepcion(origenes[i], destinos[i]).getDestino() == destinos[i]) {
+                    aplicados++;
+                }
+            } catch (IllegalStateException e) {
+                // El lote anota el rechazo y sigue con el siguiente cambio
+            }
+        }
+        return aplicados;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CAMBIOS)
+    public int tabla() {
+        int aplicados = 0;
+        for (int i = 0; i < CAMBIOS; i++) {
+            if (TablaTransiciones.cambio(origenes[i], destinos[i]).isPermitida()) {
+                aplicados++;
+            }
+        }
+        return aplicados;
+    }
+
+    /**
+     * Reglas de las antiguas clases de estado, con un objeto nuevo por
+     * transición y una excepción por rechazo.
+     */
+    private static Transicion validarConExcepcion(Envio.EstadoEnvio origen, Envio.EstadoEnvio destino) {
+        boolean permitida = switch (origen) {
+            case SOLICITADO -> destino == Envio.EstadoEnvio.ASIGNADO || destino == Envio.EstadoEnvio.INCIDENCIA;
+            case ASIGNADO -> destino == Envio.EstadoEnvio.EN_RUTA || destino == Envio.EstadoEnvio.INCIDENCIA;
+            case EN_RUTA -> destino == Envio.EstadoEnvio.ENTREGADO || destino == Envio.EstadoEnvio.INCIDENCIA;
+            case INCIDENCIA -> destino == Envio.EstadoEnvio.ASIGNADO;
+            case ENTREGADO -> false;
+        };
+        if (!permitida) {
+            throw new IllegalStateException("No se permite pasar de " + origen + " a " + destino);
+        }
+        return new Transicion(origen, destino, true, null);
+    }
+}
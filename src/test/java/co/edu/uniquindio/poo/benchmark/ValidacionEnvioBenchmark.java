@@ -0,0 +1,133 @@
+package co.edu.uniquindio.poo.benchmark;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.utils.CodigoValidacion;
+import co.edu.uniquindio.poo.utils.ValidadorDatos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la validación de un envío válido y de uno con varios errores:
+ * - regex: la implementación anterior de EnvioController.validarDatosEnvio, con
+ *   String.matches (compila el patrón en cada llamada) y un StringBuilder por envío;
+ * - motor: ValidadorDatos.validarEnvio, que devuelve un conjunto de bits y solo
+ *   construye el texto con CodigoValidacion.renderizar cuando hay errores.
+ *
+ * Con -prof gc se obtienen además los bytes reservados por envío.
+ *
+ * Ver la sección de benchmarks del README para su ejecución.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionEnvioBenchmark {
+
+    @Param({"true", "false"})
+    private boolean valido;
+
+    private String descripcion;
+    private double peso;
+    private Direccion origen;
+    private Direccion destino;
+    private String nombre;
+    private String telefono;
+    private String email;
+
+    @Setup
+    public void preparar() {
+        origen = new Direccion.Builder("O").conCiudad("Armenia").conCoordenadas(4.536389, -75.681111).build();
+        destino = new Direccion.Builder("D").conCiudad("Calarcá").conCoordenadas(4.518, -75.643).build();
+        descripcion = valido ? "Documentos importantes" : "";
+        peso = valido ? 2.5 : 1500;
+        nombre = valido ? "María José López" : "M4ria";
+        telefono = valido ? "3001234567" : "300-123";
+        email = valido ? "maria.lopez@email.com" : "maria@email";
+    }
+
+    @Benchmark
+    public String regex() {
+        return validarConRegex(descripcion, peso, 1000, 50000, origen, destino, nombre, telefono, email);
+    }
+
+    @Benchmark
+    public String motor() {
+        long errores = ValidadorDatos.validarEnvio(descripcion, peso, 1000, 50000, origen, destino,
+                nombre, telefono, email);
+        return errores == ValidadorDatos.SIN_ERRORES ? null : CodigoValidacion.renderizar(errores);
+    }
+
+    /**
+     * Copia de la validación anterior a ValidadorDatos, como referencia.
+     */
+    private static String validarConRegex(String descripcion, double peso, double volumen, double valorDeclarado,
+                                          Direccion origen, Direccion destino, String nombreDestinatario,
+                                          String telefonoDestinatario, String emailDestinatario) {
+        StringBuilder errores = new StringBuilder();
+        if (descripcion == null || descripcion.trim().isEmpty()) {
+            errores.append("- La descripción del paquete es obligatoria\n");
+        } else if (descripcion.length() > 200) {
+            errores.append("- La descripción no puede exceder 200 caracteres\n");
+        }
+        if (peso <= 0) {
+            errores.append("- El peso debe ser mayor a 0 kg\n");
+        } else if (peso > 1000) {
+            errores.append("- El peso máximo permitido es 1000 kg\n");
+        }
+        if (volumen <= 0) {
+            errores.append("- El volumen debe ser mayor a 0 cm³\n");
+        } else if (volumen > 1000000) {
+            errores.append("- El volumen máximo permitido es 1,000,000 cm³ (1 m³)\n");
+        }
+        if (valorDeclarado < 0) {
+            errores.append("- El valor declarado no puede ser negativo\n");
+        } else if (valorDeclarado > 100000000) {
+            errores.append("- El valor declarado máximo es $100,000,000\n");
+        }
+        if (origen == null) {
+            errores.append("- La dirección de origen es obligatoria\n");
+        } else {
+            if (origen.getCiudad() == null || origen.getCiudad().trim().isEmpty()) {
+                errores.append("- La ciudad de origen es obligatoria\n");
+            }
+            if (origen.getLatitud() == 0 && origen.getLongitud() == 0) {
+                errores.append("- Las coordenadas de origen son obligatorias\n");
+            }
+        }
+        if (destino == null) {
+            errores.append("- La dirección de destino es obligatoria\n");
+        } else {
+            if (destino.getCiudad() == null || destino.getCiudad().trim().isEmpty()) {
+                errores.append("- La ciudad de destino es obligatoria\n");
+            }
+            if (destino.getLatitud() == 0 && destino.getLongitud() == 0) {
+                errores.append("- Las coordenadas de destino son obligatorias\n");
+            }
+        }
+        if (origen != null && destino != null
+                && Math.abs(origen.getLatitud() - destino.getLatitud()) < 0.0001
+                && Math.abs(origen.getLongitud() - destino.getLongitud()) < 0.0001) {
+            errores.append("- El origen y destino no pueden ser el mismo lugar\n");
+        }
+        if (nombreDestinatario == null || nombreDestinatario.trim().isEmpty()) {
+            errores.append("- El nombre del destinatario es obligatorio\n");
+        } else if (nombreDestinatario.length() < 3) {
+            errores.append("- El nombre del destinatario debe tener al menos 3 caracteres\n");
+        } else if (!nombreDestinatario.matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑ ]+$")) {
+            errores.append("- El nombre del destinatario solo puede contener letras y espacios\n");
+        }
+        if (telefonoDestinatario == null || telefonoDestinatario.trim().isEmpty()) {
+            errores.append("- El teléfono del destinatario es obligatorio\n");
+        } else if (!telefonoDestinatario.matches("^[0-9]{7,10}$")) {
+            errores.append("- El teléfono debe tener entre 7 y 10 dígitos\n");
+        }
+        if (emailDestinatario != null && !emailDestinatario.trim().isEmpty()
+                && !emailDestinatario.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+            errores.append("- El formato del email no es válido\n");
+        }
+        return errores.length() > 0 ? errores.toString() : null;
+    }
+}
@@ -0,0 +1,116 @@
+package co.edu.uniquindio.poo.command;
+
+import org.junit.jupiter.api.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para GestorComandos
+ * Verifica el historial acotado por sesión, el desborde de los comandos antiguos
+ * y que deshacer en una sesión no afecta a las demás
+ */
+class GestorComandosTest {
+
+    /**
+     * Comando que suma o resta uno a un contador compartido.
+     */
+    private static class Incremento implements Command {
+        private final AtomicInteger contador;
+        private final int numero;
+
+        Incremento(AtomicInteger contador, int numero) {
+            this.contador = contador;
+            this.numero = numero;
+        }
+
+        @Override
+        public void ejecutar() {
+            contador.incrementAndGet();
+        }
+
+        @Override
+        public void deshacer() {
+            contador.decrementAndGet();
+        }
+
+        @Override
+        public String getDescripcion() {
+            return "Incremento " + numero;
+        }
+    }
+
+    @Test
+    @DisplayName("Debe limitar el historial a la profundidad y entregar en orden los comandos desbordados")
+    void testHistorialAcotado() {
+        List<String> archivados = new ArrayList<>();
+        GestorComandos gestor = new GestorComandos(3, (sesion, comandos) ->
+                comandos.forEach(comando -> archivados.add(sesion + ":" + comando.getDescripcion())));
+        AtomicInteger contador = new AtomicInteger();
+
+        for (int i = 1; i <= 7; i++) {
+            gestor.ejecutarComando("ADM1", new Incremento(contador, i));
+        }
+        assertEquals("Historial de comandos:\n- Incremento 5\n- Incremento 6\n- Incremento 7\n",
+                gestor.obtenerHistorial("ADM1"));
+        // La poda ocurre al llegar al doble de la profundidad
+        assertEquals(List.of("ADM1:Incremento 1", "ADM1:Incremento 2", "ADM1:Incremento 3",
+                "ADM1:Incremento 4"), archivados);
+
+        for (int i = 0; i < 5; i++) {
+            gestor.deshacerUltimoComando("ADM1");
+        }
+        assertEquals(4, contador.get(), "Solo se deshacen los 3 últimos comandos");
+
+        gestor.rehacerUltimoComando("ADM1");
+        assertEquals(5, contador.get());
+        gestor.ejecutarComando("ADM1", new Incremento(contador, 8));
+        gestor.rehacerUltimoComando("ADM1");
+        assertEquals(6, contador.get(), "Un comando nuevo descarta los que se podían rehacer");
+        assertEquals("Historial de comandos:\n- Incremento 5\n- Incremento 8\n", gestor.obtenerHistorial("ADM1"));
+    }
+
+    @Test
+    @DisplayName("Debe aislar el historial de cada sesión con registros concurrentes")
+    void testSesionesConcurrentes() throws InterruptedException {
+        GestorComandos gestor = new GestorComandos(50, null);
+        AtomicInteger contador = new AtomicInteger();
+        int hilos = 4;
+        int porHilo = 1000;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        for (int h = 0; h < hilos; h++) {
+            String sesion = "USR" + (h % 2);
+            ejecutor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < porHilo; i++) {
+                    gestor.ejecutarComando(sesion, new Incremento(contador, i));
+                    if (i % 3 == 0) {
+                        gestor.deshacerUltimoComando(sesion);
+                    }
+                }
+                return null;
+            });
+        }
+        inicio.countDown();
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int deshechos = hilos * ((porHilo + 2) / 3);
+        assertEquals(hilos * porHilo - deshechos, contador.get());
+
+        gestor.cerrarSesion("USR0");
+        gestor.ejecutarComando("USR1", new Incremento(contador, porHilo));
+        for (int i = 0; i < 60; i++) {
+            gestor.deshacerUltimoComando("USR1");
+        }
+        assertEquals(hilos * porHilo - deshechos + 1 - 50, contador.get(), "USR1 deshace a lo sumo su profundidad");
+        gestor.deshacerUltimoComando("USR0");
+        assertEquals(hilos * porHilo - deshechos + 1 - 50, contador.get(), "La sesión cerrada no conserva historial");
+    }
+}
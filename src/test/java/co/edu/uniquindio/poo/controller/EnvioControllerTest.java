@@ -3,7 +3,9 @@ package co.edu.uniquindio.poo.controller;
 import co.edu.uniquindio.poo.model.*;
 import co.edu.uniquindio.poo.factory.EntidadFactory;
 import org.junit.jupiter.api.*;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -180,4 +182,166 @@ class EnvioControllerTest {
             assertEquals(Envio.TipoEnvio.EXPRESS, envioExpress.getTipoEnvio());
         }
     }
+    
+    @Test
+    @DisplayName("Debe mantener los índices por estado al cambiar el estado del envío")
+    void testIndicePorEstado() {
+        if (usuarioTest != null) {
+            Envio envio = envioController.crearEnvioEstandar(
+                usuarioTest, origen, destino, 2.0, 30, 20, 15
+            );
+            
+            assertTrue(envioController.obtenerEnviosPendientesAsignacion().contains(envio));
+            assertTrue(usuarioController.obtenerEnviosUsuario(usuarioTest.getIdUsuario()).contains(envio));
+            
+            envioController.actualizarEstado(envio.getIdEnvio(), Envio.EstadoEnvio.ASIGNADO);
+            
+            assertFalse(envioController.obtenerEnviosPendientesAsignacion().contains(envio));
+            assertTrue(envioController.filtrarPorEstado(Envio.EstadoEnvio.ASIGNADO).contains(envio));
+            
+            envioController.eliminarEnvio(envio.getIdEnvio());
+            assertFalse(envioController.filtrarPorEstado(Envio.EstadoEnvio.ASIGNADO).contains(envio));
+            assertFalse(usuarioController.obtenerEnviosUsuario(usuarioTest.getIdUsuario()).contains(envio));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe crear en lote los envíos válidos y reportar las filas rechazadas")
+    void testCrearEnviosEnLote() {
+        if (usuarioTest != null) {
+            SolicitudEnvio valida = SolicitudEnvio.builder()
+                    .idUsuario(usuarioTest.getIdUsuario()).origen(origen).destino(destino)
+                    .tipoEnvio(Envio.TipoEnvio.EXPRESS).peso(2.0).volumen(6000).descripcion("Libros")
+                    .nombreDestinatario("Ana Gómez").telefonoDestinatario("3001234567")
+                    .build();
+            SolicitudEnvio telefonoInvalido = SolicitudEnvio.builder()
+                    .idUsuario(usuarioTest.getIdUsuario()).origen(origen).destino(destino)
+                    .peso(2.0).volumen(6000).descripcion("Libros")
+                    .nombreDestinatario("Ana Gómez").telefonoDestinatario("12")
+                    .build();
+            SolicitudEnvio usuarioInexistente = SolicitudEnvio.builder()
+                    .idUsuario("NO-EXISTE").origen(origen).destino(destino)
+                    .peso(2.0).volumen(6000).descripcion("Libros")
+                    .nombreDestinatario("Ana Gómez").telefonoDestinatario("3001234567")
+                    .build();
+            
+            ResultadoLoteEnvios resultado = envioController.crearEnviosEnLote(
+                List.of(valida, telefonoInvalido, usuarioInexistente, valida));
+            
+            assertEquals(4, resultado.getTotalFilas());
+            assertEquals(2, resultado.getAceptados().size());
+            assertEquals(List.of(1, 2), resultado.getRechazos().stream()
+                .map(ResultadoLoteEnvios.RechazoFila::getFila).toList());
+            assertTrue(resultado.getRechazos().get(0).getMensaje().contains("teléfono"));
+            
+            Envio creado = resultado.getAceptados().get(0);
+            assertNotEquals(creado.getIdEnvio(), resultado.getAceptados().get(1).getIdEnvio());
+            assertSame(creado, envioController.buscarEnvioPorId(creado.getIdEnvio()).orElse(null));
+            assertEquals(Envio.EstadoEnvio.SOLICITADO, creado.getEstado());
+            assertEquals(envioController.calcularCostoEnvio(2.0, 6000, creado.getDistancia(), Envio.TipoEnvio.EXPRESS),
+                creado.getCosto(), 0.001);
+            assertTrue(creado.getDistancia() > 0);
+            
+            // El flujo procesa las mismas filas por bloques con el mismo reporte
+            ResultadoLoteEnvios porFlujo = envioController.crearEnviosEnLote(
+                java.util.stream.Stream.of(valida, telefonoInvalido, usuarioInexistente, valida));
+            assertEquals(2, porFlujo.getAceptados().size());
+            assertEquals(2, porFlujo.getRechazos().size());
+            
+            resultado.getAceptados().forEach(envio -> envioController.eliminarEnvio(envio.getIdEnvio()));
+            porFlujo.getAceptados().forEach(envio -> envioController.eliminarEnvio(envio.getIdEnvio()));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe recotizar los envíos abiertos y reportar los cambios y la variación de ingresos")
+    void testRecotizarEnviosAbiertos() {
+        if (usuarioTest != null) {
+            Envio estandar = envioController.crearEnvioEstandar(usuarioTest, origen, destino, 2.5, 30, 20, 15);
+            Envio express = envioController.crearEnvioExpress(usuarioTest, origen, destino, 1.0, 25, 15, 10);
+            Envio cerrado = envioController.crearEnvioEstandar(usuarioTest, origen, destino, 3.0, 10, 10, 10);
+            try {
+                SistemaGestion sistema = SistemaGestion.obtenerInstancia();
+                assertEquals(0, estandar.getDistancia());
+                envioController.recotizarEnviosAbiertos();
+                assertTrue(estandar.getDistancia() > 0, "La distancia resuelta queda guardada en el envío");
+                double costoEstandar = estandar.getCosto();
+                double sinSeguro = express.getCosto();
+                sistema.modificarEnvio(express.getIdEnvio(), envio -> {
+                    envio.setValorDeclarado(100000);
+                    envio.setAdicionales(ServicioAdicional.SEGURO.bit());
+                });
+                envioController.recotizarEnviosAbiertos();
+                double costoExpress = express.getCosto();
+                assertEquals(sinSeguro + 100000 * envioController.obtenerRecargo(ServicioAdicional.SEGURO),
+                        costoExpress, 0.001, "La recotización conserva los servicios adicionales");
+                sistema.modificarEnvio(estandar.getIdEnvio(), envio -> envio.setCosto(1000));
+                sistema.modificarEnvio(express.getIdEnvio(), envio -> {
+                    envio.setEstado(Envio.EstadoEnvio.ASIGNADO);
+                    envio.setCosto(2000);
+                });
+                sistema.modificarEnvio(cerrado.getIdEnvio(), envio -> {
+                    envio.setEstado(Envio.EstadoEnvio.INCIDENCIA);
+                    envio.setCosto(3000);
+                });
+                
+                ResultadoRecotizacion resultado = envioController.recotizarEnviosAbiertos();
+                
+                assertEquals(2, resultado.getEnviosModificados());
+                assertTrue(resultado.getEnviosEvaluados() >= 2);
+                assertEquals(costoEstandar - 1000 + costoExpress - 2000, resultado.getVariacionIngresos(), 0.001);
+                assertEquals(costoEstandar, estandar.getCosto());
+                assertEquals(costoExpress, express.getCosto());
+                assertEquals(3000, cerrado.getCosto());
+            } finally {
+                envioController.eliminarEnvio(estandar.getIdEnvio());
+                envioController.eliminarEnvio(express.getIdEnvio());
+                envioController.eliminarEnvio(cerrado.getIdEnvio());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debe actualizar estados en lote, reportar cada envío y deshacer el lote completo")
+    void testActualizarEstadosEnLote() {
+        if (usuarioTest != null) {
+            Envio asignable = envioController.crearEnvioEstandar(usuarioTest, origen, destino, 2.0, 30, 20, 15);
+            Envio adelantado = envioController.crearEnvioEstandar(usuarioTest, origen, destino, 2.0, 30, 20, 15);
+            Envio igual = envioController.crearEnvioEstandar(usuarioTest, origen, destino, 2.0, 30, 20, 15);
+            try {
+                Map<String, Envio.EstadoEnvio> cambios = new LinkedHashMap<>();
+                cambios.put(asignable.getIdEnvio(), Envio.EstadoEnvio.ASIGNADO);
+                cambios.put(adelantado.getIdEnvio(), Envio.EstadoEnvio.ENTREGADO);
+                cambios.put(igual.getIdEnvio(), Envio.EstadoEnvio.SOLICITADO);
+                cambios.put("NO-EXISTE", Envio.EstadoEnvio.EN_RUTA);
+                
+                ResultadoCambiosEstado resultado = envioController.actualizarEstadosEnLote(cambios);
+                
+                assertEquals(4, resultado.getTotal());
+                assertEquals(1, resultado.getAplicados());
+                assertEquals(ResultadoCambiosEstado.Desenlace.APLICADO,
+                        resultado.getCambio(asignable.getIdEnvio()).getDesenlace());
+                ResultadoCambiosEstado.CambioEstado rechazado = resultado.getCambio(adelantado.getIdEnvio());
+                assertEquals(ResultadoCambiosEstado.Desenlace.RECHAZADO, rechazado.getDesenlace());
+                assertEquals("No se permite pasar de SOLICITADO a ENTREGADO", rechazado.getMotivo());
+                assertEquals(ResultadoCambiosEstado.Desenlace.SIN_CAMBIO,
+                        resultado.getCambio(igual.getIdEnvio()).getDesenlace());
+                assertEquals(ResultadoCambiosEstado.Desenlace.NO_ENCONTRADO,
+                        resultado.getCambio("NO-EXISTE").getDesenlace());
+                assertEquals(Envio.EstadoEnvio.ASIGNADO, asignable.getEstado());
+                assertEquals(Envio.EstadoEnvio.SOLICITADO, adelantado.getEstado());
+                assertTrue(envioController.filtrarPorEstado(Envio.EstadoEnvio.ASIGNADO).contains(asignable));
+                
+                envioController.deshacerUltimaOperacion();
+                assertEquals(Envio.EstadoEnvio.SOLICITADO, asignable.getEstado());
+                assertTrue(envioController.obtenerEnviosPendientesAsignacion().contains(asignable));
+                envioController.rehacerUltimaOperacion();
+                assertEquals(Envio.EstadoEnvio.ASIGNADO, asignable.getEstado());
+            } finally {
+                envioController.eliminarEnvio(asignable.getIdEnvio());
+                envioController.eliminarEnvio(adelantado.getIdEnvio());
+                envioController.eliminarEnvio(igual.getIdEnvio());
+            }
+        }
+    }
 }
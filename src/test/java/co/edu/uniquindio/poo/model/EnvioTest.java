@@ -0,0 +1,156 @@
+package co.edu.uniquindio.poo.model;
+
+import co.edu.uniquindio.poo.command.ActualizarEstadoCommand;
+import co.edu.uniquindio.poo.command.GestorComandos;
+import co.edu.uniquindio.poo.factory.EntidadFactory;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para Envio
+ * Verifica que un envío registrado solo se modifica a través de SistemaGestion
+ * y que los índices y métricas siguen al envío bajo escrituras concurrentes
+ */
+class EnvioTest {
+
+    private SistemaGestion sistema;
+    private Usuario usuario;
+    private Direccion origen;
+    private Direccion destino;
+
+    @BeforeEach
+    void setUp() {
+        sistema = SistemaGestion.obtenerInstancia();
+        usuario = sistema.getUsuarios().get(0);
+        origen = EntidadFactory.crearDireccion("Origen", "Calle 10", "Armenia", 4.536389, -75.681111);
+        destino = EntidadFactory.crearDireccion("Destino", "Calle 20", "Armenia", 4.540000, -75.675000);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar los setters de un envío registrado fuera de modificarEnvio y los cambios de id")
+    void testSettersProtegidos() {
+        Envio envio = crearEnvio("ENV-SET");
+        envio.setCosto(5000);
+        sistema.registrarEnvio(envio);
+        try {
+            assertThrows(IllegalStateException.class, () -> envio.setEstado(Envio.EstadoEnvio.ASIGNADO));
+            assertThrows(IllegalStateException.class, () -> envio.setDescripcion("Otro contenido"));
+            assertEquals(Envio.EstadoEnvio.SOLICITADO, envio.getEstado());
+
+            assertTrue(sistema.modificarEnvio("ENV-SET", e -> e.setEstado(Envio.EstadoEnvio.ASIGNADO)));
+            assertTrue(sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.ASIGNADO).contains(envio));
+
+            // Otro hilo no puede escribir mientras el envío está en modificación
+            sistema.modificarEnvio("ENV-SET", e -> {
+                Thread ajeno = new Thread(() -> assertThrows(IllegalStateException.class, () -> e.setCosto(1)));
+                ajeno.start();
+                assertDoesNotThrow(() -> ajeno.join());
+            });
+            assertEquals(5000, envio.getCosto());
+
+            // Cambiar de usuario mueve el envío en el índice; el id no puede cambiar
+            Usuario otro = sistema.getUsuarios().stream().filter(u -> u != usuario).findFirst().orElseThrow();
+            assertTrue(sistema.modificarEnvio("ENV-SET", e -> e.setUsuario(otro)));
+            assertFalse(sistema.buscarEnviosPorUsuario(usuario.getIdUsuario()).contains(envio));
+            assertTrue(sistema.buscarEnviosPorUsuario(otro.getIdUsuario()).contains(envio));
+            assertThrows(IllegalStateException.class, () -> sistema.modificarEnvio("ENV-SET", e -> {
+                e.setIdEnvio("ENV-SET-2");
+                e.setDescripcion("Renombrado");
+            }));
+            assertEquals("ENV-SET", envio.getIdEnvio());
+            assertSame(envio, sistema.buscarEnvioPorId("ENV-SET"));
+            assertEquals("Renombrado", envio.getDescripcion());
+        } finally {
+            sistema.eliminarEnvio("ENV-SET");
+        }
+        envio.setEstado(Envio.EstadoEnvio.ENTREGADO);
+        assertEquals(Envio.EstadoEnvio.ENTREGADO, envio.getEstado(), "Un envío eliminado vuelve a ser libre");
+    }
+
+    @Test
+    @DisplayName("Los índices y métricas deben coincidir con los envíos tras cambios y deshacer concurrentes")
+    void testCambiosConcurrentes() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Envio envio = crearEnvio("ENV-CONC-" + i);
+            sistema.registrarEnvio(envio);
+            ids.add(envio.getIdEnvio());
+        }
+        Envio.EstadoEnvio[] estados = Envio.EstadoEnvio.values();
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        CountDownLatch inicio = new CountDownLatch(1);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                final int hilo = h;
+                resultados.add(hilos.submit(() -> {
+                    Random random = new Random(hilo);
+                    GestorComandos gestor = new GestorComandos(8, null);
+                    inicio.await();
+                    for (int i = 0; i < 2000; i++) {
+                        String id = ids.get(random.nextInt(ids.size()));
+                        switch (random.nextInt(3)) {
+                            case 0 -> sistema.modificarEnvio(id,
+                                    e -> e.setEstado(estados[random.nextInt(estados.length)]));
+                            case 1 -> sistema.modificarEnvio(id, e -> e.setCosto(1000 + random.nextInt(9000)));
+                            default -> {
+                                try {
+                                    gestor.ejecutarComando(new ActualizarEstadoCommand(sistema, id,
+                                            estados[random.nextInt(estados.length)]));
+                                } catch (IllegalStateException e) {
+                                    // Transición no permitida desde el estado actual
+                                }
+                                if (random.nextBoolean()) {
+                                    gestor.deshacerUltimoComando();
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            inicio.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+
+            for (Envio.EstadoEnvio estado : estados) {
+                Set<String> indexados = sistema.buscarEnviosPorEstado(estado).stream()
+                        .map(Envio::getIdEnvio).filter(ids::contains).collect(Collectors.toSet());
+                Set<String> reales = ids.stream()
+                        .filter(id -> sistema.buscarEnvioPorId(id).getEstado() == estado)
+                        .collect(Collectors.toSet());
+                assertEquals(reales, indexados, "Índice del estado " + estado);
+
+                long esperado = sistema.getEnvios().stream().filter(e -> e.getEstado() == estado).count();
+                assertEquals(esperado, sistema.obtenerMetricas().getEnviosEnEstado(estado), "Métrica de " + estado);
+            }
+            long centavos = sistema.getEnvios().stream().mapToLong(e -> MetricasSistema.aCentavos(e.getCosto())).sum();
+            assertEquals(centavos, sistema.obtenerMetricas().getIngresoCentavos());
+        } finally {
+            hilos.shutdown();
+            ids.forEach(sistema::eliminarEnvio);
+        }
+    }
+
+    private Envio crearEnvio(String id) {
+        return Envio.builder()
+                .idEnvio(id)
+                .origen(origen)
+                .destino(destino)
+                .usuario(usuario)
+                .peso(1.0)
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package co.edu.uniquindio.poo.model;
+
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para IndiceEspacial
+ * Verifica que las búsquedas por radio y de los k más cercanos coinciden con un
+ * recorrido lineal, también cerca del antimeridiano, y que el índice sigue los cambios
+ */
+class IndiceEspacialTest {
+
+    private static Direccion direccion(String id, double latitud, double longitud) {
+        return new Direccion.Builder(id).conCiudad("Armenia").conCoordenadas(latitud, longitud).build();
+    }
+
+    @Test
+    @DisplayName("Debe coincidir con un recorrido lineal en búsquedas por radio y k más cercanos")
+    void testConsultasCoincidenConRecorridoLineal() {
+        IndiceEspacial<Direccion> indice = new IndiceEspacial<>(d -> d);
+        List<Direccion> todas = new ArrayList<>();
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            // Alrededor de Armenia y a ambos lados del antimeridiano
+            double latitud = i % 2 == 0 ? 4.53 + aleatorio.nextGaussian() * 0.1 : -16.5 + aleatorio.nextGaussian() * 0.1;
+            double longitud = i % 2 == 0 ? -75.68 + aleatorio.nextGaussian() * 0.1
+                    : 179.95 + aleatorio.nextGaussian() * 0.1;
+            longitud = longitud > 180 ? longitud - 360 : longitud;
+            Direccion d = direccion("D-" + i, latitud, longitud);
+            todas.add(d);
+            indice.actualizar(d.getIdDireccion(), List.of(d));
+        }
+        assertEquals(2000, indice.tamano());
+
+        double[][] consultas = {{4.53, -75.68}, {-16.5, 179.99}, {-16.5, -179.99}};
+        for (double[] punto : consultas) {
+            Comparator<Direccion> porDistancia = Comparator.comparingDouble(
+                    d -> IndiceEspacial.distanciaKm(punto[0], punto[1], d.getLatitud(), d.getLongitud()));
+
+            List<Direccion> esperadasRadio = todas.stream()
+                    .filter(d -> IndiceEspacial.distanciaKm(punto[0], punto[1], d.getLatitud(), d.getLongitud()) <= 5)
+                    .sorted(porDistancia).collect(Collectors.toList());
+            assertFalse(esperadasRadio.isEmpty());
+            assertEquals(esperadasRadio, indice.enRadio(punto[0], punto[1], 5));
+
+            List<Direccion> esperadasK = todas.stream().sorted(porDistancia).limit(10).collect(Collectors.toList());
+            assertEquals(esperadasK, indice.masCercanos(punto[0], punto[1], 10));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe mantener sincronizado el índice de SistemaGestion al modificar y eliminar envíos")
+    void testSincronizacionConSistemaGestion() {
+        SistemaGestion sistema = SistemaGestion.obtenerInstancia();
+        Usuario usuario = Usuario.builder().idUsuario("USR-GEO").nombreCompleto("Usuario Geo")
+                .correoElectronico("geo@test.com").build();
+        usuario.agregarDireccionFrecuente(direccion("DIR-GEO", 4.4500, -75.7000));
+        sistema.registrarUsuario(usuario);
+        Envio envio = Envio.builder().idEnvio("ENV-GEO").usuario(usuario)
+                .origen(direccion("ORI-GEO", 4.4400, -75.7100))
+                .destino(direccion("DES-GEO", 4.4600, -75.6900))
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(1)).build();
+        try {
+            sistema.registrarEnvio(envio);
+            assertTrue(sistema.buscarEnviosPorOrigenCercano(4.4401, -75.7101, 0.1).contains(envio));
+            assertEquals("DIR-GEO", sistema.buscarDireccionConocidaMasCercana(4.4501, -75.7001, 0.05)
+                    .getIdDireccion());
+            assertNull(sistema.buscarDireccionConocidaMasCercana(4.4700, -75.7300, 0.05));
+
+            Direccion nuevoDestino = direccion("DES-GEO-2", 4.5000, -75.6500);
+            sistema.modificarEnvio("ENV-GEO", e -> e.setDestino(nuevoDestino));
+            assertFalse(sistema.buscarEnviosPorDestinoCercano(4.4600, -75.6900, 0.5).contains(envio));
+            assertTrue(sistema.buscarEnviosPorDestinoCercano(4.5000, -75.6500, 0.5).contains(envio));
+
+            sistema.eliminarEnvio("ENV-GEO");
+            assertFalse(sistema.buscarEnviosPorOrigenCercano(4.4400, -75.7100, 0.5).contains(envio));
+        } finally {
+            sistema.eliminarUsuario("USR-GEO");
+        }
+        assertNotEquals("DIR-GEO", Optional.ofNullable(
+                sistema.buscarDireccionConocidaMasCercana(4.4500, -75.7000, 0.05))
+                .map(Direccion::getIdDireccion).orElse(null));
+    }
+}
@@ -0,0 +1,174 @@
+package co.edu.uniquindio.poo.model;
+
+import co.edu.uniquindio.poo.factory.EntidadFactory;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para MetricasSistema
+ * Compara los contadores incrementales contra un reconteo completo
+ * después de secuencias aleatorias de operaciones
+ */
+class MetricasSistemaTest {
+
+    private SistemaGestion sistema;
+    private Usuario usuario;
+    private Direccion origen;
+    private Direccion destino;
+    /** Incidencias que registró la prueba, de todos los hilos */
+    private final Queue<String> incidenciasRegistradas = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        sistema = SistemaGestion.obtenerInstancia();
+        usuario = sistema.getUsuarios().get(0);
+        origen = EntidadFactory.crearDireccion("Origen", "Calle 10", "Armenia", 4.536389, -75.681111);
+        destino = EntidadFactory.crearDireccion("Destino", "Calle 20", "Armenia", 4.540000, -75.675000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        incidenciasRegistradas.forEach(sistema::eliminarIncidencia);
+        incidenciasRegistradas.clear();
+        assertTrue(sistema.getIncidencias().stream().noneMatch(i -> i.getIdIncidencia().startsWith("MET-")));
+        verificarContraReconteo();
+    }
+
+    @Test
+    @DisplayName("Los contadores deben coincidir con un reconteo tras operaciones aleatorias")
+    void testContadoresContraReconteo() {
+        Random random = new Random(20241017L);
+        List<String> idsEnvios = new ArrayList<>();
+        List<String> idsIncidencias = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            ejecutarOperacionAleatoria(random, "MET-" + i, idsEnvios, idsIncidencias);
+            if (i % 250 == 0) {
+                verificarContraReconteo();
+            }
+        }
+        verificarContraReconteo();
+
+        idsEnvios.forEach(sistema::eliminarEnvio);
+        verificarContraReconteo();
+    }
+
+    @Test
+    @DisplayName("Los contadores deben coincidir con un reconteo tras operaciones concurrentes")
+    void testContadoresConcurrentes() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> resultados = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                final int hilo = h;
+                resultados.add(hilos.submit(() -> {
+                    Random random = new Random(hilo);
+                    List<String> idsEnvios = new ArrayList<>();
+                    List<String> idsIncidencias = new ArrayList<>();
+                    for (int i = 0; i < 1000; i++) {
+                        ejecutarOperacionAleatoria(random, "MET-H" + hilo + "-" + i, idsEnvios, idsIncidencias);
+                    }
+                    return idsEnvios;
+                }));
+            }
+            List<String> creados = new ArrayList<>();
+            for (Future<List<String>> resultado : resultados) {
+                creados.addAll(resultado.get());
+            }
+            verificarContraReconteo();
+
+            creados.forEach(sistema::eliminarEnvio);
+            verificarContraReconteo();
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    private void ejecutarOperacionAleatoria(Random random, String id,
+                                            List<String> idsEnvios, List<String> idsIncidencias) {
+        Envio.EstadoEnvio[] estadosEnvio = Envio.EstadoEnvio.values();
+        Incidencia.EstadoIncidencia[] estadosIncidencia = Incidencia.EstadoIncidencia.values();
+        int operacion = idsEnvios.isEmpty() ? 0 : random.nextInt(7);
+        String existente = idsEnvios.isEmpty() ? null : idsEnvios.get(random.nextInt(idsEnvios.size()));
+
+        switch (operacion) {
+            case 0 -> {
+                sistema.registrarEnvio(crearEnvio(id, estadosEnvio[random.nextInt(estadosEnvio.length)],
+                        costoAleatorio(random)));
+                idsEnvios.add(id);
+            }
+            case 1 -> sistema.modificarEnvio(existente,
+                    e -> e.setEstado(estadosEnvio[random.nextInt(estadosEnvio.length)]));
+            case 2 -> sistema.modificarEnvio(existente, e -> e.setCosto(costoAleatorio(random)));
+            case 3 -> {
+                sistema.eliminarEnvio(existente);
+                idsEnvios.remove(existente);
+            }
+            case 4 -> sistema.registrarEnvio(crearEnvio(existente,
+                    estadosEnvio[random.nextInt(estadosEnvio.length)], costoAleatorio(random)));
+            case 5 -> {
+                Incidencia incidencia = new Incidencia.Builder(id)
+                        .conDescripcion("Incidencia de prueba")
+                        .conEnvio(sistema.buscarEnvioPorId(existente))
+                        .build();
+                sistema.registrarIncidencia(incidencia);
+                idsIncidencias.add(id);
+                incidenciasRegistradas.add(id);
+            }
+            default -> {
+                if (!idsIncidencias.isEmpty()) {
+                    String idIncidencia = idsIncidencias.get(random.nextInt(idsIncidencias.size()));
+                    sistema.modificarIncidencia(idIncidencia,
+                            i -> i.setEstado(estadosIncidencia[random.nextInt(estadosIncidencia.length)]));
+                }
+            }
+        }
+    }
+
+    private void verificarContraReconteo() {
+        MetricasSistema metricas = sistema.obtenerMetricas();
+        List<Envio> envios = sistema.getEnvios();
+
+        for (Envio.EstadoEnvio estado : Envio.EstadoEnvio.values()) {
+            long esperado = envios.stream().filter(e -> e.getEstado() == estado).count();
+            assertEquals(esperado, metricas.getEnviosEnEstado(estado), "Envíos en estado " + estado);
+        }
+
+        long activos = envios.stream().filter(e -> e.getEstado() != Envio.EstadoEnvio.ENTREGADO).count();
+        assertEquals(activos, metricas.getEnviosActivos());
+
+        long centavos = envios.stream().mapToLong(e -> MetricasSistema.aCentavos(e.getCosto())).sum();
+        assertEquals(centavos, metricas.getIngresoCentavos());
+
+        long pendientes = sistema.getIncidencias().stream()
+                .filter(i -> MetricasSistema.estaPendiente(i.getEstado()))
+                .count();
+        assertEquals(pendientes, metricas.getIncidenciasPendientes());
+    }
+
+    private Envio crearEnvio(String id, Envio.EstadoEnvio estado, double costo) {
+        return Envio.builder()
+                .idEnvio(id)
+                .origen(origen)
+                .destino(destino)
+                .usuario(usuario)
+                .peso(1.0)
+                .estado(estado)
+                .costo(costo)
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    private static double costoAleatorio(Random random) {
+        return 3500 + random.nextInt(50000) + random.nextInt(100) / 100.0;
+    }
+}
@@ -0,0 +1,184 @@
+package co.edu.uniquindio.poo.model;
+
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para MotorDespacho
+ * Verifica la coincidencia de zona, el límite de capacidad, la preferencia por la
+ * recogida más cercana, la aplicación del plan en SistemaGestion y la liberación
+ * de cupos al entregar, reasignar o eliminar envíos
+ */
+class MotorDespachoTest {
+
+    private final SistemaGestion sistema = SistemaGestion.obtenerInstancia();
+    private final Usuario usuario = Usuario.builder().idUsuario("USR-DSP").nombreCompleto("Usuario Despacho").build();
+
+    private static Repartidor repartidor(String id, String zona, Repartidor.EstadoRepartidor estado) {
+        return Repartidor.builder().idRepartidor(id).nombre(id).documento("1").telefono("3000000000")
+                .zonaCobertura(zona).estado(estado).build();
+    }
+
+    private Envio envio(String id, String ciudad, double latitud, double longitud) {
+        return Envio.builder().idEnvio(id).usuario(usuario)
+                .origen(new Direccion.Builder(id + "-O").conCiudad(ciudad).conCoordenadas(latitud, longitud).build())
+                .destino(new Direccion.Builder(id + "-D").conCiudad(ciudad)
+                        .conCoordenadas(latitud + 0.01, longitud + 0.01).build())
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(1)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String id : List.of("ENV-DSP-1", "ENV-DSP-2", "ENV-DSP-3", "ENV-DSP-4", "ENV-DSP-5", "ENV-DSP-6")) {
+            sistema.eliminarEnvio(id);
+        }
+        for (String id : List.of("REP-DSP-1", "REP-DSP-2", "REP-DSP-3")) {
+            sistema.eliminarRepartidor(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe respetar la zona de cobertura, la disponibilidad y la capacidad de los repartidores")
+    void testPlanificarPorZonaYCapacidad() {
+        MotorDespacho motor = new MotorDespacho(sistema, 1);
+        List<Repartidor> repartidores = List.of(
+                repartidor("REP-DSP-1", "Armenia Norte", Repartidor.EstadoRepartidor.ACTIVO),
+                repartidor("REP-DSP-2", "Calarcá", Repartidor.EstadoRepartidor.ACTIVO),
+                repartidor("REP-DSP-3", "Armenia Sur", Repartidor.EstadoRepartidor.INACTIVO));
+        List<Envio> pendientes = List.of(
+                envio("ENV-DSP-1", "Armenia", 4.53, -75.68),
+                envio("ENV-DSP-2", "CALARCA", 4.52, -75.64),
+                envio("ENV-DSP-3", "Pereira", 4.81, -75.69),
+                envio("ENV-DSP-4", "Armenia", 4.54, -75.67));
+
+        int[] plan = motor.planificar(pendientes, repartidores);
+
+        assertEquals(1, plan[1]);
+        assertEquals(MotorDespacho.SIN_COBERTURA, plan[2]);
+        // Un solo repartidor activo en Armenia con capacidad 1: uno de los dos queda sin asignar
+        assertEquals(1, (plan[0] == 0 ? 1 : 0) + (plan[3] == 0 ? 1 : 0));
+        assertTrue(plan[0] == MotorDespacho.SIN_REPARTIDOR || plan[3] == MotorDespacho.SIN_REPARTIDOR);
+    }
+
+    @Test
+    @DisplayName("Debe preferir al repartidor más cercano y aplicar el plan revalidando la capacidad")
+    void testDespacharPrefiereRecogidaCercana() {
+        Repartidor lejano = repartidor("REP-DSP-1", "Armenia Norte", Repartidor.EstadoRepartidor.ACTIVO);
+        Repartidor cercano = repartidor("REP-DSP-2", "Armenia Sur", Repartidor.EstadoRepartidor.ACTIVO);
+        sistema.registrarRepartidor(lejano);
+        sistema.registrarRepartidor(cercano);
+        // Cada repartidor se ubica en la entrega de su envío abierto
+        Envio enCursoLejano = envio("ENV-DSP-5", "Armenia", 4.60, -75.60);
+        Envio enCursoCercano = envio("ENV-DSP-6", "Armenia", 4.52, -75.70);
+        sistema.registrarEnvios(List.of(enCursoLejano, enCursoCercano));
+        assertEquals(2, sistema.asignarRepartidores(List.of(enCursoLejano, enCursoCercano),
+                List.of(lejano, cercano), 2));
+
+        Envio pendiente = envio("ENV-DSP-1", "Armenia", 4.531, -75.689);
+        sistema.registrarEnvio(pendiente);
+        MotorDespacho motor = new MotorDespacho(sistema, 2);
+        int[] plan = motor.planificar(List.of(pendiente), List.of(lejano, cercano));
+        assertArrayEquals(new int[]{1}, plan);
+
+        assertEquals(1, sistema.asignarRepartidores(List.of(pendiente), List.of(cercano), 2));
+        assertEquals(Envio.EstadoEnvio.ASIGNADO, pendiente.getEstado());
+        assertSame(cercano, pendiente.getRepartidor());
+        assertEquals(2, cercano.getEnviosAsignados());
+
+        // El repartidor ya está en su capacidad: la asignación se descarta
+        Envio otro = envio("ENV-DSP-2", "Armenia", 4.53, -75.68);
+        sistema.registrarEnvio(otro);
+        assertEquals(0, sistema.asignarRepartidores(List.of(otro), List.of(cercano), 2));
+        assertEquals(Envio.EstadoEnvio.SOLICITADO, otro.getEstado());
+    }
+
+    @Test
+    @DisplayName("Debe liberar el cupo al entregar, reasignar o eliminar y permitir asignar más allá de la capacidad")
+    void testCuposLiberadosBajoCarga() throws Exception {
+        int capacidad = MotorDespacho.CAPACIDAD_PREDETERMINADA;
+        Repartidor primero = repartidor("REP-DSP-1", "Armenia Norte", Repartidor.EstadoRepartidor.ACTIVO);
+        Repartidor segundo = repartidor("REP-DSP-2", "Armenia Sur", Repartidor.EstadoRepartidor.ACTIVO);
+        sistema.registrarRepartidor(primero);
+        sistema.registrarRepartidor(segundo);
+        List<String> creados = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            // Llena al primero, entrega uno y vuelve a tener cupo
+            List<Envio> lote = new ArrayList<>();
+            for (int i = 0; i <= capacidad; i++) {
+                Envio envio = envio("ENV-CUP-" + i, "Armenia", 4.53, -75.68);
+                sistema.registrarEnvio(envio);
+                creados.add(envio.getIdEnvio());
+                lote.add(envio);
+            }
+            assertEquals(capacidad, sistema.asignarRepartidores(lote, Collections.nCopies(lote.size(), primero), capacidad));
+            assertEquals(capacidad, primero.getEnviosAsignados());
+            sistema.modificarEnvio("ENV-CUP-0", Envio::iniciarEntrega);
+            sistema.modificarEnvio("ENV-CUP-0", Envio::marcarEntregado);
+            assertEquals(capacidad - 1, primero.getEnviosAsignados());
+            assertEquals(1, sistema.asignarRepartidores(lote.subList(capacidad, capacidad + 1), List.of(primero), capacidad));
+            assertTrue(sistema.reasignarRepartidor("ENV-CUP-1", segundo, capacidad));
+            sistema.eliminarEnvio("ENV-CUP-2");
+            assertEquals(capacidad - 2, primero.getEnviosAsignados());
+            assertEquals(1, segundo.getEnviosAsignados());
+
+            // Ciclos concurrentes de asignar, entregar, reportar, reasignar y eliminar
+            List<Future<Integer>> resultados = new ArrayList<>();
+            for (int h = 0; h < 4; h++) {
+                final int hilo = h;
+                resultados.add(hilos.submit(() -> {
+                    Random random = new Random(hilo);
+                    int asignados = 0;
+                    for (int i = 0; i < 200; i++) {
+                        Envio envio = envio("ENV-CUP-H" + hilo + "-" + i, "Armenia", 4.53, -75.68);
+                        sistema.registrarEnvio(envio);
+                        creados.add(envio.getIdEnvio());
+                        Repartidor elegido = random.nextBoolean() ? primero : segundo;
+                        if (sistema.asignarRepartidores(List.of(envio), List.of(elegido), capacidad) == 0) {
+                            continue;
+                        }
+                        asignados++;
+                        assertTrue(elegido.getEnviosAsignados() <= capacidad);
+                        String id = envio.getIdEnvio();
+                        switch (random.nextInt(4)) {
+                            case 0 -> sistema.modificarEnvio(id, Envio::reportarProblema);
+                            case 1 -> sistema.eliminarEnvio(id);
+                            case 2 -> sistema.reasignarRepartidor(id, elegido == primero ? segundo : primero, capacidad);
+                            default -> {
+                            }
+                        }
+                        sistema.modificarEnvio(id, e -> {
+                            if (e.getEstado() == Envio.EstadoEnvio.ASIGNADO) {
+                                e.iniciarEntrega();
+                                e.marcarEntregado();
+                            }
+                        });
+                    }
+                    return asignados;
+                }));
+            }
+            int asignados = 0;
+            for (Future<Integer> resultado : resultados) {
+                asignados += resultado.get();
+            }
+            assertTrue(asignados > 10 * capacidad, "Los cupos liberados se reutilizan: " + asignados);
+            assertEquals(capacidad - 2, primero.getEnviosAsignados());
+            assertEquals(1, segundo.getEnviosAsignados());
+        } finally {
+            hilos.shutdown();
+            creados.forEach(sistema::eliminarEnvio);
+        }
+        assertEquals(0, primero.getEnviosAsignados());
+        assertEquals(0, segundo.getEnviosAsignados());
+        assertTrue(primero.retirar(), "Sin envíos abiertos el repartidor puede retirarse");
+        assertTrue(segundo.retirar());
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.uniquindio.poo.model;
+
+import co.edu.uniquindio.poo.decorator.ServicioEntregaExpress;
+import co.edu.uniquindio.poo.decorator.ServicioEnvio;
+import co.edu.uniquindio.poo.decorator.ServicioEnvioBase;
+import co.edu.uniquindio.poo.decorator.ServicioSeguro;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para MotorTarifas
+ * Verifica que la tabla predeterminada reproduce la tarificación anterior y que
+ * el reemplazo de tarifas exige permiso y es atómico para las cotizaciones en curso
+ */
+class MotorTarifasTest {
+
+    private final MotorTarifas motor = MotorTarifas.obtenerInstancia();
+
+    @AfterEach
+    void tearDown() {
+        motor.restablecer();
+    }
+
+    @Test
+    @DisplayName("Debe cotizar con la tarificación anterior y sumar los servicios adicionales")
+    void testCotizarConTablaPredeterminada() {
+        double peso = 2.5;
+        double volumen = 3000;
+        double distancia = 12.3;
+        double subtotal = 3500.0 + peso * 150.0 + volumen / 1000.0 * 50.0 + distancia * 50.0;
+
+        assertEquals(subtotal, motor.cotizar(peso, volumen, distancia, Envio.TipoEnvio.ESTANDAR));
+        assertEquals(subtotal * 1.5, motor.cotizar(peso, volumen, distancia, Envio.TipoEnvio.EXPRESS));
+        assertEquals(subtotal * 1.3, motor.cotizar(peso, volumen, distancia, Envio.TipoEnvio.FRAGIL));
+        // Las mismas reglas que mostraba la vista: seguro del 10% del valor declarado y express del 50% del base
+        double valorDeclarado = 200000;
+        int fragil = Envio.TipoEnvio.FRAGIL.ordinal();
+        assertEquals(subtotal * 1.3 + 20000, motor.cotizar(peso, volumen, distancia, fragil, valorDeclarado,
+                ServicioAdicional.SEGURO.bit()), 1e-9);
+        assertEquals(subtotal * 1.3 * 1.5 + 20000, motor.cotizar(peso, volumen, distancia, fragil, valorDeclarado,
+                ServicioAdicional.SEGURO.bit() | ServicioAdicional.ENTREGA_EXPRESS.bit()), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> motor.cotizar(peso, volumen, distancia, fragil, valorDeclarado, 1L << 40));
+
+        Direccion direccion = new Direccion.Builder("D-TAR").conCiudad("Armenia").build();
+        Envio envio = Envio.builder().idEnvio("TAR-1").origen(direccion).destino(direccion)
+                .usuario(Usuario.builder().idUsuario("USR-TAR").build()).valorDeclarado(50000)
+                .fechaEntregaEstimada(LocalDateTime.now()).costo(10000).build();
+        ServicioSeguro conSeguro = new ServicioSeguro(new ServicioEnvioBase());
+        assertEquals(15000, conSeguro.calcularCosto(envio));
+        assertEquals("Servicio de envío básico + Seguro", conSeguro.getDescripcion());
+
+        // Los decoradores y la máscara comparten la única definición de cada recargo
+        ServicioEnvio completo = new ServicioEntregaExpress(new ServicioSeguro(new ServicioEnvioBase()));
+        envio.setCosto(motor.cotizar(peso, volumen, distancia, Envio.TipoEnvio.FRAGIL));
+        assertEquals(motor.cotizar(peso, volumen, distancia, fragil, envio.getValorDeclarado(),
+                completo.getAdicionales()), completo.calcularCosto(envio), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Debe exigir GESTIONAR_TARIFAS y publicar la nueva tabla de forma atómica")
+    void testActualizarTarifas() throws InterruptedException {
+        Map<Envio.TipoEnvio, Tarifa> tarifas = new EnumMap<>(Envio.TipoEnvio.class);
+        for (Envio.TipoEnvio tipo : Envio.TipoEnvio.values()) {
+            tarifas.put(tipo, new Tarifa.Builder(4000).conPeso(200).conPrioridad(2.0).conRecargos(100).build());
+        }
+        Administrador sinPermiso = Administrador.builder().idAdmin("ADM-T1").nombre("Sin permiso").build();
+        assertThrows(IllegalStateException.class, () -> motor.actualizarTarifas(sinPermiso, tarifas, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new TablaTarifas(Map.of(), Map.of()));
+
+        Administrador admin = Administrador.builder().idAdmin("ADM-T2").nombre("Tarifas").build();
+        admin.agregarPermiso(Administrador.Permiso.GESTIONAR_TARIFAS);
+        double anterior = motor.cotizar(1, 0, 0, Envio.TipoEnvio.ESTANDAR);
+        double nuevo = (4000 + 200) * 2.0 + 100;
+
+        // Las cotizaciones concurrentes solo ven la tabla anterior o la nueva, nunca una mezcla
+        AtomicBoolean mezcla = new AtomicBoolean();
+        AtomicBoolean detener = new AtomicBoolean();
+        Thread cotizador = new Thread(() -> {
+            while (!detener.get()) {
+                double costo = motor.cotizar(1, 0, 0, Envio.TipoEnvio.ESTANDAR);
+                if (costo != anterior && costo != nuevo) {
+                    mezcla.set(true);
+                }
+            }
+        });
+        cotizador.start();
+        for (int i = 0; i < 200; i++) {
+            if (i % 2 == 0) {
+                motor.actualizarTarifas(admin, tarifas, Map.of(ServicioAdicional.SEGURO, 0.12));
+            } else {
+                motor.restablecer();
+            }
+        }
+        motor.actualizarTarifas(admin, tarifas, Map.of(ServicioAdicional.SEGURO, 0.12));
+        detener.set(true);
+        cotizador.join();
+
+        assertFalse(mezcla.get());
+        assertEquals(nuevo, motor.cotizar(1, 0, 0, Envio.TipoEnvio.ESTANDAR));
+        assertEquals(0.12, motor.getRecargo(ServicioAdicional.SEGURO));
+        assertEquals(1200.0, motor.calcularRecargo(ServicioAdicional.SEGURO, nuevo, 10000));
+    }
+}
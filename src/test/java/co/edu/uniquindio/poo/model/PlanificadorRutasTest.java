@@ -0,0 +1,87 @@
+package co.edu.uniquindio.poo.model;
+
+import co.edu.uniquindio.poo.adapter.MapasAdapter;
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para PlanificadorRutas
+ * Verifica que la ruta respeta la precedencia recogida-entrega, no es más larga
+ * que el orden de asignación y encuentra el recorrido óptimo en casos simples
+ */
+class PlanificadorRutasTest {
+
+    private final PlanificadorRutas planificador = new PlanificadorRutas(new MapasAdapter());
+    private final Usuario usuario = Usuario.builder().idUsuario("USR-RUTA").nombreCompleto("Usuario Ruta").build();
+
+    private Envio envio(String id, Envio.EstadoEnvio estado, double latitudOrigen, double longitudOrigen,
+                        double latitudDestino, double longitudDestino) {
+        return Envio.builder().idEnvio(id).usuario(usuario).estado(estado)
+                .origen(new Direccion.Builder(id + "-O").conCiudad("Armenia")
+                        .conCoordenadas(latitudOrigen, longitudOrigen).build())
+                .destino(new Direccion.Builder(id + "-D").conCiudad("Armenia")
+                        .conCoordenadas(latitudDestino, longitudDestino).build())
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(3)).build();
+    }
+
+    @Test
+    @DisplayName("Debe recoger cada envío antes de entregarlo y acortar la ruta del orden de asignación")
+    void testPrecedenciaYMejora() {
+        Random aleatorio = new Random(11);
+        List<Envio> envios = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            envios.add(envio("ENV-RUTA-" + i, i % 5 == 0 ? Envio.EstadoEnvio.EN_RUTA : Envio.EstadoEnvio.ASIGNADO,
+                    4.45 + aleatorio.nextDouble() * 0.1, -75.75 + aleatorio.nextDouble() * 0.1,
+                    4.45 + aleatorio.nextDouble() * 0.1, -75.75 + aleatorio.nextDouble() * 0.1));
+        }
+        LocalDateTime salida = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        RutaPlanificada ruta = planificador.planificar(envios, null, Duration.ofSeconds(1), salida);
+
+        // 24 envíos ASIGNADO con recogida y entrega, 6 EN_RUTA solo con entrega
+        assertEquals(54, ruta.getParadas().size());
+        Set<Envio> recogidos = new HashSet<>();
+        LocalDateTime anterior = salida;
+        for (RutaPlanificada.Parada parada : ruta.getParadas()) {
+            Envio envio = parada.getEnvio();
+            if (parada.getTipo() == RutaPlanificada.TipoParada.RECOGIDA) {
+                assertTrue(recogidos.add(envio));
+            } else {
+                assertTrue(envio.getEstado() == Envio.EstadoEnvio.EN_RUTA || recogidos.contains(envio),
+                        "Entrega antes de la recogida: " + envio.getIdEnvio());
+                LocalDateTime entrega = ruta.getEntregasEstimadas().get(envio.getIdEnvio());
+                assertTrue(entrega.isAfter(anterior));
+                anterior = entrega;
+            }
+        }
+        assertEquals(30, ruta.getEntregasEstimadas().size());
+        assertTrue(ruta.getLongitudKm() < ruta.getLongitudOriginalKm() * 0.6,
+                "Ruta " + ruta.getLongitudKm() + " km frente a " + ruta.getLongitudOriginalKm() + " km");
+    }
+
+    @Test
+    @DisplayName("Debe encontrar el recorrido en línea recta de envíos alineados recibidos en desorden")
+    void testRecorridoOptimoEnLinea() {
+        // Paradas sobre un meridiano: A (0 → 1), B (2 → 3), C (4 → 5), en pasos de 0.01°
+        List<Envio> envios = List.of(
+                envio("C", Envio.EstadoEnvio.ASIGNADO, 4.54, -75.68, 4.55, -75.68),
+                envio("A", Envio.EstadoEnvio.ASIGNADO, 4.50, -75.68, 4.51, -75.68),
+                envio("B", Envio.EstadoEnvio.ASIGNADO, 4.52, -75.68, 4.53, -75.68));
+
+        RutaPlanificada ruta = planificador.planificar(envios, null, Duration.ofMillis(100), LocalDateTime.now());
+
+        List<String> orden = ruta.getParadas().stream()
+                .map(parada -> parada.getEnvio().getIdEnvio() + "-" + parada.getTipo().name().charAt(0))
+                .toList();
+        assertEquals(List.of("A-R", "A-E", "B-R", "B-E", "C-R", "C-E"), orden);
+        double paso = Math.toRadians(0.01) * 6371;
+        assertEquals(5 * paso, ruta.getLongitudKm(), 1e-6);
+    }
+}
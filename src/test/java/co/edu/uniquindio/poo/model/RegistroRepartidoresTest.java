@@ -0,0 +1,98 @@
+package co.edu.uniquindio.poo.model;
+
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para RegistroRepartidores
+ * Verifica que las particiones por zona y estado coinciden con un filtrado lineal
+ * y que SistemaGestion las mantiene al registrar, modificar, asignar y eliminar
+ */
+class RegistroRepartidoresTest {
+
+    private static final String[] ZONAS = {"Armenia", "Armenia Norte", "Armenia Sur", "Calarcá", "Armenias"};
+
+    private static boolean enZona(Repartidor repartidor, String zona) {
+        String propia = MotorDespacho.normalizar(repartidor.getZonaCobertura());
+        String buscada = MotorDespacho.normalizar(zona);
+        return propia.equals(buscada) || propia.startsWith(buscada + " ");
+    }
+
+    @Test
+    @DisplayName("Debe coincidir con el filtrado lineal tras cambios aleatorios de zona, estado y carga")
+    void testCoincideConFiltradoLineal() {
+        RegistroRepartidores registro = new RegistroRepartidores();
+        List<Repartidor> todos = new ArrayList<>();
+        Random aleatorio = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            Repartidor repartidor = Repartidor.builder().idRepartidor(String.format("REP-%04d", i)).nombre("R" + i)
+                    .documento("1").telefono("1").zonaCobertura(ZONAS[aleatorio.nextInt(ZONAS.length)]).build();
+            todos.add(repartidor);
+            registro.actualizar(repartidor);
+        }
+        for (int paso = 0; paso < 3000; paso++) {
+            Repartidor repartidor = todos.get(aleatorio.nextInt(todos.size()));
+            switch (aleatorio.nextInt(4)) {
+                case 0 -> repartidor.setZonaCobertura(ZONAS[aleatorio.nextInt(ZONAS.length)].toUpperCase());
+                case 1 -> repartidor.setEstado(Repartidor.EstadoRepartidor.values()[aleatorio.nextInt(3)]);
+                case 2 -> repartidor.decrementarEnviosAsignados();
+                default -> repartidor.incrementarEnviosAsignados();
+            }
+            registro.actualizar(repartidor);
+        }
+        Repartidor eliminado = todos.remove(0);
+        registro.quitar(eliminado.getIdRepartidor());
+        assertEquals(todos.size(), registro.tamano());
+
+        Comparator<Repartidor> porCarga = Comparator.comparingInt(Repartidor::getEnviosAsignados)
+                .thenComparing(Repartidor::getIdRepartidor);
+        List<Repartidor> activos = todos.stream().filter(Repartidor::isDisponible).sorted(porCarga).toList();
+        assertEquals(activos, registro.listar(Repartidor.EstadoRepartidor.ACTIVO));
+        for (String zona : List.of("armenia", "ARMENIA NORTE", "Calarca", "Armenias", "Pereira")) {
+            List<Repartidor> esperados = activos.stream().filter(r -> enZona(r, zona)).toList();
+            assertEquals(esperados, registro.listar(zona, Repartidor.EstadoRepartidor.ACTIVO), zona);
+            assertEquals(esperados.isEmpty() ? null : esperados.get(0),
+                    registro.menosCargado(zona, Repartidor.EstadoRepartidor.ACTIVO), zona);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe mantenerse sincronizado con los cambios de SistemaGestion")
+    void testSincronizacionConSistemaGestion() {
+        SistemaGestion sistema = SistemaGestion.obtenerInstancia();
+        String zona = "Zona Registro Prueba";
+        Repartidor primero = Repartidor.builder().idRepartidor("REP-REG-1").nombre("Uno").documento("1")
+                .telefono("1").zonaCobertura(zona).build();
+        Repartidor segundo = Repartidor.builder().idRepartidor("REP-REG-2").nombre("Dos").documento("2")
+                .telefono("2").zonaCobertura(zona + " Norte").build();
+        sistema.registrarRepartidor(primero);
+        sistema.registrarRepartidor(segundo);
+        assertEquals(List.of(primero, segundo), sistema.buscarRepartidoresDisponibles(zona));
+
+        Usuario usuario = Usuario.builder().idUsuario("USR-REG").nombreCompleto("Usuario Registro").build();
+        Envio envio = Envio.builder().idEnvio("ENV-REG-1").usuario(usuario).estado(Envio.EstadoEnvio.SOLICITADO)
+                .origen(new Direccion.Builder("REG-O").conCiudad(zona).build())
+                .destino(new Direccion.Builder("REG-D").conCiudad(zona).build())
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(1)).build();
+        sistema.registrarEnvio(envio);
+        assertEquals(1, sistema.asignarRepartidores(List.of(envio), List.of(primero), 8));
+        assertEquals(segundo, sistema.buscarRepartidorMenosCargado(zona));
+        assertEquals(List.of(segundo, primero), sistema.buscarRepartidoresDisponibles(zona));
+
+        sistema.modificarRepartidor(segundo.getIdRepartidor(),
+                repartidor -> repartidor.setEstado(Repartidor.EstadoRepartidor.INACTIVO));
+        assertEquals(primero, sistema.buscarRepartidorMenosCargado(zona));
+        assertNull(sistema.buscarRepartidorMenosCargado(zona + " Norte"));
+
+        sistema.eliminarEnvio(envio.getIdEnvio());
+        sistema.eliminarRepartidor(primero.getIdRepartidor());
+        sistema.eliminarRepartidor(segundo.getIdRepartidor());
+        assertTrue(sistema.buscarRepartidoresDisponibles(zona).isEmpty());
+        assertFalse(sistema.buscarRepartidoresDisponibles().contains(primero));
+    }
+}
@@ -0,0 +1,130 @@
+package co.edu.uniquindio.poo.model;
+
+import org.junit.jupiter.api.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para Repartidor
+ * Prueba de estrés de los contadores de carga: reservas con tope de capacidad,
+ * movimientos de envíos entre repartidores y retiro concurrentes desde varios hilos
+ */
+class RepartidorTest {
+
+    private static final int HILOS = 8;
+
+    private static Repartidor repartidor(String id, int asignados) {
+        return Repartidor.builder().idRepartidor(id).nombre(id).documento("1").telefono("3000000000")
+                .zonaCobertura("Armenia").enviosAsignados(asignados).build();
+    }
+
+    private static void ejecutarEnParalelo(ExecutorService hilos, Runnable tarea) throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            tareas.add(hilos.submit(() -> {
+                salida.await();
+                tarea.run();
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> futura : tareas) {
+            futura.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe respetar la capacidad con reservas concurrentes y conservar la carga al mover envíos")
+    void testReservasYMovimientosConcurrentes() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try {
+            Repartidor lleno = repartidor("REP-CAP", 0);
+            AtomicInteger reservas = new AtomicInteger();
+            ejecutarEnParalelo(hilos, () -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (lleno.reservarEnvio(50)) {
+                        reservas.incrementAndGet();
+                    }
+                }
+            });
+            assertEquals(50, reservas.get());
+            assertEquals(50, lleno.getEnviosAsignados());
+
+            // Cada hilo mueve sus propios 5 envíos de ida y vuelta; un observador vigila el tope
+            int capacidad = HILOS * 5 - 3;
+            Repartidor a = repartidor("REP-A", HILOS * 5);
+            Repartidor b = repartidor("REP-B", 0);
+            AtomicBoolean terminado = new AtomicBoolean();
+            AtomicInteger maximoObservado = new AtomicInteger();
+            Thread observador = new Thread(() -> {
+                while (!terminado.get()) {
+                    maximoObservado.accumulateAndGet(b.getEnviosAsignados(), Math::max);
+                }
+            });
+            observador.start();
+            ejecutarEnParalelo(hilos, () -> {
+                boolean[] enB = new boolean[5];
+                for (int i = 0; i < 20_000; i++) {
+                    int envio = i % 5;
+                    if (enB[envio]) {
+                        enB[envio] = !Repartidor.moverEnvio(b, a, Integer.MAX_VALUE);
+                    } else {
+                        enB[envio] = Repartidor.moverEnvio(a, b, capacidad);
+                    }
+                }
+            });
+            terminado.set(true);
+            observador.join();
+            assertEquals(HILOS * 5, a.getEnviosAsignados() + b.getEnviosAsignados());
+            assertTrue(maximoObservado.get() <= capacidad);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe impedir nuevas reservas una vez retirado el repartidor")
+    void testRetiroConReservasConcurrentes() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try {
+            Repartidor repartidor = repartidor("REP-RET", 0);
+            AtomicBoolean retirado = new AtomicBoolean();
+            AtomicInteger reservasTrasRetiro = new AtomicInteger();
+            ejecutarEnParalelo(hilos, () -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (Thread.currentThread().getName().endsWith("-1") && i % 100 == 0 && !retirado.get()) {
+                        if (repartidor.retirar()) {
+                            retirado.set(true);
+                        }
+                    } else if (repartidor.reservarEnvio(Integer.MAX_VALUE)) {
+                        if (retirado.get()) {
+                            reservasTrasRetiro.incrementAndGet();
+                        }
+                        repartidor.decrementarEnviosAsignados();
+                    }
+                }
+            });
+            if (!retirado.get()) {
+                assertTrue(repartidor.retirar());
+            }
+            assertEquals(0, reservasTrasRetiro.get());
+            assertFalse(repartidor.reservarEnvio(Integer.MAX_VALUE));
+            assertFalse(Repartidor.moverEnvio(null, repartidor, Integer.MAX_VALUE));
+            assertEquals(0, repartidor.getEnviosAsignados());
+            assertThrows(IllegalStateException.class, () -> repartidor.setEnviosAsignados(0),
+                    "Fijar la carga no puede devolver a servicio a un repartidor retirado");
+            assertThrows(NullPointerException.class, () -> Repartidor.builder().build());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package co.edu.uniquindio.poo.observer;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Usuario;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para AdminDashboardObserver
+ * Marca el pulso a mano y vuelca en el mismo hilo para verificar, sin depender
+ * del reloj, que una ráfaga de cambios produce un solo cambio de la tabla por
+ * pulso, que solo toca las filas que cambiaron y que deja la tabla al día
+ */
+class AdminDashboardObserverTest {
+
+    private static final Usuario USUARIO = Usuario.builder().idUsuario("USR1").nombreCompleto("Ana").build();
+    private static final Direccion DIRECCION = new Direccion.Builder("DIR1").conCiudad("Armenia").build();
+
+    /** Volcados programados que esperan su pulso */
+    private final Queue<Runnable> pulsos = new ConcurrentLinkedQueue<>();
+
+    private static Envio envio(String id, double version) {
+        return Envio.builder()
+                .idEnvio(id)
+                .origen(DIRECCION)
+                .destino(DIRECCION)
+                .usuario(USUARIO)
+                .fechaEntregaEstimada(LocalDateTime.now())
+                .costo(version)
+                .build();
+    }
+
+    /**
+     * El observador vuelca en el hilo que marca el pulso, que hace de hilo de interfaz.
+     */
+    private AdminDashboardObserver observar(TablaEnvios tabla) {
+        return new AdminDashboardObserver(tabla, Runnable::run, pulsos::add);
+    }
+
+    /**
+     * @return Volcados que corrieron en este pulso
+     */
+    private int marcarPulso() {
+        int corridos = 0;
+        for (Runnable volcado; (volcado = pulsos.poll()) != null; corridos++) {
+            volcado.run();
+        }
+        return corridos;
+    }
+
+    @Test
+    @DisplayName("Debe volcar cada ráfaga en un único cambio de la tabla que solo reemplaza las filas cambiadas")
+    void testRafagaPorPulso() {
+        int filas = 5000;
+        TablaEnvios tabla = new TablaEnvios();
+        for (int i = 0; i < filas; i++) {
+            tabla.add(envio("ENV" + i, -1));
+        }
+        AtomicInteger notificaciones = new AtomicInteger();
+        AtomicInteger filasReemplazadas = new AtomicInteger();
+        AtomicInteger otrosCambios = new AtomicInteger();
+        // Los listeners de JavaFX tragan las excepciones: se cuenta y se verifica al final
+        tabla.addListener((ListChangeListener<Envio>) cambio -> {
+            notificaciones.incrementAndGet();
+            while (cambio.next()) {
+                if (cambio.wasReplaced()) {
+                    filasReemplazadas.addAndGet(cambio.getRemovedSize());
+                } else {
+                    otrosCambios.incrementAndGet();
+                }
+            }
+        });
+        AdminDashboardObserver observador = observar(tabla);
+        try {
+            // 10.000 actualizaciones en 100 pulsos de 100
+            Map<String, Double> ultimas = new HashMap<>();
+            int cambiadas = 0;
+            for (int pulso = 0; pulso < 100; pulso++) {
+                Set<String> enPulso = new HashSet<>();
+                for (int i = 0; i < 100; i++) {
+                    String id = "ENV" + ThreadLocalRandom.current().nextInt(filas);
+                    double version = pulso * 100 + i;
+                    ultimas.put(id, version);
+                    enPulso.add(id);
+                    observador.actualizar("Estado cambiado", envio(id, version));
+                }
+                cambiadas += enPulso.size();
+                assertEquals(1, marcarPulso(), "Un solo volcado programado por pulso");
+                assertEquals(pulso + 1, notificaciones.get(), "A lo sumo una notificación por volcado");
+            }
+
+            assertEquals(0, marcarPulso());
+            assertEquals(filas, tabla.size());
+            ultimas.forEach((id, version) ->
+                    assertEquals(version, tabla.get(Integer.parseInt(id.substring(3))).getCosto(), id));
+            assertEquals(10_000, observador.getEventosRecibidos());
+            assertEquals(100, observador.getVolcados());
+            assertEquals(cambiadas, filasReemplazadas.get(), "Solo se reemplazan las filas que cambiaron");
+            assertEquals(0, otrosCambios.get(), "Un volcado sin envíos nuevos solo reemplaza filas");
+        } finally {
+            observador.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe agregar envíos nuevos en el mismo cambio y reindexar cuando la tabla se recarga desde fuera")
+    void testNuevosYRecarga() {
+        TablaEnvios tabla = new TablaEnvios();
+        tabla.addAll(envio("ENV1", 0), envio("ENV2", 0));
+        AtomicInteger notificaciones = new AtomicInteger();
+        AtomicInteger agregados = new AtomicInteger();
+        tabla.addListener((ListChangeListener<Envio>) cambio -> {
+            notificaciones.incrementAndGet();
+            while (cambio.next()) {
+                if (cambio.wasAdded() && !cambio.wasReplaced()) {
+                    agregados.addAndGet(cambio.getAddedSize());
+                }
+            }
+        });
+        AdminDashboardObserver observador = observar(tabla);
+        try {
+            observador.actualizar("Creado", envio("ENV3", 1));
+            observador.actualizar("Estado cambiado", envio("ENV1", 1));
+            observador.actualizar("Estado cambiado", envio("ENV1", 2));
+            observador.actualizar("Sin envío", "no es un envío");
+            assertEquals(1, marcarPulso());
+            assertEquals(List.of("ENV1", "ENV2", "ENV3"), tabla.stream().map(Envio::getIdEnvio).toList());
+            assertEquals(2, tabla.get(0).getCosto());
+            assertEquals(1, notificaciones.get(), "El reemplazo y el agregado llegan en un solo cambio");
+            assertEquals(1, agregados.get(), "El envío nuevo se agrega al final sin recargar la tabla");
+
+            // La vista recarga la tabla en otro orden; el índice viejo ya no sirve
+            List<Envio> invertida = new ArrayList<>(tabla);
+            Collections.reverse(invertida);
+            tabla.setAll(invertida);
+            observador.actualizar("Estado cambiado", envio("ENV1", 3));
+            observador.actualizar("Estado cambiado", envio("ENV3", 3));
+            observador.actualizar("Creado", envio("ENV4", 3));
+            assertEquals(1, marcarPulso());
+            assertEquals(List.of("ENV3", "ENV2", "ENV1", "ENV4"), tabla.stream().map(Envio::getIdEnvio).toList());
+            assertEquals(List.of(3.0, 0.0, 3.0, 3.0), tabla.stream().map(Envio::getCosto).toList());
+            assertEquals(3, notificaciones.get());
+            assertEquals(6, observador.getEventosRecibidos());
+
+            // El índice del envío agregado tras la recarga sigue siendo válido
+            observador.actualizar("Estado cambiado", envio("ENV4", 4));
+            assertEquals(1, marcarPulso());
+            assertEquals(4, tabla.get(3).getCosto());
+            assertEquals(4, tabla.size());
+        } finally {
+            observador.cerrar();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package co.edu.uniquindio.poo.observer;
+
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para BusEventos
+ * Verifica la fusión de ráfagas por clave y que con varios productores cada
+ * clave termina entregando su último evento
+ */
+class BusEventosTest {
+
+    @Test
+    @DisplayName("Debe fusionar las publicaciones de una clave mientras su evento espera entrega")
+    void testFusionPorClave() throws Exception {
+        BusEventos bus = new BusEventos();
+        CountDownLatch primeraRecibida = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<String> recibidos = Collections.synchronizedList(new ArrayList<>());
+        Observer observador = (mensaje, datos) -> {
+            recibidos.add(mensaje);
+            primeraRecibida.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            bus.suscribir(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, observador);
+            bus.suscribir(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, observador);
+            bus.publicar(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, "ENV-1", "A-0", null);
+            assertTrue(primeraRecibida.await(10, TimeUnit.SECONDS));
+            // Con el hilo del bus ocupado, la ráfaga sobre ENV-1 se reduce a su último evento
+            for (int i = 1; i <= 1000; i++) {
+                bus.publicar(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, "ENV-1", "A-" + i, null);
+            }
+            bus.publicar(BusEventos.Tema.ENVIO_ESTADO_CAMBIADO, "ENV-2", "B-1", null);
+            bus.publicar(BusEventos.Tema.INCIDENCIA_REPORTADA, "ENV-1", "sin suscriptores", null);
+            liberar.countDown();
+            assertTrue(bus.esperarEntregas(Duration.ofSeconds(10)));
+
+            assertEquals(List.of("A-0", "A-1000", "B-1"), recibidos);
+            assertEquals(1003, bus.getPublicados());
+            assertEquals(999, bus.getCoalescidos());
+            assertEquals(3, bus.getEntregados());
+        } finally {
+            bus.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe entregar el último evento de cada clave con varios productores concurrentes")
+    void testVariosProductores() throws Exception {
+        BusEventos bus = new BusEventos();
+        Map<String, Integer> ultimos = new ConcurrentHashMap<>();
+        AtomicInteger entregas = new AtomicInteger();
+        bus.suscribir(BusEventos.Tema.ENVIO_CREADO, (mensaje, datos) -> {
+            entregas.incrementAndGet();
+            ultimos.put(mensaje, (Integer) datos);
+        });
+        int productores = 4;
+        int claves = 100;
+        int eventos = 20_000;
+        try {
+            List<Thread> hilos = new ArrayList<>();
+            for (int p = 0; p < productores; p++) {
+                int productor = p;
+                hilos.add(new Thread(() -> {
+                    // Cada productor es dueño de sus claves, así su último valor está bien definido
+                    for (int i = 0; i < eventos; i++) {
+                        String clave = "ENV-" + productor + "-" + (i % claves);
+                        bus.publicar(BusEventos.Tema.ENVIO_CREADO, clave, clave, i);
+                    }
+                }));
+            }
+            hilos.forEach(Thread::start);
+            for (Thread hilo : hilos) {
+                hilo.join();
+            }
+            assertTrue(bus.esperarEntregas(Duration.ofSeconds(10)));
+
+            assertEquals(productores * claves, ultimos.size());
+            ultimos.forEach((clave, valor) -> assertEquals(eventos - claves
+                    + Integer.parseInt(clave.substring(clave.lastIndexOf('-') + 1)), valor, clave));
+            assertEquals(bus.getEntregados(), entregas.get());
+            assertEquals((long) productores * eventos, bus.getEntregados() + bus.getCoalescidos());
+        } finally {
+            bus.cerrar();
+        }
+    }
+}
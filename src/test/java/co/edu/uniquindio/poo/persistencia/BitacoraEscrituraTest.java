@@ -0,0 +1,112 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para BitacoraEscritura
+ * Verifica la escritura agrupada, la reproducción al reabrir, la recuperación
+ * ante una escritura interrumpida y la rotación de segmentos
+ */
+class BitacoraEscrituraTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debe reproducir en orden todos los registros escritos concurrentemente")
+    void testReproducirRegistrosConcurrentes() throws Exception {
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, r -> fail("La bitácora nueva debe estar vacía"))) {
+            ExecutorService hilos = Executors.newFixedThreadPool(8);
+            for (int h = 0; h < 8; h++) {
+                final int hilo = h;
+                hilos.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        bitacora.escribir(TipoRegistro.ESTADO_ENVIO, CodificadorEntidades.codificarId(hilo + "-" + i));
+                    }
+                });
+            }
+            hilos.shutdown();
+            assertTrue(hilos.awaitTermination(30, TimeUnit.SECONDS));
+            assertTrue(bitacora.getLotesEscritos() <= bitacora.getRegistrosEscritos());
+        }
+
+        List<RegistroBitacora> leidos = new ArrayList<>();
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, leidos::add)) {
+            assertEquals(4000, bitacora.getRegistrosRecuperados());
+            assertEquals(4000, bitacora.getUltimaPosicion());
+        }
+        for (int i = 0; i < leidos.size(); i++) {
+            assertEquals(i + 1, leidos.get(i).getPosicion());
+            assertEquals(TipoRegistro.ESTADO_ENVIO, leidos.get(i).getTipo());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe descartar un registro final incompleto y seguir escribiendo después del último válido")
+    void testDescartarRegistroIncompleto() throws Exception {
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, r -> { })) {
+            bitacora.escribir(TipoRegistro.ELIMINAR_ENVIO, CodificadorEntidades.codificarId("ENV001"));
+            bitacora.escribir(TipoRegistro.ELIMINAR_ENVIO, CodificadorEntidades.codificarId("ENV002"));
+        }
+        Path archivo = segmentos().get(0);
+
+        // Simular una escritura interrumpida: cabecera de registro sin contenido
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.allocate(9).putInt(100).put(new byte[] {0, 0, 0, 0, 3}).flip());
+        }
+
+        List<String> ids = new ArrayList<>();
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, r -> ids.add(r.lector().leerTexto()))) {
+            assertEquals(List.of("ENV001", "ENV002"), ids);
+            bitacora.escribir(TipoRegistro.ELIMINAR_ENVIO, CodificadorEntidades.codificarId("ENV003"));
+        }
+
+        ids.clear();
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, r -> ids.add(r.lector().leerTexto()))) {
+            assertEquals(List.of("ENV001", "ENV002", "ENV003"), ids);
+            assertEquals(3, bitacora.getUltimaPosicion());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe eliminar los segmentos cubiertos tras rotar y reproducir solo la cola posterior al corte")
+    void testRotarYEliminarSegmentos() throws Exception {
+        long corte;
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, r -> { })) {
+            for (int i = 1; i <= 5; i++) {
+                bitacora.agregar(TipoRegistro.ELIMINAR_ENVIO, CodificadorEntidades.codificarId("ENV00" + i));
+            }
+            corte = bitacora.rotar();
+            bitacora.escribir(TipoRegistro.ELIMINAR_ENVIO, CodificadorEntidades.codificarId("ENV006"));
+            assertEquals(1, bitacora.eliminarSegmentosHasta(corte));
+        }
+        assertEquals(5, corte);
+        assertEquals(1, segmentos().size());
+
+        List<String> ids = new ArrayList<>();
+        try (BitacoraEscritura bitacora = BitacoraEscritura.abrir(directorio, corte, r -> ids.add(r.lector().leerTexto()))) {
+            assertEquals(List.of("ENV006"), ids);
+            assertEquals(7, bitacora.escribir(TipoRegistro.ELIMINAR_ENVIO, CodificadorEntidades.codificarId("ENV007")));
+        }
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(p -> p.getFileName().toString().startsWith("bitacora-")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.model.*;
+import co.edu.uniquindio.poo.strategy.PagoTarjeta;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para CodificadorEntidades
+ * Verifica la ida y vuelta de envíos, direcciones, pagos e incidencias en un
+ * mismo flujo, los casos límite de las primitivas compactas y la versión de esquema
+ */
+class CodificadorEntidadesTest {
+
+    private final Map<String, Envio> envios = new HashMap<>();
+    private final Usuario usuario = Usuario.builder().idUsuario("USR001").nombreCompleto("Juan Pérez").build();
+    private final Repartidor repartidor = Repartidor.builder().idRepartidor("REP001").nombre("Carlos")
+            .documento("123").telefono("300").zonaCobertura("Norte").build();
+
+    private final ResolutorReferencias referencias = new ResolutorReferencias() {
+        @Override
+        public Usuario buscarUsuario(String idUsuario) {
+            return usuario.getIdUsuario().equals(idUsuario) ? usuario : null;
+        }
+
+        @Override
+        public Repartidor buscarRepartidor(String idRepartidor) {
+            return repartidor.getIdRepartidor().equals(idRepartidor) ? repartidor : null;
+        }
+
+        @Override
+        public Envio buscarEnvio(String idEnvio) {
+            return envios.get(idEnvio);
+        }
+    };
+
+    @Test
+    @DisplayName("Debe reconstruir envíos, pagos e incidencias de un mismo flujo compartiendo los textos repetidos")
+    void testIdaYVueltaEntidades() {
+        Direccion origen = new Direccion.Builder("DIR001").conAlias("Casa").conCalle("Calle 10 #15-20")
+                .conCiudad("Armenia").conCoordenadas(4.5339, -75.6811).build();
+        Direccion destino = new Direccion.Builder("DIR002").conAlias("Oficina").conCalle("Carrera 14")
+                .conCiudad("Armenia").conCoordenadas(4.5450, -75.6750).build();
+        Envio primero = Envio.builder()
+                .idEnvio("ENV001").origen(origen).destino(destino).usuario(usuario).repartidor(repartidor)
+                .peso(2.5).largo(30).ancho(20).alto(10).volumen(7000)
+                .descripcion("Café de Quindío ☕").valorDeclarado(50000).distancia(3.75)
+                .nombreDestinatario("María López").telefonoDestinatario("300-555-1234")
+                .tipoEnvio(Envio.TipoEnvio.FRAGIL).estado(Envio.EstadoEnvio.EN_RUTA).costo(15250.5)
+                .adicionales(ServicioAdicional.SEGURO.bit() | ServicioAdicional.ENTREGA_EXPRESS.bit())
+                .fechaCreacion(LocalDateTime.of(2024, 10, 17, 8, 30, 15, 123_000_000))
+                .fechaEntregaEstimada(LocalDateTime.of(2024, 10, 18, 12, 0))
+                .build();
+        Envio segundo = Envio.builder()
+                .idEnvio("ENV002").origen(destino).destino(origen).usuario(usuario)
+                .peso(1).estado(null).costo(-0.0)
+                .fechaEntregaEstimada(LocalDateTime.of(1969, 12, 31, 23, 59, 59))
+                .build();
+        Pago pago = new Pago.Builder("PAG001").conMonto(15250.5).conEnvio(primero)
+                .conFecha(LocalDateTime.of(2024, 10, 17, 9, 0))
+                .conMetodoPago(new MetodoPago.Builder("MP001")
+                        .conEstrategia(new PagoTarjeta("4111111111111111", "12/27")).build())
+                .build();
+        pago.setEstado(Pago.EstadoPago.APROBADO);
+        Incidencia incidencia = new Incidencia.Builder("INC001").conDescripcion("Paquete mojado")
+                .conEnvio(primero).conFecha(LocalDateTime.of(2024, 10, 17, 10, 0)).build();
+
+        EscritorBinario salida = new EscritorBinario();
+        CodificadorEntidades.escribirCabecera(salida);
+        CodificadorEntidades.escribirEnvio(salida, primero);
+        int tamanoPrimero = salida.tamano();
+        CodificadorEntidades.escribirEnvio(salida, segundo);
+        int tamanoSegundo = salida.tamano() - tamanoPrimero;
+        CodificadorEntidades.escribirPago(salida, pago);
+        CodificadorEntidades.escribirIncidencia(salida, incidencia);
+
+        // El segundo envío reutiliza direcciones, ciudad y usuario ya internados
+        assertTrue(tamanoSegundo < tamanoPrimero / 2, "tamaños " + tamanoPrimero + " y " + tamanoSegundo);
+
+        LectorBinario entrada = new LectorBinario(salida.aBytes());
+        CodificadorEntidades.leerCabecera(entrada);
+        Envio primeroLeido = CodificadorEntidades.leerEnvio(entrada, referencias);
+        envios.put(primeroLeido.getIdEnvio(), primeroLeido);
+        Envio segundoLeido = CodificadorEntidades.leerEnvio(entrada, referencias);
+        Pago pagoLeido = CodificadorEntidades.leerPago(entrada, referencias);
+        Incidencia incidenciaLeida = CodificadorEntidades.leerIncidencia(entrada, referencias);
+        assertFalse(entrada.quedanDatos());
+
+        assertEquals("Café de Quindío ☕", primeroLeido.getDescripcion());
+        assertEquals(2.5, primeroLeido.getPeso());
+        assertEquals(7000.0, primeroLeido.getVolumen());
+        assertEquals(3.75, primeroLeido.getDistancia());
+        assertEquals(15250.5, primeroLeido.getCosto());
+        assertEquals(primero.getAdicionales(), primeroLeido.getAdicionales());
+        assertEquals(0L, segundoLeido.getAdicionales());
+        assertEquals(Envio.TipoEnvio.FRAGIL, primeroLeido.getTipoEnvio());
+        assertEquals(Envio.EstadoEnvio.EN_RUTA, primeroLeido.getEstado());
+        assertEquals(primero.getFechaCreacion(), primeroLeido.getFechaCreacion());
+        assertEquals(primero.getFechaEntregaEstimada(), primeroLeido.getFechaEntregaEstimada());
+        assertSame(usuario, primeroLeido.getUsuario());
+        assertSame(repartidor, primeroLeido.getRepartidor());
+        assertEquals(-75.6811, primeroLeido.getOrigen().getLongitud());
+        assertEquals("Calle 10 #15-20", primeroLeido.getOrigen().getCalle());
+        assertSame(primeroLeido.getOrigen().getCiudad(), primeroLeido.getDestino().getCiudad());
+
+        assertNull(segundoLeido.getEstado());
+        assertNull(segundoLeido.getRepartidor());
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(segundoLeido.getCosto()));
+        assertEquals(segundo.getFechaEntregaEstimada(), segundoLeido.getFechaEntregaEstimada());
+        assertSame(primeroLeido.getOrigen().getIdDireccion(), segundoLeido.getDestino().getIdDireccion());
+
+        assertSame(primeroLeido, pagoLeido.getEnvio());
+        assertEquals(15250.5, pagoLeido.getMonto());
+        assertEquals(Pago.EstadoPago.APROBADO, pagoLeido.getEstado());
+        assertEquals("12/27", ((PagoTarjeta) pagoLeido.getMetodoPago().getEstrategia()).getFechaExpiracion());
+        assertSame(primeroLeido, incidenciaLeida.getEnvio());
+        assertEquals("Paquete mojado", incidenciaLeida.getDescripcion());
+    }
+
+    @Test
+    @DisplayName("Debe conservar los valores límite de las primitivas compactas")
+    void testPrimitivasCompactas() {
+        int[] enteros = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        long[] largos = {0, -1, 63, -64, Long.MAX_VALUE, Long.MIN_VALUE};
+        double[] dobles = {0, -0.0, 1, -7, 12_345, 0.1, 1e300, -4.5e-300, Double.NaN,
+                Double.POSITIVE_INFINITY, 4_503_599_627_370_496.0};
+        String[] textos = {null, "", "a", "ñandú", "日本", "x".repeat(300)};
+
+        EscritorBinario salida = new EscritorBinario(16);
+        for (int valor : enteros) {
+            salida.escribirVarint(valor);
+            salida.escribirVarintConSigno(valor);
+        }
+        for (long valor : largos) {
+            salida.escribirVarlong(valor);
+            salida.escribirVarlongConSigno(valor);
+        }
+        for (double valor : dobles) {
+            salida.escribirDobleCompacto(valor);
+        }
+        for (String texto : textos) {
+            salida.escribirTexto(texto);
+            salida.escribirTextoFrecuente(texto);
+            salida.escribirTextoFrecuente(texto);
+        }
+        salida.escribirFecha(null);
+        salida.escribirFecha(LocalDateTime.of(1900, 1, 1, 0, 0, 0, 1));
+
+        LectorBinario entrada = new LectorBinario(salida.aBytes());
+        for (int valor : enteros) {
+            assertEquals(valor, entrada.leerVarint());
+            assertEquals(valor, entrada.leerVarintConSigno());
+        }
+        for (long valor : largos) {
+            assertEquals(valor, entrada.leerVarlong());
+            assertEquals(valor, entrada.leerVarlongConSigno());
+        }
+        for (double valor : dobles) {
+            assertEquals(Double.doubleToRawLongBits(valor), Double.doubleToRawLongBits(entrada.leerDobleCompacto()));
+        }
+        for (String texto : textos) {
+            assertEquals(texto, entrada.leerTexto());
+            String internado = entrada.leerTextoFrecuente();
+            assertEquals(texto, internado);
+            assertSame(internado, entrada.leerTextoFrecuente());
+        }
+        assertNull(entrada.leerFecha());
+        assertEquals(LocalDateTime.of(1900, 1, 1, 0, 0, 0, 1), entrada.leerFecha());
+        assertFalse(entrada.quedanDatos());
+
+        // Un costo entero ocupa un byte en lugar de ocho
+        EscritorBinario costo = new EscritorBinario();
+        costo.escribirDobleCompacto(12);
+        assertEquals(1, costo.tamano());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un flujo con una versión de esquema desconocida")
+    void testRechazarVersionDesconocida() {
+        EscritorBinario salida = new EscritorBinario();
+        CodificadorEntidades.escribirCabecera(salida);
+        byte[] datos = salida.aBytes();
+        datos[datos.length - 1] = (byte) (CodificadorEntidades.VERSION_ESQUEMA + 1);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> CodificadorEntidades.leerCabecera(new LectorBinario(datos)));
+        assertTrue(error.getMessage().contains("Versión de esquema no soportada"));
+    }
+}
@@ -0,0 +1,174 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.bridge.FormatoCSV;
+import co.edu.uniquindio.poo.bridge.ReporteEnvios;
+import co.edu.uniquindio.poo.model.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para ImportadorEnviosCSV
+ * Verifica que un reporte CSV de envíos se importa por bloques en el orden del
+ * archivo, con rechazos por línea y avance, y que los ids existentes se rechazan
+ * en lugar de reemplazar los envíos vivos
+ */
+class ImportadorEnviosCSVTest {
+
+    @TempDir
+    Path directorio;
+
+    private final SistemaGestion sistema = SistemaGestion.obtenerInstancia();
+
+    @Test
+    @DisplayName("Debe importar por bloques el CSV de ReporteEnvios y reportar las líneas rechazadas")
+    void testImportarReporteEnvios() throws IOException {
+        Usuario usuario = Usuario.builder().idUsuario("USR-CSV").nombreCompleto("Ana Importadora").build();
+        sistema.registrarUsuario(usuario);
+        LocalDateTime fecha = LocalDateTime.of(2024, 10, 17, 8, 30, 15);
+        List<Envio> originales = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            originales.add(Envio.builder()
+                    .idEnvio("CSV-" + i)
+                    .usuario(usuario)
+                    .origen(new Direccion.Builder("O" + i).conCiudad("Armenia").build())
+                    .destino(new Direccion.Builder("D" + i).conCiudad(i % 2 == 0 ? "Calarcá" : "Pereira").build())
+                    .estado(Envio.EstadoEnvio.values()[i % 5])
+                    .costo(8000 + i * 0.5)
+                    .fechaCreacion(fecha.plusMinutes(i))
+                    .fechaEntregaEstimada(fecha.plusDays(3))
+                    .build());
+        }
+        String nombre = directorio.resolve("envios").toString();
+        new ReporteEnvios(new FormatoCSV(), originales).generar(nombre);
+        Path archivo = Path.of(nombre + ".csv");
+        Files.writeString(archivo, "CSV-X,Nadie,Armenia,Calarca,SOLICITADO,1.0,2024-10-17T08:00\n"
+                + "CSV-Y," + usuario.getNombreCompleto() + ",Armenia,Calarca,PERDIDO,1.0,2024-10-17T08:00\n",
+                Charset.defaultCharset(), StandardOpenOption.APPEND);
+        long lineas = Files.lines(archivo, Charset.defaultCharset()).count();
+
+        List<long[]> avances = new ArrayList<>();
+        ImportadorEnviosCSV importador = new ImportadorEnviosCSV(sistema, 2, 1024, Charset.defaultCharset());
+        ImportadorEnviosCSV.Resultado resultado = importador.importar(archivo,
+                (bytes, total, importadas, rechazadas) -> avances.add(new long[] {bytes, total, importadas}));
+
+        try {
+            assertEquals(300, resultado.getFilasImportadas());
+            assertEquals(2, resultado.getFilasRechazadas());
+            assertEquals(lineas - 1, resultado.getRechazos().get(0).getFila());
+            assertTrue(resultado.getRechazos().get(0).getMensaje().contains("Usuario no encontrado"));
+            assertEquals(lineas, resultado.getRechazos().get(1).getFila());
+            assertTrue(resultado.getRechazos().get(1).getMensaje().contains("Estado inválido"));
+
+            // Varios bloques, avance creciente hasta el tamaño del archivo
+            assertTrue(avances.size() > 10);
+            for (int i = 1; i < avances.size(); i++) {
+                assertTrue(avances.get(i)[0] > avances.get(i - 1)[0]);
+            }
+            long[] ultimo = avances.get(avances.size() - 1);
+            assertEquals(Files.size(archivo), ultimo[0]);
+            assertEquals(ultimo[1], ultimo[0]);
+            assertEquals(300, ultimo[2]);
+
+            // Orden del archivo y contenido de cada fila
+            List<String> importados = sistema.getEnvios().stream()
+                    .map(Envio::getIdEnvio)
+                    .filter(id -> id.startsWith("CSV-"))
+                    .collect(Collectors.toList());
+            assertEquals(originales.stream().map(Envio::getIdEnvio).collect(Collectors.toList()), importados);
+            Envio envio = sistema.buscarEnvioPorId("CSV-7");
+            assertSame(usuario, envio.getUsuario());
+            assertEquals("Pereira", envio.getDestino().getCiudad());
+            assertEquals(Envio.EstadoEnvio.EN_RUTA, envio.getEstado());
+            assertEquals("EN_RUTA", envio.getEstadoActual().getNombre());
+            assertEquals(8003.5, envio.getCosto());
+            assertEquals(fecha.plusMinutes(7), envio.getFechaCreacion());
+            assertTrue(sistema.buscarEnviosPorEstado(Envio.EstadoEnvio.EN_RUTA).contains(envio));
+
+            // Reimportar rechaza los ids existentes en lugar de duplicarlos o reemplazarlos
+            int total = sistema.contarEnvios();
+            ImportadorEnviosCSV.Resultado repetido = importador.importar(archivo, null);
+            assertEquals(total, sistema.contarEnvios());
+            assertEquals(0, repetido.getFilasImportadas());
+            assertEquals(302, repetido.getFilasRechazadas());
+            assertSame(envio, sistema.buscarEnvioPorId("CSV-7"));
+        } finally {
+            originales.forEach(original -> sistema.eliminarEnvio(original.getIdEnvio()));
+            sistema.eliminarUsuario(usuario.getIdUsuario());
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una línea más larga que el bloque de lectura")
+    void testRechazarLineaDemasiadoLarga() throws IOException {
+        Path archivo = directorio.resolve("largo.csv");
+        Files.writeString(archivo, "ID," + "x".repeat(5000) + "\n", Charset.defaultCharset());
+
+        IOException error = assertThrows(IOException.class,
+                () -> new ImportadorEnviosCSV(sistema, 1, 1024, Charset.defaultCharset()).importar(archivo, null));
+        assertTrue(error.getMessage().contains("línea 1"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar las filas con id existente sin reemplazar el envío vivo ni liberar su cupo")
+    void testImportarSobreDatosVivos() throws IOException {
+        Usuario usuario = Usuario.builder().idUsuario("USR-CSV-VIVO").nombreCompleto("Beto Importador").build();
+        sistema.registrarUsuario(usuario);
+        Repartidor repartidor = Repartidor.builder().idRepartidor("REP-CSV-VIVO").nombre("Repartidor CSV")
+                .documento("1").telefono("3000000000").zonaCobertura("Armenia").build();
+        sistema.registrarRepartidor(repartidor);
+        Envio vivo = Envio.builder()
+                .idEnvio("IMP-VIVO")
+                .usuario(usuario)
+                .origen(new Direccion.Builder("O-VIVO").conCiudad("Armenia").build())
+                .destino(new Direccion.Builder("D-VIVO").conCiudad("Calarcá").build())
+                .costo(12000)
+                .fechaEntregaEstimada(LocalDateTime.now().plusDays(1))
+                .build();
+        sistema.registrarEnvio(vivo);
+        assertEquals(1, sistema.asignarRepartidores(List.of(vivo), List.of(repartidor), 8));
+        Incidencia incidencia = new Incidencia.Builder("INC-CSV-VIVO").conDescripcion("Caja abollada")
+                .conEnvio(vivo).build();
+        sistema.registrarIncidencia(incidencia);
+
+        Path archivo = directorio.resolve("vivos.csv");
+        Files.writeString(archivo, ImportadorEnviosCSV.ENCABEZADO + "\n"
+                + "IMP-NUEVO," + usuario.getNombreCompleto() + ",Armenia,Calarca,SOLICITADO,9000.0,2024-10-17T08:00\n"
+                + "IMP-VIVO," + usuario.getNombreCompleto() + ",Armenia,Calarca,ENTREGADO,1.0,2024-10-17T08:00\n",
+                StandardCharsets.UTF_8);
+
+        try {
+            ImportadorEnviosCSV.Resultado resultado = new ImportadorEnviosCSV(sistema, 2, 1024,
+                    StandardCharsets.UTF_8).importar(archivo, null);
+
+            assertEquals(1, resultado.getFilasImportadas());
+            assertEquals(1, resultado.getFilasRechazadas());
+            assertEquals(3, resultado.getRechazos().get(0).getFila());
+            assertTrue(resultado.getRechazos().get(0).getMensaje().contains("ya existe"));
+            assertNotNull(sistema.buscarEnvioPorId("IMP-NUEVO"));
+
+            // El envío vivo sigue siendo el mismo objeto, con su repartidor, estado, costo y cupo
+            assertSame(vivo, sistema.buscarEnvioPorId("IMP-VIVO"));
+            assertSame(vivo, sistema.buscarIncidenciaPorId("INC-CSV-VIVO").getEnvio());
+            assertEquals(Envio.EstadoEnvio.ASIGNADO, vivo.getEstado());
+            assertSame(repartidor, vivo.getRepartidor());
+            assertEquals(12000, vivo.getCosto());
+            assertEquals(1, repartidor.getEnviosAsignados());
+        } finally {
+            sistema.eliminarEnvio("IMP-NUEVO");
+            sistema.eliminarEnvio("IMP-VIVO");
+            sistema.eliminarRepartidor(repartidor.getIdRepartidor());
+            sistema.eliminarUsuario(usuario.getIdUsuario());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package co.edu.uniquindio.poo.persistencia;
+
+import co.edu.uniquindio.poo.model.*;
+import co.edu.uniquindio.poo.strategy.PagoNequi;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para InstantaneaColumnar
+ * Verifica que la instantánea reconstruye todas las entidades con sus referencias
+ * y que rechaza un archivo alterado
+ */
+class InstantaneaColumnarTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debe reconstruir todas las entidades y sus referencias desde la instantánea")
+    void testEscribirYCargar() throws Exception {
+        Repartidor repartidor = Repartidor.builder()
+                .idRepartidor("REP001").nombre("Carlos").documento("123").telefono("300")
+                .estado(Repartidor.EstadoRepartidor.EN_RUTA).zonaCobertura("Norte").enviosAsignados(3)
+                .build();
+        Usuario usuario = Usuario.builder()
+                .idUsuario("USR001").nombreCompleto("Juan Pérez").correoElectronico("juan@email.com")
+                .telefono("3001234567").password("123")
+                .build();
+        Direccion casa = new Direccion.Builder("DIR001").conAlias("Casa").conCalle("Calle 10")
+                .conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        usuario.agregarDireccionFrecuente(casa);
+        usuario.agregarMetodoPago(new MetodoPago.Builder("MP001").conEstrategia(new PagoNequi("3001234567")).build());
+        Administrador admin = Administrador.builder().idAdmin("ADM001").nombre("Admin").correo("admin@email.com")
+                .password("admin").build();
+        admin.agregarPermiso(Administrador.Permiso.GESTIONAR_TARIFAS);
+        Envio envio = Envio.builder()
+                .idEnvio("ENV001").origen(casa)
+                .destino(new Direccion.Builder("DIR002").conCiudad("Calarcá").conCoordenadas(4.52, -75.64).build())
+                .usuario(usuario).repartidor(repartidor).peso(2.5).largo(30).ancho(20).alto(10)
+                .descripcion("Ñandú con tildes").estado(Envio.EstadoEnvio.EN_RUTA).costo(15000)
+                .adicionales(ServicioAdicional.SEGURO.bit())
+                .fechaCreacion(LocalDateTime.of(2024, 10, 17, 8, 30, 15, 123))
+                .fechaEntregaEstimada(LocalDateTime.of(2024, 10, 18, 12, 0))
+                .build();
+        Pago pago = new Pago.Builder("PAG001").conMonto(15000).conEnvio(envio)
+                .conMetodoPago(usuario.getMetodosPago().get(0)).build();
+        pago.setEstado(Pago.EstadoPago.APROBADO);
+        Incidencia incidencia = new Incidencia.Builder("INC001").conDescripcion("Retraso").conEnvio(envio).build();
+
+        InstantaneaColumnar instantanea = new InstantaneaColumnar(42);
+        instantanea.agregarRepartidor(repartidor);
+        instantanea.agregarUsuario(usuario);
+        instantanea.agregarAdministrador(admin);
+        instantanea.agregarEnvio(envio);
+        instantanea.agregarPago(pago);
+        instantanea.agregarIncidencia(incidencia);
+        Path archivo = directorio.resolve("instantanea.snap");
+        instantanea.escribir(archivo);
+
+        Entidades cargadas = new Entidades();
+        assertEquals(42, InstantaneaColumnar.cargar(archivo, cargadas, cargadas));
+
+        Usuario usuarioLeido = cargadas.usuarios.get("USR001");
+        assertEquals("Juan Pérez", usuarioLeido.getNombreCompleto());
+        assertEquals("Calle 10", usuarioLeido.getDireccionesFrecuentes().get(0).getCalle());
+        assertInstanceOf(PagoNequi.class, usuarioLeido.getMetodosPago().get(0).getEstrategia());
+        assertTrue(cargadas.administradores.get("ADM001").tienePermiso(Administrador.Permiso.GESTIONAR_TARIFAS));
+        assertEquals(3, cargadas.repartidores.get("REP001").getEnviosAsignados());
+
+        Envio envioLeido = cargadas.envios.get("ENV001");
+        assertSame(usuarioLeido, envioLeido.getUsuario());
+        assertSame(cargadas.repartidores.get("REP001"), envioLeido.getRepartidor());
+        assertEquals("Ñandú con tildes", envioLeido.getDescripcion());
+        assertEquals(Envio.EstadoEnvio.EN_RUTA, envioLeido.getEstado());
+        assertEquals(6000.0, envioLeido.getVolumen());
+        assertEquals(ServicioAdicional.SEGURO.bit(), envioLeido.getAdicionales());
+        assertEquals(envio.getFechaCreacion(), envioLeido.getFechaCreacion());
+        assertEquals(-75.64, envioLeido.getDestino().getLongitud());
+
+        assertSame(envioLeido, cargadas.pagos.get("PAG001").getEnvio());
+        assertEquals(Pago.EstadoPago.APROBADO, cargadas.pagos.get("PAG001").getEstado());
+        assertSame(envioLeido, cargadas.incidencias.get("INC001").getEnvio());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una instantánea alterada")
+    void testRechazarInstantaneaAlterada() throws Exception {
+        InstantaneaColumnar instantanea = new InstantaneaColumnar(7);
+        instantanea.agregarRepartidor(Repartidor.builder().idRepartidor("REP001").nombre("Carlos")
+                .documento("123").telefono("300").zonaCobertura("Norte").build());
+        Path archivo = directorio.resolve("instantanea.snap");
+        instantanea.escribir(archivo);
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {'X'}), 30);
+        }
+        Entidades cargadas = new Entidades();
+        assertThrows(IOException.class, () -> InstantaneaColumnar.cargar(archivo, cargadas, cargadas));
+    }
+
+    /**
+     * Recibe las entidades cargadas y resuelve las referencias contra ellas.
+     */
+    private static class Entidades implements InstantaneaColumnar.Destino, ResolutorReferencias {
+        final Map<String, Repartidor> repartidores = new LinkedHashMap<>();
+        final Map<String, Usuario> usuarios = new LinkedHashMap<>();
+        final Map<String, Administrador> administradores = new LinkedHashMap<>();
+        final Map<String, Envio> envios = new LinkedHashMap<>();
+        final Map<String, Pago> pagos = new LinkedHashMap<>();
+        final Map<String, Incidencia> incidencias = new LinkedHashMap<>();
+
+        @Override
+        public void repartidor(Repartidor repartidor) {
+            repartidores.put(repartidor.getIdRepartidor(), repartidor);
+        }
+
+        @Override
+        public void usuario(Usuario usuario) {
+            usuarios.put(usuario.getIdUsuario(), usuario);
+        }
+
+        @Override
+        public void administrador(Administrador administrador) {
+            administradores.put(administrador.getIdAdmin(), administrador);
+        }
+
+        @Override
+        public void envio(Envio envio) {
+            envios.put(envio.getIdEnvio(), envio);
+        }
+
+        @Override
+        public void pago(Pago pago) {
+            pagos.put(pago.getIdPago(), pago);
+        }
+
+        @Override
+        public void incidencia(Incidencia incidencia) {
+            incidencias.put(incidencia.getIdIncidencia(), incidencia);
+        }
+
+        @Override
+        public Usuario buscarUsuario(String idUsuario) {
+            return usuarios.get(idUsuario);
+        }
+
+        @Override
+        public Repartidor buscarRepartidor(String idRepartidor) {
+            return repartidores.get(idRepartidor);
+        }
+
+        @Override
+        public Envio buscarEnvio(String idEnvio) {
+            return envios.get(idEnvio);
+        }
+    }
+}
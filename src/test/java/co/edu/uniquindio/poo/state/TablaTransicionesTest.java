@@ -0,0 +1,89 @@
+package co.edu.uniquindio.poo.state;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import co.edu.uniquindio.poo.model.Envio;
+import co.edu.uniquindio.poo.model.Usuario;
+import org.junit.jupiter.api.*;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para TablaTransiciones
+ * Verifica el ciclo de vida de un envío con objetos de estado compartidos y que
+ * los cambios directos no permitidos se reportan sin lanzar excepciones
+ */
+class TablaTransicionesTest {
+
+    @Test
+    @DisplayName("Debe recorrer el ciclo de vida con objetos de estado únicos derivados del enum")
+    void testCicloDeVida() {
+        Direccion direccion = new Direccion.Builder("DIR1").conCiudad("Armenia").build();
+        Envio envio = Envio.builder()
+                .idEnvio("ENV1")
+                .origen(direccion)
+                .destino(direccion)
+                .usuario(Usuario.builder().idUsuario("USR1").nombreCompleto("Ana").build())
+                .fechaEntregaEstimada(LocalDateTime.now())
+                .build();
+
+        assertSame(EstadoSolicitado.INSTANCIA, envio.getEstadoActual());
+        IllegalStateException error = assertThrows(IllegalStateException.class, envio::marcarEntregado);
+        assertEquals("No se puede entregar. Debe seguir: asignar -> iniciar ruta -> entregar", error.getMessage());
+        assertEquals(Envio.EstadoEnvio.SOLICITADO, envio.getEstado());
+
+        envio.asignarRepartidor();
+        envio.reportarProblema();
+        assertSame(EstadoIncidencia.INSTANCIA, envio.getEstadoActual());
+        envio.asignarRepartidor();
+        envio.iniciarEntrega();
+        envio.iniciarEntrega();
+        envio.marcarEntregado();
+        assertEquals(Envio.EstadoEnvio.ENTREGADO, envio.getEstado());
+        assertSame(EstadoEntregado.INSTANCIA, envio.getEstadoActual());
+        assertEquals("ENTREGADO", envio.getEstadoActual().getNombre());
+        assertThrows(IllegalStateException.class, envio::cancelarEnvio);
+
+        // El enum es la única fuente: cambiarlo cambia el objeto de estado
+        envio.setEstado(Envio.EstadoEnvio.EN_RUTA);
+        assertSame(EstadoEnRuta.INSTANCIA, envio.getEstadoActual());
+        for (Envio.EstadoEnvio estado : Envio.EstadoEnvio.values()) {
+            assertEquals(estado, EstadoEnvio.desde(estado).getEstado());
+        }
+        assertSame(EstadoSolicitado.INSTANCIA, EstadoEnvio.desde(null));
+    }
+
+    @Test
+    @DisplayName("Debe permitir solo los cambios directos alcanzables y dar el motivo de los demás")
+    void testCambiosDirectos() {
+        Set<String> permitidos = Set.of(
+                "SOLICITADO>ASIGNADO", "SOLICITADO>INCIDENCIA",
+                "ASIGNADO>EN_RUTA", "ASIGNADO>INCIDENCIA",
+                "EN_RUTA>ENTREGADO", "EN_RUTA>INCIDENCIA",
+                "INCIDENCIA>ASIGNADO");
+        for (Envio.EstadoEnvio origen : Envio.EstadoEnvio.values()) {
+            for (Envio.EstadoEnvio destino : Envio.EstadoEnvio.values()) {
+                Transicion transicion = TablaTransiciones.cambio(origen, destino);
+                assertSame(transicion, TablaTransiciones.cambio(origen, destino));
+                boolean esperado = origen == destino || permitidos.contains(origen + ">" + destino);
+                assertEquals(esperado, transicion.isPermitida(), origen + ">" + destino);
+                if (esperado) {
+                    assertEquals(destino, transicion.getDestino());
+                    assertEquals(origen != destino, transicion.cambiaEstado());
+                } else {
+                    assertEquals("No se permite pasar de " + origen + " a " + destino, transicion.getMensaje());
+                    assertFalse(transicion.cambiaEstado());
+                }
+            }
+        }
+
+        Set<Envio.EstadoEnvio> conIncidencia = EnumSet.noneOf(Envio.EstadoEnvio.class);
+        for (Envio.EstadoEnvio origen : Envio.EstadoEnvio.values()) {
+            if (TablaTransiciones.transicion(origen, EventoEnvio.REPORTAR_INCIDENCIA).isPermitida()) {
+                conIncidencia.add(origen);
+            }
+        }
+        assertEquals(EnumSet.complementOf(EnumSet.of(Envio.EstadoEnvio.ENTREGADO)), conIncidencia);
+    }
+}
@@ -0,0 +1,60 @@
+package co.edu.uniquindio.poo.utils;
+
+import co.edu.uniquindio.poo.model.Direccion;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test unitarios para ValidadorDatos
+ * Verifica que los recorridos de caracteres aceptan lo mismo que las expresiones
+ * regulares que reemplazan y que los errores se muestran con el texto original
+ */
+class ValidadorDatosTest {
+
+    private static final String[] ENTRADAS = {
+        "", " ", "ab", "Ana", "José Pérez", "Ñandú Gómez", "Ana3", "Ana_", "ana\n",
+        "1234567", "123456", "12345678901", "3001234567", "300123456", "4001234567", "30012345a7",
+        "300123456\n", "３001234567", "user@mail.com", "user@mail.co", "user@mail.c", "user@mail",
+        "u.s+e_r-1@sub.dominio.org", "@mail.com", "user@@mail.com", "user@.com", "user@a.com",
+        "user@mail..com", "user@mail.com.", "user@mail.c0m", "user@ma_il.com", "user mail@x.com",
+        "user@mail.com\n", "user@\n", "user@x ", "user@x y", "user@", "usér@mail.com", "a@b.cd"
+    };
+
+    @Test
+    @DisplayName("Debe aceptar exactamente lo que aceptan las expresiones regulares originales")
+    void testEquivalenciaConExpresionesRegulares() {
+        for (String entrada : ENTRADAS) {
+            assertEquals(entrada.matches("^[a-zA-ZáéíóúÁÉÍÓÚñÑ ]+$"), ValidadorDatos.esNombre(entrada), entrada);
+            assertEquals(entrada.matches("^[0-9]{7,10}$"), ValidadorDatos.esTelefono(entrada), entrada);
+            assertEquals(entrada.matches("^3\\d{9}$"), ValidadorDatos.esCelularColombiano(entrada), entrada);
+            assertEquals(entrada.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"),
+                    ValidadorDatos.esEmail(entrada), entrada);
+            assertEquals(entrada.matches("^[A-Za-z0-9+_.-]+@(.+)$"), ValidadorDatos.esEmailSimple(entrada), entrada);
+            assertEquals(entrada.trim().isEmpty(), ValidadorDatos.estaVacio(entrada), entrada);
+        }
+        assertFalse(ValidadorDatos.esEmail(null));
+        assertTrue(ValidadorDatos.estaVacio(null));
+    }
+
+    @Test
+    @DisplayName("Debe devolver cero errores con datos válidos y el texto original con datos inválidos")
+    void testValidarEnvio() {
+        Direccion origen = new Direccion.Builder("O").conCiudad("Armenia").conCoordenadas(4.53, -75.68).build();
+        Direccion destino = new Direccion.Builder("D").conCiudad("Calarcá").conCoordenadas(4.52, -75.64).build();
+
+        assertEquals(ValidadorDatos.SIN_ERRORES, ValidadorDatos.validarEnvio("Documentos", 2, 1000, 50000,
+                origen, destino, "María López", "3001234567", "maria@email.com"));
+
+        long errores = ValidadorDatos.validarEnvio(" ", 1500, 1000, -1, origen, origen,
+                "Ana3", "123", "correo");
+        assertTrue(CodigoValidacion.PESO_EXCEDIDO.presenteEn(errores));
+        assertFalse(CodigoValidacion.VOLUMEN_NO_POSITIVO.presenteEn(errores));
+        assertEquals("- La descripción del paquete es obligatoria\n"
+                + "- El peso máximo permitido es 1000 kg\n"
+                + "- El valor declarado no puede ser negativo\n"
+                + "- El origen y destino no pueden ser el mismo lugar\n"
+                + "- El nombre del destinatario solo puede contener letras y espacios\n"
+                + "- El teléfono debe tener entre 7 y 10 dígitos\n"
+                + "- El formato del email no es válido\n", CodigoValidacion.renderizar(errores));
+    }
+}